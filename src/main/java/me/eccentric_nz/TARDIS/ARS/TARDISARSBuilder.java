@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.ARS;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import me.eccentric_nz.TARDIS.TARDIS;
+import me.eccentric_nz.TARDIS.TARDISConstants;
+import me.eccentric_nz.TARDIS.database.QueryFactory;
+import me.eccentric_nz.TARDIS.database.ResultSetPlayerPrefs;
+import me.eccentric_nz.TARDIS.database.TARDISQuery;
+import me.eccentric_nz.TARDIS.database.TARDISRowMapper;
+import me.eccentric_nz.TARDIS.rooms.TARDISRoomData;
+import me.eccentric_nz.TARDIS.rooms.TARDISRoomRunnable;
+import me.eccentric_nz.TARDIS.rooms.TARDISWalls;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.json.JSONException;
+
+/**
+ * Carries out the build plans of Architectural Reconfigurations from a single
+ * repeating task.
+ *
+ * Each plan is worked through a step at a time. Jettisons clear their slot
+ * within the `room_budget` each tick, and rooms are handed to the room
+ * scheduler, the next room starting as soon as the one before it has
+ * finished. A plan waits while its player is offline, and is stored in the
+ * ars table after every step so that it is picked up again after a restart.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISARSBuilder implements Runnable {
+
+    private final TARDIS plugin;
+    private final QueryFactory qf;
+    private final LinkedHashMap<Integer, Build> builds = new LinkedHashMap<Integer, Build>();
+    private int task = -1;
+
+    public TARDISARSBuilder(TARDIS plugin) {
+        this.plugin = plugin;
+        this.qf = new QueryFactory(plugin);
+    }
+
+    /**
+     * Starts carrying out a build plan. If the TARDIS is already being
+     * reconfigured, the plan is added to the end of the one in progress.
+     *
+     * @param plan the plan
+     */
+    public void submit(TARDISARSPlan plan) {
+        Build build = builds.get(plan.getTardis_id());
+        if (build == null) {
+            builds.put(plan.getTardis_id(), new Build(plan));
+            plugin.state.trackARS.add(plan.getTardis_id());
+        } else {
+            build.plan.append(plan);
+        }
+        save(builds.get(plan.getTardis_id()).plan);
+        start();
+    }
+
+    /**
+     * Loads the plans that were still being carried out when the server
+     * stopped.
+     */
+    public void load() {
+        List<TARDISARSPlan> plans = TARDISQuery.list("ars", "tardis_id, player, plan", null, new TARDISRowMapper<TARDISARSPlan>() {
+            @Override
+            public TARDISARSPlan map(ResultSet rs) throws SQLException {
+                String plan = rs.getString("plan");
+                if (plan == null || plan.isEmpty()) {
+                    return null;
+                }
+                int id = rs.getInt("tardis_id");
+                try {
+                    return TARDISARSPlan.fromJSON(id, rs.getString("player"), plan);
+                } catch (JSONException e) {
+                    plugin.debug("Could not read the reconfiguration plan for TARDIS " + id + ", skipping it! " + e.getMessage());
+                } catch (IllegalArgumentException e) {
+                    plugin.debug("Could not read the reconfiguration plan for TARDIS " + id + ", skipping it! " + e.getMessage());
+                }
+                return null;
+            }
+        });
+        for (TARDISARSPlan plan : plans) {
+            builds.put(plan.getTardis_id(), new Build(plan));
+            plugin.state.trackARS.add(plan.getTardis_id());
+        }
+        if (plans.size() > 0) {
+            plugin.console.sendMessage(plugin.pluginName + "Resuming " + plans.size() + " architectural reconfigurations.");
+        }
+    }
+
+    /**
+     * Starts the repeating task if there are plans waiting. Called when a
+     * player joins, as their plan may have been waiting for them.
+     */
+    public void start() {
+        if (task < 0 && !builds.isEmpty()) {
+            task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, this, 1L, 1L);
+        }
+    }
+
+    /**
+     * Gets whether a TARDIS is being reconfigured.
+     *
+     * @param id the tardis_id
+     * @return true if a plan is being carried out
+     */
+    public boolean isBuilding(int id) {
+        return builds.containsKey(id);
+    }
+
+    @Override
+    public void run() {
+        long deadline = System.nanoTime() + Math.max(1, plugin.getConfig().getInt("room_budget")) * 1000L;
+        boolean waiting = true;
+        List<Build> finished = new ArrayList<Build>();
+        for (Build build : builds.values()) {
+            Player p = plugin.getServer().getPlayerExact(build.plan.getPlayer());
+            if (p == null && build.room < 0) {
+                // carry on when they come back
+                continue;
+            }
+            waiting = false;
+            if (advance(build, p, deadline)) {
+                finished.add(build);
+            }
+        }
+        for (Build build : finished) {
+            builds.remove(build.plan.getTardis_id());
+            plugin.state.trackARS.remove(build.plan.getTardis_id());
+        }
+        if (waiting || builds.isEmpty()) {
+            plugin.getServer().getScheduler().cancelTask(task);
+            task = -1;
+        }
+    }
+
+    /**
+     * Works through the steps of a plan until a room is growing or the
+     * deadline has passed.
+     *
+     * @return true if the plan is finished
+     */
+    private boolean advance(Build build, Player p, long deadline) {
+        TARDISARSPlan plan = build.plan;
+        while (!plan.isFinished()) {
+            TARDISARSPlan.Step step = plan.current();
+            if (step.isJettison()) {
+                if (!jettison(build, step, deadline)) {
+                    return false;
+                }
+            } else if (build.room > 0) {
+                if (plugin.roomScheduler.isGrowing(build.room)) {
+                    return false;
+                }
+                build.room = -1;
+            } else {
+                if (p == null) {
+                    return false;
+                }
+                build.room = grow(plan, step, p);
+                if (build.room > 0) {
+                    return false;
+                }
+            }
+            plan.next();
+            save(plan);
+            if (p != null && !step.isJettison() && !plan.isFinished()) {
+                p.sendMessage(plugin.pluginName + "Architectural reconfiguration: " + plan.getDone() + " of " + plan.getTotal() + " done.");
+            }
+            if (p == null || System.nanoTime() >= deadline) {
+                return plan.isFinished();
+            }
+        }
+        if (p != null) {
+            if (build.recovered > 0) {
+                p.sendMessage(plugin.pluginName + build.recovered + " Artron Energy recovered.");
+            }
+            p.sendMessage(plugin.pluginName + "Architectural reconfiguration complete!");
+        }
+        return true;
+    }
+
+    /**
+     * Clears a jettisoned slot, a block at a time until the deadline.
+     *
+     * @return true once the slot is clear
+     */
+    private boolean jettison(Build build, TARDISARSPlan.Step step, long deadline) {
+        World w = plugin.getServer().getWorld(step.getWorld());
+        if (w != null) {
+            do {
+                if (build.cleared == 4096) {
+                    break;
+                }
+                int i = build.cleared++;
+                w.getBlockAt(step.getX() + ((i >> 4) & 15), step.getY() + (i >> 8), step.getZ() + (i & 15)).setTypeId(0);
+            } while (System.nanoTime() < deadline);
+            if (build.cleared < 4096) {
+                return false;
+            }
+        }
+        build.cleared = 0;
+        // give them their energy!
+        if (step.getRoom() != TARDISARS.SLOT) {
+            String r = step.getRoom().toString();
+            int amount = Math.round((plugin.getArtronConfig().getInt("jettison") / 100F) * plugin.getRoomsConfig().getInt("rooms." + r + ".cost"));
+            HashMap<String, Object> set = new HashMap<String, Object>();
+            set.put("tardis_id", build.plan.getTardis_id());
+            qf.alterEnergyLevel("tardis", amount, set, null);
+            build.recovered += amount;
+            // if it is a secondary console room remove the controls
+            if (r.equals("BAKER") || r.equals("WOOD")) {
+                int secondary = (r.equals("BAKER")) ? 1 : 2;
+                HashMap<String, Object> del = new HashMap<String, Object>();
+                del.put("tardis_id", build.plan.getTardis_id());
+                del.put("secondary", secondary);
+                qf.doDelete("controls", del);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Starts growing a room, taking its cost unless it was paid for before a
+     * restart.
+     *
+     * @return the room scheduler's build id, or -1 if the room can't be grown
+     */
+    private int grow(TARDISARSPlan plan, TARDISARSPlan.Step step, Player p) {
+        World w = plugin.getServer().getWorld(step.getWorld());
+        String whichroom = step.getRoom().toString();
+        if (w == null || !plugin.room_schematics.containsKey(whichroom)) {
+            return -1;
+        }
+        HashMap<String, Object> wherepp = new HashMap<String, Object>();
+        wherepp.put("player", p.getName());
+        ResultSetPlayerPrefs rsp = new ResultSetPlayerPrefs(plugin, wherepp);
+        TARDISRoomData roomData = new TARDISRoomData();
+        roomData.setTardis_id(plan.getTardis_id());
+        // get middle data, default to orange wool if not set
+        int middle_id, floor_id;
+        byte middle_data, floor_data;
+        if (rsp.resultSet()) {
+            TARDISWalls tw = new TARDISWalls();
+            Integer[] wid_data = tw.blocks.get(rsp.getWall());
+            middle_id = wid_data[0].intValue();
+            middle_data = wid_data[1].byteValue();
+            Integer[] fid_data = tw.blocks.get(rsp.getFloor());
+            floor_id = fid_data[0].intValue();
+            floor_data = fid_data[1].byteValue();
+        } else {
+            middle_id = 35;
+            middle_data = 1;
+            floor_id = 35;
+            floor_data = 8;
+        }
+        roomData.setMiddle_id(middle_id);
+        roomData.setMiddle_data(middle_data);
+        roomData.setFloor_id(floor_id);
+        roomData.setFloor_data(floor_data);
+        // set y offset - this needs to be how many blocks above ground 0 of the 16x16x16 chunk the room starts
+        Location l = new Location(w, step.getX(), step.getY() + step.getRoom().getOffset(), step.getZ());
+        roomData.setDirection(TARDISConstants.COMPASS.SOUTH);
+        roomData.setLocation(l);
+        roomData.setX(1);
+        roomData.setZ(1);
+        roomData.setRoom(whichroom);
+        roomData.setSchematic(plugin.room_schematics.get(whichroom));
+        roomData.setDimensions(plugin.room_schematics.getDimensions(whichroom));
+        TARDISRoomRunnable runnable = new TARDISRoomRunnable(plugin, roomData, p);
+        int taskID = plugin.roomScheduler.add(runnable);
+        if (!step.isStarted()) {
+            // take their energy!
+            int amount = plugin.getRoomsConfig().getInt("rooms." + whichroom + ".cost");
+            HashMap<String, Object> set = new HashMap<String, Object>();
+            set.put("tardis_id", plan.getTardis_id());
+            qf.alterEnergyLevel("tardis", -amount, set, p);
+            step.setStarted(true);
+            save(plan);
+        }
+        p.sendMessage(plugin.pluginName + "To cancel growing this [" + whichroom + "] room use the command /tardis abort " + taskID);
+        return taskID;
+    }
+
+    private void save(TARDISARSPlan plan) {
+        HashMap<String, Object> set = new HashMap<String, Object>();
+        set.put("plan", plan.toJSON());
+        HashMap<String, Object> where = new HashMap<String, Object>();
+        where.put("tardis_id", plan.getTardis_id());
+        qf.doUpdate("ars", set, where);
+    }
+
+    /**
+     * A plan being carried out, and how far through its current step it is.
+     */
+    private static class Build {
+
+        final TARDISARSPlan plan;
+        int room = -1;
+        int cleared = 0;
+        int recovered = 0;
+
+        Build(TARDISARSPlan plan) {
+            this.plan = plan;
+        }
+    }
+}
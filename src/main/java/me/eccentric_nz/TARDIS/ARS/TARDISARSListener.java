@@ -540,25 +540,11 @@ public class TARDISARSListener implements Listener {
                     boolean changed = tap.compare3DArray(save_map_data.get(n).getData(), map_data.get(n).getData());
                     if (changed && tap.checkCosts(tap.getChanged(), tap.getJettison())) {
                         p.sendMessage(plugin.pluginName + "Architectural reconfiguration starting...");
-                        plugin.trackARS.add(ids.get(n));
-                        // do all jettisons first
+                        TARDISARSPlan plan = TARDISARSPlan.create(ids.get(n), n, tap.getChanged(), tap.getJettison());
                         if (tap.getJettison().size() > 0) {
                             p.sendMessage(plugin.pluginName + "Jettisoning " + tap.getJettison().size() + " rooms...");
-                            long del = 5L;
-                            for (Map.Entry<TARDISARSJettison, TARDISARS> map : tap.getJettison().entrySet()) {
-                                TARDISARSJettisonRunnable jr = new TARDISARSJettisonRunnable(plugin, map.getKey(), map.getValue(), ids.get(p.getName()), p);
-                                plugin.getServer().getScheduler().scheduleSyncDelayedTask(plugin, jr, del);
-                                del += 5L;
-                            }
-                        }
-                        // one every 40 seconds at default room_speed
-                        long period = 2400L * (Math.round(20 / plugin.getConfig().getDouble("room_speed")));
-                        long delay = 20L;
-                        for (Map.Entry<TARDISARSSlot, TARDISARS> map : tap.getChanged().entrySet()) {
-                            TARDISARSRunnable ar = new TARDISARSRunnable(plugin, map.getKey(), map.getValue(), p);
-                            plugin.getServer().getScheduler().scheduleSyncDelayedTask(plugin, ar, delay);
-                            delay += period;
                         }
+                        plugin.arsBuilder.submit(plan);
                     } else {
                         p.sendMessage(plugin.pluginName + tap.getError());
                         // reset map to the previous version
@@ -685,7 +671,7 @@ public class TARDISARSListener implements Listener {
 
     public boolean hasCondensables(String player, String room) {
         boolean hasRequired = true;
-        HashMap<String, Integer> roomBlocks = plugin.roomBlockCounts.get(room);
+        HashMap<String, Integer> roomBlocks = plugin.room_schematics.getBlockCounts(room);
         String wall = "ORANGE_WOOL";
         String floor = "LIGHT_GREY_WOOL";
         HashMap<String, Object> wherepp = new HashMap<String, Object>();
@@ -715,7 +701,7 @@ public class TARDISARSListener implements Listener {
             HashMap<String, Object> wherec = new HashMap<String, Object>();
             wherec.put("tardis_id", ids.get(player));
             wherec.put("block_data", bdata);
-            ResultSetCondenser rsc = new ResultSetCondenser(plugin, wherec, false);
+            ResultSetCondenser rsc = new ResultSetCondenser(plugin, wherec);
             if (rsc.resultSet()) {
                 if (rsc.getBlock_count() < required) {
                     hasRequired = false;
@@ -731,7 +717,7 @@ public class TARDISARSListener implements Listener {
         int id = 0;
         HashMap<String, Object> where = new HashMap<String, Object>();
         where.put("owner", p);
-        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+        ResultSetTardis rs = new ResultSetTardis(plugin, where);
         if (rs.resultSet()) {
             id = rs.getTardis_id();
         }
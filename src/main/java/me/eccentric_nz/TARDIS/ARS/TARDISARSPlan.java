@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.ARS;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * The build plan of an Architectural Reconfiguration - the rooms to jettison,
+ * then the rooms to grow, in the order they are done.
+ *
+ * Rooms are grouped by chunk (each ARS slot column is a chunk), and grown from
+ * the bottom level up within it. The plan is stored as JSON in the ars table
+ * as it goes, so that it carries on where it left off after a restart.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISARSPlan {
+
+    private final int tardis_id;
+    private final String player;
+    private final LinkedList<Step> steps = new LinkedList<Step>();
+    private int total;
+    private int done;
+
+    public TARDISARSPlan(int tardis_id, String player) {
+        this.tardis_id = tardis_id;
+        this.player = player;
+    }
+
+    /**
+     * Turns the changes found by TARDISARSProcessor.compare3DArray() into a
+     * build plan.
+     *
+     * @param tardis_id the id of the TARDIS being reconfigured
+     * @param player the name of the player reconfiguring it
+     * @param changed the slots to grow rooms in
+     * @param jettison the slots to jettison
+     * @return the plan
+     */
+    public static TARDISARSPlan create(int tardis_id, String player, Map<TARDISARSSlot, TARDISARS> changed, Map<TARDISARSJettison, TARDISARS> jettison) {
+        TARDISARSPlan plan = new TARDISARSPlan(tardis_id, player);
+        List<Step> jettisons = new ArrayList<Step>();
+        for (Map.Entry<TARDISARSJettison, TARDISARS> entry : jettison.entrySet()) {
+            TARDISARSJettison j = entry.getKey();
+            TARDISARS room = (entry.getValue() == null) ? TARDISARS.SLOT : entry.getValue();
+            jettisons.add(new Step(true, room, j.getChunk().getWorld().getName(), j.getX(), j.getY(), j.getZ()));
+        }
+        List<Step> rooms = new ArrayList<Step>();
+        for (Map.Entry<TARDISARSSlot, TARDISARS> entry : changed.entrySet()) {
+            TARDISARSSlot s = entry.getKey();
+            rooms.add(new Step(false, entry.getValue(), s.getChunk().getWorld().getName(), s.getX(), s.getY(), s.getZ()));
+        }
+        Collections.sort(jettisons, BY_CHUNK);
+        Collections.sort(rooms, BY_CHUNK);
+        plan.add(jettisons);
+        plan.add(rooms);
+        return plan;
+    }
+
+    /**
+     * Reads a plan stored in the ars table.
+     *
+     * @param tardis_id the id of the TARDIS being reconfigured
+     * @param player the name of the player reconfiguring it
+     * @param json the stored plan
+     * @return the plan
+     */
+    public static TARDISARSPlan fromJSON(int tardis_id, String player, String json) {
+        TARDISARSPlan plan = new TARDISARSPlan(tardis_id, player);
+        JSONObject o = new JSONObject(json);
+        plan.total = o.getInt("total");
+        plan.done = o.getInt("done");
+        JSONArray array = o.getJSONArray("steps");
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject s = array.getJSONObject(i);
+            Step step = new Step(s.getBoolean("jettison"), TARDISARS.valueOf(s.getString("room")), s.getString("world"), s.getInt("x"), s.getInt("y"), s.getInt("z"));
+            step.started = s.getBoolean("started");
+            plan.steps.add(step);
+        }
+        return plan;
+    }
+
+    /**
+     * Gets the plan as JSON to store in the ars table.
+     *
+     * @return the JSON string, or an empty string if the plan is finished
+     */
+    public String toJSON() {
+        if (steps.isEmpty()) {
+            return "";
+        }
+        JSONArray array = new JSONArray();
+        for (Step step : steps) {
+            JSONObject s = new JSONObject();
+            s.put("jettison", step.jettison);
+            s.put("room", step.room.toString());
+            s.put("world", step.world);
+            s.put("x", step.x);
+            s.put("y", step.y);
+            s.put("z", step.z);
+            s.put("started", step.started);
+            array.put(s);
+        }
+        JSONObject o = new JSONObject();
+        o.put("total", total);
+        o.put("done", done);
+        o.put("steps", array);
+        return o.toString();
+    }
+
+    /**
+     * Adds the steps of another plan for the same TARDIS to the end of this
+     * one.
+     *
+     * @param other the plan to add
+     */
+    public void append(TARDISARSPlan other) {
+        add(other.steps);
+    }
+
+    private void add(List<Step> more) {
+        steps.addAll(more);
+        total += more.size();
+    }
+
+    /**
+     * Gets the step being worked on.
+     *
+     * @return the step, or null if the plan is finished
+     */
+    public Step current() {
+        return steps.peek();
+    }
+
+    /**
+     * Moves on to the next step.
+     */
+    public void next() {
+        if (steps.poll() != null) {
+            done++;
+        }
+    }
+
+    public boolean isFinished() {
+        return steps.isEmpty();
+    }
+
+    public int getTardis_id() {
+        return tardis_id;
+    }
+
+    public String getPlayer() {
+        return player;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getDone() {
+        return done;
+    }
+
+    /**
+     * Orders steps by chunk, and by level within a chunk.
+     */
+    private static final Comparator<Step> BY_CHUNK = new Comparator<Step>() {
+        @Override
+        public int compare(Step a, Step b) {
+            int c = a.world.compareTo(b.world);
+            if (c == 0) {
+                c = compareInt(a.x >> 4, b.x >> 4);
+            }
+            if (c == 0) {
+                c = compareInt(a.z >> 4, b.z >> 4);
+            }
+            if (c == 0) {
+                c = compareInt(a.y, b.y);
+            }
+            return c;
+        }
+
+        private int compareInt(int a, int b) {
+            return (a < b) ? -1 : ((a == b) ? 0 : 1);
+        }
+    };
+
+    /**
+     * A room to jettison or grow.
+     */
+    public static class Step {
+
+        private final boolean jettison;
+        private final TARDISARS room;
+        private final String world;
+        private final int x, y, z;
+        private boolean started;
+
+        Step(boolean jettison, TARDISARS room, String world, int x, int y, int z) {
+            this.jettison = jettison;
+            this.room = room;
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        public boolean isJettison() {
+            return jettison;
+        }
+
+        public TARDISARS getRoom() {
+            return room;
+        }
+
+        public String getWorld() {
+            return world;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public int getZ() {
+            return z;
+        }
+
+        /**
+         * Gets whether the room has been paid for and started, so that it
+         * isn't paid for again when it is restarted.
+         *
+         * @return true if the room has been started
+         */
+        public boolean isStarted() {
+            return started;
+        }
+
+        public void setStarted(boolean started) {
+            this.started = started;
+        }
+    }
+}
@@ -156,7 +156,7 @@ public class TARDISARSProcessor {
             }
             HashMap<String, Object> where = new HashMap<String, Object>();
             where.put("tardis_id", id);
-            ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+            ResultSetTardis rs = new ResultSetTardis(plugin, where);
             if (rs.resultSet()) {
                 int energy = rs.getArtron_level();
                 // check available energy vs cost
@@ -184,7 +184,7 @@ public class TARDISARSProcessor {
     private Chunk getTARDISChunk(int id) {
         HashMap<String, Object> where = new HashMap<String, Object>();
         where.put("tardis_id", id);
-        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+        ResultSetTardis rs = new ResultSetTardis(plugin, where);
         if (rs.resultSet()) {
             String c = rs.getChunk();
             String[] data = c.split(":");
@@ -22,6 +22,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import me.eccentric_nz.TARDIS.achievement.TARDISAchievementCache;
+import me.eccentric_nz.TARDIS.artron.TARDISArtronRecharger;
 import me.eccentric_nz.TARDIS.builders.TARDISBuilderInner;
 import me.eccentric_nz.TARDIS.builders.TARDISBuilderPoliceBox;
 import me.eccentric_nz.TARDIS.chameleon.TARDISChameleonPreset;
@@ -37,16 +39,24 @@ import me.eccentric_nz.TARDIS.commands.TARDISRecipeCommands;
 import me.eccentric_nz.TARDIS.commands.TARDISRoomCommands;
 import me.eccentric_nz.TARDIS.commands.TARDISTextureCommands;
 import me.eccentric_nz.TARDIS.commands.TARDISTravelCommands;
+import me.eccentric_nz.TARDIS.database.TARDISControlRegistry;
+import me.eccentric_nz.TARDIS.database.TARDISDoorCache;
+import me.eccentric_nz.TARDIS.database.TARDISTravellerIndex;
+import me.eccentric_nz.TARDIS.database.TARDISSessionLoader;
 import me.eccentric_nz.TARDIS.database.TARDISControlsConverter;
 import me.eccentric_nz.TARDIS.database.TARDISDatabase;
+import me.eccentric_nz.TARDIS.database.TARDISDatabaseWriter;
 import me.eccentric_nz.TARDIS.destroyers.TARDISDestroyerInner;
+import me.eccentric_nz.TARDIS.destroyers.TARDISPruner;
 import me.eccentric_nz.TARDIS.destroyers.TARDISDestroyerPoliceBox;
 import me.eccentric_nz.TARDIS.files.TARDISBlockLoader;
+import me.eccentric_nz.TARDIS.files.TARDISCompiledSchematic;
 import me.eccentric_nz.TARDIS.files.TARDISConfiguration;
 import me.eccentric_nz.TARDIS.files.TARDISMakeRoomCSV;
 import me.eccentric_nz.TARDIS.files.TARDISMakeTardisCSV;
+import me.eccentric_nz.TARDIS.files.TARDISRoomSchematics;
 import me.eccentric_nz.TARDIS.files.TARDISUpdateChecker;
-import me.eccentric_nz.TARDIS.info.TARDISInfoMenu;
+import me.eccentric_nz.TARDIS.ARS.TARDISARSBuilder;
 import me.eccentric_nz.TARDIS.ARS.TARDISARSListener;
 import me.eccentric_nz.TARDIS.database.ResultSetPoliceBox;
 import me.eccentric_nz.TARDIS.listeners.TARDISAdminMenuListener;
@@ -79,6 +89,8 @@ import me.eccentric_nz.TARDIS.listeners.TARDISKeyboardListener;
 import me.eccentric_nz.TARDIS.listeners.TARDISLightningListener;
 import me.eccentric_nz.TARDIS.listeners.TARDISMinecartListener;
 import me.eccentric_nz.TARDIS.listeners.TARDISNPCListener;
+import me.eccentric_nz.TARDIS.listeners.TARDISPreLoginListener;
+import me.eccentric_nz.TARDIS.listeners.TARDISQuitListener;
 import me.eccentric_nz.TARDIS.listeners.TARDISRecipeListener;
 import me.eccentric_nz.TARDIS.listeners.TARDISRoomSeeder;
 import me.eccentric_nz.TARDIS.listeners.TARDISSaveSignListener;
@@ -92,28 +104,33 @@ import me.eccentric_nz.TARDIS.listeners.TARDISTimeLordDeathListener;
 import me.eccentric_nz.TARDIS.listeners.TARDISUpdateListener;
 import me.eccentric_nz.TARDIS.listeners.TARDISWorldResetListener;
 import me.eccentric_nz.TARDIS.rooms.TARDISCondenserData;
+import me.eccentric_nz.TARDIS.rooms.TARDISRoomScheduler;
 import me.eccentric_nz.TARDIS.thirdparty.MetricsLite;
 import me.eccentric_nz.TARDIS.thirdparty.Version;
 import me.eccentric_nz.TARDIS.travel.TARDISArea;
+import me.eccentric_nz.TARDIS.travel.TARDISAreaIndex;
+import me.eccentric_nz.TARDIS.travel.TARDISLandingSites;
 import me.eccentric_nz.TARDIS.utility.TARDISItemRecipes;
 import me.eccentric_nz.TARDIS.utility.TARDISCreeperChecker;
 import me.eccentric_nz.TARDIS.utility.TARDISFactionsChecker;
 import me.eccentric_nz.TARDIS.utility.TARDISMultiverseInventoriesChecker;
+import me.eccentric_nz.TARDIS.utility.TARDISGravityWells;
+import me.eccentric_nz.TARDIS.utility.TARDISProtectedBlocks;
+import me.eccentric_nz.TARDIS.utility.TARDISChunkPrefetcher;
+import me.eccentric_nz.TARDIS.utility.TARDISRetainedChunks;
 import me.eccentric_nz.TARDIS.utility.TARDISSounds;
+import me.eccentric_nz.TARDIS.utility.TARDISSessionState;
 import me.eccentric_nz.TARDIS.utility.TARDISTownyChecker;
 import me.eccentric_nz.TARDIS.utility.TARDISUtils;
 import me.eccentric_nz.TARDIS.utility.TARDISWorldBorderChecker;
 import me.eccentric_nz.TARDIS.utility.TARDISWorldGuardUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.Chunk;
 import org.bukkit.Material;
 import org.bukkit.OfflinePlayer;
-import org.bukkit.block.Block;
 import org.bukkit.command.ConsoleCommandSender;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
-import org.bukkit.block.Sign;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.PluginManager;
@@ -147,28 +164,18 @@ public class TARDIS extends JavaPlugin {
     public File plankSchematicFile = null;
     public File tomSchematicFile = null;
     public File customSchematicFile = null;
-    public File arsSchematicCSV = null;
-    public File budgetSchematicCSV = null;
-    public File biggerSchematicCSV = null;
-    public File deluxeSchematicCSV = null;
-    public File eleventhSchematicCSV = null;
-    public File redstoneSchematicCSV = null;
-    public File steampunkSchematicCSV = null;
-    public File plankSchematicCSV = null;
-    public File tomSchematicCSV = null;
-    public File customSchematicCSV = null;
     public File quotesfile = null;
-    public String[][][] arsschematic;
-    public String[][][] budgetschematic;
-    public String[][][] biggerschematic;
-    public String[][][] deluxeschematic;
-    public String[][][] eleventhschematic;
-    public String[][][] redstoneschematic;
-    public String[][][] steampunkschematic;
-    public String[][][] plankschematic;
-    public String[][][] tomschematic;
-    public String[][][] customschematic;
-    public HashMap<String, String[][][]> room_schematics = new HashMap<String, String[][][]>();
+    public TARDISCompiledSchematic arsschematic;
+    public TARDISCompiledSchematic budgetschematic;
+    public TARDISCompiledSchematic biggerschematic;
+    public TARDISCompiledSchematic deluxeschematic;
+    public TARDISCompiledSchematic eleventhschematic;
+    public TARDISCompiledSchematic redstoneschematic;
+    public TARDISCompiledSchematic steampunkschematic;
+    public TARDISCompiledSchematic plankschematic;
+    public TARDISCompiledSchematic tomschematic;
+    public TARDISCompiledSchematic customschematic;
+    public TARDISRoomSchematics room_schematics = new TARDISRoomSchematics(this);
     public short[] arsdimensions = new short[3];
     public short[] budgetdimensions = new short[3];
     public short[] biggerdimensions = new short[3];
@@ -179,7 +186,6 @@ public class TARDIS extends JavaPlugin {
     public short[] plankdimensions = new short[3];
     public short[] tomdimensions = new short[3];
     public short[] customdimensions = new short[3];
-    public HashMap<String, short[]> room_dimensions = new HashMap<String, short[]>();
     public TARDISUtils utils = new TARDISUtils(this);
     public TARDISCommands tardisCommand;
     public TARDISAdminCommands tardisAdminCommand;
@@ -193,42 +199,22 @@ public class TARDIS extends JavaPlugin {
     public TARDISWorldBorderChecker borderchk;
     public TARDISFactionsChecker factionschk;
     public PluginManager pm = Bukkit.getServer().getPluginManager();
-    public HashMap<String, String> trackPlayers = new HashMap<String, String>();
-    public HashMap<String, Integer> trackBinder = new HashMap<String, Integer>();
-    public HashMap<String, String> trackChat = new HashMap<String, String>();
-    public HashMap<String, String> trackName = new HashMap<String, String>();
-    public HashMap<String, String> trackBlock = new HashMap<String, String>();
-    public HashMap<String, String> trackEnd = new HashMap<String, String>();
-    public HashMap<String, String> trackPerm = new HashMap<String, String>();
-    public HashMap<String, String> trackDest = new HashMap<String, String>();
-    public HashMap<String, String> trackRoomSeed = new HashMap<String, String>();
-    public HashMap<String, String> trackJettison = new HashMap<String, String>();
-    public HashMap<String, String> trackSecondary = new HashMap<String, String>();
-    public HashMap<String, Double[]> trackGravity = new HashMap<String, Double[]>();
-    public HashMap<Integer, String> trackRescue = new HashMap<Integer, String>();
-    public HashMap<Integer, Integer> trackDamage = new HashMap<Integer, Integer>();
-    public HashMap<Integer, Integer> tardisHasDestination = new HashMap<Integer, Integer>();
-    public HashMap<String, Block> trackExterminate = new HashMap<String, Block>();
-    public HashMap<String, Long> trackSetTime = new HashMap<String, Long>();
-    public HashMap<String, TARDISInfoMenu> trackInfoMenu = new HashMap<String, TARDISInfoMenu>();
-    public List<String> trackRecipeView = new ArrayList<String>();
-    public List<String> trackReset = new ArrayList<String>();
-    public List<String> trackFarming = new ArrayList<String>();
-    public List<Integer> trackMinecart = new ArrayList<Integer>();
-    public List<Integer> trackSubmarine = new ArrayList<Integer>();
-    public List<Integer> trackARS = new ArrayList<Integer>();
-    public ArrayList<Integer> tardisMaterialising = new ArrayList<Integer>();
-    public ArrayList<Integer> tardisDematerialising = new ArrayList<Integer>();
-    public List<Chunk> tardisChunkList = new ArrayList<Chunk>();
-    public List<Chunk> roomChunkList = new ArrayList<Chunk>();
-    public HashMap<String, Double[]> gravityUpList = new HashMap<String, Double[]>();
-    public List<String> gravityDownList = new ArrayList<String>();
-    public HashMap<String, Sign> trackSign = new HashMap<String, Sign>();
-    public HashMap<String, Double[]> gravityNorthList = new HashMap<String, Double[]>();
-    public HashMap<String, Double[]> gravityWestList = new HashMap<String, Double[]>();
-    public HashMap<String, Double[]> gravitySouthList = new HashMap<String, Double[]>();
-    public HashMap<String, Double[]> gravityEastList = new HashMap<String, Double[]>();
-    public HashMap<String, Integer> protectBlockMap = new HashMap<String, Integer>();
+    public TARDISSessionState state = new TARDISSessionState(this);
+    public TARDISProtectedBlocks protectBlocks = new TARDISProtectedBlocks();
+    public TARDISRetainedChunks retainedChunks = new TARDISRetainedChunks();
+    public TARDISChunkPrefetcher prefetcher = new TARDISChunkPrefetcher(this);
+    public TARDISGravityWells gravityWells = new TARDISGravityWells();
+    public TARDISControlRegistry controlRegistry = new TARDISControlRegistry(this);
+    public TARDISDoorCache doorCache = new TARDISDoorCache(this);
+    public TARDISRoomScheduler roomScheduler = new TARDISRoomScheduler(this);
+    public TARDISARSBuilder arsBuilder = new TARDISARSBuilder(this);
+    public TARDISLandingSites landingSites = new TARDISLandingSites(this);
+    public TARDISAreaIndex areaIndex = new TARDISAreaIndex(this);
+    public TARDISTravellerIndex travellers = new TARDISTravellerIndex(this);
+    public TARDISArtronRecharger artronRecharger = new TARDISArtronRecharger(this);
+    public TARDISAchievementCache achievements = new TARDISAchievementCache(this);
+    public TARDISSessionLoader sessions = new TARDISSessionLoader(this);
+    public TARDISPruner pruner = new TARDISPruner(this);
     public HashMap<String, TARDISCondenserData> roomCondenserData = new HashMap<String, TARDISCondenserData>();
     public List<Integer> npcIDs = new ArrayList<Integer>();
     public ArrayList<String> quote;
@@ -241,7 +227,6 @@ public class TARDIS extends JavaPlugin {
     public ConsoleCommandSender console;
     public String pluginName;
     public boolean myspawn = false;
-    public HashMap<String, HashMap<String, Integer>> roomBlockCounts = new HashMap<String, HashMap<String, Integer>>();
     public String tp;
     public FileConfiguration achivement_config;
     private FileConfiguration artron_config;
@@ -312,6 +297,18 @@ public class TARDIS extends JavaPlugin {
         if (!getConfig().getBoolean("conversion_done")) {
             new TARDISControlsConverter(this).convertControls();
         }
+        controlRegistry.load();
+        areaIndex.load();
+        travellers.load();
+        artronRecharger.load();
+        achievements.start();
+        state.start();
+        arsBuilder.load();
+        pruner.load();
+        // from here on database writes are made on the writer thread
+        if (service.getWriter() != null) {
+            service.getWriter().start();
+        }
         tp = getServerTP();
         //new TARDISPasteBox(this).loadBoxes();
         if (bukkitversion.compareTo(preIMversion) >= 0) {
@@ -336,6 +333,10 @@ public class TARDIS extends JavaPlugin {
     @Override
     public void onDisable() {
         saveConfig();
+        achievements.flush();
+        if (service.getWriter() != null) {
+            service.getWriter().stop();
+        }
         closeDatabase();
         resetTime();
     }
@@ -347,6 +348,7 @@ public class TARDIS extends JavaPlugin {
         try {
             String path = getDataFolder() + File.separator + "TARDIS.db";
             service.setConnection(path);
+            service.setWriter(new TARDISDatabaseWriter(this, service.openConnection()));
             service.createTables();
         } catch (Exception e) {
             console.sendMessage(pluginName + "Connection and Tables Error: " + e);
@@ -358,6 +360,9 @@ public class TARDIS extends JavaPlugin {
      */
     private void closeDatabase() {
         try {
+            if (service.getStatements() != null) {
+                service.getStatements().close();
+            }
             service.connection.close();
         } catch (Exception e) {
             console.sendMessage(pluginName + "Could not close database connection: " + e);
@@ -417,7 +422,9 @@ public class TARDIS extends JavaPlugin {
         pm.registerEvents(new TARDISChunkListener(this), this);
         pm.registerEvents(new TARDISScannerListener(this), this);
         pm.registerEvents(new TARDISTimeLordDeathListener(this), this);
+        pm.registerEvents(new TARDISPreLoginListener(this), this);
         pm.registerEvents(new TARDISJoinListener(this), this);
+        pm.registerEvents(new TARDISQuitListener(this), this);
         pm.registerEvents(new TARDISKeyboardListener(this), this);
         if (bukkitversion.compareTo(preIMversion) >= 0) {
             pm.registerEvents(new TARDISTerminalListener(this), this);
@@ -486,8 +493,8 @@ public class TARDIS extends JavaPlugin {
      * quotes from the quotes file.
      */
     private void loadFiles() {
-        tardisCSV.loadCSV();
-        roomCSV.loadCSV();
+        tardisCSV.loadSchematics();
+        roomCSV.loadSchematics();
         quotesfile = tardisCSV.copy(getDataFolder() + File.separator + TARDISConstants.QUOTES_FILE_NAME, getResource(TARDISConstants.QUOTES_FILE_NAME));
     }
 
@@ -714,7 +721,7 @@ public class TARDIS extends JavaPlugin {
      * Resets any player who is 'Temporally Located' back to normal time.
      */
     private void resetTime() {
-        for (String key : trackSetTime.keySet()) {
+        for (String key : state.trackSetTime.keySet()) {
             Player p = this.getServer().getPlayer(key);
             if (p != null) {
                 p.resetPlayerTime();
@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.achievement;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import me.eccentric_nz.TARDIS.TARDIS;
+import me.eccentric_nz.TARDIS.database.QueryFactory;
+import me.eccentric_nz.TARDIS.database.TARDISQuery;
+import me.eccentric_nz.TARDIS.database.TARDISRowMapper;
+
+/**
+ * Holds the progress of the achievements that players have started but not
+ * yet completed.
+ *
+ * A player's progress is read from the achievements table when they join (or
+ * the first time it is needed), and is then changed in memory only. Changed
+ * progress is written back when the player leaves, every five minutes, and
+ * when the plugin is disabled. Completing an achievement is written at once.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISAchievementCache {
+
+    private final TARDIS plugin;
+    private final HashMap<String, HashMap<String, Progress>> players = new HashMap<String, HashMap<String, Progress>>();
+    private int task = -1;
+
+    public TARDISAchievementCache(TARDIS plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Starts the repeating task that writes changed progress.
+     */
+    public void start() {
+        if (task < 0) {
+            task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, new Runnable() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            }, 6000L, 6000L);
+        }
+    }
+
+    /**
+     * Reads a player's achievement progress.
+     *
+     * @param player the player's name
+     */
+    public void load(String player) {
+        load(player, read(player));
+    }
+
+    /**
+     * Uses a player's achievement progress that has already been read.
+     *
+     * @param player the player's name
+     * @param rows the progress, from read()
+     */
+    public void load(String player, List<Progress> rows) {
+        HashMap<String, Progress> started = new HashMap<String, Progress>();
+        for (Progress p : rows) {
+            started.put(p.name, p);
+        }
+        players.put(key(player), started);
+    }
+
+    /**
+     * Reads a player's achievement progress from the database, without
+     * keeping it. Safe to call off the main thread.
+     *
+     * @param player the player's name
+     * @return the progress of the achievements they have started
+     */
+    public List<Progress> read(String player) {
+        HashMap<String, Object> where = new HashMap<String, Object>();
+        where.put("player", player);
+        where.put("completed", 0);
+        return TARDISQuery.list("achievements", "name, amount", where, new TARDISRowMapper<Progress>() {
+            @Override
+            public Progress map(ResultSet rs) throws SQLException {
+                return new Progress(rs.getString("name"), rs.getString("amount"));
+            }
+        });
+    }
+
+    /**
+     * Gets a player's progress with an achievement.
+     *
+     * @param player the player's name
+     * @param name the achievement name
+     * @return the progress, or null if they haven't started the achievement
+     */
+    Progress get(String player, String name) {
+        HashMap<String, Progress> started = players.get(key(player));
+        if (started == null) {
+            load(player);
+            started = players.get(key(player));
+        }
+        return started.get(name);
+    }
+
+    /**
+     * Records that a player has started an achievement, after its row has
+     * been inserted.
+     *
+     * @param player the player's name
+     * @param name the achievement name
+     * @param amount the amount it was started with
+     */
+    public void started(String player, String name, String amount) {
+        HashMap<String, Progress> started = players.get(key(player));
+        if (started != null) {
+            started.put(name, new Progress(name, amount));
+        }
+    }
+
+    /**
+     * Records that a player has completed an achievement, writing it at once.
+     *
+     * @param player the player's name
+     * @param p the progress of the completed achievement
+     */
+    void completed(String player, Progress p) {
+        HashMap<String, Progress> started = players.get(key(player));
+        if (started != null) {
+            started.remove(p.name);
+        }
+        HashMap<String, Object> set = new HashMap<String, Object>();
+        if (p.dirty) {
+            set.put("amount", p.getAmount());
+        }
+        set.put("completed", 1);
+        new QueryFactory(plugin).doUpdate("achievements", set, where(player, p.name));
+    }
+
+    /**
+     * Writes a player's changed progress and forgets it. Called when the
+     * player leaves the server.
+     *
+     * @param player the player's name
+     */
+    public void unload(String player) {
+        HashMap<String, Progress> started = players.remove(key(player));
+        if (started != null) {
+            flush(player, started);
+        }
+    }
+
+    /**
+     * Writes everyone's changed progress.
+     */
+    public void flush() {
+        for (Map.Entry<String, HashMap<String, Progress>> entry : players.entrySet()) {
+            flush(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void flush(String player, HashMap<String, Progress> started) {
+        QueryFactory qf = new QueryFactory(plugin);
+        for (Progress p : started.values()) {
+            if (p.dirty) {
+                HashMap<String, Object> set = new HashMap<String, Object>();
+                set.put("amount", p.getAmount());
+                qf.doUpdate("achievements", set, where(player, p.name));
+                p.dirty = false;
+            }
+        }
+    }
+
+    private HashMap<String, Object> where(String player, String name) {
+        HashMap<String, Object> where = new HashMap<String, Object>();
+        where.put("player", player);
+        where.put("name", name);
+        where.put("completed", 0);
+        return where;
+    }
+
+    private String key(String player) {
+        return player.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * A player's progress with an achievement - a count for achievements
+     * that add up an amount, or the set of things they have done for ones
+     * that need so many different things (farm mobs and rooms).
+     */
+    public static class Progress {
+
+        final String name;
+        private final String amount;
+        private int count = -1;
+        private LinkedHashSet<String> seen;
+        boolean dirty = false;
+
+        Progress(String name, String amount) {
+            this.name = name;
+            this.amount = (amount == null) ? "" : amount;
+        }
+
+        int getCount() {
+            if (count < 0) {
+                count = (amount.isEmpty()) ? 0 : TARDIS.plugin.utils.parseNum(amount);
+            }
+            return count;
+        }
+
+        void add(int n) {
+            count = getCount() + n;
+            dirty = true;
+        }
+
+        LinkedHashSet<String> getSeen() {
+            if (seen == null) {
+                seen = new LinkedHashSet<String>();
+                for (String s : amount.split(":")) {
+                    if (!s.isEmpty()) {
+                        seen.add(s);
+                    }
+                }
+            }
+            return seen;
+        }
+
+        boolean add(String s) {
+            if (getSeen().add(s)) {
+                dirty = true;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Gets the progress as it is stored in the amount column.
+         */
+        String getAmount() {
+            if (seen == null) {
+                return (count < 0) ? amount : String.valueOf(count);
+            }
+            StringBuilder sb = new StringBuilder();
+            for (String s : seen) {
+                sb.append(s).append(":");
+            }
+            return (sb.length() == 0) ? "" : sb.substring(0, sb.length() - 1);
+        }
+    }
+}
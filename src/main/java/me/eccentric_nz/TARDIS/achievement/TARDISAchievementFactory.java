@@ -16,13 +16,10 @@
  */
 package me.eccentric_nz.TARDIS.achievement;
 
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.database.QueryFactory;
-import me.eccentric_nz.TARDIS.database.ResultSetAchievements;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
@@ -50,32 +47,30 @@ public class TARDISAchievementFactory {
         this.size = size;
     }
 
+    /**
+     * Adds to a player's progress with an achievement, and awards it if they
+     * have done enough. Progress is kept by the achievement cache, so this
+     * doesn't read the database (and only writes to it if the achievement is
+     * completed or started automatically).
+     *
+     * @param obj the amount to add (an Integer), or the thing done (a String)
+     * for achievements that need so many different things
+     */
     public void doAchievement(Object obj) {
-        QueryFactory qf = new QueryFactory(plugin);
         // have they started the achievement?
-        HashMap<String, Object> wherea = new HashMap<String, Object>();
-        wherea.put("player", player.getName());
-        wherea.put("name", name);
-        wherea.put("completed", 0);
-        ResultSetAchievements rsa = new ResultSetAchievements(plugin, wherea, false);
-        HashMap<String, Object> seta = new HashMap<String, Object>();
-        if (rsa.resultSet()) {
-            HashMap<String, Object> wherem = new HashMap<String, Object>();
-            wherem.put("a_id", rsa.getA_id());
+        TARDISAchievementCache.Progress progress = plugin.achievements.get(player.getName(), name);
+        if (progress != null) {
             boolean achieved = false;
             // check if the achievement has been reached
-            List<String> data = null;
             if (obj.getClass().equals(String.class)) {
                 // farm mobs & rooms - have they got this type before?
-                data = Arrays.asList(rsa.getAmount().split(":"));
-                if ((data.size() + 1) == size) {
+                if (progress.add((String) obj) && progress.getSeen().size() >= size) {
                     achieved = true;
                 }
             } else {
                 int req = plugin.getAchivementConfig().getInt(name + ".required");
-                int have = plugin.utils.parseNum(rsa.getAmount());
-                int sum = have + (Integer) obj;
-                if (sum >= req) {
+                progress.add((Integer) obj);
+                if (progress.getCount() >= req) {
                     achieved = true;
                 }
             }
@@ -96,27 +91,18 @@ public class TARDISAchievementFactory {
                     }
                 }
                 // set achievement as done
-                seta.put("completed", 1);
-                qf.doUpdate("achievements", seta, wherem);
-            } else {
-                if (obj.getClass().equals(String.class)) {
-                    if (data != null && !data.contains((String) obj)) {
-                        seta.put("amount", rsa.getAmount() + ":" + obj);
-                        qf.doUpdate("achievements", seta, wherem);
-                    }
-                } else {
-                    seta.put("amount", plugin.utils.parseNum(rsa.getAmount()) + (Integer) obj);
-                    qf.doUpdate("achievements", seta, wherem);
-                }
+                plugin.achievements.completed(player.getName(), progress);
             }
         } else {
             // is it an auto achievement?
             if (plugin.getAchivementConfig().getBoolean(name + ".auto")) {
                 // insert a new record
+                HashMap<String, Object> seta = new HashMap<String, Object>();
                 seta.put("player", player.getName());
                 seta.put("name", name);
                 seta.put("amount", obj);
-                qf.doInsert("achievements", seta);
+                new QueryFactory(plugin).queueInsert("achievements", seta);
+                plugin.achievements.started(player.getName(), name, obj.toString());
             }
         }
     }
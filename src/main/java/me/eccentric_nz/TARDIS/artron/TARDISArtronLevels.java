@@ -18,7 +18,6 @@ package me.eccentric_nz.TARDIS.artron;
 
 import java.util.HashMap;
 import me.eccentric_nz.TARDIS.TARDIS;
-import me.eccentric_nz.TARDIS.database.QueryFactory;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
 import org.bukkit.entity.Player;
 
@@ -39,22 +38,14 @@ public class TARDISArtronLevels {
     }
 
     /**
-     * Starts a repeating task to recharge the TARDIS. The task is started each
-     * time the player exits the TARDIS after travelling. If the TARDIS moves
-     * away from the recharge location the task is cancelled.
+     * Starts recharging the TARDIS. This is called each time the handbrake is
+     * engaged after travelling. If the TARDIS is not at a recharge location,
+     * or moves away from it, it isn't recharged.
      *
      * @param id the unique TARDIS database key
      */
     public void recharge(int id) {
-        QueryFactory qf = new QueryFactory(plugin);
-        HashMap<String, Object> set = new HashMap<String, Object>();
-        set.put("recharging", 1);
-        HashMap<String, Object> where = new HashMap<String, Object>();
-        where.put("tardis_id", id);
-        qf.doUpdate("tardis", set, where);
-        TARDISArtronRunnable runnable = new TARDISArtronRunnable(plugin, id);
-        int taskID = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, runnable, 480L, 480L);
-        runnable.setTask(taskID);
+        plugin.artronRecharger.add(id);
     }
 
     /**
@@ -69,7 +60,7 @@ public class TARDISArtronLevels {
     public boolean checkLevel(int id, int required, Player p) {
         HashMap<String, Object> where = new HashMap<String, Object>();
         where.put("tardis_id", id);
-        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+        ResultSetTardis rs = new ResultSetTardis(plugin, where);
         if (!rs.resultSet()) {
             return false;
         }
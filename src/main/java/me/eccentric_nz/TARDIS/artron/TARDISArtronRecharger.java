@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.artron;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import me.eccentric_nz.TARDIS.TARDIS;
+import me.eccentric_nz.TARDIS.database.QueryFactory;
+import me.eccentric_nz.TARDIS.database.ResultSetTardis;
+import me.eccentric_nz.TARDIS.database.TARDISQuery;
+import me.eccentric_nz.TARDIS.database.TARDISRowMapper;
+import me.eccentric_nz.TARDIS.utility.TARDISBlockKey;
+import me.eccentric_nz.TARDIS.utility.TARDISLongObjectMap;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * Recharges all the TARDISes parked at a recharger from a single repeating
+ * task.
+ *
+ * Whether a Police Box is near a recharger is worked out once, when it starts
+ * charging, from a grid of the rechargers in config.yml. After that each cycle
+ * only checks the energy level of each charging TARDIS, and tops them all up
+ * with one query. A TARDIS stops charging when it is full or when its save
+ * location changes.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISArtronRecharger implements Runnable {
+
+    private final TARDIS plugin;
+    private final QueryFactory qf;
+    private final LinkedHashMap<Integer, TARDISBlockKey> charging = new LinkedHashMap<Integer, TARDISBlockKey>();
+    private final HashMap<String, TARDISLongObjectMap<List<TARDISBlockKey>>> rechargers = new HashMap<String, TARDISLongObjectMap<List<TARDISBlockKey>>>();
+    private int cell = 16;
+    private double distance;
+    private int task = -1;
+
+    public TARDISArtronRecharger(TARDIS plugin) {
+        this.plugin = plugin;
+        this.qf = new QueryFactory(plugin);
+    }
+
+    /**
+     * Loads the rechargers, and starts charging the TARDISes that were still
+     * charging when the server stopped.
+     */
+    public void load() {
+        loadRechargers();
+        HashMap<String, Object> where = new HashMap<String, Object>();
+        where.put("recharging", 1);
+        List<Integer> ids = TARDISQuery.list("tardis", "tardis_id", where, new TARDISRowMapper<Integer>() {
+            @Override
+            public Integer map(ResultSet rs) throws SQLException {
+                return rs.getInt("tardis_id");
+            }
+        });
+        for (int id : ids) {
+            add(id);
+        }
+    }
+
+    /**
+     * Reads the recharger locations from config.yml. Called again whenever a
+     * recharger is added or removed, and TARDISes that are no longer near a
+     * recharger stop charging.
+     */
+    public void loadRechargers() {
+        rechargers.clear();
+        distance = plugin.getArtronConfig().getDouble("recharge_distance");
+        cell = Math.max(16, (int) Math.ceil(distance));
+        if (plugin.getConfig().isConfigurationSection("rechargers")) {
+            Set<String> therechargers = plugin.getConfig().getConfigurationSection("rechargers").getKeys(false);
+            for (String s : therechargers) {
+                String w = plugin.getConfig().getString("rechargers." + s + ".world");
+                int x = plugin.getConfig().getInt("rechargers." + s + ".x");
+                int y = plugin.getConfig().getInt("rechargers." + s + ".y");
+                int z = plugin.getConfig().getInt("rechargers." + s + ".z");
+                TARDISLongObjectMap<List<TARDISBlockKey>> grid = rechargers.get(w);
+                if (grid == null) {
+                    grid = new TARDISLongObjectMap<List<TARDISBlockKey>>();
+                    rechargers.put(w, grid);
+                }
+                long key = TARDISBlockKey.packChunk(floorDiv(x, cell), floorDiv(z, cell));
+                List<TARDISBlockKey> list = grid.get(key);
+                if (list == null) {
+                    list = new ArrayList<TARDISBlockKey>(1);
+                    grid.put(key, list);
+                }
+                list.add(new TARDISBlockKey(w, x, y, z));
+            }
+        }
+        for (Integer id : new ArrayList<Integer>(charging.keySet())) {
+            if (!isNearCharger(charging.get(id))) {
+                stop(id);
+            }
+        }
+    }
+
+    /**
+     * Starts recharging a TARDIS if its Police Box is near a recharger. The
+     * TARDIS is only charged once however many times this is called.
+     *
+     * @param id the unique TARDIS database key
+     */
+    public void add(int id) {
+        HashMap<String, Object> where = new HashMap<String, Object>();
+        where.put("tardis_id", id);
+        ResultSetTardis rs = new ResultSetTardis(plugin, where);
+        TARDISBlockKey pb = (rs.resultSet()) ? TARDISBlockKey.fromString(rs.getSave()) : null;
+        if (pb == null || !isNearCharger(pb)) {
+            if (rs.isRecharging()) {
+                stop(id);
+            }
+            return;
+        }
+        if (!charging.containsKey(id) && !rs.isRecharging()) {
+            HashMap<String, Object> set = new HashMap<String, Object>();
+            set.put("recharging", 1);
+            qf.doUpdate("tardis", set, where);
+        }
+        charging.put(id, pb);
+        if (task < 0) {
+            task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, this, 480L, 480L);
+        }
+    }
+
+    /**
+     * Stops recharging a TARDIS whose save location has changed.
+     *
+     * @param id the unique TARDIS database key
+     * @param save the new save location string
+     */
+    public void moved(int id, String save) {
+        TARDISBlockKey pb = charging.get(id);
+        if (pb == null) {
+            return;
+        }
+        TARDISBlockKey bk = TARDISBlockKey.fromString(save);
+        if (bk == null || !bk.getWorld().equals(pb.getWorld()) || bk.getKey() != pb.getKey()) {
+            stop(id);
+        }
+    }
+
+    /**
+     * Gets whether a TARDIS is recharging.
+     *
+     * @param id the unique TARDIS database key
+     * @return true if the TARDIS is parked at a recharger and not yet full
+     */
+    public boolean isCharging(int id) {
+        return charging.containsKey(id);
+    }
+
+    /**
+     * Gets the number of TARDISes that are recharging.
+     *
+     * @return the number of charging TARDISes
+     */
+    public int size() {
+        return charging.size();
+    }
+
+    /**
+     * Recharges the TARDISes, by one percent of a full charge each cycle.
+     */
+    @Override
+    public void run() {
+        int full = plugin.getArtronConfig().getInt("full_charge");
+        List<Integer> topup = new ArrayList<Integer>();
+        for (Integer id : new ArrayList<Integer>(charging.keySet())) {
+            HashMap<String, Object> where = new HashMap<String, Object>();
+            where.put("tardis_id", id);
+            ResultSetTardis rs = new ResultSetTardis(plugin, where);
+            if (!rs.resultSet() || rs.getArtron_level() > full - 1) {
+                stop(id);
+                continue;
+            }
+            topup.add(id);
+            // strike lightning to the Police Box torch location
+            if (plugin.getConfig().getBoolean("strike_lightning")) {
+                TARDISBlockKey pb = charging.get(id);
+                World w = plugin.getServer().getWorld(pb.getWorld());
+                if (w != null) {
+                    w.strikeLightningEffect(new Location(w, pb.getX(), pb.getY() + 3, pb.getZ()));
+                }
+            }
+        }
+        if (!topup.isEmpty()) {
+            // calculate percentage
+            int onepercent = Math.round(full / 100.0F);
+            qf.alterEnergyLevels(onepercent, topup);
+        }
+    }
+
+    private void stop(int id) {
+        charging.remove(id);
+        HashMap<String, Object> set = new HashMap<String, Object>();
+        set.put("recharging", 0);
+        HashMap<String, Object> where = new HashMap<String, Object>();
+        where.put("tardis_id", id);
+        qf.doUpdate("tardis", set, where);
+        if (charging.isEmpty() && task >= 0) {
+            plugin.getServer().getScheduler().cancelTask(task);
+            task = -1;
+        }
+    }
+
+    /**
+     * Checks whether a Police Box location is within recharge_distance of a
+     * recharger.
+     */
+    private boolean isNearCharger(TARDISBlockKey pb) {
+        TARDISLongObjectMap<List<TARDISBlockKey>> grid = rechargers.get(pb.getWorld());
+        if (grid == null) {
+            return false;
+        }
+        double squared = distance * distance;
+        int r = (int) Math.ceil(distance);
+        for (int cx = floorDiv(pb.getX() - r, cell); cx <= floorDiv(pb.getX() + r, cell); cx++) {
+            for (int cz = floorDiv(pb.getZ() - r, cell); cz <= floorDiv(pb.getZ() + r, cell); cz++) {
+                List<TARDISBlockKey> list = grid.get(TARDISBlockKey.packChunk(cx, cz));
+                if (list == null) {
+                    continue;
+                }
+                for (TARDISBlockKey rc : list) {
+                    double dx = pb.getX() - rc.getX();
+                    double dy = pb.getY() - rc.getY();
+                    double dz = pb.getZ() - rc.getZ();
+                    if (dx * dx + dy * dy + dz * dz <= squared) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int floorDiv(int a, int b) {
+        return (int) Math.floor((double) a / b);
+    }
+}
@@ -16,7 +16,8 @@
  */
 package me.eccentric_nz.TARDIS.artron;
 
-import java.util.HashMap;
+import java.util.EnumMap;
+import org.bukkit.Material;
 
 /**
  * A TARDIS has fifteen Power Rooms that contain all of the machinery that
@@ -27,251 +28,289 @@ import java.util.HashMap;
  */
 public class TARDISCondensables {
 
-    public HashMap<String, Integer> condensables;
+    /**
+     * The Artron Energy value of each material, built once when the class is
+     * loaded.
+     */
+    private static final EnumMap<Material, Integer> condensables = new EnumMap<Material, Integer>(Material.class);
 
-    public TARDISCondensables() {
-        condensables = new HashMap<String, Integer>();
-        condensables.put("ANVIL", 200);
-        condensables.put("APPLE", 10);
-        condensables.put("ARROW", 4);
-        condensables.put("BED", 68);
-        condensables.put("BEDROCK", 100);
-        condensables.put("BEEF", 3);
-        condensables.put("BIRCH_WOOD_STAIRS", 1);
-        condensables.put("BLAZE_ROD", 200);
-        condensables.put("BOAT", 3);
-        condensables.put("BONE", 2);
-        condensables.put("BOOK", 45);
-        condensables.put("BOOKSHELF", 140);
-        condensables.put("BOW", 15);
-        condensables.put("BOWL", 1);
-        condensables.put("BREAD", 30);
-        condensables.put("BREWING_STAND", 200);
-        condensables.put("BREWING_STAND_ITEM", 200);
-        condensables.put("BRICK", 21);
-        condensables.put("BRICK_STAIRS", 21);
-        condensables.put("BROWN_MUSHROOM", 2);
-        condensables.put("BUCKET", 22);
-        condensables.put("CACTUS", 10);
-        condensables.put("CAKE", 180);
-        condensables.put("CARPET", 13);
-        condensables.put("CARROT", 9);
-        condensables.put("CARROT_ITEM", 9);
-        condensables.put("CAULDRON", 154);
-        condensables.put("CAULDRON_ITEM", 154);
-        condensables.put("CHEST", 4);
-        condensables.put("CLAY", 12);
-        condensables.put("CLAY_BALL", 3);
-        condensables.put("CLAY_BRICK", 5);
-        condensables.put("COAL", 15);
-        condensables.put("COAL_BLOCK", 135);
-        condensables.put("COAL_ORE", 15);
-        condensables.put("COBBLESTONE", 1);
-        condensables.put("COBBLESTONE_STAIRS", 2);
-        condensables.put("COBBLE_WALL", 2);
-        condensables.put("COCOA", 1);
-        condensables.put("COMPASS", 22);
-        condensables.put("COOKED_BEEF", 7);
-        condensables.put("COOKED_CHICKEN", 7);
-        condensables.put("COOKED_FISH", 7);
-        condensables.put("COOKIE", 3);
-        condensables.put("DAYLIGHT_DETECTOR", 130);
-        condensables.put("DIAMOND", 200);
-        condensables.put("DIAMOND_AXE", 650);
-        condensables.put("DIAMOND_BLOCK", 2000);
-        condensables.put("DIAMOND_BOOTS", 850);
-        condensables.put("DIAMOND_CHESTPLATE", 1750);
-        condensables.put("DIAMOND_HELMET", 1000);
-        condensables.put("DIAMOND_HOE", 400);
-        condensables.put("DIAMOND_LEGGINGS", 1500);
-        condensables.put("DIAMOND_PICKAXE", 650);
-        condensables.put("DIAMOND_SPADE", 210);
-        condensables.put("DIAMOND_SWORD", 420);
-        condensables.put("DIODE", 110);
-        condensables.put("DIODE_BLOCK_OFF", 110);
-        condensables.put("DIODE_BLOCK_ON", 110);
-        condensables.put("DIRT", 1);
-        condensables.put("DISPENSER", 58);
-        condensables.put("DOUBLE_STEP", 1);
-        condensables.put("DROPPER", 58);
-        condensables.put("EGG", 1);
-        condensables.put("EMERALD", 200);
-        condensables.put("EMERALD_BLOCK", 2000);
-        condensables.put("ENCHANTMENT_TABLE", 1365);
-        condensables.put("ENDER_STONE", 2);
-        condensables.put("EYE_OF_ENDER", 200);
-        condensables.put("FEATHER", 3);
-        condensables.put("FENCE", 1);
-        condensables.put("FENCE_GATE", 5);
-        condensables.put("FISHING_ROD", 10);
-        condensables.put("FLINT", 2);
-        condensables.put("FLOWER_POT_ITEM", 15);
-        condensables.put("FURNACE", 9);
-        condensables.put("GLASS", 30);
-        condensables.put("GLOWSTONE", 40);
-        condensables.put("GLOWSTONE_DUST", 10);
-        condensables.put("GOLDEN_APPLE", 100);
-        condensables.put("GOLDEN_CARROT", 100);
-        condensables.put("GOLD_AXE", 16);
-        condensables.put("GOLD_BLOCK", 450);
-        condensables.put("GOLD_BOOTS", 16);
-        condensables.put("GOLD_CHESTPLATE", 17);
-        condensables.put("GOLD_HELMET", 16);
-        condensables.put("GOLD_HOE", 16);
-        condensables.put("GOLD_INGOT", 105);
-        condensables.put("GOLD_LEGGINGS", 16);
-        condensables.put("GOLD_PICKAXE", 16);
-        condensables.put("GOLD_PLATE", 205);
-        condensables.put("GOLD_RECORD", 100);
-        condensables.put("GOLD_SPADE", 16);
-        condensables.put("GOLD_SWORD", 16);
-        condensables.put("GRASS", 1);
-        condensables.put("GRAVEL", 1);
-        condensables.put("GREEN_RECORD", 100);
-        condensables.put("GRILLED_PORK", 7);
-        condensables.put("HARD_CLAY", 12);
-        condensables.put("HAY_BLOCK", 81);
-        condensables.put("HOPPER", 110);
-        condensables.put("INK_SACK", 10);
-        condensables.put("IRON_AXE", 22);
-        condensables.put("IRON_BLOCK", 190);
-        condensables.put("IRON_BOOTS", 44);
-        condensables.put("IRON_CHESTPLATE", 44);
-        condensables.put("IRON_DOOR", 132);
-        condensables.put("IRON_FENCE", 8);
-        condensables.put("IRON_HELMET", 44);
-        condensables.put("IRON_HOE", 22);
-        condensables.put("IRON_INGOT", 22);
-        condensables.put("IRON_LEGGINGS", 44);
-        condensables.put("IRON_PICKAXE", 26);
-        condensables.put("IRON_PLATE", 44);
-        condensables.put("IRON_SPADE", 26);
-        condensables.put("IRON_SWORD", 24);
-        condensables.put("JACK_O_LANTERN", 56);
-        condensables.put("JUNGLE_WOOD_STAIRS", 1);
-        condensables.put("JUKEBOX", 208);
-        condensables.put("LADDER", 1);
-        condensables.put("LAPIS_BLOCK", 950);
-        condensables.put("LAVA_BUCKET", 40);
-        condensables.put("LEASH", 70);
-        condensables.put("LEATHER", 10);
-        condensables.put("LEATHER_BOOTS", 42);
-        condensables.put("LEATHER_CHESTPLATE", 85);
-        condensables.put("LEATHER_HELMET", 52);
-        condensables.put("LEATHER_LEGGINGS", 75);
-        condensables.put("LEAVES", 1);
-        condensables.put("LEVER", 1);
-        condensables.put("LOG", 2);
-        condensables.put("MELON_SEEDS", 2);
-        condensables.put("MILK_BUCKET", 40);
-        condensables.put("MINECART", 23);
-        condensables.put("MOSSY_COBBLESTONE", 90);
-        condensables.put("MYCEL", 1);
-        condensables.put("MUSHROOM_SOUP", 5);
-        condensables.put("NETHERRACK", 2);
-        condensables.put("NETHER_BRICK", 4);
-        condensables.put("NETHER_BRICK_ITEM", 4);
-        condensables.put("NETHER_BRICK_STAIRS", 21);
-        condensables.put("NETHER_FENCE", 10);
-        condensables.put("NETHER_STALK", 2);
-        condensables.put("NETHER_WARTS", 2);
-        condensables.put("NOTE_BLOCK", 40);
-        condensables.put("OBSIDIAN", 130);
-        condensables.put("PAINTING", 25);
-        condensables.put("PAPER", 10);
-        condensables.put("PISTON_BASE", 60);
-        condensables.put("PISTON_STICKY_BASE", 110);
-        condensables.put("POISONOUS_POTATO", 1);
-        condensables.put("PORK", 3);
-        condensables.put("POTATO", 9);
-        condensables.put("POTATO_ITEM", 9);
-        condensables.put("POWERED_MINECART", 32);
-        condensables.put("POWERED_RAIL", 650);
-        condensables.put("PUMPKIN", 50);
-        condensables.put("PUMPKIN_PIE", 60);
-        condensables.put("PUMPKIN_SEEDS", 2);
-        condensables.put("QUARTZ", 15);
-        condensables.put("QUARTZ_BLOCK", 60);
-        condensables.put("QUARTZ_ORE", 15);
-        condensables.put("QUARTZ_STAIRS", 22);
-        condensables.put("RAILS", 22);
-        condensables.put("RAW_BEEF", 5);
-        condensables.put("RAW_CHICKEN", 5);
-        condensables.put("RAW_FISH", 5);
-        condensables.put("REDSTONE", 32);
-        condensables.put("REDSTONE_BLOCK", 288);
-        condensables.put("REDSTONE_COMPARATOR", 110);
-        condensables.put("REDSTONE_COMPARATOR_OFF", 110);
-        condensables.put("REDSTONE_COMPARATOR_ON", 110);
-        condensables.put("REDSTONE_LAMP_OFF", 160);
-        condensables.put("REDSTONE_TORCH_OFF", 32);
-        condensables.put("REDSTONE_TORCH_ON", 32);
-        condensables.put("REDSTONE_WIRE", 32);
-        condensables.put("RED_MUSHROOM", 2);
-        condensables.put("RED_ROSE", 2);
-        condensables.put("ROTTEN_FLESH", 1);
-        condensables.put("SADDLE", 100);
-        condensables.put("SAND", 1);
-        condensables.put("SANDSTONE", 3);
-        condensables.put("SANDSTONE_STAIRS", 18);
-        condensables.put("SAPLING", 2);
-        condensables.put("SEEDS", 2);
-        condensables.put("SHEARS", 44);
-        condensables.put("SIGN", 2);
-        condensables.put("SLIME_BALL", 50);
-        condensables.put("SMOOTH_BRICK", 4);
-        condensables.put("SMOOTH_STAIRS", 24);
-        condensables.put("SNOWBALL", 1);
-        condensables.put("SNOW_BALL", 1);
-        condensables.put("SNOW_BLOCK", 4);
-        condensables.put("SOIL", 1);
-        condensables.put("SOUL_SAND", 2);
-        condensables.put("SPIDER_EYE", 10);
-        condensables.put("SPONGE", 80);
-        condensables.put("SPRUCE_WOOD_STAIRS", 1);
-        condensables.put("STAINED_CLAY", 15);
-        condensables.put("STEP", 2);
-        condensables.put("STICK", 1);
-        condensables.put("STONE", 30);
-        condensables.put("STONE_AXE", 3);
-        condensables.put("STONE_BUTTON", 6);
-        condensables.put("STONE_HOE", 3);
-        condensables.put("STONE_PICKAXE", 4);
-        condensables.put("STONE_PLATE", 6);
-        condensables.put("STONE_SLAB", 3);
-        condensables.put("STONE_SPADE", 2);
-        condensables.put("STONE_SWORD", 3);
-        condensables.put("STORAGE_MINECART", 30);
-        condensables.put("STRING", 5);
-        condensables.put("SUGAR", 10);
-        condensables.put("SUGAR_CANE", 10);
-        condensables.put("SULPHUR", 20);
-        condensables.put("THIN_GLASS", 5);
-        condensables.put("TNT", 100);
-        condensables.put("TORCH", 4);
-        condensables.put("TRAP_DOOR", 6);
-        condensables.put("TRAPPED_CHEST", 30);
-        condensables.put("TRIPWIRE", 2);
-        condensables.put("TRIPWIRE_HOOK", 25);
-        condensables.put("VINE", 1);
-        condensables.put("WALL_SIGN", 1);
-        condensables.put("WATCH", 6);
-        condensables.put("WATER_BUCKET", 40);
-        condensables.put("WATER_LILY", 1);
-        condensables.put("WHEAT", 9);
-        condensables.put("WOOD", 1);
-        condensables.put("WOOD_AXE", 2);
-        condensables.put("WOOD_BUTTON", 1);
-        condensables.put("WOOD_DOOR", 3);
-        condensables.put("WOOD_HOE", 2);
-        condensables.put("WOOD_PICKAXE", 2);
-        condensables.put("WOOD_PLATE", 1);
-        condensables.put("WOOD_SPADE", 1);
-        condensables.put("WOOD_STAIRS", 1);
-        condensables.put("WOOD_STEP", 1);
-        condensables.put("WOOD_SWORD", 1);
-        condensables.put("WOOL", 20);
-        condensables.put("WORKBENCH", 3);
-        condensables.put("YELLOW_FLOWER", 2);
+    static {
+        put("ANVIL", 200);
+        put("APPLE", 10);
+        put("ARROW", 4);
+        put("BED", 68);
+        put("BEDROCK", 100);
+        put("BEEF", 3);
+        put("BIRCH_WOOD_STAIRS", 1);
+        put("BLAZE_ROD", 200);
+        put("BOAT", 3);
+        put("BONE", 2);
+        put("BOOK", 45);
+        put("BOOKSHELF", 140);
+        put("BOW", 15);
+        put("BOWL", 1);
+        put("BREAD", 30);
+        put("BREWING_STAND", 200);
+        put("BREWING_STAND_ITEM", 200);
+        put("BRICK", 21);
+        put("BRICK_STAIRS", 21);
+        put("BROWN_MUSHROOM", 2);
+        put("BUCKET", 22);
+        put("CACTUS", 10);
+        put("CAKE", 180);
+        put("CARPET", 13);
+        put("CARROT", 9);
+        put("CARROT_ITEM", 9);
+        put("CAULDRON", 154);
+        put("CAULDRON_ITEM", 154);
+        put("CHEST", 4);
+        put("CLAY", 12);
+        put("CLAY_BALL", 3);
+        put("CLAY_BRICK", 5);
+        put("COAL", 15);
+        put("COAL_BLOCK", 135);
+        put("COAL_ORE", 15);
+        put("COBBLESTONE", 1);
+        put("COBBLESTONE_STAIRS", 2);
+        put("COBBLE_WALL", 2);
+        put("COCOA", 1);
+        put("COMPASS", 22);
+        put("COOKED_BEEF", 7);
+        put("COOKED_CHICKEN", 7);
+        put("COOKED_FISH", 7);
+        put("COOKIE", 3);
+        put("DAYLIGHT_DETECTOR", 130);
+        put("DIAMOND", 200);
+        put("DIAMOND_AXE", 650);
+        put("DIAMOND_BLOCK", 2000);
+        put("DIAMOND_BOOTS", 850);
+        put("DIAMOND_CHESTPLATE", 1750);
+        put("DIAMOND_HELMET", 1000);
+        put("DIAMOND_HOE", 400);
+        put("DIAMOND_LEGGINGS", 1500);
+        put("DIAMOND_PICKAXE", 650);
+        put("DIAMOND_SPADE", 210);
+        put("DIAMOND_SWORD", 420);
+        put("DIODE", 110);
+        put("DIODE_BLOCK_OFF", 110);
+        put("DIODE_BLOCK_ON", 110);
+        put("DIRT", 1);
+        put("DISPENSER", 58);
+        put("DOUBLE_STEP", 1);
+        put("DROPPER", 58);
+        put("EGG", 1);
+        put("EMERALD", 200);
+        put("EMERALD_BLOCK", 2000);
+        put("ENCHANTMENT_TABLE", 1365);
+        put("ENDER_STONE", 2);
+        put("EYE_OF_ENDER", 200);
+        put("FEATHER", 3);
+        put("FENCE", 1);
+        put("FENCE_GATE", 5);
+        put("FISHING_ROD", 10);
+        put("FLINT", 2);
+        put("FLOWER_POT_ITEM", 15);
+        put("FURNACE", 9);
+        put("GLASS", 30);
+        put("GLOWSTONE", 40);
+        put("GLOWSTONE_DUST", 10);
+        put("GOLDEN_APPLE", 100);
+        put("GOLDEN_CARROT", 100);
+        put("GOLD_AXE", 16);
+        put("GOLD_BLOCK", 450);
+        put("GOLD_BOOTS", 16);
+        put("GOLD_CHESTPLATE", 17);
+        put("GOLD_HELMET", 16);
+        put("GOLD_HOE", 16);
+        put("GOLD_INGOT", 105);
+        put("GOLD_LEGGINGS", 16);
+        put("GOLD_PICKAXE", 16);
+        put("GOLD_PLATE", 205);
+        put("GOLD_RECORD", 100);
+        put("GOLD_SPADE", 16);
+        put("GOLD_SWORD", 16);
+        put("GRASS", 1);
+        put("GRAVEL", 1);
+        put("GREEN_RECORD", 100);
+        put("GRILLED_PORK", 7);
+        put("HARD_CLAY", 12);
+        put("HAY_BLOCK", 81);
+        put("HOPPER", 110);
+        put("INK_SACK", 10);
+        put("IRON_AXE", 22);
+        put("IRON_BLOCK", 190);
+        put("IRON_BOOTS", 44);
+        put("IRON_CHESTPLATE", 44);
+        put("IRON_DOOR", 132);
+        put("IRON_FENCE", 8);
+        put("IRON_HELMET", 44);
+        put("IRON_HOE", 22);
+        put("IRON_INGOT", 22);
+        put("IRON_LEGGINGS", 44);
+        put("IRON_PICKAXE", 26);
+        put("IRON_PLATE", 44);
+        put("IRON_SPADE", 26);
+        put("IRON_SWORD", 24);
+        put("JACK_O_LANTERN", 56);
+        put("JUNGLE_WOOD_STAIRS", 1);
+        put("JUKEBOX", 208);
+        put("LADDER", 1);
+        put("LAPIS_BLOCK", 950);
+        put("LAVA_BUCKET", 40);
+        put("LEASH", 70);
+        put("LEATHER", 10);
+        put("LEATHER_BOOTS", 42);
+        put("LEATHER_CHESTPLATE", 85);
+        put("LEATHER_HELMET", 52);
+        put("LEATHER_LEGGINGS", 75);
+        put("LEAVES", 1);
+        put("LEVER", 1);
+        put("LOG", 2);
+        put("MELON_SEEDS", 2);
+        put("MILK_BUCKET", 40);
+        put("MINECART", 23);
+        put("MOSSY_COBBLESTONE", 90);
+        put("MYCEL", 1);
+        put("MUSHROOM_SOUP", 5);
+        put("NETHERRACK", 2);
+        put("NETHER_BRICK", 4);
+        put("NETHER_BRICK_ITEM", 4);
+        put("NETHER_BRICK_STAIRS", 21);
+        put("NETHER_FENCE", 10);
+        put("NETHER_STALK", 2);
+        put("NETHER_WARTS", 2);
+        put("NOTE_BLOCK", 40);
+        put("OBSIDIAN", 130);
+        put("PAINTING", 25);
+        put("PAPER", 10);
+        put("PISTON_BASE", 60);
+        put("PISTON_STICKY_BASE", 110);
+        put("POISONOUS_POTATO", 1);
+        put("PORK", 3);
+        put("POTATO", 9);
+        put("POTATO_ITEM", 9);
+        put("POWERED_MINECART", 32);
+        put("POWERED_RAIL", 650);
+        put("PUMPKIN", 50);
+        put("PUMPKIN_PIE", 60);
+        put("PUMPKIN_SEEDS", 2);
+        put("QUARTZ", 15);
+        put("QUARTZ_BLOCK", 60);
+        put("QUARTZ_ORE", 15);
+        put("QUARTZ_STAIRS", 22);
+        put("RAILS", 22);
+        put("RAW_BEEF", 5);
+        put("RAW_CHICKEN", 5);
+        put("RAW_FISH", 5);
+        put("REDSTONE", 32);
+        put("REDSTONE_BLOCK", 288);
+        put("REDSTONE_COMPARATOR", 110);
+        put("REDSTONE_COMPARATOR_OFF", 110);
+        put("REDSTONE_COMPARATOR_ON", 110);
+        put("REDSTONE_LAMP_OFF", 160);
+        put("REDSTONE_TORCH_OFF", 32);
+        put("REDSTONE_TORCH_ON", 32);
+        put("REDSTONE_WIRE", 32);
+        put("RED_MUSHROOM", 2);
+        put("RED_ROSE", 2);
+        put("ROTTEN_FLESH", 1);
+        put("SADDLE", 100);
+        put("SAND", 1);
+        put("SANDSTONE", 3);
+        put("SANDSTONE_STAIRS", 18);
+        put("SAPLING", 2);
+        put("SEEDS", 2);
+        put("SHEARS", 44);
+        put("SIGN", 2);
+        put("SLIME_BALL", 50);
+        put("SMOOTH_BRICK", 4);
+        put("SMOOTH_STAIRS", 24);
+        put("SNOWBALL", 1);
+        put("SNOW_BALL", 1);
+        put("SNOW_BLOCK", 4);
+        put("SOIL", 1);
+        put("SOUL_SAND", 2);
+        put("SPIDER_EYE", 10);
+        put("SPONGE", 80);
+        put("SPRUCE_WOOD_STAIRS", 1);
+        put("STAINED_CLAY", 15);
+        put("STEP", 2);
+        put("STICK", 1);
+        put("STONE", 30);
+        put("STONE_AXE", 3);
+        put("STONE_BUTTON", 6);
+        put("STONE_HOE", 3);
+        put("STONE_PICKAXE", 4);
+        put("STONE_PLATE", 6);
+        put("STONE_SLAB", 3);
+        put("STONE_SPADE", 2);
+        put("STONE_SWORD", 3);
+        put("STORAGE_MINECART", 30);
+        put("STRING", 5);
+        put("SUGAR", 10);
+        put("SUGAR_CANE", 10);
+        put("SULPHUR", 20);
+        put("THIN_GLASS", 5);
+        put("TNT", 100);
+        put("TORCH", 4);
+        put("TRAP_DOOR", 6);
+        put("TRAPPED_CHEST", 30);
+        put("TRIPWIRE", 2);
+        put("TRIPWIRE_HOOK", 25);
+        put("VINE", 1);
+        put("WALL_SIGN", 1);
+        put("WATCH", 6);
+        put("WATER_BUCKET", 40);
+        put("WATER_LILY", 1);
+        put("WHEAT", 9);
+        put("WOOD", 1);
+        put("WOOD_AXE", 2);
+        put("WOOD_BUTTON", 1);
+        put("WOOD_DOOR", 3);
+        put("WOOD_HOE", 2);
+        put("WOOD_PICKAXE", 2);
+        put("WOOD_PLATE", 1);
+        put("WOOD_SPADE", 1);
+        put("WOOD_STAIRS", 1);
+        put("WOOD_STEP", 1);
+        put("WOOD_SWORD", 1);
+        put("WOOL", 20);
+        put("WORKBENCH", 3);
+        put("YELLOW_FLOWER", 2);
+    }
+
+    /**
+     * Adds a material to the table. Names that aren't a Material in this
+     * version of Bukkit are left out.
+     */
+    private static void put(String name, int value) {
+        Material m = Material.getMaterial(name);
+        if (m != null) {
+            condensables.put(m, value);
+        }
+    }
+
+    /**
+     * Checks whether a material can be condensed.
+     *
+     * @param m the material
+     * @return true if the material has an Artron Energy value
+     */
+    public static boolean isCondensable(Material m) {
+        return m != null && condensables.containsKey(m);
+    }
+
+    /**
+     * Gets the Artron Energy value of one of a material.
+     *
+     * @param m the material
+     * @return the value, or 0 if the material can't be condensed
+     */
+    public static int getValue(Material m) {
+        Integer value = (m == null) ? null : condensables.get(m);
+        return (value == null) ? 0 : value;
+    }
+
+    private TARDISCondensables() {
     }
 }
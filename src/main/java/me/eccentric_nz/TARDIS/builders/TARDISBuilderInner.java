@@ -24,8 +24,9 @@ import java.util.List;
 import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
-import me.eccentric_nz.TARDIS.database.QueryFactory;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
+import me.eccentric_nz.TARDIS.database.TARDISBuildSession;
+import me.eccentric_nz.TARDIS.files.TARDISCompiledSchematic;
 import me.eccentric_nz.tardischunkgenerator.TARDISChunkGenerator;
 import org.bukkit.ChatColor;
 import org.bukkit.Chunk;
@@ -72,7 +73,7 @@ public class TARDISBuilderInner {
      * @param middle_data the data bit associated with the middle_id parameter.
      */
     public void buildInner(TARDISConstants.SCHEMATIC schm, World world, int dbID, Player p, int middle_id, byte middle_data) {
-        String[][][] s;
+        TARDISCompiledSchematic s;
         short[] d;
         int level, row, col, id, x, z, startx, startz, resetx, resetz, cx, cy, cz, rid, multiplier = 1, j = 2;
         boolean below = (!plugin.getConfig().getBoolean("create_worlds") && !plugin.getConfig().getBoolean("default_world"));
@@ -117,7 +118,7 @@ public class TARDISBuilderInner {
         short l = d[2];
         byte data;
         short damage = 0;
-        String tmp, replacedBlocks;
+        String replacedBlocks;
         HashMap<Block, Byte> postDoorBlocks = new HashMap<Block, Byte>();
         HashMap<Block, Byte> postTorchBlocks = new HashMap<Block, Byte>();
         HashMap<Block, Byte> postSignBlocks = new HashMap<Block, Byte>();
@@ -166,30 +167,29 @@ public class TARDISBuilderInner {
             starty += 1;
         }
         Location wg2 = new Location(world, startx + (w - 1), starty, startz + (l - 1));
-        // update chunks list in DB
-        QueryFactory qf = new QueryFactory(plugin);
-        for (Chunk c : chunkList) {
-            HashMap<String, Object> set = new HashMap<String, Object>();
-            set.put("tardis_id", dbID);
-            set.put("world", world.getName());
-            set.put("x", c.getX());
-            set.put("z", c.getZ());
-            qf.doInsert("chunks", set);
-        }
-        // reset start positions and do over
-        startx = resetx;
-        starty = (below) ? 15 : 64;
-        startz = resetz;
+        // collect the rows for this TARDIS and write them together once it is built
+        TARDISBuildSession session = new TARDISBuildSession(plugin);
+        try {
+            // update chunks list in DB
+            for (Chunk c : chunkList) {
+                HashMap<String, Object> set = new HashMap<String, Object>();
+                set.put("tardis_id", dbID);
+                set.put("world", world.getName());
+                set.put("x", c.getX());
+                set.put("z", c.getZ());
+                session.insert("chunks", set);
+            }
+            // reset start positions and do over
+            startx = resetx;
+            starty = (below) ? 15 : 64;
+            startz = resetz;
 
-        for (level = 0; level < h; level++) {
-            for (row = 0; row < w; row++) {
-                for (col = 0; col < l; col++) {
-                    tmp = s[level][row][col];
-                    if (!tmp.equals("-")) {
-                        if (tmp.contains(":")) {
-                            String[] iddata = tmp.split(":");
-                            id = plugin.utils.parseNum(iddata[0]);
-                            data = Byte.parseByte(iddata[1]);
+            for (level = 0; level < h; level++) {
+                for (row = 0; row < w; row++) {
+                    for (col = 0; col < l; col++) {
+                        id = s.getId(level, row, col);
+                        data = s.getData(level, row, col);
+                        if (s.isSpecial(level, row, col)) {
                             if (id == 54) { // chest
                                 schematicHasChest = true;
                                 // remember the location of this chest - if create_worlds is true make it the condenser chest
@@ -199,17 +199,17 @@ public class TARDISBuilderInner {
                                 String which = (own_world) ? "condenser" : "chest";
                                 setc.put(which, chest);
                                 wherec.put("tardis_id", dbID);
-                                qf.doUpdate("tardis", setc, wherec);
+                                session.update("tardis", setc, wherec);
                             }
                             if (id == 77) { // stone button
                                 // remember the location of this button
                                 String button = plugin.utils.makeLocationStr(world, startx, starty, startz);
-                                qf.insertControl(dbID, 1, button, 0);
+                                session.control(dbID, 1, button, 0);
                             }
                             if (id == 93) { // remember the location of this redstone repeater
                                 // save repeater location
                                 String repeater = world.getName() + ":" + startx + ":" + starty + ":" + startz;
-                                qf.insertControl(dbID, j, repeater, 0);
+                                session.control(dbID, j, repeater, 0);
                                 j++;
                             }
                             if (id == 71 && data < (byte) 8) { // iron door bottom
@@ -219,7 +219,7 @@ public class TARDISBuilderInner {
                                 setd.put("door_type", 1);
                                 setd.put("door_location", doorloc);
                                 setd.put("door_direction", "SOUTH");
-                                qf.doInsert("doors", setd);
+                                session.insert("doors", setd);
                                 // if create_worlds is true, set the world spawn
                                 if (own_world) {
                                     if (plugin.pm.isPluginEnabled("Multiverse-Core")) {
@@ -242,7 +242,7 @@ public class TARDISBuilderInner {
                                 setc.put("chameleon", chameleonloc);
                                 setc.put("chamele_on", 0);
                                 wherec.put("tardis_id", dbID);
-                                qf.doUpdate("tardis", setc, wherec);
+                                session.update("tardis", setc, wherec);
                             }
                             if (id == 52) { // scanner button
                                 /*
@@ -254,7 +254,7 @@ public class TARDISBuilderInner {
                                 String scanloc = world.getName() + ":" + startx + ":" + starty + ":" + startz;
                                 setscan.put("scanner", scanloc);
                                 wherescan.put("tardis_id", dbID);
-                                qf.doUpdate("tardis", setscan, wherescan);
+                                session.update("tardis", setscan, wherescan);
                             }
                             if (id == 97) { // silverfish stone -> save sign
                                 HashMap<String, Object> setss = new HashMap<String, Object>();
@@ -262,7 +262,7 @@ public class TARDISBuilderInner {
                                 String ssloc = world.getName() + ":" + startx + ":" + starty + ":" + startz;
                                 setss.put("save_sign", ssloc);
                                 wheress.put("tardis_id", dbID);
-                                qf.doUpdate("tardis", setss, wheress);
+                                session.update("tardis", setss, wheress);
                             }
                             if (id == 137 || id == -119) {
                                 /*
@@ -273,7 +273,7 @@ public class TARDISBuilderInner {
                                 String creeploc = world.getName() + ":" + (startx + 0.5) + ":" + starty + ":" + (startz + 0.5);
                                 setcreep.put("creeper", creeploc);
                                 wherecreep.put("tardis_id", dbID);
-                                qf.doUpdate("tardis", setcreep, wherecreep);
+                                session.update("tardis", setcreep, wherecreep);
                                 id = 98;
                             }
                             if (id == 92) {
@@ -282,7 +282,7 @@ public class TARDISBuilderInner {
                                  * setBlock(), but remember it so we can use it as the handbrake!
                                  */
                                 String handbrakeloc = plugin.utils.makeLocationStr(world, startx, starty, startz);
-                                qf.insertControl(dbID, 0, handbrakeloc, 0);
+                                session.control(dbID, 0, handbrakeloc, 0);
                             }
                             if (id == 143 || id == -113) {
                                 /*
@@ -290,7 +290,7 @@ public class TARDISBuilderInner {
                                  * setBlock(), but remember it for the Artron Energy Capacitor.
                                  */
                                 String woodbuttonloc = plugin.utils.makeLocationStr(world, startx, starty, startz);
-                                qf.insertControl(dbID, 6, woodbuttonloc, 0);
+                                session.control(dbID, 6, woodbuttonloc, 0);
                             }
                             if (id == 7) {
                                 // remember bedrock location to block off the beacon light
@@ -299,7 +299,7 @@ public class TARDISBuilderInner {
                                 String bedrocloc = world.getName() + ":" + startx + ":" + starty + ":" + startz;
                                 setbeac.put("beacon", bedrocloc);
                                 wherebeac.put("tardis_id", dbID);
-                                qf.doUpdate("tardis", setbeac, wherebeac);
+                                session.update("tardis", setbeac, wherebeac);
                             }
                             if (id == 124) {
                                 // remember lamp blocks
@@ -311,7 +311,7 @@ public class TARDISBuilderInner {
                                     String lloc = world.getName() + ":" + startx + ":" + starty + ":" + startz;
                                     setlb.put("tardis_id", dbID);
                                     setlb.put("location", lloc);
-                                    qf.doInsert("lamps", setlb);
+                                    session.insert("lamps", setlb);
                                 }
                             }
                             if (id == 35 && data != 1 && plugin.getConfig().getBoolean("use_clay")) {
@@ -329,9 +329,6 @@ public class TARDISBuilderInner {
                                         data = middle_data;
                                 }
                             }
-                        } else {
-                            id = plugin.utils.parseNum(tmp);
-                            data = 0;
                         }
                         // if it's an iron/gold/diamond/emerald/beacon/redstone block put it in the blocks table
                         if (id == 41 || id == 42 || id == 57 || id == 133 || id == -123 || id == 138 || id == -118 || id == 152 || id == -104) {
@@ -340,8 +337,7 @@ public class TARDISBuilderInner {
                             setpb.put("tardis_id", dbID);
                             setpb.put("location", loc);
                             setpb.put("police_box", 0);
-                            qf.doInsert("blocks", setpb);
-                            plugin.protectBlockMap.put(loc, dbID);
+                            session.insert("blocks", setpb);
                         }
                         // if it's the door, don't set it just remember its block then do it at the end
                         if (id == 71) {
@@ -363,14 +359,20 @@ public class TARDISBuilderInner {
                         } else {
                             plugin.utils.setBlock(world, startx, starty, startz, id, data);
                         }
+                        startx += x;
                     }
-                    startx += x;
+                    startx = resetx;
+                    startz += z;
                 }
-                startx = resetx;
-                startz += z;
+                startz = resetz;
+                starty += 1;
+            }
+            session.commit();
+        } finally {
+            // a build that fails part way writes nothing
+            if (session.isOpen()) {
+                session.abort();
             }
-            startz = resetz;
-            starty += 1;
         }
         // put on the door and the redstone torches
         for (Map.Entry<Block, Byte> entry : postDoorBlocks.entrySet()) {
@@ -397,7 +399,7 @@ public class TARDISBuilderInner {
         }
         HashMap<String, Object> where = new HashMap<String, Object>();
         where.put("tardis_id", dbID);
-        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+        ResultSetTardis rs = new ResultSetTardis(plugin, where);
         if (rs.resultSet()) {
             if (postSaveBlock != null) {
                 postSaveBlock.setTypeIdAndData(68, (byte) 3, true);
@@ -74,7 +74,7 @@ public class TARDISBuilderPoliceBox {
             // get chameleon_id/data if set
             HashMap<String, Object> wherec = new HashMap<String, Object>();
             wherec.put("tardis_id", id);
-            ResultSetTardis rsc = new ResultSetTardis(plugin, wherec, "", false);
+            ResultSetTardis rsc = new ResultSetTardis(plugin, wherec);
             rsc.resultSet();
             int c_id = rsc.getChameleon_id();
             byte c_data = rsc.getChameleon_data();
@@ -100,7 +100,7 @@ public class TARDISBuilderPoliceBox {
         if (rsp.resultSet()) {
             lamp = rsp.getLamp();
             plain = rsp.isPlain_on();
-            sub = (rsp.isSubmarine_on() && plugin.trackSubmarine.contains(Integer.valueOf(id)));
+            sub = (rsp.isSubmarine_on() && plugin.state.trackSubmarine.contains(id));
         }
         // keep the chunk this Police box is in loaded
         Chunk thisChunk = l.getChunk();
@@ -108,22 +108,21 @@ public class TARDISBuilderPoliceBox {
             thisChunk.load();
         }
         /*
-         * We can always add the chunk, as List.remove() only removes the first
-         * occurence - and we want the chunk to remain loaded if there are other
-         * Police Boxes in it.
+         * The chunk is counted once for each Police Box in it, so it remains
+         * loaded while there are other Police Boxes in it.
          */
-        plugin.tardisChunkList.add(thisChunk);
+        plugin.retainedChunks.retainPoliceBox(id, thisChunk);
         if (rebuild) {
             TARDISPoliceBoxRebuilder rebuilder = new TARDISPoliceBoxRebuilder(plugin, l, wall_block, chameleonData, id, d, lamp, plain, sub);
             rebuilder.rebuildPoliceBox();
         } else {
             if (plugin.getConfig().getBoolean("materialise")) {
-                plugin.tardisMaterialising.add(id);
+                plugin.state.tardisMaterialising.add(id);
                 TARDISMaterialisationRunnable runnable = new TARDISMaterialisationRunnable(plugin, l, wall_block, chameleonData, id, d, p, mal, lamp, plain, sub);
                 int taskID = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, runnable, 10L, 20L);
                 runnable.setTask(taskID);
             } else {
-                plugin.tardisMaterialising.add(id);
+                plugin.state.tardisMaterialising.add(id);
                 TARDISInstaPoliceBox insta = new TARDISInstaPoliceBox(plugin, l, wall_block, chameleonData, id, d, p.getName(), mal, lamp, plain, sub);
                 insta.buildPoliceBox();
             }
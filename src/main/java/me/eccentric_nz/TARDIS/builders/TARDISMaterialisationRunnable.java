@@ -24,6 +24,7 @@ import me.eccentric_nz.TARDIS.database.QueryFactory;
 import me.eccentric_nz.TARDIS.database.ResultSetDoors;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
 import me.eccentric_nz.TARDIS.database.ResultSetTravellers;
+import me.eccentric_nz.TARDIS.database.TARDISBuildSession;
 import me.eccentric_nz.TARDIS.travel.TARDISDoorLocation;
 import org.bukkit.ChatColor;
 import org.bukkit.Effect;
@@ -95,7 +96,7 @@ public class TARDISMaterialisationRunnable implements Runnable {
 
     @Override
     public void run() {
-        if (!plugin.tardisDematerialising.contains(tid)) {
+        if (!plugin.state.tardisDematerialising.contains(tid)) {
             int id;
             byte b;
             // get relative locations
@@ -127,8 +128,8 @@ public class TARDISMaterialisationRunnable implements Runnable {
                 byte mds = b, mdw = b, mdn = b, mde = b, bds = b, bdw = b, bdn = b, bde = b;
                 String doorloc = "";
                 // rescue player?
-                if (i == 10 && plugin.trackRescue.containsKey(tid)) {
-                    String name = plugin.trackRescue.get(tid);
+                if (i == 10 && plugin.state.trackRescue.containsKey(tid)) {
+                    String name = plugin.state.trackRescue.get(tid);
                     Player saved = plugin.getServer().getPlayer(name);
                     if (saved != null) {
                         TARDISDoorLocation idl = plugin.doorListener.getDoor(1, tid);
@@ -139,9 +140,9 @@ public class TARDISMaterialisationRunnable implements Runnable {
                         set.put("tardis_id", id);
                         set.put("player", name);
                         QueryFactory qf = new QueryFactory(plugin);
-                        qf.doInsert("travellers", set);
+                        qf.queueInsert("travellers", set);
                     }
-                    plugin.trackRescue.remove(tid);
+                    plugin.state.trackRescue.remove(tid);
                 }
                 // first run - remember blocks
                 if (i == 1) {
@@ -158,193 +159,199 @@ public class TARDISMaterialisationRunnable implements Runnable {
                             world.playEffect(location, Effect.BLAZE_SHOOT, 0);
                         }
                     }
-                    QueryFactory qf = new QueryFactory(plugin);
-                    HashMap<String, Object> ps = new HashMap<String, Object>();
-                    ps.put("tardis_id", tid);
-                    String loc = "";
-                    // get direction player is facing from yaw place block under door if block is in list of blocks an iron door cannot go on
-                    switch (d) {
-                        case SOUTH:
-                            //if (yaw >= 315 || yaw < 45)
-                            if (sub) {
-                                plugin.utils.setBlockCheck(world, x, down3y, minusz, 19, (byte) 0, tid, true); // door is here if player facing south
-                                sponge = world.getBlockAt(x, down3y, minusz);
-                            } else {
-                                plugin.utils.setBlockCheck(world, x, down3y, minusz, 35, grey, tid, false); // door is here if player facing south
-                            }
-                            loc = world.getBlockAt(x, down3y, minusz).getLocation().toString();
-                            ps.put("location", loc);
-                            doorloc = world.getName() + ":" + x + ":" + down2y + ":" + minusz;
-                            sd = 2;
-                            signx = x;
-                            signz = (minusz - 1);
-                            south = 71;
-                            mds = 8;
-                            bds = 1;
-                            break;
-                        case EAST:
-                            //if (yaw >= 225 && yaw < 315)
-                            if (sub) {
-                                plugin.utils.setBlockCheck(world, minusx, down3y, z, 19, (byte) 0, tid, true); // door is here if player facing east
-                                sponge = world.getBlockAt(minusx, down3y, z);
-                            } else {
-                                plugin.utils.setBlockCheck(world, minusx, down3y, z, 35, grey, tid, false); // door is here if player facing east
-                            }
-                            loc = world.getBlockAt(minusx, down3y, z).getLocation().toString();
-                            ps.put("location", loc);
-                            doorloc = world.getName() + ":" + minusx + ":" + down2y + ":" + z;
-                            sd = 4;
-                            signx = (minusx - 1);
-                            signz = z;
-                            east = 71;
-                            mde = 8;
-                            bde = 0;
-                            break;
-                        case NORTH:
-                            //if (yaw >= 135 && yaw < 225)
-                            if (sub) {
-                                plugin.utils.setBlockCheck(world, x, down3y, plusz, 19, (byte) 0, tid, true); // door is here if player facing north
-                                sponge = world.getBlockAt(x, down3y, plusz);
-                            } else {
-                                plugin.utils.setBlockCheck(world, x, down3y, plusz, 35, grey, tid, false); // door is here if player facing north
-                            }
-                            loc = world.getBlockAt(x, down3y, plusz).getLocation().toString();
-                            ps.put("location", loc);
-                            doorloc = world.getName() + ":" + x + ":" + down2y + ":" + plusz;
-                            sd = 3;
-                            signx = x;
-                            signz = (plusz + 1);
-                            north = 71;
-                            mdn = 8;
-                            bdn = 3;
-                            break;
-                        case WEST:
-                            //if (yaw >= 45 && yaw < 135)
-                            if (sub) {
-                                plugin.utils.setBlockCheck(world, plusx, down3y, z, 19, (byte) 0, tid, true); // door is here if player facing west
-                                sponge = world.getBlockAt(plusx, down3y, z);
-                            } else {
-                                plugin.utils.setBlockCheck(world, plusx, down3y, z, 35, grey, tid, false); // door is here if player facing west
-                            }
-                            loc = world.getBlockAt(plusx, down3y, z).getLocation().toString();
-                            ps.put("location", loc);
-                            doorloc = world.getName() + ":" + plusx + ":" + down2y + ":" + z;
-                            sd = 5;
-                            signx = (plusx + 1);
-                            signz = z;
-                            west = 71;
-                            mdw = 8;
-                            bdw = 2;
-                            break;
-                    }
-                    ps.put("police_box", 1);
-                    qf.doInsert("blocks", ps);
-                    if (!loc.isEmpty()) {
-                        plugin.protectBlockMap.put(loc, tid);
-                    }
-                    // should insert the door when tardis is first made, and then update location there after!
-                    HashMap<String, Object> whered = new HashMap<String, Object>();
-                    whered.put("door_type", 0);
-                    whered.put("tardis_id", tid);
-                    ResultSetDoors rsd = new ResultSetDoors(plugin, whered, false);
-                    HashMap<String, Object> setd = new HashMap<String, Object>();
-                    setd.put("door_location", doorloc);
-                    if (rsd.resultSet()) {
-                        HashMap<String, Object> whereid = new HashMap<String, Object>();
-                        whereid.put("door_id", rsd.getDoor_id());
-                        qf.doUpdate("doors", setd, whereid);
-                    } else {
-                        setd.put("tardis_id", tid);
-                        setd.put("door_type", 0);
-                        setd.put("door_direction", d.toString());
-                        qf.doInsert("doors", setd);
-                    }
-                    // bottom layer corners
-                    plugin.utils.setBlockAndRemember(world, plusx, down2y, plusz, id, b, tid);
-                    plugin.utils.setBlockAndRemember(world, minusx, down2y, plusz, id, b, tid);
-                    plugin.utils.setBlockAndRemember(world, minusx, down2y, minusz, id, b, tid);
-                    plugin.utils.setBlockAndRemember(world, plusx, down2y, minusz, id, b, tid);
-                    // middle layer corners
-                    plugin.utils.setBlockAndRemember(world, plusx, minusy, plusz, id, b, tid);
-                    plugin.utils.setBlockAndRemember(world, minusx, minusy, plusz, id, b, tid);
-                    plugin.utils.setBlockAndRemember(world, minusx, minusy, minusz, id, b, tid);
-                    plugin.utils.setBlockAndRemember(world, plusx, minusy, minusz, id, b, tid);
-                    // top layer
-                    switch (id) {
-                        case 18:
-                            plugin.utils.setBlockAndRemember(world, x, y, z, 17, b, tid);
-                            break;
-                        case 20:
-                            plugin.utils.setBlockAndRemember(world, x, y, z, 20, (byte) 0, tid);
-                            break;
-                        case 46:
-                            plugin.utils.setBlockAndRemember(world, x, y, z, 35, (byte) 14, tid);
-                            break;
-                        case 79:
-                            plugin.utils.setBlockAndRemember(world, x, y, z, 35, (byte) 3, tid);
-                            break;
-                        case 89:
-                            plugin.utils.setBlockAndRemember(world, x, y, z, 35, (byte) 4, tid);
-                            break;
-                        default:
-                            if (lamp == 123 && plugin.bukkitversion.compareTo(plugin.precomparatorversion) >= 0) {
-                                plugin.utils.setBlockAndRemember(world, x, y, z, 152, (byte) 0, tid);
-                            } else {
-                                plugin.utils.setBlockAndRemember(world, x, y, z, mat, data, tid);
-                            }
-                            break;
-                    }
-                    plugin.utils.setBlockAndRemember(world, plusx, y, z, id, b, tid); // east
-                    plugin.utils.setBlockAndRemember(world, plusx, y, plusz, id, b, tid);
-                    plugin.utils.setBlockAndRemember(world, x, y, plusz, id, b, tid); // south
-                    plugin.utils.setBlockAndRemember(world, minusx, y, plusz, id, b, tid);
-                    plugin.utils.setBlockAndRemember(world, minusx, y, z, id, b, tid); // west
-                    plugin.utils.setBlockAndRemember(world, minusx, y, minusz, id, b, tid);
-                    plugin.utils.setBlockAndRemember(world, x, y, minusz, id, b, tid); // north
-                    plugin.utils.setBlockAndRemember(world, plusx, y, minusz, id, b, tid);
-                    if (!plain) {
-                        // set sign
-                        plugin.utils.setBlock(world, signx, y, signz, 68, sd);
-                        Block sign = world.getBlockAt(signx, y, signz);
-                        if (sign.getType().equals(Material.WALL_SIGN)) {
-                            Sign s = (Sign) sign.getState();
-                            if (plugin.getConfig().getBoolean("name_tardis")) {
-                                HashMap<String, Object> wheret = new HashMap<String, Object>();
-                                wheret.put("tardis_id", tid);
-                                ResultSetTardis rstard = new ResultSetTardis(plugin, wheret, "", false);
-                                if (rstard.resultSet()) {
-                                    String owner = rstard.getOwner();
-                                    if (owner.length() > 14) {
-                                        s.setLine(0, owner.substring(0, 12) + "'s");
-                                    } else {
-                                        s.setLine(0, owner + "'s");
+                    // collect the Police Box rows and write them together once it is built
+                    TARDISBuildSession session = new TARDISBuildSession(plugin);
+                    try {
+                        HashMap<String, Object> ps = new HashMap<String, Object>();
+                        ps.put("tardis_id", tid);
+                        String loc = "";
+                        // get direction player is facing from yaw place block under door if block is in list of blocks an iron door cannot go on
+                        switch (d) {
+                            case SOUTH:
+                                //if (yaw >= 315 || yaw < 45)
+                                if (sub) {
+                                    plugin.utils.setBlockCheck(world, x, down3y, minusz, 19, (byte) 0, tid, true); // door is here if player facing south
+                                    sponge = world.getBlockAt(x, down3y, minusz);
+                                } else {
+                                    plugin.utils.setBlockCheck(world, x, down3y, minusz, 35, grey, tid, false); // door is here if player facing south
+                                }
+                                loc = world.getBlockAt(x, down3y, minusz).getLocation().toString();
+                                ps.put("location", loc);
+                                doorloc = world.getName() + ":" + x + ":" + down2y + ":" + minusz;
+                                sd = 2;
+                                signx = x;
+                                signz = (minusz - 1);
+                                south = 71;
+                                mds = 8;
+                                bds = 1;
+                                break;
+                            case EAST:
+                                //if (yaw >= 225 && yaw < 315)
+                                if (sub) {
+                                    plugin.utils.setBlockCheck(world, minusx, down3y, z, 19, (byte) 0, tid, true); // door is here if player facing east
+                                    sponge = world.getBlockAt(minusx, down3y, z);
+                                } else {
+                                    plugin.utils.setBlockCheck(world, minusx, down3y, z, 35, grey, tid, false); // door is here if player facing east
+                                }
+                                loc = world.getBlockAt(minusx, down3y, z).getLocation().toString();
+                                ps.put("location", loc);
+                                doorloc = world.getName() + ":" + minusx + ":" + down2y + ":" + z;
+                                sd = 4;
+                                signx = (minusx - 1);
+                                signz = z;
+                                east = 71;
+                                mde = 8;
+                                bde = 0;
+                                break;
+                            case NORTH:
+                                //if (yaw >= 135 && yaw < 225)
+                                if (sub) {
+                                    plugin.utils.setBlockCheck(world, x, down3y, plusz, 19, (byte) 0, tid, true); // door is here if player facing north
+                                    sponge = world.getBlockAt(x, down3y, plusz);
+                                } else {
+                                    plugin.utils.setBlockCheck(world, x, down3y, plusz, 35, grey, tid, false); // door is here if player facing north
+                                }
+                                loc = world.getBlockAt(x, down3y, plusz).getLocation().toString();
+                                ps.put("location", loc);
+                                doorloc = world.getName() + ":" + x + ":" + down2y + ":" + plusz;
+                                sd = 3;
+                                signx = x;
+                                signz = (plusz + 1);
+                                north = 71;
+                                mdn = 8;
+                                bdn = 3;
+                                break;
+                            case WEST:
+                                //if (yaw >= 45 && yaw < 135)
+                                if (sub) {
+                                    plugin.utils.setBlockCheck(world, plusx, down3y, z, 19, (byte) 0, tid, true); // door is here if player facing west
+                                    sponge = world.getBlockAt(plusx, down3y, z);
+                                } else {
+                                    plugin.utils.setBlockCheck(world, plusx, down3y, z, 35, grey, tid, false); // door is here if player facing west
+                                }
+                                loc = world.getBlockAt(plusx, down3y, z).getLocation().toString();
+                                ps.put("location", loc);
+                                doorloc = world.getName() + ":" + plusx + ":" + down2y + ":" + z;
+                                sd = 5;
+                                signx = (plusx + 1);
+                                signz = z;
+                                west = 71;
+                                mdw = 8;
+                                bdw = 2;
+                                break;
+                        }
+                        ps.put("police_box", 1);
+                        session.insert("blocks", ps);
+                        // should insert the door when tardis is first made, and then update location there after!
+                        HashMap<String, Object> whered = new HashMap<String, Object>();
+                        whered.put("door_type", 0);
+                        whered.put("tardis_id", tid);
+                        ResultSetDoors rsd = new ResultSetDoors(plugin, whered);
+                        HashMap<String, Object> setd = new HashMap<String, Object>();
+                        setd.put("door_location", doorloc);
+                        if (rsd.resultSet()) {
+                            HashMap<String, Object> whereid = new HashMap<String, Object>();
+                            whereid.put("door_id", rsd.getDoor_id());
+                            session.update("doors", setd, whereid);
+                        } else {
+                            setd.put("tardis_id", tid);
+                            setd.put("door_type", 0);
+                            setd.put("door_direction", d.toString());
+                            session.insert("doors", setd);
+                        }
+                        // bottom layer corners
+                        plugin.utils.setBlockAndRemember(world, plusx, down2y, plusz, id, b, tid, session);
+                        plugin.utils.setBlockAndRemember(world, minusx, down2y, plusz, id, b, tid, session);
+                        plugin.utils.setBlockAndRemember(world, minusx, down2y, minusz, id, b, tid, session);
+                        plugin.utils.setBlockAndRemember(world, plusx, down2y, minusz, id, b, tid, session);
+                        // middle layer corners
+                        plugin.utils.setBlockAndRemember(world, plusx, minusy, plusz, id, b, tid, session);
+                        plugin.utils.setBlockAndRemember(world, minusx, minusy, plusz, id, b, tid, session);
+                        plugin.utils.setBlockAndRemember(world, minusx, minusy, minusz, id, b, tid, session);
+                        plugin.utils.setBlockAndRemember(world, plusx, minusy, minusz, id, b, tid, session);
+                        // top layer
+                        switch (id) {
+                            case 18:
+                                plugin.utils.setBlockAndRemember(world, x, y, z, 17, b, tid, session);
+                                break;
+                            case 20:
+                                plugin.utils.setBlockAndRemember(world, x, y, z, 20, (byte) 0, tid, session);
+                                break;
+                            case 46:
+                                plugin.utils.setBlockAndRemember(world, x, y, z, 35, (byte) 14, tid, session);
+                                break;
+                            case 79:
+                                plugin.utils.setBlockAndRemember(world, x, y, z, 35, (byte) 3, tid, session);
+                                break;
+                            case 89:
+                                plugin.utils.setBlockAndRemember(world, x, y, z, 35, (byte) 4, tid, session);
+                                break;
+                            default:
+                                if (lamp == 123 && plugin.bukkitversion.compareTo(plugin.precomparatorversion) >= 0) {
+                                    plugin.utils.setBlockAndRemember(world, x, y, z, 152, (byte) 0, tid, session);
+                                } else {
+                                    plugin.utils.setBlockAndRemember(world, x, y, z, mat, data, tid, session);
+                                }
+                                break;
+                        }
+                        plugin.utils.setBlockAndRemember(world, plusx, y, z, id, b, tid, session); // east
+                        plugin.utils.setBlockAndRemember(world, plusx, y, plusz, id, b, tid, session);
+                        plugin.utils.setBlockAndRemember(world, x, y, plusz, id, b, tid, session); // south
+                        plugin.utils.setBlockAndRemember(world, minusx, y, plusz, id, b, tid, session);
+                        plugin.utils.setBlockAndRemember(world, minusx, y, z, id, b, tid, session); // west
+                        plugin.utils.setBlockAndRemember(world, minusx, y, minusz, id, b, tid, session);
+                        plugin.utils.setBlockAndRemember(world, x, y, minusz, id, b, tid, session); // north
+                        plugin.utils.setBlockAndRemember(world, plusx, y, minusz, id, b, tid, session);
+                        if (!plain) {
+                            // set sign
+                            plugin.utils.setBlock(world, signx, y, signz, 68, sd);
+                            Block sign = world.getBlockAt(signx, y, signz);
+                            if (sign.getType().equals(Material.WALL_SIGN)) {
+                                Sign s = (Sign) sign.getState();
+                                if (plugin.getConfig().getBoolean("name_tardis")) {
+                                    HashMap<String, Object> wheret = new HashMap<String, Object>();
+                                    wheret.put("tardis_id", tid);
+                                    ResultSetTardis rstard = new ResultSetTardis(plugin, wheret);
+                                    if (rstard.resultSet()) {
+                                        String owner = rstard.getOwner();
+                                        if (owner.length() > 14) {
+                                            s.setLine(0, owner.substring(0, 12) + "'s");
+                                        } else {
+                                            s.setLine(0, owner + "'s");
+                                        }
                                     }
                                 }
+                                s.setLine(1, ChatColor.WHITE + "POLICE");
+                                s.setLine(2, ChatColor.WHITE + "BOX");
+                                s.update();
+                            }
+                            // put torch on top
+                            if (id == 79) {
+                                plugin.utils.setBlockAndRemember(world, x, plusy, z, 76, (byte) 5, tid, session);
+                            } else if (sub) {
+                                // lamp should be glowstone
+                                plugin.utils.setBlockAndRemember(world, x, plusy, z, 89, (byte) 0, tid, session);
+                            } else {
+                                plugin.utils.setBlockAndRemember(world, x, plusy, z, lamp, (byte) 5, tid, session);
                             }
-                            s.setLine(1, ChatColor.WHITE + "POLICE");
-                            s.setLine(2, ChatColor.WHITE + "BOX");
-                            s.update();
                         }
-                        // put torch on top
-                        if (id == 79) {
-                            plugin.utils.setBlockAndRemember(world, x, plusy, z, 76, (byte) 5, tid);
-                        } else if (sub) {
-                            // lamp should be glowstone
-                            plugin.utils.setBlockAndRemember(world, x, plusy, z, 89, (byte) 0, tid);
-                        } else {
-                            plugin.utils.setBlockAndRemember(world, x, plusy, z, lamp, (byte) 5, tid);
+                        // bottom layer with door bottom
+                        plugin.utils.setBlockAndRemember(world, plusx, down2y, z, west, bdw, tid, session);
+                        plugin.utils.setBlockAndRemember(world, x, down2y, plusz, north, bdn, tid, session);
+                        plugin.utils.setBlockAndRemember(world, minusx, down2y, z, east, bde, tid, session);
+                        plugin.utils.setBlockAndRemember(world, x, down2y, minusz, south, bds, tid, session);
+                        // middle layer with door top
+                        plugin.utils.setBlockAndRemember(world, plusx, minusy, z, west, mdw, tid, session);
+                        plugin.utils.setBlockAndRemember(world, x, minusy, plusz, north, mdn, tid, session);
+                        plugin.utils.setBlockAndRemember(world, minusx, minusy, z, east, mde, tid, session);
+                        plugin.utils.setBlockAndRemember(world, x, minusy, minusz, south, mds, tid, session);
+                        session.commit();
+                    } finally {
+                        // a build that fails part way writes nothing
+                        if (session.isOpen()) {
+                            session.abort();
                         }
                     }
-                    // bottom layer with door bottom
-                    plugin.utils.setBlockAndRemember(world, plusx, down2y, z, west, bdw, tid);
-                    plugin.utils.setBlockAndRemember(world, x, down2y, plusz, north, bdn, tid);
-                    plugin.utils.setBlockAndRemember(world, minusx, down2y, z, east, bde, tid);
-                    plugin.utils.setBlockAndRemember(world, x, down2y, minusz, south, bds, tid);
-                    // middle layer with door top
-                    plugin.utils.setBlockAndRemember(world, plusx, minusy, z, west, mdw, tid);
-                    plugin.utils.setBlockAndRemember(world, x, minusy, plusz, north, mdn, tid);
-                    plugin.utils.setBlockAndRemember(world, minusx, minusy, z, east, mde, tid);
-                    plugin.utils.setBlockAndRemember(world, x, minusy, minusz, south, mds, tid);
 
                 } else {
                     // just change the walls
@@ -429,12 +436,12 @@ public class TARDISMaterialisationRunnable implements Runnable {
                 if (sub && plugin.worldGuardOnServer) {
                     plugin.wgchk.sponge(sponge, true);
                 }
-                plugin.tardisMaterialising.remove(Integer.valueOf(tid));
+                plugin.state.tardisMaterialising.remove(tid);
                 plugin.getServer().getScheduler().cancelTask(task);
                 task = 0;
                 // tardis has moved so remove HADS damage count
-                if (plugin.trackDamage.containsKey(Integer.valueOf(tid))) {
-                    plugin.trackDamage.remove(Integer.valueOf(tid));
+                if (plugin.state.trackDamage.containsKey(Integer.valueOf(tid))) {
+                    plugin.state.trackDamage.remove(Integer.valueOf(tid));
                 }
                 // message travellers in tardis
                 HashMap<String, Object> where = new HashMap<String, Object>();
@@ -211,7 +211,7 @@ public class TARDISPoliceBoxRebuilder {
                 if (plugin.getConfig().getBoolean("name_tardis")) {
                     HashMap<String, Object> wheret = new HashMap<String, Object>();
                     wheret.put("tardis_id", tid);
-                    ResultSetTardis rst = new ResultSetTardis(plugin, wheret, "", false);
+                    ResultSetTardis rst = new ResultSetTardis(plugin, wheret);
                     if (rst.resultSet()) {
                         String owner = rst.getOwner();
                         if (owner.length() > 14) {
@@ -20,12 +20,15 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
@@ -34,20 +37,23 @@ import me.eccentric_nz.TARDIS.database.ResultSetCount;
 import me.eccentric_nz.TARDIS.database.ResultSetDoors;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
 import me.eccentric_nz.TARDIS.database.ResultSetTravellers;
-import static me.eccentric_nz.TARDIS.destroyers.TARDISExterminator.deleteFolder;
-import me.eccentric_nz.TARDIS.destroyers.TARDISPruner;
+import me.eccentric_nz.TARDIS.database.TARDISDatabase;
+import me.eccentric_nz.TARDIS.database.TARDISDatabaseWriter;
+import me.eccentric_nz.TARDIS.database.TARDISQuery;
+import me.eccentric_nz.TARDIS.database.TARDISRowCache;
+import me.eccentric_nz.TARDIS.database.TARDISRowMapper;
+import me.eccentric_nz.TARDIS.database.TARDISStatementCache;
 import me.eccentric_nz.TARDIS.files.TARDISConfiguration;
 import me.eccentric_nz.TARDIS.travel.TARDISTerminalInventory;
+import me.eccentric_nz.TARDIS.utility.TARDISChunkPrefetcher;
 import me.eccentric_nz.TARDIS.utility.TARDISMaterials;
 import org.apache.commons.lang.StringUtils;
 import org.bukkit.ChatColor;
-import org.bukkit.Chunk;
 import org.bukkit.Effect;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Sound;
 import org.bukkit.World;
-import org.bukkit.WorldType;
 import org.bukkit.block.Block;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -76,12 +82,19 @@ public class TARDISAdminCommands implements CommandExecutor {
     public List<String> firstsIntArtron = new ArrayList<String>();
     HashSet<Byte> transparent = new HashSet<Byte>();
     private Material charger = Material.REDSTONE_LAMP_ON;
+    private static final TARDISRowMapper<String> LIST_LINE = new TARDISRowMapper<String>() {
+        @Override
+        public String map(ResultSet rs) throws SQLException {
+            return "Timelord: " + rs.getString("owner") + ", Location: " + rs.getString("current");
+        }
+    };
 
     public TARDISAdminCommands(TARDIS plugin) {
         this.plugin = plugin;
         // add first arguments
         firstsStr.add("chunks");
         firstsStr.add("config");
+        firstsStr.add("database");
         firstsStr.add("decharge");
         firstsStr.add("default_world_name");
         firstsStr.add("delete");
@@ -154,7 +167,8 @@ public class TARDISAdminCommands implements CommandExecutor {
         firstsInt.add("malfunction_nether");
         firstsInt.add("platform_id");
         firstsInt.add("recharge_distance");
-        firstsInt.add("room_speed");
+        firstsInt.add("prune_blocks");
+        firstsInt.add("room_budget");
         firstsInt.add("rooms_condenser_percent");
         firstsInt.add("terminal_step");
         firstsInt.add("timeout");
@@ -206,13 +220,35 @@ public class TARDISAdminCommands implements CommandExecutor {
                 }
                 if (args.length == 1) {
                     if (first.equals("chunks")) {
-                        if (plugin.tardisChunkList.size() > 0) {
-                            for (Chunk c : plugin.tardisChunkList) {
-                                sender.sendMessage(plugin.pluginName + c.getWorld().getName() + ": " + c);
+                        Map<String, Integer> counts = plugin.retainedChunks.getCounts();
+                        if (counts.size() > 0) {
+                            sender.sendMessage(plugin.pluginName + "Chunks kept loaded (" + plugin.retainedChunks.getPoliceBoxCount() + " Police Boxes, " + plugin.roomScheduler.size() + " rooms growing):");
+                            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                                sender.sendMessage(entry.getKey() + ": " + entry.getValue());
                             }
                         } else {
                             sender.sendMessage("No chunks in list!");
                         }
+                        TARDISChunkPrefetcher prefetcher = plugin.prefetcher;
+                        sender.sendMessage(String.format("Teleports: %d (%d waiting), chunks loaded for them: %d, average wait %.1fms, max %dms", prefetcher.getTeleports(), prefetcher.size(), prefetcher.getLoaded(), prefetcher.getAverageWait(), prefetcher.getMaxWait()));
+                        return true;
+                    }
+                    if (first.equals("database")) {
+                        TARDISDatabaseWriter writer = TARDISDatabase.getInstance().getWriter();
+                        if (writer == null) {
+                            sender.sendMessage(plugin.pluginName + "The database writer is not available!");
+                            return true;
+                        }
+                        sender.sendMessage(plugin.pluginName + "Database writer " + ((writer.isRunning()) ? "running" : "stopped"));
+                        sender.sendMessage("Queue depth: " + writer.getQueueDepth() + " (highest " + writer.getHighWater() + ")");
+                        sender.sendMessage("Writes: " + writer.getWrites() + ", merged: " + writer.getMerged() + ", failed: " + writer.getFailures());
+                        sender.sendMessage(String.format("Commits: %d, last %.2fms, average %.2fms, max %.2fms", writer.getCommits(), writer.getLastCommitMillis(), writer.getAverageCommitMillis(), writer.getMaxCommitMillis()));
+                        TARDISStatementCache statements = TARDISDatabase.getInstance().getStatements();
+                        sender.sendMessage("Cached queries: " + statements.size() + ", hits: " + statements.getHits() + ", prepared: " + statements.getMisses());
+                        for (String table : new String[]{"tardis", "player_prefs"}) {
+                            TARDISRowCache rows = TARDISDatabase.getInstance().getRowCache(table);
+                            sender.sendMessage("Cached " + table + " rows: " + rows.size() + ", hits: " + rows.getHits() + ", misses: " + rows.getMisses() + ", evicted: " + rows.getEvictions());
+                        }
                         return true;
                     }
                     if (first.equals("reload")) {
@@ -238,14 +274,12 @@ public class TARDISAdminCommands implements CommandExecutor {
                 }
                 if (first.equals("list")) {
                     if (args.length > 1 && args[1].equalsIgnoreCase("save")) {
-                        ResultSetTardis rsl = new ResultSetTardis(plugin, null, "", true);
-                        if (rsl.resultSet()) {
-                            ArrayList<HashMap<String, String>> data = rsl.getData();
+                        List<String> lines = TARDISQuery.list("tardis", "owner, current", null, LIST_LINE);
+                        if (!lines.isEmpty()) {
                             String file = plugin.getDataFolder() + File.separator + "TARDIS_list.txt";
                             try {
                                 BufferedWriter bw = new BufferedWriter(new FileWriter(file, false));
-                                for (HashMap<String, String> map : data) {
-                                    String line = "Timelord: " + map.get("owner") + ", Location: " + map.get("current");
+                                for (String line : lines) {
                                     bw.write(line);
                                     bw.newLine();
                                 }
@@ -258,19 +292,16 @@ public class TARDISAdminCommands implements CommandExecutor {
                         return true;
                     } else {
                         // get all tardis positions - max 18
-                        int start = 0, end = 18;
+                        int start = 0;
                         if (args.length > 1) {
                             int tmp = plugin.utils.parseNum(args[1]);
                             start = (tmp * 18) - 18;
-                            end = tmp * 18;
                         }
-                        String limit = start + ", " + end;
-                        ResultSetTardis rsl = new ResultSetTardis(plugin, null, limit, true);
-                        if (rsl.resultSet()) {
+                        List<String> lines = TARDISQuery.list("tardis", "owner, current", null, start, 18, LIST_LINE);
+                        if (!lines.isEmpty()) {
                             sender.sendMessage(plugin.pluginName + "TARDIS locations.");
-                            ArrayList<HashMap<String, String>> data = rsl.getData();
-                            for (HashMap<String, String> map : data) {
-                                sender.sendMessage("Timelord: " + map.get("owner") + ", Location: " + map.get("current"));
+                            for (String line : lines) {
+                                sender.sendMessage(line);
                             }
                             sender.sendMessage(plugin.pluginName + "To see more locations, type: /tardisadmin list 2,  /tardisadmin list 3 etc.");
                         } else {
@@ -326,7 +357,7 @@ public class TARDISAdminCommands implements CommandExecutor {
                     int max_count = plugin.getConfig().getInt("count");
                     HashMap<String, Object> where = new HashMap<String, Object>();
                     where.put("player", args[1]);
-                    ResultSetCount rsc = new ResultSetCount(plugin, where, false);
+                    ResultSetCount rsc = new ResultSetCount(plugin, where);
                     if (rsc.resultSet()) {
                         if (args.length == 3) {
                             // set count
@@ -348,14 +379,35 @@ public class TARDISAdminCommands implements CommandExecutor {
                     return true;
                 }
                 if (first.equals("prune")) {
-                    TARDISPruner pruner = new TARDISPruner(plugin);
+                    if (args.length < 2) {
+                        sender.sendMessage(plugin.pluginName + "Too few command arguments!");
+                        return false;
+                    }
+                    String action = args[1].toLowerCase(Locale.ENGLISH);
+                    if (action.equals("status")) {
+                        plugin.pruner.status(sender);
+                        return true;
+                    }
+                    if (action.equals("stop")) {
+                        plugin.pruner.stop(sender);
+                        return true;
+                    }
+                    if (action.equals("resume")) {
+                        plugin.pruner.resume(sender);
+                        return true;
+                    }
                     try {
                         int days = Integer.parseInt(args[1]);
-                        pruner.prune(sender, days);
+                        plugin.pruner.prune(sender, days);
                     } catch (NumberFormatException nfe) {
-                        if (args[1].equalsIgnoreCase("list") && args.length == 3) {
+                        if (args.length == 3) {
                             int days = plugin.utils.parseNum(args[2]);
-                            pruner.list(sender, days);
+                            if (action.equals("list")) {
+                                plugin.pruner.list(sender, days);
+                            }
+                            if (action.equals("dryrun")) {
+                                plugin.pruner.dryRun(sender, days);
+                            }
                         }
                     }
                     return true;
@@ -397,6 +449,7 @@ public class TARDISAdminCommands implements CommandExecutor {
                         Location wg2 = new Location(l.getWorld(), maxx, l.getBlockY() - 2, maxz);
                         plugin.wgchk.addRechargerProtection(player, args[1], wg1, wg2);
                     }
+                    plugin.artronRecharger.loadRechargers();
                 }
                 if (first.equals("decharge")) {
                     if (!plugin.getConfig().contains("rechargers." + args[1])) {
@@ -407,6 +460,7 @@ public class TARDISAdminCommands implements CommandExecutor {
                         plugin.wgchk.removeRechargerRegion(args[1]);
                     }
                     plugin.getConfig().set("rechargers." + args[1], null);
+                    plugin.artronRecharger.loadRechargers();
                 }
                 if (first.equals("enter")) {
                     Player player = null;
@@ -423,13 +477,13 @@ public class TARDISAdminCommands implements CommandExecutor {
                     }
                     HashMap<String, Object> where = new HashMap<String, Object>();
                     where.put("owner", args[1]);
-                    ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                    ResultSetTardis rs = new ResultSetTardis(plugin, where);
                     if (rs.resultSet()) {
                         int id = rs.getTardis_id();
                         HashMap<String, Object> wherei = new HashMap<String, Object>();
                         wherei.put("door_type", 1);
                         wherei.put("tardis_id", id);
-                        ResultSetDoors rsi = new ResultSetDoors(plugin, wherei, false);
+                        ResultSetDoors rsi = new ResultSetDoors(plugin, wherei);
                         if (rsi.resultSet()) {
                             TARDISConstants.COMPASS innerD = rsi.getDoor_direction();
                             String doorLocStr = rsi.getDoor_location();
@@ -506,7 +560,7 @@ public class TARDISAdminCommands implements CommandExecutor {
                             HashMap<String, Object> set = new HashMap<String, Object>();
                             set.put("tardis_id", id);
                             set.put("player", player.getName());
-                            qf.doInsert("travellers", set);
+                            qf.queueInsert("travellers", set);
                             return true;
                         }
                     }
@@ -522,32 +576,15 @@ public class TARDISAdminCommands implements CommandExecutor {
                     }
                     HashMap<String, Object> where = new HashMap<String, Object>();
                     where.put("owner", args[1]);
-                    ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                    ResultSetTardis rs = new ResultSetTardis(plugin, where);
                     if (rs.resultSet()) {
                         int id = rs.getTardis_id();
                         String currentLoc = rs.getCurrent();
                         TARDISConstants.SCHEMATIC schm = rs.getSchematic();
                         TARDISConstants.COMPASS d = rs.getDirection();
-                        boolean cham = rs.isChamele_on();
                         String chunkLoc = rs.getChunk();
                         String[] cdata = chunkLoc.split(":");
                         String name = cdata[0];
-                        World cw = plugin.getServer().getWorld(name);
-                        int restore = 0;
-                        // if (!create_worlds) set the restore block
-                        if (!name.contains("TARDIS_WORLD_") && cw.getWorldType() != WorldType.FLAT) {
-                            World.Environment env = cw.getEnvironment();
-                            switch (env) {
-                                case NETHER:
-                                    restore = 87;
-                                    break;
-                                case THE_END:
-                                    restore = 121;
-                                    break;
-                                default:
-                                    restore = 1;
-                            }
-                        }
                         // check if player is in the TARDIS
                         HashMap<String, Object> wheret = new HashMap<String, Object>();
                         wheret.put("tardis_id", id);
@@ -564,57 +601,12 @@ public class TARDISAdminCommands implements CommandExecutor {
                             sender.sendMessage(plugin.pluginName + "Could not get the location of the TARDIS!");
                             return true;
                         }
-                        // destroy the TARDIS
-                        if ((plugin.getConfig().getBoolean("create_worlds") && !plugin.getConfig().getBoolean("default_world")) || name.contains("TARDIS_WORLD_")) {
-                            // delete TARDIS world
-                            List<Player> players = cw.getPlayers();
-                            for (Player p : players) {
-                                p.kickPlayer("World scheduled for deletion!");
-                            }
-                            if (plugin.pm.isPluginEnabled("Multiverse-Core")) {
-                                plugin.getServer().dispatchCommand(plugin.console, "mv remove " + name);
-                            }
-                            if (plugin.pm.isPluginEnabled("MultiWorld")) {
-                                plugin.getServer().dispatchCommand(plugin.console, "mw unload " + name);
-                            }
-                            if (plugin.pm.isPluginEnabled("WorldBorder")) {
-                                // wb <world> clear
-                                plugin.getServer().dispatchCommand(plugin.console, "wb " + name + " clear");
-                            }
-                            plugin.getServer().unloadWorld(cw, true);
-                            File world_folder = new File(plugin.getServer().getWorldContainer() + File.separator + name + File.separator);
-                            if (!deleteFolder(world_folder)) {
-                                plugin.debug("Could not delete world <" + name + ">");
-                            }
-                        } else {
-                            plugin.destroyI.destroyInner(schm, id, cw, restore, args[1]);
-                        }
                         if (!rs.isHidden()) {
                             plugin.destroyPB.destroyPoliceBox(bb_loc, d, id, false, false, false, null);
                         }
-                        // delete the TARDIS from the db
-                        HashMap<String, Object> wherec = new HashMap<String, Object>();
-                        wherec.put("tardis_id", id);
-                        qf.doDelete("chunks", wherec);
-                        HashMap<String, Object> wherea = new HashMap<String, Object>();
-                        wherea.put("tardis_id", id);
-                        qf.doDelete("tardis", wherea);
-                        HashMap<String, Object> whereo = new HashMap<String, Object>();
-                        whereo.put("tardis_id", id);
-                        qf.doDelete("doors", whereo);
-                        HashMap<String, Object> whereb = new HashMap<String, Object>();
-                        whereb.put("tardis_id", id);
-                        qf.doDelete("blocks", whereb);
-                        HashMap<String, Object> wherev = new HashMap<String, Object>();
-                        wherev.put("tardis_id", id);
-                        qf.doDelete("travellers", wherev);
-                        HashMap<String, Object> whereg = new HashMap<String, Object>();
-                        whereg.put("tardis_id", id);
-                        qf.doDelete("gravity_well", whereg);
-                        HashMap<String, Object> wheres = new HashMap<String, Object>();
-                        wheres.put("tardis_id", id);
-                        qf.doDelete("destinations", wheres);
-                        sender.sendMessage(plugin.pluginName + "The TARDIS was removed from the world and database successfully.");
+                        // clear the interior (or delete the TARDIS world) in the background, then remove it from the db
+                        plugin.pruner.delete(sender, id, args[1], name, schm);
+                        sender.sendMessage(plugin.pluginName + "The TARDIS is being removed from the world and database...");
                     } else {
                         sender.sendMessage(plugin.pluginName + "Could not find player [" + args[1] + "] in the database!");
                         return true;
@@ -16,7 +16,6 @@
  */
 package me.eccentric_nz.TARDIS.commands;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.database.QueryFactory;
@@ -73,26 +72,21 @@ public class TARDISAreaCommands implements CommandExecutor {
                     sender.sendMessage(plugin.pluginName + "That doesn't appear to be a valid area name (it may be too long)" + ChatColor.GREEN + " /tardisarea start [area_name_goes_here]");
                     return false;
                 }
-                ResultSetAreas rsa = new ResultSetAreas(plugin, null, true);
-                if (rsa.resultSet()) {
-                    ArrayList<HashMap<String, String>> data = rsa.getData();
-                    for (HashMap<String, String> map : data) {
-                        if (map.get("area_name").equals(args[1])) {
-                            sender.sendMessage(plugin.pluginName + "Area name already in use!");
-                            return false;
-                        }
-                    }
+                if (plugin.areaIndex.getArea(args[1]) != null) {
+                    sender.sendMessage(plugin.pluginName + "Area name already in use!");
+                    return false;
                 }
-                plugin.trackName.put(player.getName(), args[1]);
+                plugin.state.trackName.put(player.getName(), args[1]);
+                plugin.state.trackEnd.remove(player.getName());
                 player.sendMessage(plugin.pluginName + "Click the area start block to save its position.");
                 return true;
             }
             if (args[0].equals("end")) {
-                if (!plugin.trackBlock.containsKey(player.getName())) {
+                if (!plugin.state.trackBlock.containsKey(player.getName())) {
                     player.sendMessage(plugin.pluginName + ChatColor.RED + "You haven't selected an area start block!");
                     return false;
                 }
-                plugin.trackEnd.put(player.getName(), "end");
+                plugin.state.trackEnd.put(player.getName(), "end", 60L);
                 player.sendMessage(plugin.pluginName + "Click the area end block to complete the area.");
                 return true;
             }
@@ -115,7 +109,7 @@ public class TARDISAreaCommands implements CommandExecutor {
                 }
                 HashMap<String, Object> where = new HashMap<String, Object>();
                 where.put("area_name", args[1]);
-                ResultSetAreas rsa = new ResultSetAreas(plugin, where, false);
+                ResultSetAreas rsa = new ResultSetAreas(plugin, where);
                 if (!rsa.resultSet()) {
                     player.sendMessage(plugin.pluginName + "Could not find area [" + args[1] + "]! Did you type the name correctly?");
                     return false;
@@ -88,7 +88,7 @@ public class TARDISBindCommands implements CommandExecutor {
             }
             HashMap<String, Object> where = new HashMap<String, Object>();
             where.put("owner", player.getName());
-            ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+            ResultSetTardis rs = new ResultSetTardis(plugin, where);
             if (!rs.resultSet()) {
                 sender.sendMessage(plugin.pluginName + "You are not a Timelord. You need to create a TARDIS first before using this command!");
                 return false;
@@ -122,7 +122,7 @@ public class TARDISBindCommands implements CommandExecutor {
                 HashMap<String, Object> whered = new HashMap<String, Object>();
                 whered.put("tardis_id", id);
                 whered.put("dest_name", args[1].toLowerCase(Locale.ENGLISH));
-                ResultSetDestinations rsd = new ResultSetDestinations(plugin, whered, false);
+                ResultSetDestinations rsd = new ResultSetDestinations(plugin, whered);
                 if (!rsd.resultSet()) {
                     sender.sendMessage(plugin.pluginName + "Could not find a save with that name! Try using " + ChatColor.AQUA + "/tardis list saves" + ChatColor.RESET + " first.");
                     return true;
@@ -153,7 +153,7 @@ public class TARDISBindCommands implements CommandExecutor {
                     HashMap<String, Object> whered = new HashMap<String, Object>();
                     whered.put("tardis_id", id);
                     whered.put("dest_name", args[1]);
-                    ResultSetDestinations rsd = new ResultSetDestinations(plugin, whered, false);
+                    ResultSetDestinations rsd = new ResultSetDestinations(plugin, whered);
                     if (!rsd.resultSet()) {
                         sender.sendMessage(plugin.pluginName + "Could not find a save with that name! Try using " + ChatColor.AQUA + "/tardis list saves" + ChatColor.RESET + " first.");
                         return true;
@@ -190,7 +190,7 @@ public class TARDISBindCommands implements CommandExecutor {
                 if (args[0].equalsIgnoreCase("area")) { // type 3
                     HashMap<String, Object> wherea = new HashMap<String, Object>();
                     wherea.put("area_name", args[1]);
-                    ResultSetAreas rsa = new ResultSetAreas(plugin, wherea, false);
+                    ResultSetAreas rsa = new ResultSetAreas(plugin, wherea);
                     if (!rsa.resultSet()) {
                         sender.sendMessage(plugin.pluginName + "Could not find an area with that name! try using " + ChatColor.AQUA + "/tardis list areas" + ChatColor.RESET + " first.");
                         return true;
@@ -219,7 +219,7 @@ public class TARDISBindCommands implements CommandExecutor {
                     }
                 }
                 if (did != 0) {
-                    plugin.trackBinder.put(player.getName(), did);
+                    plugin.state.trackBinder.put(player.getName(), did);
                     player.sendMessage(plugin.pluginName + "Click the block you want to bind to this save location.");
                     return true;
                 }
@@ -103,7 +103,7 @@ public class TARDISBookCommands implements CommandExecutor {
                     HashMap<String, Object> where = new HashMap<String, Object>();
                     where.put("player", player.getName());
                     where.put("name", bookname);
-                    ResultSetAchievements rsa = new ResultSetAchievements(plugin, where, false);
+                    ResultSetAchievements rsa = new ResultSetAchievements(plugin, where);
                     if (rsa.resultSet()) {
                         if (rsa.isCompleted()) {
                             if (!plugin.getAchivementConfig().getBoolean(bookname + ".repeatable")) {
@@ -120,6 +120,7 @@ public class TARDISBookCommands implements CommandExecutor {
                     set.put("name", bookname);
                     QueryFactory qf = new QueryFactory(plugin);
                     qf.doInsert("achievements", set);
+                    plugin.achievements.started(player.getName(), bookname, "");
                     sender.sendMessage(plugin.pluginName + "Achievement '" + bookname + "' started!");
                     return true;
                 }
@@ -149,12 +149,13 @@ public class TARDISCommands implements CommandExecutor {
                     sender.sendMessage(plugin.pluginName + "You must be a player to run this command!");
                     return false;
                 }
-                if (!plugin.trackExterminate.containsKey(player.getName())) {
+                Block sign = plugin.state.trackExterminate.get(player.getName());
+                if (sign == null) {
                     sender.sendMessage(plugin.pluginName + "You must break the TARDIS Police Box sign first!");
                     return false;
                 }
                 TARDISExterminator del = new TARDISExterminator(plugin);
-                return del.exterminate(player, plugin.trackExterminate.get(player.getName()));
+                return del.exterminate(player, sign);
             }
             // temporary command to convert old gravity well to new style
             if (args[0].equalsIgnoreCase("gravity")) {
@@ -165,7 +166,7 @@ public class TARDISCommands implements CommandExecutor {
                 // get the players TARDIS id
                 HashMap<String, Object> where = new HashMap<String, Object>();
                 where.put("owner", player.getName());
-                ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                ResultSetTardis rs = new ResultSetTardis(plugin, where);
                 if (!rs.resultSet()) {
                     sender.sendMessage(plugin.pluginName + TARDISConstants.NO_TARDIS);
                     return false;
@@ -179,13 +180,9 @@ public class TARDISCommands implements CommandExecutor {
                     ResultSet rsg = statement.executeQuery(query);
                     if (rsg.isBeforeFirst()) {
                         String up = "Location{world=" + rsg.getString("world") + ",x=" + rsg.getFloat("upx") + ",y=10.0,z=" + rsg.getFloat("upz") + ",pitch=0.0,yaw=0.0}";
-                        Double[] values = new Double[3];
-                        values[0] = 1D;
-                        values[1] = 11D;
-                        values[2] = 0.5D;
-                        plugin.gravityUpList.put(up, values);
+                        plugin.gravityWells.add(rsg.getString("world"), (int) rsg.getFloat("upx"), 10, (int) rsg.getFloat("upz"), id, 1, 11, 0.5);
                         String down = "Location{world=" + rsg.getString("world") + ",x=" + rsg.getFloat("downx") + ",y=10.0,z=" + rsg.getFloat("downz") + ",pitch=0.0,yaw=0.0}";
-                        plugin.gravityDownList.add(down);
+                        plugin.gravityWells.add(rsg.getString("world"), (int) rsg.getFloat("downx"), 10, (int) rsg.getFloat("downz"), id, 0, 0, 0);
                         HashMap<String, Object> setu = new HashMap<String, Object>();
                         setu.put("tardis_id", id);
                         setu.put("location", up);
@@ -241,7 +238,7 @@ public class TARDISCommands implements CommandExecutor {
                         // get the players TARDIS id
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         if (!rs.resultSet()) {
                             sender.sendMessage(plugin.pluginName + TARDISConstants.NO_TARDIS);
                             return false;
@@ -328,12 +325,11 @@ public class TARDISCommands implements CommandExecutor {
                         }
                         String playerNameStr = player.getName();
                         destPlayer.sendMessage(plugin.pluginName + playerNameStr + "wants to rescue you! Type: " + ChatColor.AQUA + "tardis rescue accept" + ChatColor.RESET + " in chat within 60 seconds to accept the rescue.");
-                        plugin.trackChat.put(saved, playerNameStr);
+                        plugin.state.trackChat.put(saved, playerNameStr);
                         plugin.getServer().getScheduler().scheduleSyncDelayedTask(plugin, new Runnable() {
                             @Override
                             public void run() {
-                                if (plugin.trackChat.containsKey(saved)) {
-                                    plugin.trackChat.remove(saved);
+                                if (plugin.state.trackChat.remove(saved) != null) {
                                     sender.sendMessage(plugin.pluginName + saved + " didn't respond with 60 seconds, aborting rescue!");
                                 }
                             }
@@ -371,7 +367,7 @@ public class TARDISCommands implements CommandExecutor {
                     }
                     HashMap<String, Object> where = new HashMap<String, Object>();
                     where.put("owner", player.getName());
-                    ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                    ResultSetTardis rs = new ResultSetTardis(plugin, where);
                     if (!rs.resultSet()) {
                         player.sendMessage(plugin.pluginName + "You are not a Timelord. You need to create a TARDIS first before using this command!");
                         return true;
@@ -399,7 +395,7 @@ public class TARDISCommands implements CommandExecutor {
                     if (plugin.getConfig().getBoolean("rooms_require_blocks")) {
                         HashMap<String, Integer> blockIDCount = new HashMap<String, Integer>();
                         boolean hasRequired = true;
-                        HashMap<String, Integer> roomBlocks = plugin.roomBlockCounts.get(room);
+                        HashMap<String, Integer> roomBlocks = plugin.room_schematics.getBlockCounts(room);
                         String wall = "ORANGE_WOOL";
                         String floor = "LIGHT_GREY_WOOL";
                         HashMap<String, Object> wherepp = new HashMap<String, Object>();
@@ -431,7 +427,7 @@ public class TARDISCommands implements CommandExecutor {
                             HashMap<String, Object> wherec = new HashMap<String, Object>();
                             wherec.put("tardis_id", id);
                             wherec.put("block_data", bdata);
-                            ResultSetCondenser rsc = new ResultSetCondenser(plugin, wherec, false);
+                            ResultSetCondenser rsc = new ResultSetCondenser(plugin, wherec);
                             if (rsc.resultSet()) {
                                 if (rsc.getBlock_count() < required) {
                                     hasRequired = false;
@@ -459,7 +455,7 @@ public class TARDISCommands implements CommandExecutor {
                     } else {
                         message = "Place the " + room + " seed block (" + plugin.getRoomsConfig().getString("rooms." + room + ".seed") + ") where the door should be, then hit it with the TARDIS key to start growing your room!";
                     }
-                    plugin.trackRoomSeed.put(player.getName(), room);
+                    plugin.state.trackRoomSeed.put(player.getName(), room);
                     player.sendMessage(plugin.pluginName + message);
                     return true;
 
@@ -486,7 +482,7 @@ public class TARDISCommands implements CommandExecutor {
                         }
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         if (!rs.resultSet()) {
                             player.sendMessage(plugin.pluginName + "You are not a Timelord. You need to create a TARDIS first before using this command!");
                             return true;
@@ -501,7 +497,7 @@ public class TARDISCommands implements CommandExecutor {
                             player.sendMessage(plugin.pluginName + "You are not inside your TARDIS. You need to be to run this command!");
                             return true;
                         }
-                        plugin.trackJettison.put(player.getName(), room);
+                        plugin.state.trackJettison.put(player.getName(), room);
                         String seed = plugin.getArtronConfig().getString("jettison_seed");
                         player.sendMessage(plugin.pluginName + "Stand in the doorway of the room you want to jettison and place a " + seed + " block directly in front of the door. Hit the " + seed + " with the TARDIS key to jettison the room!");
                         return true;
@@ -517,7 +513,9 @@ public class TARDISCommands implements CommandExecutor {
                     }
                     try {
                         int task = Integer.parseInt(args[1]);
-                        plugin.getServer().getScheduler().cancelTask(task);
+                        if (!plugin.roomScheduler.abort(task)) {
+                            plugin.getServer().getScheduler().cancelTask(task);
+                        }
                         player.sendMessage(plugin.pluginName + "Task aborted!");
                         return true;
                     } catch (NumberFormatException nfe) {
@@ -529,7 +527,7 @@ public class TARDISCommands implements CommandExecutor {
                     if (player.hasPermission("tardis.timetravel")) {
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         if (!rs.resultSet()) {
                             sender.sendMessage(plugin.pluginName + " You must be the Timelord of the TARDIS to use this command!");
                             return false;
@@ -551,7 +549,7 @@ public class TARDISCommands implements CommandExecutor {
                             HashMap<String, Object> wherei = new HashMap<String, Object>();
                             wherei.put("tardis_id", id);
                             wherei.put("player", player.getName());
-                            qf.doInsert("travellers", wherei);
+                            qf.queueInsert("travellers", wherei);
                             occupied = ChatColor.GREEN + "OCCUPIED";
                         }
                         sender.sendMessage(plugin.pluginName + " TARDIS occupation was set to: " + occupied);
@@ -598,7 +596,7 @@ public class TARDISCommands implements CommandExecutor {
                             // check they are a timelord
                             HashMap<String, Object> where = new HashMap<String, Object>();
                             where.put("owner", player.getName());
-                            final ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                            final ResultSetTardis rs = new ResultSetTardis(plugin, where);
                             if (!rs.resultSet()) {
                                 sender.sendMessage(plugin.pluginName + "You must be the Timelord of the TARDIS to use this command!");
                                 return true;
@@ -613,7 +611,7 @@ public class TARDISCommands implements CommandExecutor {
                                 player.sendMessage(plugin.pluginName + "You cannot bring the Police Box here because you are inside a TARDIS!");
                                 return true;
                             }
-                            if (plugin.tardisMaterialising.contains(id) || plugin.tardisDematerialising.contains(id)) {
+                            if (plugin.state.tardisMaterialising.contains(id) || plugin.state.tardisDematerialising.contains(id)) {
                                 sender.sendMessage(plugin.pluginName + "You cannot do that while the TARDIS is materialising!");
                                 return true;
                             }
@@ -625,12 +623,12 @@ public class TARDISCommands implements CommandExecutor {
                             if (b.getRelative(BlockFace.UP).getTypeId() == 8 || b.getRelative(BlockFace.UP).getTypeId() == 9) {
                                 count = (tt.isSafeSubmarine(eyeLocation, d)) ? 0 : 1;
                                 if (count == 0) {
-                                    plugin.trackSubmarine.add(id);
+                                    plugin.state.trackSubmarine.add(id);
                                     sub = "true";
                                 }
                             } else {
-                                if (plugin.trackSubmarine.contains(Integer.valueOf(id))) {
-                                    plugin.trackSubmarine.remove(Integer.valueOf(id));
+                                if (plugin.state.trackSubmarine.contains(id)) {
+                                    plugin.state.trackSubmarine.remove(id);
                                 }
                                 int[] start_loc = tt.getStartLocation(eyeLocation, d);
                                 // safeLocation(int startx, int starty, int startz, int resetx, int resetz, World w, TARDISConstants.COMPASS d)
@@ -680,7 +678,7 @@ public class TARDISCommands implements CommandExecutor {
                                     @Override
                                     public void run() {
                                         if (!hidden) {
-                                            plugin.tardisDematerialising.add(id);
+                                            plugin.state.tardisDematerialising.add(id);
                                             plugin.destroyPB.destroyPoliceBox(oldSave, d, id, false, mat, cham, p);
                                         }
                                     }
@@ -695,9 +693,9 @@ public class TARDISCommands implements CommandExecutor {
                                 HashMap<String, Object> wheret = new HashMap<String, Object>();
                                 wheret.put("tardis_id", id);
                                 qf.alterEnergyLevel("tardis", -ch, wheret, player);
-                                plugin.tardisHasDestination.remove(id);
-                                if (plugin.trackRescue.containsKey(Integer.valueOf(id))) {
-                                    plugin.trackRescue.remove(Integer.valueOf(id));
+                                plugin.state.tardisHasDestination.remove(id);
+                                if (plugin.state.trackRescue.containsKey(Integer.valueOf(id))) {
+                                    plugin.state.trackRescue.remove(Integer.valueOf(id));
                                 }
                                 return true;
                             } else {
@@ -723,7 +721,7 @@ public class TARDISCommands implements CommandExecutor {
                     // check they are a timelord
                     HashMap<String, Object> where = new HashMap<String, Object>();
                     where.put("owner", player.getName());
-                    ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                    ResultSetTardis rs = new ResultSetTardis(plugin, where);
                     if (!rs.resultSet()) {
                         sender.sendMessage(plugin.pluginName + "You must be the Timelord of a TARDIS to use this command!");
                         return true;
@@ -737,7 +735,7 @@ public class TARDISCommands implements CommandExecutor {
                     // check they are a timelord
                     HashMap<String, Object> where = new HashMap<String, Object>();
                     where.put("owner", player.getName());
-                    ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                    ResultSetTardis rs = new ResultSetTardis(plugin, where);
                     if (!rs.resultSet()) {
                         sender.sendMessage(plugin.pluginName + "You must be the Timelord of a TARDIS to use this command!");
                         return true;
@@ -785,7 +783,7 @@ public class TARDISCommands implements CommandExecutor {
                         }
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         if (!rs.resultSet()) {
                             sender.sendMessage(plugin.pluginName + "You must be the Timelord of the TARDIS to use this command!");
                             return false;
@@ -841,7 +839,7 @@ public class TARDISCommands implements CommandExecutor {
                         }
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         if (!rs.resultSet()) {
                             sender.sendMessage(plugin.pluginName + "You are not a Timelord. You need to create a TARDIS first before using this command!");
                             return false;
@@ -875,7 +873,7 @@ public class TARDISCommands implements CommandExecutor {
                             player.sendMessage(plugin.pluginName + "You need to grow a rail room before you can update its position.");
                             return true;
                         }
-                        plugin.trackPlayers.put(player.getName(), tardis_block);
+                        plugin.state.trackPlayers.put(player.getName(), tardis_block);
                         player.sendMessage(plugin.pluginName + "Click the TARDIS " + tardis_block + " to update its position.");
                         return true;
                     } else {
@@ -897,7 +895,7 @@ public class TARDISCommands implements CommandExecutor {
                         }
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         if (!rs.resultSet()) {
                             sender.sendMessage(plugin.pluginName + "You are not a Timelord. You need to create a TARDIS first before using this command!");
                             return false;
@@ -909,7 +907,7 @@ public class TARDISCommands implements CommandExecutor {
                             sender.sendMessage(plugin.pluginName + "You are not inside your TARDIS. You need to be to run this command!");
                             return false;
                         }
-                        plugin.trackSecondary.put(player.getName(), tardis_block);
+                        plugin.state.trackSecondary.put(player.getName(), tardis_block);
                         player.sendMessage(plugin.pluginName + "Click the TARDIS " + tardis_block + " to update its position.");
                         return true;
                     } else {
@@ -926,7 +924,7 @@ public class TARDISCommands implements CommandExecutor {
                         boolean cham = false;
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         if (!rs.resultSet()) {
                             sender.sendMessage(plugin.pluginName + TARDISConstants.NO_TARDIS);
                             return false;
@@ -935,13 +933,13 @@ public class TARDISCommands implements CommandExecutor {
                         HashMap<String, Object> wherein = new HashMap<String, Object>();
                         wherein.put("player", player.getName());
                         ResultSetTravellers rst = new ResultSetTravellers(plugin, wherein, false);
-                        if (rst.resultSet() && args[0].equalsIgnoreCase("rebuild") && plugin.tardisHasDestination.containsKey(id)) {
+                        if (rst.resultSet() && args[0].equalsIgnoreCase("rebuild") && plugin.state.tardisHasDestination.containsKey(id)) {
                             sender.sendMessage(plugin.pluginName + "You cannot rebuild the TARDIS right now! Try travelling first.");
                             return true;
                         }
                         int level = rs.getArtron_level();
                         save = rs.getCurrent();
-                        if (plugin.tardisMaterialising.contains(id) || plugin.tardisDematerialising.contains(id)) {
+                        if (plugin.state.tardisMaterialising.contains(id) || plugin.state.tardisDematerialising.contains(id)) {
                             sender.sendMessage(plugin.pluginName + "You cannot do that while the TARDIS is materialising!");
                             return true;
                         }
@@ -1003,7 +1001,7 @@ public class TARDISCommands implements CommandExecutor {
                     if (player.hasPermission("tardis.list")) {
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         if (!rs.resultSet()) {
                             sender.sendMessage(plugin.pluginName + TARDISConstants.NO_TARDIS);
                             return false;
@@ -1024,7 +1022,7 @@ public class TARDISCommands implements CommandExecutor {
                         if (player.hasPermission("tardis.find")) {
                             HashMap<String, Object> where = new HashMap<String, Object>();
                             where.put("owner", player.getName());
-                            ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                            ResultSetTardis rs = new ResultSetTardis(plugin, where);
                             if (!rs.resultSet()) {
                                 sender.sendMessage(plugin.pluginName + TARDISConstants.NO_TARDIS);
                                 return false;
@@ -1046,7 +1044,7 @@ public class TARDISCommands implements CommandExecutor {
                     if (player.hasPermission("tardis.add")) {
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         String comps;
                         int id;
                         if (!rs.resultSet()) {
@@ -1094,7 +1092,7 @@ public class TARDISCommands implements CommandExecutor {
                     if (player.hasPermission("tardis.add")) {
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         String comps;
                         int id;
                         if (!rs.resultSet()) {
@@ -1150,7 +1148,7 @@ public class TARDISCommands implements CommandExecutor {
                     if (player.hasPermission("tardis.save")) {
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         if (!rs.resultSet()) {
                             sender.sendMessage(plugin.pluginName + TARDISConstants.NO_TARDIS);
                             return false;
@@ -1171,7 +1169,7 @@ public class TARDISCommands implements CommandExecutor {
                             wherename.put("tardis_id", id);
                             wherename.put("dest_name", args[1]);
                             wherename.put("type", 0);
-                            ResultSetDestinations rsd = new ResultSetDestinations(plugin, wherename, false);
+                            ResultSetDestinations rsd = new ResultSetDestinations(plugin, wherename);
                             if (rsd.resultSet()) {
                                 sender.sendMessage(plugin.pluginName + "You already have a save with that name!");
                                 return true;
@@ -1207,7 +1205,7 @@ public class TARDISCommands implements CommandExecutor {
                         }
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         if (!rs.resultSet()) {
                             sender.sendMessage(plugin.pluginName + TARDISConstants.NO_TARDIS);
                             return false;
@@ -1216,7 +1214,7 @@ public class TARDISCommands implements CommandExecutor {
                         HashMap<String, Object> whered = new HashMap<String, Object>();
                         whered.put("dest_name", args[1]);
                         whered.put("tardis_id", id);
-                        ResultSetDestinations rsd = new ResultSetDestinations(plugin, whered, false);
+                        ResultSetDestinations rsd = new ResultSetDestinations(plugin, whered);
                         if (!rsd.resultSet()) {
                             sender.sendMessage(plugin.pluginName + "Could not find a saved destination with that name!");
                             return false;
@@ -1237,7 +1235,7 @@ public class TARDISCommands implements CommandExecutor {
                     if (player.hasPermission("tardis.save")) {
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         if (!rs.resultSet()) {
                             sender.sendMessage(plugin.pluginName + TARDISConstants.NO_TARDIS);
                             return false;
@@ -1323,7 +1321,7 @@ public class TARDISCommands implements CommandExecutor {
                         }
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         if (!rs.resultSet()) {
                             sender.sendMessage(plugin.pluginName + TARDISConstants.NO_TARDIS);
                             return false;
@@ -1337,7 +1335,7 @@ public class TARDISCommands implements CommandExecutor {
                         }
                         String save = rs.getCurrent();
                         String[] save_data = save.split(":");
-                        if (plugin.tardisMaterialising.contains(id) || plugin.tardisDematerialising.contains(id)) {
+                        if (plugin.state.tardisMaterialising.contains(id) || plugin.state.tardisDematerialising.contains(id)) {
                             sender.sendMessage(plugin.pluginName + "You cannot do that while the TARDIS is materialising!");
                             return true;
                         }
@@ -124,7 +124,7 @@ public class TARDISGravityCommands implements CommandExecutor {
                 } else {
                     values[2] = 0.5D;
                 }
-                plugin.trackGravity.put(player.getName(), values);
+                plugin.state.trackGravity.put(player.getName(), values);
                 String message = (dir.equals("remove")) ? "remove it from the database" : "save its position";
                 player.sendMessage(plugin.pluginName + "Click the wool block to " + message + ".");
                 return true;
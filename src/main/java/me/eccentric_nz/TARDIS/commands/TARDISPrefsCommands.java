@@ -156,7 +156,7 @@ public class TARDISPrefsCommands implements CommandExecutor {
                     if (pref.equals("isomorphic")) {
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         // does the player have a TARDIS
                         if (rs.resultSet()) {
                             int iso = (rs.isIso_on()) ? 0 : 1;
@@ -265,7 +265,7 @@ public class TARDISPrefsCommands implements CommandExecutor {
     private void toggleBeacon(String name, boolean on) {
         HashMap<String, Object> whereb = new HashMap<String, Object>();
         whereb.put("owner", name);
-        ResultSetTardis rs = new ResultSetTardis(plugin, whereb, "", false);
+        ResultSetTardis rs = new ResultSetTardis(plugin, whereb);
         if (rs.resultSet()) {
             // toggle beacon
             String beacon = rs.getBeacon();
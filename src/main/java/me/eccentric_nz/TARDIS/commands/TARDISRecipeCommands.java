@@ -86,7 +86,7 @@ public class TARDISRecipeCommands implements CommandExecutor {
             ItemStack sti = new ItemStack(Material.STICK, 1);
             ItemStack lap = new ItemStack(Material.INK_SACK, 1, (short) 4);
             if (args[0].equalsIgnoreCase("remote")) {
-                plugin.trackRecipeView.add(player.getName());
+                plugin.state.trackRecipeView.add(player.getName());
                 InventoryView view = player.openWorkbench(null, true);
                 view.getTopInventory().setItem(1, obs);
                 view.getTopInventory().setItem(2, new ItemStack(Material.STONE_BUTTON, 1));
@@ -110,7 +110,7 @@ public class TARDISRecipeCommands implements CommandExecutor {
             }
             if (args[0].equalsIgnoreCase("locator")) {
                 //recipe.shape("OIO", "ICI", "OIO");
-                plugin.trackRecipeView.add(player.getName());
+                plugin.state.trackRecipeView.add(player.getName());
                 InventoryView view = player.openWorkbench(null, true);
                 view.getTopInventory().setItem(1, obs);
                 view.getTopInventory().setItem(2, ing);
@@ -130,7 +130,7 @@ public class TARDISRecipeCommands implements CommandExecutor {
             }
             if (args[0].equalsIgnoreCase("l-circuit")) {
                 //recipe.shape("RQR", "RIR", "DRL");
-                plugin.trackRecipeView.add(player.getName());
+                plugin.state.trackRecipeView.add(player.getName());
                 InventoryView view = player.openWorkbench(null, true);
                 view.getTopInventory().setItem(1, red);
                 view.getTopInventory().setItem(2, qtz);
@@ -145,7 +145,7 @@ public class TARDISRecipeCommands implements CommandExecutor {
             }
             if (args[0].equalsIgnoreCase("m-circuit")) {
                 // recipe.shape("IDI", "DLD", "QRQ");
-                plugin.trackRecipeView.add(player.getName());
+                plugin.state.trackRecipeView.add(player.getName());
                 InventoryView view = player.openWorkbench(null, true);
                 if (plugin.getConfig().getString("difficulty").equalsIgnoreCase("hard")) {
                     ing = new ItemStack(Material.EYE_OF_ENDER, 1);
@@ -163,7 +163,7 @@ public class TARDISRecipeCommands implements CommandExecutor {
             }
             if (args[0].equalsIgnoreCase("s-circuit")) {
                 //recipe.shape("AAA", "LRM", "QQQ");
-                plugin.trackRecipeView.add(player.getName());
+                plugin.state.trackRecipeView.add(player.getName());
                 InventoryView view = player.openWorkbench(null, true);
                 ItemStack lcircuit = new ItemStack(Material.MAP, 1, (short) 1965);
                 ItemMeta lim = lcircuit.getItemMeta();
@@ -185,7 +185,7 @@ public class TARDISRecipeCommands implements CommandExecutor {
             }
             if (args[0].equalsIgnoreCase("sonic")) {
                 // recipe.shape(" R ", " S ", " S ");
-                plugin.trackRecipeView.add(player.getName());
+                plugin.state.trackRecipeView.add(player.getName());
                 InventoryView view = player.openWorkbench(null, true);
                 view.getTopInventory().setItem(2, red);
                 view.getTopInventory().setItem(5, sti);
@@ -30,9 +30,8 @@ import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
 import me.eccentric_nz.TARDIS.artron.TARDISCondensables;
 import me.eccentric_nz.TARDIS.database.ResultSetPlayerPrefs;
-import me.eccentric_nz.TARDIS.files.TARDISMakeRoomCSV;
+import me.eccentric_nz.TARDIS.files.TARDISCompiledSchematic;
 import me.eccentric_nz.TARDIS.files.TARDISRoomSchematicReader;
-import me.eccentric_nz.TARDIS.files.TARDISSchematic;
 import me.eccentric_nz.TARDIS.utility.TARDISMaterials;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
@@ -66,7 +65,6 @@ public class TARDISRoomCommands implements CommandExecutor {
                 return false;
             }
             if (args[0].toLowerCase(Locale.ENGLISH).equals("blocks")) {
-                TARDISCondensables tc = new TARDISCondensables();
                 String name = args[1].toUpperCase(Locale.ENGLISH);
                 Set<String> rooms = plugin.getRoomsConfig().getConfigurationSection("rooms").getKeys(false);
                 if (name.equals("SAVE")) {
@@ -75,7 +73,7 @@ public class TARDISRoomCommands implements CommandExecutor {
                         return false;
                     }
                     for (String r : rooms) {
-                        HashMap<String, Integer> blockIDs = plugin.roomBlockCounts.get(r);
+                        HashMap<String, Integer> blockIDs = plugin.room_schematics.getBlockCounts(r);
                         String file = plugin.getDataFolder() + File.separator + r + "_block_list.txt";
                         int cost = 0;
                         try {
@@ -87,10 +85,7 @@ public class TARDISRoomCommands implements CommandExecutor {
                                 String line = mat + " (" + entry.getKey() + "), " + entry.getValue();
                                 bw.write(line);
                                 bw.newLine();
-                                if (tc.condensables.containsKey(mat)) {
-                                    int value = entry.getValue() * tc.condensables.get(mat);
-                                    cost += value;
-                                }
+                                cost += entry.getValue() * TARDISCondensables.getValue(Material.getMaterial(bid));
                             }
                             bw.write("Actual room cost: " + Math.round(cost / 2.0F));
                             bw.newLine();
@@ -106,7 +101,7 @@ public class TARDISRoomCommands implements CommandExecutor {
                         sender.sendMessage(plugin.pluginName + "Could not find a room with that name");
                         return true;
                     }
-                    HashMap<String, Integer> blockIDs = plugin.roomBlockCounts.get(name);
+                    HashMap<String, Integer> blockIDs = plugin.room_schematics.getBlockCounts(name);
                     boolean hasPrefs = false;
                     String wall = "ORANGE WOOL";
                     String floor = "LIGHT GREY WOOL";
@@ -163,17 +158,13 @@ public class TARDISRoomCommands implements CommandExecutor {
                     sender.sendMessage(plugin.pluginName + "You need to put the " + lower + ".schematic into the TARDIS user_schematics directory!");
                     return true;
                 }
-                TARDISMakeRoomCSV mrc = new TARDISMakeRoomCSV(plugin);
                 TARDISRoomSchematicReader reader = new TARDISRoomSchematicReader(plugin);
                 String basepath = plugin.getDataFolder() + File.separator + "user_schematics" + File.separator;
-                File csvfile = mrc.createFile(lower + ".csv", basepath);
-                boolean square = reader.readAndMakeRoomCSV(basepath + lower, name, false);
-                if (!square) {
+                TARDISCompiledSchematic schem = reader.readRoom(basepath + lower, name, false);
+                if (schem == null) {
                     sender.sendMessage(plugin.pluginName + "The schematic needs to have equal length sides!");
                     return true;
                 }
-                short[] dimensions = plugin.room_dimensions.get(name);
-                String[][][] schem = TARDISSchematic.schematic(csvfile, dimensions[0], dimensions[1], dimensions[2]);
                 plugin.room_schematics.put(name, schem);
                 plugin.getRoomsConfig().set("rooms." + name + ".enabled", false);
                 plugin.getRoomsConfig().set("rooms." + name + ".user", true);
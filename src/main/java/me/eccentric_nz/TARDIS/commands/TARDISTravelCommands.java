@@ -31,6 +31,7 @@ import me.eccentric_nz.TARDIS.database.ResultSetAreas;
 import me.eccentric_nz.TARDIS.database.ResultSetDestinations;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
 import me.eccentric_nz.TARDIS.database.ResultSetTravellers;
+import me.eccentric_nz.TARDIS.database.TARDISQuery;
 import me.eccentric_nz.TARDIS.travel.TARDISPluginRespect;
 import me.eccentric_nz.TARDIS.travel.TARDISRescue;
 import me.eccentric_nz.TARDIS.travel.TARDISTimeTravel;
@@ -92,7 +93,7 @@ public class TARDISTravelCommands implements CommandExecutor {
                 // get tardis data
                 HashMap<String, Object> where = new HashMap<String, Object>();
                 where.put("owner", player.getName());
-                ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                ResultSetTardis rs = new ResultSetTardis(plugin, where);
                 if (!rs.resultSet()) {
                     sender.sendMessage(plugin.pluginName + "You are not a Timelord. You need to create a TARDIS before using this command!");
                     return true;
@@ -140,9 +141,9 @@ public class TARDISTravelCommands implements CommandExecutor {
                     set.put("save", save_loc);
                     qf.doUpdate("tardis", set, tid);
                     player.sendMessage(plugin.pluginName + "Your TARDIS was approved for parking in [" + permArea + "]!");
-                    plugin.tardisHasDestination.put(id, travel);
-                    if (plugin.trackRescue.containsKey(Integer.valueOf(id))) {
-                        plugin.trackRescue.remove(Integer.valueOf(id));
+                    plugin.state.tardisHasDestination.put(id, travel);
+                    if (plugin.state.trackRescue.containsKey(Integer.valueOf(id))) {
+                        plugin.state.trackRescue.remove(Integer.valueOf(id));
                     }
                     return true;
                 } else {
@@ -164,9 +165,9 @@ public class TARDISTravelCommands implements CommandExecutor {
                             }
                             qf.doUpdate("tardis", set, tid);
                             sender.sendMessage(plugin.pluginName + which + " location loaded succesfully. Please release the handbrake!");
-                            plugin.tardisHasDestination.put(id, travel);
-                            if (plugin.trackRescue.containsKey(Integer.valueOf(id))) {
-                                plugin.trackRescue.remove(Integer.valueOf(id));
+                            plugin.state.tardisHasDestination.put(id, travel);
+                            if (plugin.state.trackRescue.containsKey(Integer.valueOf(id))) {
+                                plugin.state.trackRescue.remove(Integer.valueOf(id));
                             }
                             return true;
                         } else {
@@ -232,9 +233,9 @@ public class TARDISTravelCommands implements CommandExecutor {
                                     set.put("save", save_loc);
                                     qf.doUpdate("tardis", set, tid);
                                     sender.sendMessage(plugin.pluginName + "The biome was set succesfully. Please release the handbrake!");
-                                    plugin.tardisHasDestination.put(id, travel);
-                                    if (plugin.trackRescue.containsKey(Integer.valueOf(id))) {
-                                        plugin.trackRescue.remove(Integer.valueOf(id));
+                                    plugin.state.tardisHasDestination.put(id, travel);
+                                    if (plugin.state.trackRescue.containsKey(Integer.valueOf(id))) {
+                                        plugin.state.trackRescue.remove(Integer.valueOf(id));
                                     }
                                 }
                             } catch (IllegalArgumentException iae) {
@@ -249,7 +250,7 @@ public class TARDISTravelCommands implements CommandExecutor {
                         HashMap<String, Object> whered = new HashMap<String, Object>();
                         whered.put("dest_name", args[1]);
                         whered.put("tardis_id", id);
-                        ResultSetDestinations rsd = new ResultSetDestinations(plugin, whered, false);
+                        ResultSetDestinations rsd = new ResultSetDestinations(plugin, whered);
                         if (!rsd.resultSet()) {
                             sender.sendMessage(plugin.pluginName + "Could not find a destination with that name! try using " + ChatColor.GREEN + "/TARDIS list saves" + ChatColor.RESET + " first.");
                             return true;
@@ -267,13 +268,9 @@ public class TARDISTravelCommands implements CommandExecutor {
                                 // save is in a TARDIS area, so check that the spot is not occupied
                                 HashMap<String, Object> wheres = new HashMap<String, Object>();
                                 wheres.put("save", save_loc);
-                                ResultSetTardis rsz = new ResultSetTardis(plugin, wheres, "", true);
-                                if (rsz.resultSet()) {
-                                    ArrayList<HashMap<String, String>> data = rsz.getData();
-                                    if (data.size() > 0) {
-                                        sender.sendMessage(plugin.pluginName + "A TARDIS already occupies this parking spot! Try using the " + ChatColor.AQUA + "/tardistravel area [name]" + ChatColor.RESET + " command instead.");
-                                        return true;
-                                    }
+                                if (TARDISQuery.exists("tardis", wheres)) {
+                                    sender.sendMessage(plugin.pluginName + "A TARDIS already occupies this parking spot! Try using the " + ChatColor.AQUA + "/tardistravel area [name]" + ChatColor.RESET + " command instead.");
+                                    return true;
                                 }
                             }
                             set.put("save", save_loc);
@@ -282,9 +279,9 @@ public class TARDISTravelCommands implements CommandExecutor {
                             }
                             qf.doUpdate("tardis", set, tid);
                             sender.sendMessage(plugin.pluginName + "The specified location was set succesfully. Please release the handbrake!");
-                            plugin.tardisHasDestination.put(id, travel);
-                            if (plugin.trackRescue.containsKey(Integer.valueOf(id))) {
-                                plugin.trackRescue.remove(Integer.valueOf(id));
+                            plugin.state.tardisHasDestination.put(id, travel);
+                            if (plugin.state.trackRescue.containsKey(Integer.valueOf(id))) {
+                                plugin.state.trackRescue.remove(Integer.valueOf(id));
                             }
                             return true;
                         } else {
@@ -296,7 +293,7 @@ public class TARDISTravelCommands implements CommandExecutor {
                         // we're thinking this is admin defined area name
                         HashMap<String, Object> wherea = new HashMap<String, Object>();
                         wherea.put("area_name", args[1]);
-                        ResultSetAreas rsa = new ResultSetAreas(plugin, wherea, false);
+                        ResultSetAreas rsa = new ResultSetAreas(plugin, wherea);
                         if (!rsa.resultSet()) {
                             sender.sendMessage(plugin.pluginName + "Could not find an area with that name! try using " + ChatColor.GREEN + "/tardis list areas" + ChatColor.RESET + " first.");
                             return true;
@@ -314,9 +311,9 @@ public class TARDISTravelCommands implements CommandExecutor {
                         set.put("save", save_loc);
                         qf.doUpdate("tardis", set, tid);
                         sender.sendMessage(plugin.pluginName + "Your TARDIS was approved for parking in [" + args[1] + "]!");
-                        plugin.tardisHasDestination.put(id, travel);
-                        if (plugin.trackRescue.containsKey(Integer.valueOf(id))) {
-                            plugin.trackRescue.remove(Integer.valueOf(id));
+                        plugin.state.tardisHasDestination.put(id, travel);
+                        if (plugin.state.trackRescue.containsKey(Integer.valueOf(id))) {
+                            plugin.state.trackRescue.remove(Integer.valueOf(id));
                         }
                         return true;
                     }
@@ -368,9 +365,9 @@ public class TARDISTravelCommands implements CommandExecutor {
                             set.put("save", save_loc);
                             qf.doUpdate("tardis", set, tid);
                             sender.sendMessage(plugin.pluginName + "The specified location was saved succesfully. Please release the handbrake!");
-                            plugin.tardisHasDestination.put(id, travel);
-                            if (plugin.trackRescue.containsKey(Integer.valueOf(id))) {
-                                plugin.trackRescue.remove(Integer.valueOf(id));
+                            plugin.state.tardisHasDestination.put(id, travel);
+                            if (plugin.state.trackRescue.containsKey(Integer.valueOf(id))) {
+                                plugin.state.trackRescue.remove(Integer.valueOf(id));
                             }
                             return true;
                         }
@@ -19,7 +19,7 @@ package me.eccentric_nz.TARDIS.commands;
 import com.google.common.collect.ImmutableList;
 import java.util.*;
 import me.eccentric_nz.TARDIS.TARDIS;
-import me.eccentric_nz.TARDIS.database.ResultSetAreas;
+import me.eccentric_nz.TARDIS.travel.TARDISAreaIndex;
 import org.bukkit.block.Biome;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
@@ -68,12 +68,8 @@ public class TARDISTravelTabComplete implements TabCompleter {
 
     private List<String> getAreas() {
         List<String> areas = new ArrayList<String>();
-        ResultSetAreas rsa = new ResultSetAreas(plugin, null, true);
-        if (rsa.resultSet()) {
-            ArrayList<HashMap<String, String>> data = rsa.getData();
-            for (HashMap<String, String> map : data) {
-                areas.add(map.get("area_name"));
-            }
+        for (TARDISAreaIndex.Area area : plugin.areaIndex.getAreas()) {
+            areas.add(area.getName());
         }
         return areas;
     }
@@ -16,12 +16,9 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 import org.bukkit.entity.Player;
@@ -29,13 +26,16 @@ import org.bukkit.entity.Player;
 /**
  * Do basic SQL INSERT, UPDATE and DELETE queries.
  *
+ * The queries are handed to the database writer, which executes them on its
+ * own thread. Only doInsert() waits for its query, as the caller wants the
+ * generated key.
+ *
  * @author eccentric_nz
  */
 public class QueryFactory {
 
     private TARDIS plugin;
     TARDISDatabase service = TARDISDatabase.getInstance();
-    Connection connection = service.getConnection();
 
     public QueryFactory(TARDIS plugin) {
         this.plugin = plugin;
@@ -43,172 +43,176 @@ public class QueryFactory {
 
     /**
      * Inserts data into an SQLite database table. This method builds a prepared
-     * SQL statement from the parameters supplied and then executes the insert.
+     * SQL statement from the parameters supplied and then executes the insert,
+     * waiting for it to finish.
      *
      * @param table the database table name to insert the data into.
      * @param data a HashMap<String, Object> of table fields and values to
      * insert.
-     * @return the number of records that were inserted
+     * @return the id of the inserted record, or -1 if the insert failed
      */
     public int doInsert(String table, HashMap<String, Object> data) {
-        PreparedStatement ps = null;
-        ResultSet idRS = null;
-        String fields;
-        String questions;
-        StringBuilder sbf = new StringBuilder();
-        StringBuilder sbq = new StringBuilder();
-        for (Map.Entry<String, Object> entry : data.entrySet()) {
-            sbf.append(entry.getKey()).append(",");
-            sbq.append("?,");
+        int id = getId(data.get("tardis_id"));
+        Object current = data.get("current");
+        addTraveller(table, id, data);
+        int inserted = service.getWriter().insert(table, data, true);
+        data.clear();
+        insertedRow(table);
+        if (table.equals("doors")) {
+            forgetDoors(id);
         }
-        fields = sbf.toString().substring(0, sbf.length() - 1);
-        questions = sbq.toString().substring(0, sbq.length() - 1);
-        try {
-            ps = connection.prepareStatement("INSERT INTO " + table + " (" + fields + ") VALUES (" + questions + ")");
-            int i = 1;
-            for (Map.Entry<String, Object> entry : data.entrySet()) {
-                if (entry.getValue().getClass().equals(String.class)) {
-                    ps.setString(i, entry.getValue().toString());
-                } else {
-                    if (entry.getValue().getClass().getName().contains("Double")) {
-                        ps.setDouble(i, Double.parseDouble(entry.getValue().toString()));
-                    } else {
-                        ps.setInt(i, plugin.utils.parseNum(entry.getValue().toString()));
-                    }
-                }
-                i++;
-            }
-            data.clear();
-            ps.executeUpdate();
-            idRS = ps.getGeneratedKeys();
-            return (idRS.next()) ? idRS.getInt(1) : -1;
-        } catch (SQLException e) {
-            plugin.debug("Update error for " + table + "! " + e.getMessage());
-            return -1;
-        } finally {
-            try {
-                if (idRS != null) {
-                    idRS.close();
-                }
-                if (ps != null) {
-                    ps.close();
-                }
-            } catch (Exception e) {
-                plugin.debug("Error closing " + table + "! " + e.getMessage());
-            }
+        if (table.equals("tardis") && inserted > 0 && current != null) {
+            plugin.areaIndex.move(inserted, current.toString());
+        }
+        return inserted;
+    }
+
+    /**
+     * Queues data to be inserted into an SQLite database table. Use this
+     * instead of doInsert() when the id of the new record isn't needed.
+     *
+     * @param table the database table name to insert the data into.
+     * @param data a HashMap<String, Object> of table fields and values to
+     * insert.
+     */
+    public void queueInsert(String table, HashMap<String, Object> data) {
+        int id = getId(data.get("tardis_id"));
+        addTraveller(table, id, data);
+        service.getWriter().insert(table, data, false);
+        data.clear();
+        insertedRow(table);
+        if (table.equals("doors")) {
+            forgetDoors(id);
         }
     }
 
     /**
      * Updates data in an SQLite database table. This method builds an SQL query
-     * string from the parameters supplied and then executes the update.
+     * string from the parameters supplied and then queues the update.
      *
      * @param table the database table name to update.
      * @param data a HashMap<String, Object> of table fields and values update.
      * @param where a HashMap<String, Object> of table fields and values to
      * select the records to update.
-     * @return true or false depending on whether the database update was
-     * successful
      */
-    public boolean doUpdate(String table, HashMap<String, Object> data, HashMap<String, Object> where) {
-        PreparedStatement statement = null;
-        String updates;
-        String wheres;
-        StringBuilder sbu = new StringBuilder();
-        StringBuilder sbw = new StringBuilder();
-        for (Map.Entry<String, Object> entry : data.entrySet()) {
-            sbu.append(entry.getKey()).append(" = ?,");
+    public void doUpdate(String table, HashMap<String, Object> data, HashMap<String, Object> where) {
+        service.getWriter().update(table, data, where);
+        changed(table, data, where);
+        where.clear();
+        data.clear();
+    }
+
+    /**
+     * Keeps the in-memory copies of the database in step with an update.
+     *
+     * @param table the database table name that was updated.
+     * @param data the table fields and values that were set.
+     * @param where the table fields and values that selected the records.
+     */
+    void changed(String table, HashMap<String, Object> data, HashMap<String, Object> where) {
+        int id = getId(where.get("tardis_id"));
+        int type = getId(where.get("type"));
+        int secondary = getId(where.get("secondary"));
+        if (id > 0) {
+            updateControls(table, data, id, type, secondary);
         }
-        for (Map.Entry<String, Object> entry : where.entrySet()) {
-            sbw.append(entry.getKey()).append(" = ");
-            if (entry.getValue().getClass().equals(String.class)) {
-                sbw.append("'").append(entry.getValue()).append("' AND ");
-            } else {
-                sbw.append(entry.getValue()).append(" AND ");
-            }
+        if (table.equals("doors")) {
+            forgetDoors(id);
         }
-        where.clear();
-        updates = sbu.toString().substring(0, sbu.length() - 1);
-        wheres = sbw.toString().substring(0, sbw.length() - 5);
-        String query = "UPDATE " + table + " SET " + updates + " WHERE " + wheres;
-        //plugin.debug(query);
-        try {
-            statement = connection.prepareStatement(query);
-            int s = 1;
-            for (Map.Entry<String, Object> entry : data.entrySet()) {
-                if (entry.getValue().getClass().equals(String.class)) {
-                    statement.setString(s, entry.getValue().toString());
-                }
-                if (entry.getValue() instanceof Integer) {
-                    statement.setInt(s, (Integer) entry.getValue());
-                }
-                if (entry.getValue() instanceof Long) {
-                    statement.setLong(s, (Long) entry.getValue());
-                }
-                s++;
-            }
-            data.clear();
-            return (statement.executeUpdate() > 0);
-        } catch (SQLException e) {
-            plugin.debug("Update error for " + table + "! " + e.getMessage());
-            return false;
-        } finally {
-            try {
-                if (statement != null) {
-                    statement.close();
-                }
-            } catch (Exception e) {
-                plugin.debug("Error closing " + table + "! " + e.getMessage());
-            }
+        if (table.equals("areas")) {
+            plugin.areaIndex.invalidate();
+        }
+        if (table.equals("destinations")) {
+            plugin.sessions.destinationsChanged();
+        }
+        TARDISRowCache rows = service.getRowCache(table);
+        if (rows != null) {
+            rows.update(where, data);
         }
     }
 
     /**
      * Deletes rows from an SQLite database table. This method builds an SQL
-     * query string from the parameters supplied and then executes the delete.
+     * query string from the parameters supplied and then queues the delete.
      *
      * @param table the database table name to insert the data into.
      * @param where a HashMap<String, Object> of table fields and values to
      * select the records to delete.
-     * @return true or false depending on whether the data was deleted
-     * successfully
      */
-    public boolean doDelete(String table, HashMap<String, Object> where) {
-        Statement statement = null;
-        String values;
-        StringBuilder sbw = new StringBuilder();
-        for (Map.Entry<String, Object> entry : where.entrySet()) {
-            sbw.append(entry.getKey()).append(" = ");
-            if (entry.getValue().getClass().equals(String.class)) {
-                sbw.append("'").append(entry.getValue()).append("' AND ");
-            } else {
-                sbw.append(entry.getValue()).append(" AND ");
-            }
-        }
+    public void doDelete(String table, HashMap<String, Object> where) {
+        service.getWriter().delete(table, where);
+        deleted(table, where);
         where.clear();
-        values = sbw.toString().substring(0, sbw.length() - 5);
-        String query = "DELETE FROM " + table + " WHERE " + values;
-        //plugin.debug(query);
-        try {
-            statement = connection.createStatement();
-            return (statement.executeUpdate(query) > 0);
-        } catch (SQLException e) {
-            plugin.debug("Delete error for " + table + "! " + e.getMessage());
-            return false;
-        } finally {
-            try {
-                if (statement != null) {
-                    statement.close();
+    }
+
+    /**
+     * Deletes every row of a TARDIS from several tables in one queued
+     * transaction.
+     *
+     * @param id the tardis_id of the TARDIS
+     * @param tables the database tables to delete the TARDIS's rows from
+     */
+    public void deleteTardis(int id, List<String> tables) {
+        service.getWriter().purge(id, tables);
+        for (String table : tables) {
+            HashMap<String, Object> where = new HashMap<String, Object>();
+            where.put("tardis_id", id);
+            deleted(table, where);
+        }
+    }
+
+    /**
+     * Keeps the in-memory copies of the database in step with a delete.
+     *
+     * @param table the database table name that was deleted from.
+     * @param where the table fields and values that selected the records.
+     */
+    private void deleted(String table, HashMap<String, Object> where) {
+        int id = getId(where.get("tardis_id"));
+        int type = getId(where.get("type"));
+        int secondary = getId(where.get("secondary"));
+        boolean police_box = where.containsKey("police_box");
+        TARDISRowCache rows = service.getRowCache(table);
+        if (rows != null) {
+            rows.delete(where);
+        }
+        if (table.equals("travellers")) {
+            plugin.travellers.remove(where);
+        }
+        if (table.equals("doors")) {
+            forgetDoors(id);
+        }
+        if (table.equals("areas")) {
+            plugin.areaIndex.invalidate();
+        }
+        if (table.equals("destinations")) {
+            plugin.sessions.destinationsChanged();
+        }
+        if (id > 0) {
+            if (table.equals("tardis")) {
+                plugin.controlRegistry.removeTardis(id);
+                plugin.areaIndex.move(id, null);
+            }
+            if (table.equals("controls")) {
+                plugin.controlRegistry.removeControls(id, type, secondary);
+            }
+            if (table.equals("gravity_well")) {
+                plugin.gravityWells.removeTardis(id);
+            }
+            if (table.equals("blocks")) {
+                // stop protecting the blocks
+                if (police_box) {
+                    plugin.protectBlocks.removePoliceBox(id);
+                } else {
+                    plugin.protectBlocks.removeTardis(id);
                 }
-            } catch (Exception e) {
-                plugin.debug("Error closing " + table + "! " + e.getMessage());
             }
         }
     }
 
     /**
      * Adds or removes Artron Energy from an SQLite database table. This method
-     * builds an SQL query string from the parameters supplied and then executes
+     * builds an SQL query string from the parameters supplied and then queues
      * the query.
      *
      * @param table the database table name to insert the data into.
@@ -217,47 +221,39 @@ public class QueryFactory {
      * @param where a HashMap<String, Object> of table fields and values to
      * select the records to alter.
      * @param p the player who receives the success message.
-     * @return true or false depending on whether the database update was
-     * successful
      */
-    public boolean alterEnergyLevel(String table, int amount, HashMap<String, Object> where, Player p) {
-        Statement statement = null;
-        String wheres;
-        StringBuilder sbw = new StringBuilder();
-        for (Map.Entry<String, Object> entry : where.entrySet()) {
-            sbw.append(entry.getKey()).append(" = ");
-            if (entry.getValue().getClass().equals(String.class)) {
-                sbw.append("'").append(entry.getValue()).append("' AND ");
-            } else {
-                sbw.append(entry.getValue()).append(" AND ");
-            }
-        }
-        where.clear();
-        wheres = sbw.toString().substring(0, sbw.length() - 5);
-        String query = "UPDATE " + table + " SET artron_level = artron_level + " + amount + " WHERE " + wheres;
+    public void alterEnergyLevel(String table, int amount, HashMap<String, Object> where, Player p) {
         if (amount < 0) {
             p.sendMessage(plugin.pluginName + "You used " + Math.abs(amount) + " Artron Energy.");
         }
-        try {
-            statement = connection.createStatement();
-            return (statement.executeUpdate(query) > 0);
-        } catch (SQLException e) {
-            plugin.debug("Artron Energy update error for " + table + "! " + e.getMessage());
-            return false;
-        } finally {
-            try {
-                if (statement != null) {
-                    statement.close();
-                }
-            } catch (Exception e) {
-                plugin.debug("Artron Energy error closing " + table + "! " + e.getMessage());
-            }
+        service.getWriter().add(table, "artron_level", amount, where);
+        TARDISRowCache rows = service.getRowCache(table);
+        if (rows != null) {
+            rows.add(where, "artron_level", amount);
+        }
+        where.clear();
+    }
+
+    /**
+     * Adds the same amount of Artron Energy to several TARDISes with one
+     * query.
+     *
+     * @param amount the amount of energy to add
+     * @param ids the tardis_ids of the TARDISes to add to
+     */
+    public void alterEnergyLevels(int amount, Collection<Integer> ids) {
+        service.getWriter().addAll("tardis", "artron_level", amount, "tardis_id", ids);
+        TARDISRowCache rows = service.getRowCache("tardis");
+        for (Integer id : ids) {
+            HashMap<String, Object> where = new HashMap<String, Object>();
+            where.put("tardis_id", id);
+            rows.add(where, "artron_level", amount);
         }
     }
 
     /**
      * Removes condenser block counts from an SQLite database table. This method
-     * builds an SQL query string from the parameters supplied and then executes
+     * builds an SQL query string from the parameters supplied and then queues
      * the query.
      *
      * @param amount the amount of blocks to remove
@@ -265,61 +261,103 @@ public class QueryFactory {
      * select the records to alter.
      */
     public void alterCondenserBlockCount(int amount, HashMap<String, Object> where) {
-        Statement statement = null;
-        String wheres;
-        StringBuilder sbw = new StringBuilder();
-        for (Map.Entry<String, Object> entry : where.entrySet()) {
-            sbw.append(entry.getKey()).append(" = ");
-            if (entry.getValue().getClass().equals(String.class)) {
-                sbw.append("'").append(entry.getValue()).append("' AND ");
-            } else {
-                sbw.append(entry.getValue()).append(" AND ");
-            }
-        }
+        service.getWriter().add("condenser", "block_count", -amount, where);
         where.clear();
-        wheres = sbw.toString().substring(0, sbw.length() - 5);
-        String query = "UPDATE condenser SET block_count = block_count - " + amount + " WHERE " + wheres;
-        try {
-            statement = connection.createStatement();
-            statement.executeUpdate(query);
-        } catch (SQLException e) {
-            plugin.debug("Block count update error for condenser! " + e.getMessage());
-        } finally {
-            try {
-                if (statement != null) {
-                    statement.close();
-                }
-            } catch (Exception e) {
-                plugin.debug("Error closing condenser table! " + e.getMessage());
-            }
+    }
+
+    /**
+     * Adds condensed block counts to the condenser table, with one queued
+     * write however many different blocks there are.
+     *
+     * @param id the tardis_id of the condenser
+     * @param counts the block_data and count of each block condensed
+     */
+    public void addCondenserBlockCounts(int id, Map<String, Integer> counts) {
+        if (!counts.isEmpty()) {
+            service.getWriter().condense(id, counts);
         }
     }
 
     public void insertControl(int id, int type, String l, int s) {
-        Statement statement = null;
-        try {
-            statement = connection.createStatement();
-            String select = "SELECT c_id FROM controls WHERE tardis_id = " + id + " AND type = " + type + " AND secondary = " + s;
-            ResultSet rs = statement.executeQuery(select);
-            if (rs.isBeforeFirst()) {
-                // update
-                String update = "UPDATE controls SET location = '" + l + "' WHERE c_id = " + rs.getInt("c_id");
-                statement.executeUpdate(update);
-            } else {
-                // insert
-                String insert = "INSERT INTO controls (tardis_id, type, location, secondary) VALUES (" + id + ", " + type + ", '" + l + "', " + s + ")";
-                statement.executeUpdate(insert);
-            }
-        } catch (SQLException e) {
-            plugin.debug("Insert control error! " + e.getMessage());
-        } finally {
-            try {
-                if (statement != null) {
-                    statement.close();
+        service.getWriter().control(id, type, l, s);
+        plugin.controlRegistry.putControl(id, type, s, l);
+    }
+
+    /**
+     * Keeps the control registry and the area index in step with updates to
+     * the controls table and the location columns of the tardis table.
+     */
+    private void updateControls(String table, HashMap<String, Object> data, int id, int type, int secondary) {
+        if (table.equals("controls") && data.containsKey("location") && type >= 0) {
+            plugin.controlRegistry.putControl(id, type, (secondary < 0) ? 0 : secondary, data.get("location").toString());
+        }
+        if (table.equals("tardis")) {
+            for (String column : TARDISControlRegistry.COLUMNS) {
+                if (data.containsKey(column)) {
+                    plugin.controlRegistry.putColumn(id, column, data.get(column).toString());
                 }
-            } catch (Exception e) {
-                plugin.debug("Error closing insert control statement! " + e.getMessage());
             }
+            if (data.containsKey("current")) {
+                plugin.areaIndex.move(id, data.get("current").toString());
+            }
+            if (data.containsKey("save")) {
+                plugin.artronRecharger.moved(id, data.get("save").toString());
+            }
+        }
+    }
+
+    /**
+     * Lets the row cache know that players who had no row may have one now.
+     */
+    private void insertedRow(String table) {
+        if (table.equals("areas")) {
+            plugin.areaIndex.invalidate();
+        }
+        if (table.equals("destinations")) {
+            plugin.sessions.destinationsChanged();
+        }
+        TARDISRowCache rows = service.getRowCache(table);
+        if (rows != null) {
+            rows.inserted();
+        }
+    }
+
+    /**
+     * Keeps the traveller index in step with inserts into the travellers
+     * table.
+     */
+    private void addTraveller(String table, int id, HashMap<String, Object> data) {
+        if (table.equals("travellers") && id > 0 && data.get("player") != null) {
+            plugin.travellers.add(id, data.get("player").toString());
+        }
+    }
+
+    /**
+     * Makes the door cache re-read the doors of a TARDIS. Updates keyed on
+     * the door_id alone don't say which TARDIS they changed, so then every
+     * TARDIS's doors are forgotten.
+     *
+     * @param id the tardis_id or -1 if it isn't known
+     */
+    private void forgetDoors(int id) {
+        if (id > 0) {
+            plugin.doorCache.invalidate(id);
+        } else {
+            plugin.doorCache.clear();
+        }
+    }
+
+    private int getId(Object o) {
+        if (o == null) {
+            return -1;
+        }
+        if (o instanceof Integer) {
+            return (Integer) o;
+        }
+        try {
+            return Integer.parseInt(o.toString());
+        } catch (NumberFormatException e) {
+            return -1;
         }
     }
 }
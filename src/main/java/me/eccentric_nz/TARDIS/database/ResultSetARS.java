@@ -16,7 +16,6 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -38,7 +37,6 @@ import me.eccentric_nz.TARDIS.TARDIS;
 public class ResultSetARS {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
     private HashMap<String, Object> where;
     private int id;
@@ -81,8 +79,9 @@ public class ResultSetARS {
             wheres = " WHERE " + sbw.toString().substring(0, sbw.length() - 5);
         }
         String query = "SELECT * FROM ars" + wheres;
+        service.awaitWrites("ars", where);
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             if (where != null) {
                 int s = 1;
                 for (Map.Entry<String, Object> entry : where.entrySet()) {
@@ -119,7 +118,7 @@ public class ResultSetARS {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing ars table! " + e.getMessage());
@@ -16,14 +16,10 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 
@@ -38,16 +34,13 @@ import me.eccentric_nz.TARDIS.TARDIS;
 public class ResultSetAchievements {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
     private HashMap<String, Object> where;
-    private boolean multiple;
     private int a_id;
     private String player;
     private String name;
     private String amount;
     private boolean completed;
-    private ArrayList<HashMap<String, String>> data = new ArrayList<HashMap<String, String>>();
 
     /**
      * Creates a class instance that can be used to retrieve an SQL ResultSet
@@ -55,13 +48,10 @@ public class ResultSetAchievements {
      *
      * @param plugin an instance of the main class.
      * @param where a String location to check.
-     * @param multiple a boolean setting whether to retrieve more than on
-     * record, it true returns an ArrayList that can be looped through later.
      */
-    public ResultSetAchievements(TARDIS plugin, HashMap<String, Object> where, boolean multiple) {
+    public ResultSetAchievements(TARDIS plugin, HashMap<String, Object> where) {
         this.plugin = plugin;
         this.where = where;
-        this.multiple = multiple;
     }
 
     /**
@@ -80,9 +70,10 @@ public class ResultSetAchievements {
             wheres = " WHERE " + sbw.toString().substring(0, sbw.length() - 5);
         }
         String query = "SELECT * FROM achievements" + wheres;
+        service.awaitWrites("achievements", where);
         //plugin.debug(query);
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             if (where != null) {
                 int s = 1;
                 for (Map.Entry<String, Object> entry : where.entrySet()) {
@@ -97,15 +88,6 @@ public class ResultSetAchievements {
             }
             rs = statement.executeQuery();
             if (rs.next()) {
-                if (multiple) {
-                    HashMap<String, String> row = new HashMap<String, String>();
-                    ResultSetMetaData rsmd = rs.getMetaData();
-                    int columns = rsmd.getColumnCount();
-                    for (int i = 1; i < columns + 1; i++) {
-                        row.put(rsmd.getColumnName(i).toLowerCase(Locale.ENGLISH), rs.getString(i));
-                    }
-                    data.add(row);
-                }
                 this.a_id = rs.getInt("a_id");
                 this.player = rs.getString("player");
                 this.name = rs.getString("name");
@@ -123,7 +105,7 @@ public class ResultSetAchievements {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing achievements table! " + e.getMessage());
@@ -151,8 +133,4 @@ public class ResultSetAchievements {
     public boolean isCompleted() {
         return completed;
     }
-
-    public ArrayList<HashMap<String, String>> getData() {
-        return data;
-    }
 }
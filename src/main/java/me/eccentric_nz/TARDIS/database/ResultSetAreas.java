@@ -16,14 +16,10 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 
@@ -36,10 +32,8 @@ import me.eccentric_nz.TARDIS.TARDIS;
 public class ResultSetAreas {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
     private HashMap<String, Object> where;
-    private boolean multiple;
     private int area_id;
     private String area_name;
     private String world;
@@ -48,7 +42,6 @@ public class ResultSetAreas {
     private int maxx;
     private int maxz;
     private int y;
-    private ArrayList<HashMap<String, String>> data = new ArrayList<HashMap<String, String>>();
 
     /**
      * Creates a class instance that can be used to retrieve an SQL ResultSet
@@ -57,13 +50,10 @@ public class ResultSetAreas {
      * @param plugin an instance of the main class.
      * @param where a HashMap<String, Object> of table fields and values to
      * refine the search.
-     * @param multiple a boolean indicating whether multiple rows should be
-     * fetched
      */
-    public ResultSetAreas(TARDIS plugin, HashMap<String, Object> where, boolean multiple) {
+    public ResultSetAreas(TARDIS plugin, HashMap<String, Object> where) {
         this.plugin = plugin;
         this.where = where;
-        this.multiple = multiple;
     }
 
     /**
@@ -85,9 +75,10 @@ public class ResultSetAreas {
             wheres = " WHERE " + sbw.toString().substring(0, sbw.length() - 5);
         }
         String query = "SELECT * FROM areas" + wheres;
+        service.awaitWrites("areas", where);
         //plugin.debug(query);
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             if (where != null) {
                 int s = 1;
                 for (Map.Entry<String, Object> entry : where.entrySet()) {
@@ -103,15 +94,6 @@ public class ResultSetAreas {
             rs = statement.executeQuery();
             if (rs.isBeforeFirst()) {
                 while (rs.next()) {
-                    if (multiple) {
-                        HashMap<String, String> row = new HashMap<String, String>();
-                        ResultSetMetaData rsmd = rs.getMetaData();
-                        int columns = rsmd.getColumnCount();
-                        for (int i = 1; i < columns + 1; i++) {
-                            row.put(rsmd.getColumnName(i).toLowerCase(Locale.ENGLISH), rs.getString(i));
-                        }
-                        data.add(row);
-                    }
                     this.area_id = rs.getInt("area_id");
                     this.area_name = rs.getString("area_name");
                     this.world = rs.getString("world");
@@ -133,7 +115,7 @@ public class ResultSetAreas {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing areas table! " + e.getMessage());
@@ -173,8 +155,4 @@ public class ResultSetAreas {
     public int getY() {
         return y;
     }
-
-    public ArrayList<HashMap<String, String>> getData() {
-        return data;
-    }
 }
@@ -16,14 +16,10 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 
@@ -36,16 +32,13 @@ import me.eccentric_nz.TARDIS.TARDIS;
 public class ResultSetChunks {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
     private HashMap<String, Object> where;
-    private boolean multiple;
     private int chunk_id;
     private int tardis_id;
     private String world;
     private int x;
     private int z;
-    private ArrayList<HashMap<String, String>> data = new ArrayList<HashMap<String, String>>();
 
     /**
      * Creates a class instance that can be used to retrieve an SQL ResultSet
@@ -54,13 +47,10 @@ public class ResultSetChunks {
      * @param plugin an instance of the main class.
      * @param where a HashMap<String, Object> of table fields and values to
      * refine the search.
-     * @param multiple a boolean indicating whether multiple rows should be
-     * fetched
      */
-    public ResultSetChunks(TARDIS plugin, HashMap<String, Object> where, boolean multiple) {
+    public ResultSetChunks(TARDIS plugin, HashMap<String, Object> where) {
         this.plugin = plugin;
         this.where = where;
-        this.multiple = multiple;
     }
 
     /**
@@ -82,9 +72,10 @@ public class ResultSetChunks {
             wheres = " WHERE " + sbw.toString().substring(0, sbw.length() - 5);
         }
         String query = "SELECT * FROM chunks" + wheres;
+        service.awaitWrites("chunks", where);
         //plugin.debug(query);
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             if (where != null) {
                 int s = 1;
                 for (Map.Entry<String, Object> entry : where.entrySet()) {
@@ -100,15 +91,6 @@ public class ResultSetChunks {
             rs = statement.executeQuery();
             if (rs.isBeforeFirst()) {
                 while (rs.next()) {
-                    if (multiple) {
-                        HashMap<String, String> row = new HashMap<String, String>();
-                        ResultSetMetaData rsmd = rs.getMetaData();
-                        int columns = rsmd.getColumnCount();
-                        for (int i = 1; i < columns + 1; i++) {
-                            row.put(rsmd.getColumnName(i).toLowerCase(Locale.ENGLISH), rs.getString(i));
-                        }
-                        data.add(row);
-                    }
                     this.chunk_id = rs.getInt("chunk_id");
                     this.tardis_id = rs.getInt("tardis_id");
                     this.world = rs.getString("world");
@@ -127,7 +109,7 @@ public class ResultSetChunks {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing chunks table! " + e.getMessage());
@@ -155,8 +137,4 @@ public class ResultSetChunks {
     public int getZ() {
         return z;
     }
-
-    public ArrayList<HashMap<String, String>> getData() {
-        return data;
-    }
 }
@@ -16,14 +16,10 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 
@@ -36,15 +32,12 @@ import me.eccentric_nz.TARDIS.TARDIS;
 public class ResultSetCondenser {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
     private HashMap<String, Object> where;
-    private boolean multiple;
     private int c_id;
     private int tardis_id;
     private String block_data;
     private int block_count;
-    private ArrayList<HashMap<String, String>> data = new ArrayList<HashMap<String, String>>();
 
     /**
      * Creates a class instance that can be used to retrieve an SQL ResultSet
@@ -53,13 +46,10 @@ public class ResultSetCondenser {
      * @param plugin an instance of the main class.
      * @param where a HashMap<String, Object> of table fields and values to
      * refine the search.
-     * @param multiple a boolean indicating whether multiple rows should be
-     * fetched
      */
-    public ResultSetCondenser(TARDIS plugin, HashMap<String, Object> where, boolean multiple) {
+    public ResultSetCondenser(TARDIS plugin, HashMap<String, Object> where) {
         this.plugin = plugin;
         this.where = where;
-        this.multiple = multiple;
     }
 
     /**
@@ -81,9 +71,10 @@ public class ResultSetCondenser {
             wheres = " WHERE " + sbw.toString().substring(0, sbw.length() - 5);
         }
         String query = "SELECT * FROM condenser" + wheres;
+        service.awaitWrites("condenser", where);
         //plugin.debug(query);
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             if (where != null) {
                 int s = 1;
                 for (Map.Entry<String, Object> entry : where.entrySet()) {
@@ -99,15 +90,6 @@ public class ResultSetCondenser {
             rs = statement.executeQuery();
             if (rs.isBeforeFirst()) {
                 while (rs.next()) {
-                    if (multiple) {
-                        HashMap<String, String> row = new HashMap<String, String>();
-                        ResultSetMetaData rsmd = rs.getMetaData();
-                        int columns = rsmd.getColumnCount();
-                        for (int i = 1; i < columns + 1; i++) {
-                            row.put(rsmd.getColumnName(i).toLowerCase(Locale.ENGLISH), rs.getString(i));
-                        }
-                        data.add(row);
-                    }
                     this.c_id = rs.getInt("c_id");
                     this.tardis_id = rs.getInt("tardis_id");
                     this.block_data = rs.getString("block_data");
@@ -125,7 +107,7 @@ public class ResultSetCondenser {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing condenser table! " + e.getMessage());
@@ -149,8 +131,4 @@ public class ResultSetCondenser {
     public int getBlock_count() {
         return block_count;
     }
-
-    public ArrayList<HashMap<String, String>> getData() {
-        return data;
-    }
 }
@@ -16,14 +16,10 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 
@@ -45,16 +41,13 @@ import me.eccentric_nz.TARDIS.TARDIS;
 public class ResultSetControls {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
     private HashMap<String, Object> where;
-    private boolean multiple;
     private int c_id;
     private int tardis_id;
     private int type;
     private String location;
     private int secondary;
-    private ArrayList<HashMap<String, String>> data = new ArrayList<HashMap<String, String>>();
 
     /**
      * Creates a class instance that can be used to retrieve an SQL ResultSet
@@ -63,13 +56,10 @@ public class ResultSetControls {
      * @param plugin an instance of the main class.
      * @param where a HashMap<String, Object> of table fields and values to
      * refine the search.
-     * @param multiple a boolean indicating whether multiple rows should be
-     * fetched
      */
-    public ResultSetControls(TARDIS plugin, HashMap<String, Object> where, boolean multiple) {
+    public ResultSetControls(TARDIS plugin, HashMap<String, Object> where) {
         this.plugin = plugin;
         this.where = where;
-        this.multiple = multiple;
     }
 
     /**
@@ -84,6 +74,8 @@ public class ResultSetControls {
         ResultSet rs = null;
         String wheres = "";
         if (where != null) {
+            // look up locations by the indexed world, x, y and z columns
+            TARDISLocationColumns.narrow("controls", where);
             StringBuilder sbw = new StringBuilder();
             for (Map.Entry<String, Object> entry : where.entrySet()) {
                 sbw.append(entry.getKey()).append(" = ? AND ");
@@ -91,9 +83,10 @@ public class ResultSetControls {
             wheres = " WHERE " + sbw.toString().substring(0, sbw.length() - 5);
         }
         String query = "SELECT * FROM controls" + wheres;
+        service.awaitWrites("controls", where);
         //plugin.debug(query);
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             if (where != null) {
                 int s = 1;
                 for (Map.Entry<String, Object> entry : where.entrySet()) {
@@ -109,15 +102,6 @@ public class ResultSetControls {
             rs = statement.executeQuery();
             if (rs.isBeforeFirst()) {
                 while (rs.next()) {
-                    if (multiple) {
-                        HashMap<String, String> row = new HashMap<String, String>();
-                        ResultSetMetaData rsmd = rs.getMetaData();
-                        int columns = rsmd.getColumnCount();
-                        for (int i = 1; i < columns + 1; i++) {
-                            row.put(rsmd.getColumnName(i).toLowerCase(Locale.ENGLISH), rs.getString(i));
-                        }
-                        data.add(row);
-                    }
                     this.c_id = rs.getInt("c_id");
                     this.tardis_id = rs.getInt("tardis_id");
                     this.type = rs.getInt("type");
@@ -136,7 +120,7 @@ public class ResultSetControls {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing controls table! " + e.getMessage());
@@ -164,8 +148,4 @@ public class ResultSetControls {
     public int getSecondary() {
         return secondary;
     }
-
-    public ArrayList<HashMap<String, String>> getData() {
-        return data;
-    }
 }
@@ -16,14 +16,10 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 
@@ -36,10 +32,8 @@ import me.eccentric_nz.TARDIS.TARDIS;
 public class ResultSetDestinations {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
     private HashMap<String, Object> where;
-    private boolean multiple;
     private int dest_id;
     private int tardis_id;
     private String dest_name;
@@ -51,7 +45,6 @@ public class ResultSetDestinations {
     private String bind;
     private int type;
     private boolean submarine;
-    private ArrayList<HashMap<String, String>> data = new ArrayList<HashMap<String, String>>();
 
     /**
      * Creates a class instance that can be used to retrieve an SQL ResultSet
@@ -60,13 +53,10 @@ public class ResultSetDestinations {
      * @param plugin an instance of the main class.
      * @param where a HashMap<String, Object> of table fields and values to
      * refine the search.
-     * @param multiple a boolean indicating whether multiple rows should be
-     * fetched
      */
-    public ResultSetDestinations(TARDIS plugin, HashMap<String, Object> where, boolean multiple) {
+    public ResultSetDestinations(TARDIS plugin, HashMap<String, Object> where) {
         this.plugin = plugin;
         this.where = where;
-        this.multiple = multiple;
     }
 
     /**
@@ -88,9 +78,10 @@ public class ResultSetDestinations {
             wheres = " WHERE " + sbw.toString().substring(0, sbw.length() - 5);
         }
         String query = "SELECT * FROM destinations" + wheres;
+        service.awaitWrites("destinations", where);
         //plugin.debug(query);
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             if (where != null) {
                 int s = 1;
                 for (Map.Entry<String, Object> entry : where.entrySet()) {
@@ -106,15 +97,6 @@ public class ResultSetDestinations {
             rs = statement.executeQuery();
             if (rs.isBeforeFirst()) {
                 while (rs.next()) {
-                    if (multiple) {
-                        HashMap<String, String> row = new HashMap<String, String>();
-                        ResultSetMetaData rsmd = rs.getMetaData();
-                        int columns = rsmd.getColumnCount();
-                        for (int i = 1; i < columns + 1; i++) {
-                            row.put(rsmd.getColumnName(i).toLowerCase(Locale.ENGLISH), rs.getString(i));
-                        }
-                        data.add(row);
-                    }
                     this.dest_id = rs.getInt("dest_id");
                     this.tardis_id = rs.getInt("tardis_id");
                     this.dest_name = rs.getString("dest_name");
@@ -139,7 +121,7 @@ public class ResultSetDestinations {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing destinations table! " + e.getMessage());
@@ -191,8 +173,4 @@ public class ResultSetDestinations {
     public int getType() {
         return type;
     }
-
-    public ArrayList<HashMap<String, String>> getData() {
-        return data;
-    }
 }
@@ -16,14 +16,10 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
@@ -37,17 +33,14 @@ import me.eccentric_nz.TARDIS.TARDISConstants;
 public class ResultSetDoors {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
     private HashMap<String, Object> where;
-    private boolean multiple;
     private int door_id;
     private int tardis_id;
     private int door_type;
     private String door_location;
     private TARDISConstants.COMPASS door_direction;
     private boolean locked;
-    private ArrayList<HashMap<String, String>> data = new ArrayList<HashMap<String, String>>();
 
     /**
      * Creates a class instance that can be used to retrieve an SQL ResultSet
@@ -56,13 +49,10 @@ public class ResultSetDoors {
      * @param plugin an instance of the main class.
      * @param where a HashMap<String, Object> of table fields and values to
      * refine the search.
-     * @param multiple a boolean setting whether to retrieve more than on
-     * record, it true returns an ArrayList that can be looped through later.
      */
-    public ResultSetDoors(TARDIS plugin, HashMap<String, Object> where, boolean multiple) {
+    public ResultSetDoors(TARDIS plugin, HashMap<String, Object> where) {
         this.plugin = plugin;
         this.where = where;
-        this.multiple = multiple;
     }
 
     /**
@@ -77,6 +67,8 @@ public class ResultSetDoors {
         ResultSet rs = null;
         String wheres = "";
         if (where != null) {
+            // look up locations by the indexed world, x, y and z columns
+            TARDISLocationColumns.narrow("doors", where);
             StringBuilder sbw = new StringBuilder();
             for (Map.Entry<String, Object> entry : where.entrySet()) {
                 sbw.append(entry.getKey()).append(" = ? AND ");
@@ -84,9 +76,10 @@ public class ResultSetDoors {
             wheres = " WHERE " + sbw.toString().substring(0, sbw.length() - 5);
         }
         String query = "SELECT * FROM doors" + wheres;
+        service.awaitWrites("doors", where);
         //plugin.debug(query);
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             if (where != null) {
                 int s = 1;
                 for (Map.Entry<String, Object> entry : where.entrySet()) {
@@ -102,15 +95,6 @@ public class ResultSetDoors {
             rs = statement.executeQuery();
             if (rs.isBeforeFirst()) {
                 while (rs.next()) {
-                    if (multiple) {
-                        HashMap<String, String> row = new HashMap<String, String>();
-                        ResultSetMetaData rsmd = rs.getMetaData();
-                        int columns = rsmd.getColumnCount();
-                        for (int i = 1; i < columns + 1; i++) {
-                            row.put(rsmd.getColumnName(i).toLowerCase(Locale.ENGLISH), rs.getString(i));
-                        }
-                        data.add(row);
-                    }
                     this.door_id = rs.getInt("door_id");
                     this.tardis_id = rs.getInt("tardis_id");
                     this.door_type = rs.getInt("door_type");
@@ -130,7 +114,7 @@ public class ResultSetDoors {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing doors table! " + e.getMessage());
@@ -162,8 +146,4 @@ public class ResultSetDoors {
     public boolean isLocked() {
         return locked;
     }
-
-    public ArrayList<HashMap<String, String>> getData() {
-        return data;
-    }
 }
@@ -16,14 +16,10 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 
@@ -37,17 +33,14 @@ import me.eccentric_nz.TARDIS.TARDIS;
 public class ResultSetGravity {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
     private HashMap<String, Object> where;
-    private boolean multiple;
     private int gravity_id;
     private int tardis_id;
     private String location;
     private int direction;
     private double distance;
     private double velocity;
-    private ArrayList<HashMap<String, String>> data = new ArrayList<HashMap<String, String>>();
 
     /**
      * Creates a class instance that can be used to retrieve an SQL ResultSet
@@ -56,12 +49,10 @@ public class ResultSetGravity {
      * @param plugin an instance of the main class.
      * @param where a HashMap<String, Object> of table fields and values to
      * refine the search.
-     * @param multiple boolean determining whether to return multiple records
      */
-    public ResultSetGravity(TARDIS plugin, HashMap<String, Object> where, boolean multiple) {
+    public ResultSetGravity(TARDIS plugin, HashMap<String, Object> where) {
         this.plugin = plugin;
         this.where = where;
-        this.multiple = multiple;
     }
 
     /**
@@ -76,6 +67,8 @@ public class ResultSetGravity {
         ResultSet rs = null;
         String wheres = "";
         if (where != null) {
+            // look up locations by the indexed world, x, y and z columns
+            TARDISLocationColumns.narrow("gravity_well", where);
             StringBuilder sbw = new StringBuilder();
             for (Map.Entry<String, Object> entry : where.entrySet()) {
                 sbw.append(entry.getKey()).append(" = ? AND ");
@@ -83,9 +76,10 @@ public class ResultSetGravity {
             wheres = " WHERE " + sbw.toString().substring(0, sbw.length() - 5);
         }
         String query = "SELECT * FROM gravity_well" + wheres;
+        service.awaitWrites("gravity_well", where);
         //plugin.debug(query);
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             if (where != null) {
                 int s = 1;
                 for (Map.Entry<String, Object> entry : where.entrySet()) {
@@ -105,15 +99,6 @@ public class ResultSetGravity {
             rs = statement.executeQuery();
             if (rs.isBeforeFirst()) {
                 while (rs.next()) {
-                    if (multiple) {
-                        HashMap<String, String> row = new HashMap<String, String>();
-                        ResultSetMetaData rsmd = rs.getMetaData();
-                        int columns = rsmd.getColumnCount();
-                        for (int i = 1; i < columns + 1; i++) {
-                            row.put(rsmd.getColumnName(i).toLowerCase(Locale.ENGLISH), rs.getString(i));
-                        }
-                        data.add(row);
-                    }
                     this.gravity_id = rs.getInt("g_id");
                     this.tardis_id = rs.getInt("tardis_id");
                     this.location = rs.getString("location");
@@ -133,7 +118,7 @@ public class ResultSetGravity {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing doors table! " + e.getMessage());
@@ -165,8 +150,4 @@ public class ResultSetGravity {
     public double getVelocity() {
         return velocity;
     }
-
-    public ArrayList<HashMap<String, String>> getData() {
-        return data;
-    }
 }
@@ -16,14 +16,10 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 
@@ -39,14 +35,11 @@ import me.eccentric_nz.TARDIS.TARDIS;
 public class ResultSetLamps {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
     private HashMap<String, Object> where;
-    private boolean multiple;
     private int id;
     private int tardis_id;
     private String location;
-    private ArrayList<HashMap<String, String>> data = new ArrayList<HashMap<String, String>>();
 
     /**
      * Creates a class instance that can be used to retrieve an SQL ResultSet
@@ -55,13 +48,10 @@ public class ResultSetLamps {
      * @param plugin an instance of the main class.
      * @param where a HashMap<String, Object> of table fields and values to
      * refine the search.
-     * @param multiple a boolean indicating whether multiple rows should be
-     * fetched
      */
-    public ResultSetLamps(TARDIS plugin, HashMap<String, Object> where, boolean multiple) {
+    public ResultSetLamps(TARDIS plugin, HashMap<String, Object> where) {
         this.plugin = plugin;
         this.where = where;
-        this.multiple = multiple;
     }
 
     /**
@@ -83,8 +73,9 @@ public class ResultSetLamps {
             wheres = " WHERE " + sbw.toString().substring(0, sbw.length() - 5);
         }
         String query = "SELECT * FROM lamps" + wheres;
+        service.awaitWrites("lamps", where);
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             if (where != null) {
                 int s = 1;
                 for (Map.Entry<String, Object> entry : where.entrySet()) {
@@ -101,15 +92,6 @@ public class ResultSetLamps {
             if (rs.isBeforeFirst()) {
                 //plugin.debug(query);
                 while (rs.next()) {
-                    if (multiple) {
-                        HashMap<String, String> row = new HashMap<String, String>();
-                        ResultSetMetaData rsmd = rs.getMetaData();
-                        int columns = rsmd.getColumnCount();
-                        for (int i = 1; i < columns + 1; i++) {
-                            row.put(rsmd.getColumnName(i).toLowerCase(Locale.ENGLISH), rs.getString(i));
-                        }
-                        data.add(row);
-                    }
                     this.id = rs.getInt("l_id");
                     this.tardis_id = rs.getInt("tardis_id");
                     this.location = rs.getString("location");
@@ -126,7 +108,7 @@ public class ResultSetLamps {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing blocks table! " + e.getMessage());
@@ -146,8 +128,4 @@ public class ResultSetLamps {
     public String getLocation() {
         return location;
     }
-
-    public ArrayList<HashMap<String, String>> getData() {
-        return data;
-    }
 }
@@ -16,7 +16,6 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -33,7 +32,6 @@ import me.eccentric_nz.TARDIS.TARDIS;
 public class ResultSetPlayerPrefs {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
     private HashMap<String, Object> where;
     private int pp_id;
@@ -78,6 +76,22 @@ public class ResultSetPlayerPrefs {
      * @return true or false depending on whether any data matches the query
      */
     public boolean resultSet() {
+        TARDISRowCache cache = service.getRowCache("player_prefs");
+        HashMap<String, Object> cache_key = null;
+        long version = 0;
+        if (cache.isCacheable(where)) {
+            Map<String, Object> cached = cache.get(where);
+            if (cached != null) {
+                where.clear();
+                if (cached == TARDISRowCache.ABSENT) {
+                    return false;
+                }
+                populate(new TARDISRow(cached));
+                return true;
+            }
+            cache_key = new HashMap<String, Object>(where);
+            version = cache.getVersion();
+        }
         PreparedStatement statement = null;
         ResultSet rs = null;
         String wheres = "";
@@ -89,9 +103,10 @@ public class ResultSetPlayerPrefs {
             wheres = " WHERE " + sbw.toString().substring(0, sbw.length() - 5);
         }
         String query = "SELECT * FROM player_prefs" + wheres;
+        service.awaitWrites("player_prefs", where);
         //plugin.debug(query);
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             if (where != null) {
                 int s = 1;
                 for (Map.Entry<String, Object> entry : where.entrySet()) {
@@ -106,40 +121,15 @@ public class ResultSetPlayerPrefs {
             }
             rs = statement.executeQuery();
             if (rs.next()) {
-                this.pp_id = rs.getInt("pp_id");
-                this.player = rs.getString("player");
-                this.key = rs.getString("key");
-                this.sfx_on = rs.getBoolean("sfx_on");
-                this.platform_on = rs.getBoolean("platform_on");
-                this.quotes_on = rs.getBoolean("quotes_on");
-                this.auto_on = rs.getBoolean("auto_on");
-                this.beacon_on = rs.getBoolean("beacon_on");
-                this.hads_on = rs.getBoolean("hads_on");
-                this.plain_on = rs.getBoolean("plain_on");
-                if (rs.wasNull()) {
-                    this.plain_on = plugin.getConfig().getBoolean("plain_on");
-                }
-                this.submarine_on = rs.getBoolean("submarine_on");
-                this.artron_level = rs.getInt("artron_level");
-                this.lamp = rs.getInt("lamp");
-                if (rs.wasNull()) {
-                    this.lamp = plugin.getConfig().getInt("tardis_lamp");
-                }
-                this.wall = rs.getString("wall");
-                this.floor = rs.getString("floor");
-                this.EPS_on = rs.getBoolean("eps_on");
-                // if empty use default
-                String message = rs.getString("eps_message");
-                if (message.isEmpty()) {
-                    this.EPS_message = "This is Emergency Programme One. I have died. I'm sure I will regenerate soon, but just in case. I have engaged the TARDIS autonomous circuit, and we are returning to my Home location or a recharge point - which ever is closest!";
-                } else {
-                    this.EPS_message = rs.getString("eps_message");
+                TARDISRow row = TARDISRow.read(rs);
+                populate(row);
+                if (cache_key != null) {
+                    cache.put(cache_key, row.getValues(), version);
                 }
-                this.texture_on = rs.getBoolean("texture_on");
-                this.texture_in = rs.getString("texture_in");
-                String tp_out = rs.getString("texture_out");
-                this.texture_out = (tp_out.equals("default")) ? plugin.tp : tp_out;
             } else {
+                if (cache_key != null) {
+                    cache.put(cache_key, null, version);
+                }
                 return false;
             }
         } catch (SQLException e) {
@@ -151,7 +141,7 @@ public class ResultSetPlayerPrefs {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing player_prefs table! " + e.getMessage());
@@ -160,6 +150,39 @@ public class ResultSetPlayerPrefs {
         return true;
     }
 
+    /**
+     * Sets the fields from a row of the player_prefs table.
+     */
+    private void populate(TARDISRow row) {
+        this.pp_id = row.getInt("pp_id");
+        this.player = row.getString("player");
+        this.key = row.getString("key");
+        this.sfx_on = row.getBoolean("sfx_on");
+        this.platform_on = row.getBoolean("platform_on");
+        this.quotes_on = row.getBoolean("quotes_on");
+        this.auto_on = row.getBoolean("auto_on");
+        this.beacon_on = row.getBoolean("beacon_on");
+        this.hads_on = row.getBoolean("hads_on");
+        this.plain_on = (row.isNull("plain_on")) ? plugin.getConfig().getBoolean("plain_on") : row.getBoolean("plain_on");
+        this.submarine_on = row.getBoolean("submarine_on");
+        this.artron_level = row.getInt("artron_level");
+        this.lamp = (row.isNull("lamp")) ? plugin.getConfig().getInt("tardis_lamp") : row.getInt("lamp");
+        this.wall = row.getString("wall");
+        this.floor = row.getString("floor");
+        this.EPS_on = row.getBoolean("eps_on");
+        // if empty use default
+        String message = row.getString("eps_message");
+        if (message.isEmpty()) {
+            this.EPS_message = "This is Emergency Programme One. I have died. I'm sure I will regenerate soon, but just in case. I have engaged the TARDIS autonomous circuit, and we are returning to my Home location or a recharge point - which ever is closest!";
+        } else {
+            this.EPS_message = message;
+        }
+        this.texture_on = row.getBoolean("texture_on");
+        this.texture_in = row.getString("texture_in");
+        String tp_out = row.getString("texture_out");
+        this.texture_out = (tp_out.equals("default")) ? plugin.tp : tp_out;
+    }
+
     public int getPp_id() {
         return pp_id;
     }
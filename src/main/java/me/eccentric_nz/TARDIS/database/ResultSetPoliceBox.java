@@ -16,7 +16,6 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -34,7 +33,6 @@ import org.bukkit.World;
 public class ResultSetPoliceBox {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
 
     /**
@@ -55,9 +53,10 @@ public class ResultSetPoliceBox {
     public void loadChunks() {
         PreparedStatement statement = null;
         ResultSet rs = null;
-        String query = "SELECT current FROM tardis";
+        String query = "SELECT tardis_id, current FROM tardis";
+        service.awaitWrites("tardis");
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             rs = statement.executeQuery();
             if (rs.isBeforeFirst()) {
                 while (rs.next()) {
@@ -71,10 +70,8 @@ public class ResultSetPoliceBox {
                     } catch (NumberFormatException nfe) {
                     }
                     Chunk c = w.getChunkAt(new Location(w, x, y, z));
-                    if (!plugin.tardisChunkList.contains(c)) {
-                        plugin.tardisChunkList.add(c);
-                        c.load();
-                    }
+                    plugin.retainedChunks.retainPoliceBox(rs.getInt("tardis_id"), c);
+                    c.load();
                 }
             }
         } catch (SQLException e) {
@@ -85,7 +82,7 @@ public class ResultSetPoliceBox {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing tardis table (loading Police Box chunks)! " + e.getMessage());
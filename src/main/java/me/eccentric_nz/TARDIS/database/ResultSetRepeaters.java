@@ -16,10 +16,10 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
 import me.eccentric_nz.TARDIS.TARDIS;
 
 /**
@@ -35,7 +35,6 @@ import me.eccentric_nz.TARDIS.TARDIS;
 public class ResultSetRepeaters {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
     private int id;
     private int secondary;
@@ -68,8 +67,12 @@ public class ResultSetRepeaters {
         PreparedStatement statement = null;
         ResultSet rs = null;
         String query = "SELECT DISTINCT location FROM controls WHERE tardis_id = ? AND type IN (2,3,4,5) AND secondary = ? ORDER BY type";
+        HashMap<String, Object> where = new HashMap<String, Object>();
+        where.put("tardis_id", id);
+        where.put("secondary", secondary);
+        service.awaitWrites("controls", where);
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             statement.setInt(1, id);
             statement.setInt(2, secondary);
             rs = statement.executeQuery();
@@ -90,7 +93,7 @@ public class ResultSetRepeaters {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing controls table! " + e.getMessage());
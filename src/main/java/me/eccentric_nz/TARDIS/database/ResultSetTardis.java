@@ -16,14 +16,10 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
@@ -37,11 +33,8 @@ import me.eccentric_nz.TARDIS.TARDISConstants;
 public class ResultSetTardis {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
     private HashMap<String, Object> where;
-    private String limit;
-    private boolean multiple;
     private int tardis_id;
     private String owner;
     private String chunk;
@@ -78,7 +71,6 @@ public class ResultSetTardis {
     private String eps;
     private String rail;
     private String village;
-    private ArrayList<HashMap<String, String>> data = new ArrayList<HashMap<String, String>>();
 
     /**
      * Creates a class instance that can be used to retrieve an SQL ResultSet
@@ -87,15 +79,10 @@ public class ResultSetTardis {
      * @param plugin an instance of the main class.
      * @param where a HashMap<String, Object> of table fields and values to
      * refine the search.
-     * @param limit
-     * @param multiple a boolean indicating whether multiple rows should be
-     * fetched
      */
-    public ResultSetTardis(TARDIS plugin, HashMap<String, Object> where, String limit, boolean multiple) {
+    public ResultSetTardis(TARDIS plugin, HashMap<String, Object> where) {
         this.plugin = plugin;
         this.where = where;
-        this.limit = limit;
-        this.multiple = multiple;
     }
 
     /**
@@ -106,10 +93,25 @@ public class ResultSetTardis {
      * @return true or false depending on whether any data matches the query
      */
     public boolean resultSet() {
+        TARDISRowCache cache = service.getRowCache("tardis");
+        HashMap<String, Object> key = null;
+        long version = 0;
+        if (cache.isCacheable(where)) {
+            Map<String, Object> cached = cache.get(where);
+            if (cached != null) {
+                where.clear();
+                if (cached == TARDISRowCache.ABSENT) {
+                    return false;
+                }
+                populate(new TARDISRow(cached));
+                return true;
+            }
+            key = new HashMap<String, Object>(where);
+            version = cache.getVersion();
+        }
         PreparedStatement statement = null;
         ResultSet rs = null;
         String wheres = "";
-        String thelimit = "";
         if (where != null) {
             StringBuilder sbw = new StringBuilder();
             for (Map.Entry<String, Object> entry : where.entrySet()) {
@@ -117,12 +119,10 @@ public class ResultSetTardis {
             }
             wheres = " WHERE " + sbw.toString().substring(0, sbw.length() - 5);
         }
-        if (!limit.isEmpty()) {
-            thelimit = " LIMIT " + limit;
-        }
-        String query = "SELECT * FROM tardis" + wheres + thelimit;
+        String query = "SELECT * FROM tardis" + wheres;
+        service.awaitWrites("tardis", where);
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             if (where != null) {
                 int s = 1;
                 for (Map.Entry<String, Object> entry : where.entrySet()) {
@@ -138,53 +138,16 @@ public class ResultSetTardis {
             rs = statement.executeQuery();
             if (rs.isBeforeFirst()) {
                 while (rs.next()) {
-                    if (multiple) {
-                        HashMap<String, String> row = new HashMap<String, String>();
-                        ResultSetMetaData rsmd = rs.getMetaData();
-                        int columns = rsmd.getColumnCount();
-                        for (int i = 1; i < columns + 1; i++) {
-                            row.put(rsmd.getColumnName(i).toLowerCase(Locale.ENGLISH), rs.getString(i));
-                        }
-                        data.add(row);
+                    TARDISRow row = TARDISRow.read(rs);
+                    populate(row);
+                    if (key != null) {
+                        cache.put(key, row.getValues(), version);
                     }
-                    this.tardis_id = rs.getInt("tardis_id");
-                    this.owner = rs.getString("owner");
-                    this.chunk = rs.getString("chunk");
-                    this.direction = (!rs.getString("direction").isEmpty()) ? TARDISConstants.COMPASS.valueOf(rs.getString("direction")) : TARDISConstants.COMPASS.EAST;
-                    this.schematic = TARDISConstants.SCHEMATIC.valueOf(rs.getString("size"));
-                    this.home = rs.getString("home");
-                    this.save = rs.getString("save");
-                    this.current = rs.getString("current");
-                    this.fast_return = rs.getString("fast_return");
-                    this.replaced = rs.getString("replaced");
-                    this.chest = rs.getString("chest");
-                    this.companions = rs.getString("companions");
-                    this.platform = rs.getString("platform");
-                    this.save_sign = rs.getString("save_sign");
-                    this.chameleon = rs.getString("chameleon");
-                    this.chamele_on = rs.getBoolean("chamele_on");
-                    this.chameleon_id = rs.getInt("chameleon_id");
-                    this.chameleon_data = rs.getByte("chameleon_data");
-                    this.artron_level = rs.getInt("artron_level");
-                    this.middle_id = rs.getInt("middle_id");
-                    this.middle_data = rs.getByte("middle_data");
-                    this.creeper = rs.getString("creeper");
-                    this.condenser = rs.getString("condenser");
-                    this.beacon = rs.getString("beacon");
-                    this.handbrake_on = rs.getBoolean("handbrake_on");
-                    this.tardis_init = rs.getBoolean("tardis_init");
-                    this.recharging = rs.getBoolean("recharging");
-                    this.scanner = rs.getString("scanner");
-                    this.farm = rs.getString("farm");
-                    this.stable = rs.getString("stable");
-                    this.hidden = rs.getBoolean("hidden");
-                    this.lastuse = rs.getLong("lastuse");
-                    this.iso_on = rs.getBoolean("iso_on");
-                    this.eps = rs.getString("eps");
-                    this.rail = rs.getString("rail");
-                    this.village = rs.getString("village");
                 }
             } else {
+                if (key != null) {
+                    cache.put(key, null, version);
+                }
                 return false;
             }
         } catch (SQLException e) {
@@ -196,7 +159,7 @@ public class ResultSetTardis {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing tardis table! " + e.getMessage());
@@ -205,6 +168,48 @@ public class ResultSetTardis {
         return true;
     }
 
+    /**
+     * Sets the fields from a row of the tardis table.
+     */
+    private void populate(TARDISRow row) {
+        this.tardis_id = row.getInt("tardis_id");
+        this.owner = row.getString("owner");
+        this.chunk = row.getString("chunk");
+        this.direction = (!row.getString("direction").isEmpty()) ? TARDISConstants.COMPASS.valueOf(row.getString("direction")) : TARDISConstants.COMPASS.EAST;
+        this.schematic = TARDISConstants.SCHEMATIC.valueOf(row.getString("size"));
+        this.home = row.getString("home");
+        this.save = row.getString("save");
+        this.current = row.getString("current");
+        this.fast_return = row.getString("fast_return");
+        this.replaced = row.getString("replaced");
+        this.chest = row.getString("chest");
+        this.companions = row.getString("companions");
+        this.platform = row.getString("platform");
+        this.save_sign = row.getString("save_sign");
+        this.chameleon = row.getString("chameleon");
+        this.chamele_on = row.getBoolean("chamele_on");
+        this.chameleon_id = row.getInt("chameleon_id");
+        this.chameleon_data = row.getByte("chameleon_data");
+        this.artron_level = row.getInt("artron_level");
+        this.middle_id = row.getInt("middle_id");
+        this.middle_data = row.getByte("middle_data");
+        this.creeper = row.getString("creeper");
+        this.condenser = row.getString("condenser");
+        this.beacon = row.getString("beacon");
+        this.handbrake_on = row.getBoolean("handbrake_on");
+        this.tardis_init = row.getBoolean("tardis_init");
+        this.recharging = row.getBoolean("recharging");
+        this.scanner = row.getString("scanner");
+        this.farm = row.getString("farm");
+        this.stable = row.getString("stable");
+        this.hidden = row.getBoolean("hidden");
+        this.lastuse = row.getLong("lastuse");
+        this.iso_on = row.getBoolean("iso_on");
+        this.eps = row.getString("eps");
+        this.rail = row.getString("rail");
+        this.village = row.getString("village");
+    }
+
     public int getTardis_id() {
         return tardis_id;
     }
@@ -348,8 +353,4 @@ public class ResultSetTardis {
     public String getVillage() {
         return village;
     }
-
-    public ArrayList<HashMap<String, String>> getData() {
-        return data;
-    }
 }
@@ -16,7 +16,6 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
@@ -37,7 +36,6 @@ import me.eccentric_nz.TARDIS.TARDISConstants;
 public class ResultSetTardisSign {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
     private String where;
     private int tardis_id;
@@ -71,8 +69,9 @@ public class ResultSetTardisSign {
         PreparedStatement statement = null;
         ResultSet rs = null;
         String query = "SELECT * FROM tardis WHERE chameleon = ? OR save_sign = ?";
+        service.awaitWrites("tardis");
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             statement.setString(1, where);
             statement.setString(2, where);
             rs = statement.executeQuery();
@@ -96,7 +95,7 @@ public class ResultSetTardisSign {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing tardis table (SIGN)! " + e.getMessage());
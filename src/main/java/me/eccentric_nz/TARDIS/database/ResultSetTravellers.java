@@ -16,12 +16,12 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -40,8 +40,11 @@ import me.eccentric_nz.TARDIS.TARDIS;
  */
 public class ResultSetTravellers {
 
+    /**
+     * The columns that can be looked up in the traveller index.
+     */
+    private static final List<String> INDEXED = Arrays.asList("player", "tardis_id");
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private TARDIS plugin;
     private HashMap<String, Object> where;
     private boolean multiple;
@@ -74,6 +77,9 @@ public class ResultSetTravellers {
      * @return true or false depending on whether any data matches the query
      */
     public boolean resultSet() {
+        if (where == null || INDEXED.containsAll(where.keySet())) {
+            return fromIndex();
+        }
         PreparedStatement statement = null;
         ResultSet rs = null;
         String wheres = "";
@@ -85,9 +91,10 @@ public class ResultSetTravellers {
             wheres = " WHERE " + sbw.toString().substring(0, sbw.length() - 5);
         }
         String query = "SELECT * FROM travellers" + wheres;
+        service.awaitWrites("travellers", where);
         //plugin.debug(query);
         try {
-            statement = connection.prepareStatement(query);
+            statement = service.prepare(query);
             if (where != null) {
                 int s = 1;
                 for (Map.Entry<String, Object> entry : where.entrySet()) {
@@ -122,7 +129,7 @@ public class ResultSetTravellers {
                     rs.close();
                 }
                 if (statement != null) {
-                    statement.close();
+                    service.release(query, statement);
                 }
             } catch (Exception e) {
                 plugin.debug("Error closing travellers table! " + e.getMessage());
@@ -131,6 +138,44 @@ public class ResultSetTravellers {
         return true;
     }
 
+    /**
+     * Answers the query from the traveller index, as all the columns it asks
+     * about are held in memory. The traveller_id isn't, so is left at 0.
+     */
+    private boolean fromIndex() {
+        List<String> players;
+        if (where == null) {
+            players = plugin.travellers.getTravellers();
+        } else {
+            Object p = where.get("player");
+            int id = (where.containsKey("tardis_id")) ? plugin.utils.parseNum(where.get("tardis_id").toString()) : -1;
+            where.clear();
+            if (p != null) {
+                int in = plugin.travellers.getTardis(p.toString());
+                if (in < 0 || (id >= 0 && in != id)) {
+                    return false;
+                }
+                players = new ArrayList<String>(1);
+                players.add(p.toString());
+                id = in;
+            } else {
+                players = plugin.travellers.getTravellers(id);
+            }
+            this.tardis_id = id;
+        }
+        if (players.isEmpty()) {
+            return false;
+        }
+        if (multiple) {
+            data.addAll(players);
+        }
+        this.player = players.get(players.size() - 1);
+        if (where == null) {
+            this.tardis_id = plugin.travellers.getTardis(player);
+        }
+        return true;
+    }
+
     public int getTraveller_id() {
         return traveller_id;
     }
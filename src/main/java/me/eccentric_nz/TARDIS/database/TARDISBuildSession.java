@@ -0,0 +1,359 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import me.eccentric_nz.TARDIS.TARDIS;
+
+/**
+ * Collects the database rows produced while building a TARDIS interior, a
+ * room or a Police Box, and writes them all at once when the build is
+ * finished.
+ *
+ * Rows with the same columns are inserted with one reused prepared statement
+ * and executeBatch(), and the whole session is written in one transaction. If
+ * any statement fails, the session is rolled back. Nothing is written (and no
+ * blocks are protected or controls registered) until commit() is called, so a
+ * build that is aborted, or that throws part way through, leaves no rows
+ * behind.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISBuildSession {
+
+    private final TARDIS plugin;
+    private final LinkedHashMap<String, Rows> inserts = new LinkedHashMap<String, Rows>();
+    private final LinkedHashMap<String, Update> updates = new LinkedHashMap<String, Update>();
+    private final LinkedHashMap<String, Object[]> controls = new LinkedHashMap<String, Object[]>();
+    private boolean open = true;
+    private int size;
+
+    public TARDISBuildSession(TARDIS plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Adds a row to insert.
+     *
+     * @param table the database table name to insert the data into.
+     * @param data a HashMap<String, Object> of table fields and values to
+     * insert, which is cleared afterwards as with QueryFactory.
+     */
+    public void insert(String table, HashMap<String, Object> data) {
+        checkOpen();
+        TARDISLocationColumns.expand(table, data);
+        StringBuilder sig = new StringBuilder(table);
+        for (String key : data.keySet()) {
+            sig.append(",").append(key);
+        }
+        String key = sig.toString();
+        Rows rows = inserts.get(key);
+        if (rows == null) {
+            rows = new Rows(table, new ArrayList<String>(data.keySet()));
+            inserts.put(key, rows);
+        }
+        rows.values.add(data.values().toArray());
+        data.clear();
+        size++;
+    }
+
+    /**
+     * Adds an update. Updates to the same rows are merged.
+     *
+     * @param table the database table name to update.
+     * @param data a HashMap<String, Object> of table fields and values update.
+     * @param where a HashMap<String, Object> of table fields and values to
+     * select the records to update.
+     */
+    public void update(String table, HashMap<String, Object> data, HashMap<String, Object> where) {
+        checkOpen();
+        TARDISLocationColumns.expand(table, data);
+        TreeMap<String, Object> sorted = new TreeMap<String, Object>(where);
+        TARDISLocationColumns.narrow(table, sorted);
+        String key = table + sorted.toString();
+        Update u = updates.get(key);
+        if (u == null) {
+            u = new Update(table, sorted);
+            updates.put(key, u);
+            size++;
+        }
+        u.data.putAll(data);
+        data.clear();
+        where.clear();
+    }
+
+    /**
+     * Adds a TARDIS console control, replacing any earlier location given for
+     * the same control in this session.
+     *
+     * @param id the tardis_id
+     * @param type the control type
+     * @param location the control location
+     * @param secondary the secondary console number
+     */
+    public void control(int id, int type, String location, int secondary) {
+        checkOpen();
+        Object[] c = new Object[]{id, type, location, secondary};
+        if (controls.put(id + ":" + type + ":" + secondary, c) == null) {
+            size++;
+        }
+    }
+
+    /**
+     * Hands everything collected to the database writer, then protects the
+     * blocks and registers the controls that were added.
+     */
+    public void commit() {
+        checkOpen();
+        open = false;
+        if (size == 0) {
+            return;
+        }
+        TARDISDatabase.getInstance().getWriter().session(this);
+        QueryFactory qf = new QueryFactory(plugin);
+        for (Rows rows : inserts.values()) {
+            int t = rows.columns.indexOf("tardis_id");
+            int l = rows.columns.indexOf("location");
+            int p = rows.columns.indexOf("police_box");
+            for (Object[] row : rows.values) {
+                int id = (t < 0) ? -1 : plugin.utils.parseNum(row[t].toString());
+                if (rows.table.equals("blocks") && l >= 0 && id > 0) {
+                    boolean police_box = p >= 0 && "1".equals(row[p].toString());
+                    plugin.protectBlocks.add(row[l].toString(), id, police_box);
+                }
+                if (rows.table.equals("doors")) {
+                    plugin.doorCache.invalidate(id);
+                }
+            }
+        }
+        for (Update u : updates.values()) {
+            qf.changed(u.table, new HashMap<String, Object>(u.data), new HashMap<String, Object>(u.where));
+        }
+        for (Object[] c : controls.values()) {
+            plugin.controlRegistry.putControl((Integer) c[0], (Integer) c[1], (Integer) c[3], c[2].toString());
+        }
+    }
+
+    /**
+     * Throws away everything collected without writing it.
+     */
+    public void abort() {
+        open = false;
+        inserts.clear();
+        updates.clear();
+        controls.clear();
+        size = 0;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Gets the number of rows, updates and controls collected.
+     *
+     * @return the size of the session
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the tables the session writes to.
+     *
+     * @return the table names
+     */
+    Set<String> getTables() {
+        Set<String> tables = new HashSet<String>();
+        for (Rows rows : inserts.values()) {
+            tables.add(rows.table);
+        }
+        for (Update u : updates.values()) {
+            tables.add(u.table);
+        }
+        if (!controls.isEmpty()) {
+            tables.add("controls");
+        }
+        return tables;
+    }
+
+    private void checkOpen() {
+        if (!open) {
+            throw new IllegalStateException("The build session has already been committed or aborted!");
+        }
+    }
+
+    /**
+     * Writes the session. Called by the database writer on its own thread,
+     * inside a transaction.
+     *
+     * @param connection the database connection
+     * @return true if everything was written, false if the session was rolled
+     * back
+     */
+    boolean execute(Connection connection) {
+        Savepoint save = null;
+        PreparedStatement ps = null;
+        String table = "";
+        try {
+            save = connection.setSavepoint();
+            for (Rows rows : inserts.values()) {
+                table = rows.table;
+                StringBuilder sbf = new StringBuilder();
+                StringBuilder sbq = new StringBuilder();
+                for (String column : rows.columns) {
+                    sbf.append(column).append(",");
+                    sbq.append("?,");
+                }
+                ps = connection.prepareStatement("INSERT INTO " + table + " (" + sbf.substring(0, sbf.length() - 1) + ") VALUES (" + sbq.substring(0, sbq.length() - 1) + ")");
+                for (Object[] row : rows.values) {
+                    for (int i = 0; i < row.length; i++) {
+                        TARDISDatabaseWriter.setValue(ps, i + 1, row[i]);
+                    }
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                ps.close();
+                ps = null;
+            }
+            for (Update u : updates.values()) {
+                table = u.table;
+                StringBuilder sbu = new StringBuilder();
+                for (String column : u.data.keySet()) {
+                    sbu.append(column).append(" = ?,");
+                }
+                StringBuilder sbw = new StringBuilder();
+                for (String column : u.where.keySet()) {
+                    sbw.append(column).append(" = ? AND ");
+                }
+                ps = connection.prepareStatement("UPDATE " + table + " SET " + sbu.substring(0, sbu.length() - 1) + " WHERE " + sbw.substring(0, sbw.length() - 5));
+                int s = 1;
+                for (Object value : u.data.values()) {
+                    TARDISDatabaseWriter.setValue(ps, s++, value);
+                }
+                for (Object value : u.where.values()) {
+                    TARDISDatabaseWriter.setValue(ps, s++, value);
+                }
+                ps.executeUpdate();
+                ps.close();
+                ps = null;
+            }
+            if (!controls.isEmpty()) {
+                table = "controls";
+                // update the controls that already exist, then insert the rest
+                List<Object[]> list = new ArrayList<Object[]>(controls.values());
+                ps = connection.prepareStatement("UPDATE controls SET location = ?, world = ?, x = ?, y = ?, z = ? WHERE tardis_id = ? AND type = ? AND secondary = ?");
+                for (Object[] c : list) {
+                    Object[] typed = TARDISLocationColumns.parse(c[2].toString());
+                    ps.setString(1, c[2].toString());
+                    for (int i = 0; i < 4; i++) {
+                        TARDISDatabaseWriter.setValue(ps, i + 2, typed[i]);
+                    }
+                    ps.setInt(6, (Integer) c[0]);
+                    ps.setInt(7, (Integer) c[1]);
+                    ps.setInt(8, (Integer) c[3]);
+                    ps.addBatch();
+                }
+                int[] counts = ps.executeBatch();
+                ps.close();
+                ps = connection.prepareStatement("INSERT INTO controls (tardis_id, type, location, secondary, world, x, y, z) VALUES (?,?,?,?,?,?,?,?)");
+                boolean any = false;
+                for (int i = 0; i < list.size(); i++) {
+                    if (i >= counts.length || counts[i] == 0) {
+                        Object[] c = list.get(i);
+                        Object[] typed = TARDISLocationColumns.parse(c[2].toString());
+                        ps.setInt(1, (Integer) c[0]);
+                        ps.setInt(2, (Integer) c[1]);
+                        ps.setString(3, c[2].toString());
+                        ps.setInt(4, (Integer) c[3]);
+                        for (int t = 0; t < 4; t++) {
+                            TARDISDatabaseWriter.setValue(ps, t + 5, typed[t]);
+                        }
+                        ps.addBatch();
+                        any = true;
+                    }
+                }
+                if (any) {
+                    ps.executeBatch();
+                }
+                ps.close();
+                ps = null;
+            }
+            connection.releaseSavepoint(save);
+            return true;
+        } catch (SQLException e) {
+            plugin.debug("Build session error for " + table + ", rolling back! " + e.getMessage());
+            if (save != null) {
+                try {
+                    connection.rollback(save);
+                } catch (SQLException ex) {
+                    plugin.debug("Could not roll back build session! " + ex.getMessage());
+                }
+            }
+            return false;
+        } finally {
+            try {
+                if (ps != null) {
+                    ps.close();
+                }
+            } catch (Exception e) {
+                plugin.debug("Error closing " + table + "! " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rows to insert into a table, all with the same columns.
+     */
+    private static class Rows {
+
+        final String table;
+        final List<String> columns;
+        final List<Object[]> values = new ArrayList<Object[]>();
+
+        Rows(String table, List<String> columns) {
+            this.table = table;
+            this.columns = columns;
+        }
+    }
+
+    /**
+     * An update of some rows of a table.
+     */
+    private static class Update {
+
+        final String table;
+        final TreeMap<String, Object> where;
+        final Map<String, Object> data = new LinkedHashMap<String, Object>();
+
+        Update(String table, TreeMap<String, Object> where) {
+            this.table = table;
+            this.where = where;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+/**
+ * A TARDIS console control held in the control registry. Controls come either
+ * from the controls table (type >= 0) or from a location column of the tardis
+ * table such as the scanner or save sign (type is -1 and column is set).
+ *
+ * Several controls can share a block, so entries at the same location are
+ * chained together.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISControl {
+
+    private final int tardis_id;
+    private final int type;
+    private final int secondary;
+    private final String column;
+    private final String world;
+    private final long key;
+    TARDISControl next;
+
+    public TARDISControl(int tardis_id, int type, int secondary, String column, String world, long key) {
+        this.tardis_id = tardis_id;
+        this.type = type;
+        this.secondary = secondary;
+        this.column = column;
+        this.world = world;
+        this.key = key;
+    }
+
+    public int getTardis_id() {
+        return tardis_id;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public int getSecondary() {
+        return secondary;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public String getWorld() {
+        return world;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public TARDISControl getNext() {
+        return next;
+    }
+}
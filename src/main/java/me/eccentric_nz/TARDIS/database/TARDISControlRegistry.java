@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import me.eccentric_nz.TARDIS.TARDIS;
+import me.eccentric_nz.TARDIS.utility.TARDISBlockKey;
+import me.eccentric_nz.TARDIS.utility.TARDISLongObjectMap;
+import org.bukkit.block.Block;
+
+/**
+ * An in-memory copy of the locations of every TARDIS console control. It is
+ * loaded from the controls table and the location columns of the tardis table
+ * when the plugin is enabled, and kept up to date by the QueryFactory.
+ *
+ * Player interact listeners probe the registry with the clicked block, so a
+ * click on a block that isn't a TARDIS control never touches the database.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISControlRegistry {
+
+    /**
+     * The tardis table columns that hold the location of a clickable control.
+     */
+    public static final List<String> COLUMNS = Arrays.asList("chameleon", "condenser", "rail", "save_sign", "scanner");
+    private final TARDIS plugin;
+    private final HashMap<String, TARDISLongObjectMap<TARDISControl>> worlds = new HashMap<String, TARDISLongObjectMap<TARDISControl>>();
+    private final HashMap<Integer, List<TARDISControl>> byTardis = new HashMap<Integer, List<TARDISControl>>();
+
+    public TARDISControlRegistry(TARDIS plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Loads all the control locations from the database.
+     */
+    public void load() {
+        worlds.clear();
+        byTardis.clear();
+        // add the controls as they are read, without keeping the rows
+        TARDISQuery.list("controls", "tardis_id, type, secondary, location", null, new TARDISRowMapper<Void>() {
+            @Override
+            public Void map(ResultSet rs) throws SQLException {
+                add(rs.getInt("tardis_id"), rs.getInt("type"), rs.getInt("secondary"), null, rs.getString("location"));
+                return null;
+            }
+        });
+        TARDISQuery.list("tardis", "tardis_id, chameleon, condenser, rail, save_sign, scanner", null, new TARDISRowMapper<Void>() {
+            @Override
+            public Void map(ResultSet rs) throws SQLException {
+                int id = rs.getInt("tardis_id");
+                for (String column : COLUMNS) {
+                    add(id, -1, 0, column, rs.getString(column));
+                }
+                return null;
+            }
+        });
+        plugin.debug("Loaded " + size() + " control locations");
+    }
+
+    /**
+     * Gets the first control at a block.
+     *
+     * @param b the block to check
+     * @return the control or null if the block isn't a TARDIS control
+     */
+    public TARDISControl getControl(Block b) {
+        TARDISLongObjectMap<TARDISControl> map = worlds.get(b.getWorld().getName());
+        if (map == null) {
+            return null;
+        }
+        return map.get(TARDISBlockKey.pack(b.getX(), b.getY(), b.getZ()));
+    }
+
+    /**
+     * Gets the control of a specific type at a block.
+     *
+     * @param b the block to check
+     * @param type the control type
+     * @return the control or null if there is no such control at the block
+     */
+    public TARDISControl getControl(Block b, int type) {
+        for (TARDISControl c = getControl(b); c != null; c = c.next) {
+            if (c.getType() == type) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the TARDIS whose tardis table location column points at a block.
+     *
+     * @param b the block to check
+     * @param column the tardis table column e.g. "scanner"
+     * @return the tardis_id or -1 if the block isn't that control
+     */
+    public int getTardisId(Block b, String column) {
+        for (TARDISControl c = getControl(b); c != null; c = c.next) {
+            if (column.equals(c.getColumn())) {
+                return c.getTardis_id();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Records the location of a control from the controls table, replacing
+     * any previous location of the same control.
+     *
+     * @param id the tardis_id of the control
+     * @param type the control type
+     * @param secondary the console the control belongs to
+     * @param location the location string stored in the database
+     */
+    public void putControl(int id, int type, int secondary, String location) {
+        removeControls(id, type, secondary);
+        add(id, type, secondary, null, location);
+    }
+
+    /**
+     * Records the location stored in a tardis table column, replacing any
+     * previous location.
+     *
+     * @param id the tardis_id
+     * @param column the tardis table column
+     * @param location the location string stored in the database
+     */
+    public void putColumn(int id, String column, String location) {
+        List<TARDISControl> list = byTardis.get(id);
+        if (list != null) {
+            Iterator<TARDISControl> it = list.iterator();
+            while (it.hasNext()) {
+                TARDISControl c = it.next();
+                if (column.equals(c.getColumn())) {
+                    unlink(c);
+                    it.remove();
+                }
+            }
+        }
+        add(id, -1, 0, column, location);
+    }
+
+    /**
+     * Forgets the controls table controls of a TARDIS.
+     *
+     * @param id the tardis_id
+     * @param type the control type, or -1 for all types
+     * @param secondary the console, or -1 for all consoles
+     */
+    public void removeControls(int id, int type, int secondary) {
+        List<TARDISControl> list = byTardis.get(id);
+        if (list == null) {
+            return;
+        }
+        Iterator<TARDISControl> it = list.iterator();
+        while (it.hasNext()) {
+            TARDISControl c = it.next();
+            if (c.getColumn() == null && (type < 0 || c.getType() == type) && (secondary < 0 || c.getSecondary() == secondary)) {
+                unlink(c);
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Forgets all the controls of a TARDIS.
+     *
+     * @param id the tardis_id
+     */
+    public void removeTardis(int id) {
+        List<TARDISControl> list = byTardis.remove(id);
+        if (list != null) {
+            for (TARDISControl c : list) {
+                unlink(c);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of control locations held in the registry.
+     *
+     * @return the number of controls
+     */
+    public int size() {
+        int i = 0;
+        for (List<TARDISControl> list : byTardis.values()) {
+            i += list.size();
+        }
+        return i;
+    }
+
+    private boolean add(int id, int type, int secondary, String column, String location) {
+        TARDISBlockKey bk = TARDISBlockKey.fromString(location);
+        if (bk == null) {
+            return false;
+        }
+        TARDISLongObjectMap<TARDISControl> map = worlds.get(bk.getWorld());
+        if (map == null) {
+            map = new TARDISLongObjectMap<TARDISControl>();
+            worlds.put(bk.getWorld(), map);
+        }
+        TARDISControl c = new TARDISControl(id, type, secondary, column, bk.getWorld(), bk.getKey());
+        c.next = map.get(c.getKey());
+        map.put(c.getKey(), c);
+        List<TARDISControl> list = byTardis.get(id);
+        if (list == null) {
+            list = new ArrayList<TARDISControl>();
+            byTardis.put(id, list);
+        }
+        list.add(c);
+        return true;
+    }
+
+    private void unlink(TARDISControl c) {
+        TARDISLongObjectMap<TARDISControl> map = worlds.get(c.getWorld());
+        if (map == null) {
+            return;
+        }
+        TARDISControl head = map.get(c.getKey());
+        if (head == c) {
+            if (c.next == null) {
+                map.remove(c.getKey());
+            } else {
+                map.put(c.getKey(), c.next);
+            }
+            return;
+        }
+        for (TARDISControl p = head; p != null; p = p.next) {
+            if (p.next == c) {
+                p.next = c.next;
+                return;
+            }
+        }
+    }
+}
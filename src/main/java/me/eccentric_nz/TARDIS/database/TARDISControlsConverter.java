@@ -18,10 +18,10 @@ package me.eccentric_nz.TARDIS.database;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.List;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
 import org.bukkit.ChatColor;
@@ -48,10 +48,16 @@ public class TARDISControlsConverter {
      * Convert pre-TARDIS v2.3 controls to the new system.
      */
     public void convertControls() {
-        ResultSetTardis rs = new ResultSetTardis(plugin, null, "", true);
-        if (rs.resultSet()) {
+        // the old control columns are only in databases that need converting,
+        // so read whichever columns the table has
+        List<TARDISRow> data = TARDISQuery.list("tardis", "*", null, new TARDISRowMapper<TARDISRow>() {
+            @Override
+            public TARDISRow map(ResultSet rs) throws SQLException {
+                return TARDISRow.read(rs);
+            }
+        });
+        if (!data.isEmpty()) {
             int i = 0;
-            ArrayList<HashMap<String, String>> data = rs.getData();
             Statement del = null;
             PreparedStatement ps = null;
             try {
@@ -60,38 +66,38 @@ public class TARDISControlsConverter {
                 del.executeUpdate("DELETE FROM controls");
                 // insert values from tardis table
                 ps = connection.prepareStatement("INSERT INTO controls (tardis_id, type, location) VALUES (?,?,?)");
-                for (HashMap<String, String> map : data) {
-                    int id = plugin.utils.parseNum(map.get("tardis_id"));
+                for (TARDISRow map : data) {
+                    int id = map.getInt("tardis_id");
                     String tmph;
-                    if (map.get("handbrake") == null || map.get("handbrake").isEmpty()) {
-                        tmph = estimateHandbrake(map.get("size"), map.get("chameleon"));
+                    if (map.getString("handbrake") == null || map.getString("handbrake").isEmpty()) {
+                        tmph = estimateHandbrake(map.getString("size"), map.getString("chameleon"));
                         plugin.console.sendMessage(plugin.pluginName + ChatColor.RED + "Handbrake location not found, making an educated guess...");
                     } else {
-                        tmph = map.get("handbrake");
+                        tmph = map.getString("handbrake");
                     }
                     String tmpb;
-                    if (map.get("button") == null || map.get("button").isEmpty()) {
-                        tmpb = estimateButton(map.get("size"), map.get("chameleon"));
+                    if (map.getString("button") == null || map.getString("button").isEmpty()) {
+                        tmpb = estimateButton(map.getString("size"), map.getString("chameleon"));
                         plugin.console.sendMessage(plugin.pluginName + ChatColor.RED + "Button location not found, making an educated guess...");
                     } else {
-                        tmpb = map.get("button");
+                        tmpb = map.getString("button");
                     }
                     String tmpa;
-                    if (map.get("artron_button") == null || map.get("artron_button").isEmpty()) {
-                        tmpa = estimateArtron(map.get("size"), map.get("chameleon"));
+                    if (map.getString("artron_button") == null || map.getString("artron_button").isEmpty()) {
+                        tmpa = estimateArtron(map.getString("size"), map.getString("chameleon"));
                         plugin.console.sendMessage(plugin.pluginName + ChatColor.RED + "Artron Button location not found, making an educated guess...");
                     } else {
-                        tmpa = map.get("artron_button");
+                        tmpa = map.getString("artron_button");
                     }
                     String[] tmpr = new String[4];
-                    if (map.get("repeater0") == null || map.get("repeater0").isEmpty()) {
-                        tmpr = estimateRepeaters(map.get("size"), map.get("chameleon"));
+                    if (map.getString("repeater0") == null || map.getString("repeater0").isEmpty()) {
+                        tmpr = estimateRepeaters(map.getString("size"), map.getString("chameleon"));
                         plugin.console.sendMessage(plugin.pluginName + ChatColor.RED + "Repeater locations not found, making an educated guess...");
                     } else {
-                        tmpr[0] = map.get("repeater0");
-                        tmpr[1] = map.get("repeater1");
-                        tmpr[2] = map.get("repeater2");
-                        tmpr[3] = map.get("repeater3");
+                        tmpr[0] = map.getString("repeater0");
+                        tmpr[1] = map.getString("repeater1");
+                        tmpr[2] = map.getString("repeater2");
+                        tmpr[3] = map.getString("repeater3");
                     }
                     String hb = plugin.utils.makeLocationStr(tmph);
                     String bn = plugin.utils.makeLocationStr(tmpb);
@@ -129,6 +135,7 @@ public class TARDISControlsConverter {
                     connection.setAutoCommit(true);
                     i++;
                 }
+                TARDISLocationColumns.backfill(connection, "controls");
             } catch (SQLException e) {
                 plugin.debug("Control conversion error: " + e.getMessage());
             } finally {
@@ -18,8 +18,10 @@ package me.eccentric_nz.TARDIS.database;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 
 /**
@@ -39,44 +41,152 @@ public class TARDISDatabase {
         return instance;
     }
     public Connection connection = null;
+    private String path;
     public Statement statement = null;
+    private TARDISDatabaseWriter writer = null;
+    private TARDISStatementCache statements = null;
+    private final TARDISRowCache tardis_rows = new TARDISRowCache("tardis_id", "owner");
+    private final TARDISRowCache player_prefs_rows = new TARDISRowCache("pp_id", "player");
 
     public void setConnection(String path) throws Exception {
         Class.forName("org.sqlite.JDBC");
-        connection = DriverManager.getConnection("jdbc:sqlite:" + path);
+        this.path = path;
+        connection = openConnection();
+        Statement pragma = connection.createStatement();
+        try {
+            // let the writer commit while this connection reads
+            pragma.execute("PRAGMA journal_mode = WAL");
+        } finally {
+            pragma.close();
+        }
+        statements = new TARDISStatementCache(connection);
+    }
+
+    /**
+     * Opens another connection to the database. The writer has one of its
+     * own, so that reads on the main connection never see a batch that is
+     * only partly written.
+     *
+     * @return the connection
+     * @throws SQLException if the connection could not be opened
+     */
+    public Connection openConnection() throws SQLException {
+        Connection c = DriverManager.getConnection("jdbc:sqlite:" + path);
+        Statement pragma = c.createStatement();
+        try {
+            // wait rather than fail while the other connection holds a lock
+            pragma.execute("PRAGMA busy_timeout = 5000");
+        } finally {
+            pragma.close();
+        }
+        return c;
     }
 
     public Connection getConnection() {
         return connection;
     }
 
+    public void setWriter(TARDISDatabaseWriter writer) {
+        this.writer = writer;
+    }
+
+    public TARDISDatabaseWriter getWriter() {
+        return writer;
+    }
+
+    public TARDISStatementCache getStatements() {
+        return statements;
+    }
+
+    /**
+     * Gets the cache of the rows of a table that are read by id or player
+     * name.
+     *
+     * @param table the database table name
+     * @return the cache, or null if the table's rows aren't cached
+     */
+    public TARDISRowCache getRowCache(String table) {
+        if (table.equals("tardis")) {
+            return tardis_rows;
+        }
+        if (table.equals("player_prefs")) {
+            return player_prefs_rows;
+        }
+        return null;
+    }
+
+    /**
+     * Borrows a cached prepared statement for a query. Give it back with
+     * release() instead of closing it.
+     *
+     * @param sql the query
+     * @return the prepared statement
+     * @throws SQLException if the statement could not be prepared
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return statements.prepare(sql);
+    }
+
+    /**
+     * Gives back a statement borrowed with prepare().
+     *
+     * @param sql the query the statement was prepared for
+     * @param ps the statement
+     */
+    public void release(String sql, PreparedStatement ps) {
+        statements.release(sql, ps);
+    }
+
+    /**
+     * Waits for any queued writes to a table to be committed, so that a query
+     * of the whole table sees them.
+     *
+     * @param table the table about to be read
+     */
+    public void awaitWrites(String table) {
+        awaitWrites(table, null);
+    }
+
+    /**
+     * Waits for the queued writes to a table that could change the rows a
+     * query selects to be committed, so that the query sees them.
+     *
+     * @param table the table about to be read
+     * @param where the table fields and values the query selects rows by
+     */
+    public void awaitWrites(String table, Map<String, Object> where) {
+        if (writer != null) {
+            writer.await(table, where);
+        }
+    }
+
     /**
      * Creates the TARDIS default tables in the database.
      */
     public void createTables() {
         try {
             statement = connection.createStatement();
-            String queryTARDIS = "CREATE TABLE IF NOT EXISTS tardis (tardis_id INTEGER PRIMARY KEY NOT NULL, owner TEXT COLLATE NOCASE, chunk TEXT, direction TEXT, home TEXT, save TEXT, current TEXT, fast_return TEXT DEFAULT '', replaced TEXT DEFAULT '', chest TEXT, companions TEXT, platform TEXT DEFAULT '', chameleon TEXT DEFAULT '', chamele_on INTEGER DEFAULT 0, chameleon_id INTEGER DEFAULT 35, chameleon_data INTEGER DEFAULT 11, size TEXT DEFAULT '', save_sign TEXT DEFAULT '', artron_level INTEGER DEFAULT 0, creeper TEXT DEFAULT '', handbrake_on INTEGER DEFAULT 1, tardis_init INTEGER DEFAULT 0, middle_id INTEGER, middle_data INTEGER, condenser TEXT DEFAULT '', scanner TEXT DEFAULT '', farm TEXT DEFAULT '', stable TEXT DEFAULT '', recharging INTEGER DEFAULT 0, hidden INTEGER DEFAULT 0, lastuse INTEGER DEFAULT (strftime('%s', 'now')), iso_on INTEGER DEFAULT 0, beacon TEXT DEFAULT '', eps TEXT DEFAULT '', rail TEXT DEFAULT '', village TEXT DEFAULT '')";
+            String queryTARDIS = "CREATE TABLE IF NOT EXISTS tardis (tardis_id INTEGER PRIMARY KEY NOT NULL, owner TEXT COLLATE NOCASE, chunk TEXT, direction TEXT, home TEXT, save TEXT, current TEXT, fast_return TEXT DEFAULT '', replaced TEXT DEFAULT '', chest TEXT, companions TEXT, platform TEXT DEFAULT '', chameleon TEXT DEFAULT '', chamele_on INTEGER DEFAULT 0, chameleon_id INTEGER DEFAULT 35, chameleon_data INTEGER DEFAULT 11, size TEXT DEFAULT '', save_sign TEXT DEFAULT '', artron_level INTEGER DEFAULT 0, creeper TEXT DEFAULT '', handbrake_on INTEGER DEFAULT 1, tardis_init INTEGER DEFAULT 0, middle_id INTEGER, middle_data INTEGER, condenser TEXT DEFAULT '', scanner TEXT DEFAULT '', farm TEXT DEFAULT '', stable TEXT DEFAULT '', recharging INTEGER DEFAULT 0, hidden INTEGER DEFAULT 0, lastuse INTEGER DEFAULT (strftime('%s', 'now')), iso_on INTEGER DEFAULT 0, beacon TEXT DEFAULT '', eps TEXT DEFAULT '', rail TEXT DEFAULT '', village TEXT DEFAULT '', current_world TEXT, current_x INTEGER, current_y INTEGER, current_z INTEGER)";
             statement.executeUpdate(queryTARDIS);
             String queryTravellers = "CREATE TABLE IF NOT EXISTS travellers (traveller_id INTEGER PRIMARY KEY NOT NULL, tardis_id INTEGER, player TEXT COLLATE NOCASE)";
             statement.executeUpdate(queryTravellers);
             String queryChunks = "CREATE TABLE IF NOT EXISTS chunks (chunk_id INTEGER PRIMARY KEY NOT NULL, tardis_id INTEGER, world TEXT, x INTEGER, z INTEGER)";
             statement.executeUpdate(queryChunks);
-            String queryDoors = "CREATE TABLE IF NOT EXISTS doors (door_id INTEGER PRIMARY KEY NOT NULL, tardis_id INTEGER, door_type INTEGER, door_location TEXT, door_direction TEXT DEFAULT 'SOUTH', locked INTEGER DEFAULT 0)";
+            String queryDoors = "CREATE TABLE IF NOT EXISTS doors (door_id INTEGER PRIMARY KEY NOT NULL, tardis_id INTEGER, door_type INTEGER, door_location TEXT, door_direction TEXT DEFAULT 'SOUTH', locked INTEGER DEFAULT 0, world TEXT, x INTEGER, y INTEGER, z INTEGER)";
             statement.executeUpdate(queryDoors);
             String queryPlayers = "CREATE TABLE IF NOT EXISTS player_prefs (pp_id INTEGER PRIMARY KEY NOT NULL, player TEXT COLLATE NOCASE, key TEXT DEFAULT '', sfx_on INTEGER DEFAULT 0, platform_on INTEGER DEFAULT 0, quotes_on INTEGER DEFAULT 0, artron_level INTEGER DEFAULT 0, wall TEXT DEFAULT 'ORANGE_WOOL', floor TEXT DEFAULT 'LIGHT_GREY_WOOL', auto_on INTEGER DEFAULT 0, beacon_on INTEGER DEFAULT 1, hads_on INTEGER DEFAULT 1, eps_on INTEGER DEFAULT 0, eps_message TEXT DEFAULT '', plain_on INTEGER, lamp INTEGER, texture_on INTEGER DEFAULT 0, texture_in TEXT DEFAULT '', texture_out TEXT DEFAULT 'default', submarine_on INTEGER DEFAULT 0)";
             statement.executeUpdate(queryPlayers);
-            String queryProtectBlocks = "CREATE TABLE IF NOT EXISTS blocks (b_id INTEGER PRIMARY KEY NOT NULL, tardis_id INTEGER, location TEXT COLLATE NOCASE DEFAULT '', block INTEGER DEFAULT 0, data INTEGER DEFAULT 0, police_box INTEGER DEFAULT 0)";
+            String queryProtectBlocks = "CREATE TABLE IF NOT EXISTS blocks (b_id INTEGER PRIMARY KEY NOT NULL, tardis_id INTEGER, location TEXT COLLATE NOCASE DEFAULT '', block INTEGER DEFAULT 0, data INTEGER DEFAULT 0, police_box INTEGER DEFAULT 0, world TEXT, x INTEGER, y INTEGER, z INTEGER)";
             statement.executeUpdate(queryProtectBlocks);
             String queryLamps = "CREATE TABLE IF NOT EXISTS lamps (l_id INTEGER PRIMARY KEY NOT NULL, tardis_id INTEGER, location TEXT COLLATE NOCASE DEFAULT '')";
             statement.executeUpdate(queryLamps);
-            String queryControls = "CREATE TABLE IF NOT EXISTS controls (c_id INTEGER PRIMARY KEY NOT NULL, tardis_id INTEGER, type INTEGER, location TEXT COLLATE NOCASE DEFAULT '', secondary INTEGER DEFAULT 0)";
+            String queryControls = "CREATE TABLE IF NOT EXISTS controls (c_id INTEGER PRIMARY KEY NOT NULL, tardis_id INTEGER, type INTEGER, location TEXT COLLATE NOCASE DEFAULT '', secondary INTEGER DEFAULT 0, world TEXT, x INTEGER, y INTEGER, z INTEGER)";
             statement.executeUpdate(queryControls);
             String queryDestinations = "CREATE TABLE IF NOT EXISTS destinations (dest_id INTEGER PRIMARY KEY NOT NULL, tardis_id INTEGER, dest_name TEXT COLLATE NOCASE DEFAULT '', world TEXT COLLATE NOCASE DEFAULT '', x INTEGER, y INTEGER, z INTEGER, direction TEXT DEFAULT '', bind TEXT DEFAULT '', type INTEGER DEFAULT 0, submarine INTEGER DEFAULT 0)";
             statement.executeUpdate(queryDestinations);
             String queryPresets = "CREATE TABLE IF NOT EXISTS areas (area_id INTEGER PRIMARY KEY NOT NULL, area_name TEXT COLLATE NOCASE DEFAULT '', world TEXT COLLATE NOCASE DEFAULT '', minx INTEGER, minz INTEGER, maxx INTEGER, maxz INTEGER, y INTEGER)";
             statement.executeUpdate(queryPresets);
-            String queryGravity = "CREATE TABLE IF NOT EXISTS gravity_well (g_id INTEGER PRIMARY KEY NOT NULL, tardis_id INTEGER, location TEXT COLLATE NOCASE DEFAULT '', direction INTEGER, distance INTEGER DEFAULT 11, velocity REAL DEFAULT 0.5)";
+            String queryGravity = "CREATE TABLE IF NOT EXISTS gravity_well (g_id INTEGER PRIMARY KEY NOT NULL, tardis_id INTEGER, location TEXT COLLATE NOCASE DEFAULT '', direction INTEGER, distance INTEGER DEFAULT 11, velocity REAL DEFAULT 0.5, world TEXT, x INTEGER, y INTEGER, z INTEGER)";
             statement.executeUpdate(queryGravity);
             String queryCondenser = "CREATE TABLE IF NOT EXISTS condenser (c_id INTEGER PRIMARY KEY NOT NULL, tardis_id INTEGER, block_data TEXT COLLATE NOCASE DEFAULT '', block_count INTEGER)";
             statement.executeUpdate(queryCondenser);
@@ -84,7 +194,7 @@ public class TARDISDatabase {
             statement.executeUpdate(queryAchievements);
             String queryCounts = "CREATE TABLE IF NOT EXISTS t_count (t_id INTEGER PRIMARY KEY NOT NULL, player TEXT COLLATE NOCASE, count INTEGER DEFAULT 0)";
             statement.executeUpdate(queryCounts);
-            String queryARS = "CREATE TABLE IF NOT EXISTS ars (ars_id INTEGER PRIMARY KEY NOT NULL, tardis_id INTEGER, player TEXT COLLATE NOCASE, ars_x_east INTEGER DEFAULT 2, ars_z_south INTEGER DEFAULT 2, ars_y_layer INTEGER DEFAULT 1, json TEXT DEFAULT '')";
+            String queryARS = "CREATE TABLE IF NOT EXISTS ars (ars_id INTEGER PRIMARY KEY NOT NULL, tardis_id INTEGER, player TEXT COLLATE NOCASE, ars_x_east INTEGER DEFAULT 2, ars_z_south INTEGER DEFAULT 2, ars_y_layer INTEGER DEFAULT 1, json TEXT DEFAULT '', plan TEXT DEFAULT '')";
             statement.executeUpdate(queryARS);
 
             // delete old gravity and levers tables
@@ -96,6 +206,7 @@ public class TARDISDatabase {
             TARDISDatabaseUpdater dbu = new TARDISDatabaseUpdater(statement);
             dbu.updateTables();
             dbu.updateHomes();
+            dbu.updateSchema();
 
         } catch (SQLException e) {
             TARDIS.plugin.console.sendMessage(TARDIS.plugin.pluginName + "Create table error: " + e);
@@ -16,6 +16,7 @@
  */
 package me.eccentric_nz.TARDIS.database;
 
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -33,7 +34,39 @@ import org.bukkit.ChatColor;
  */
 public class TARDISDatabaseUpdater {
 
+    /**
+     * The version of the schema this version of the plugin expects, stored in
+     * the database's user_version.
+     */
+    static final int SCHEMA_VERSION = 1;
+    /**
+     * The secondary indexes, as name, table and columns.
+     */
+    private static final String[][] INDEXES = new String[][]{
+        {"blocks_location", "blocks", "world, x, y, z"},
+        {"blocks_tardis", "blocks", "tardis_id"},
+        {"controls_location", "controls", "world, x, y, z"},
+        {"controls_tardis", "controls", "tardis_id, type, secondary"},
+        {"doors_location", "doors", "world, x, y, z"},
+        {"doors_tardis", "doors", "tardis_id"},
+        {"gravity_location", "gravity_well", "world, x, y, z"},
+        {"gravity_tardis", "gravity_well", "tardis_id"},
+        {"tardis_current", "tardis", "current_world, current_x, current_z"},
+        {"tardis_owner", "tardis", "owner"},
+        {"travellers_tardis", "travellers", "tardis_id"},
+        {"travellers_player", "travellers", "player"},
+        {"chunks_tardis", "chunks", "tardis_id"},
+        {"lamps_tardis", "lamps", "tardis_id"},
+        {"destinations_tardis", "destinations", "tardis_id"},
+        {"condenser_tardis", "condenser", "tardis_id"},
+        {"ars_tardis", "ars", "tardis_id"},
+        {"player_prefs_player", "player_prefs", "player"},
+        {"achievements_player", "achievements", "player"},
+        {"t_count_player", "t_count", "player"}
+    };
+
     private List<String> areaupdates = new ArrayList<String>();
+    private List<String> arsupdates = new ArrayList<String>();
     private List<String> blockupdates = new ArrayList<String>();
     private List<String> destupdates = new ArrayList<String>();
     private List<String> doorupdates = new ArrayList<String>();
@@ -46,6 +79,7 @@ public class TARDISDatabaseUpdater {
     public TARDISDatabaseUpdater(Statement statement) {
         this.statement = statement;
         areaupdates.add("y INTEGER");
+        arsupdates.add("plan TEXT DEFAULT ''");
         blockupdates.add("police_box INTEGER DEFAULT 0");
         destupdates.add("bind TEXT DEFAULT ''");
         destupdates.add("type INTEGER DEFAULT 0");
@@ -109,6 +143,16 @@ public class TARDISDatabaseUpdater {
                     statement.executeUpdate(a_alter);
                 }
             }
+            for (String r : arsupdates) {
+                String[] rsplit = r.split(" ");
+                String r_query = "SELECT sql FROM sqlite_master WHERE tbl_name = 'ars' AND sql LIKE '%" + rsplit[0] + "%'";
+                ResultSet rsr = statement.executeQuery(r_query);
+                if (!rsr.next()) {
+                    i++;
+                    String r_alter = "ALTER TABLE ars ADD " + r;
+                    statement.executeUpdate(r_alter);
+                }
+            }
             for (String b : blockupdates) {
                 String[] bsplit = b.split(" ");
                 String b_query = "SELECT sql FROM sqlite_master WHERE tbl_name = 'blocks' AND sql LIKE '%" + bsplit[0] + "%'";
@@ -178,6 +222,65 @@ public class TARDISDatabaseUpdater {
         }
     }
 
+    /**
+     * Brings the schema up to SCHEMA_VERSION. Version 1 adds typed world, x, y
+     * and z columns alongside the location strings, fills them in from the
+     * strings, and adds the secondary indexes. Each upgrade is done in one
+     * transaction, so a failed upgrade is tried again at the next start.
+     */
+    public void updateSchema() {
+        try {
+            Connection connection = statement.getConnection();
+            ResultSet rsv = statement.executeQuery("PRAGMA user_version");
+            int version = (rsv.next()) ? rsv.getInt(1) : 0;
+            rsv.close();
+            if (version >= SCHEMA_VERSION) {
+                return;
+            }
+            TARDIS.plugin.console.sendMessage(TARDIS.plugin.pluginName + "Updating the database schema to version " + SCHEMA_VERSION + "...");
+            connection.setAutoCommit(false);
+            try {
+                int rows = 0;
+                for (Object[] t : TARDISLocationColumns.TABLES) {
+                    String table = (String) t[0];
+                    String prefix = (String) t[2];
+                    addColumn(table, prefix + "world", "TEXT");
+                    addColumn(table, prefix + "x", "INTEGER");
+                    addColumn(table, prefix + "y", "INTEGER");
+                    addColumn(table, prefix + "z", "INTEGER");
+                    rows += TARDISLocationColumns.backfill(connection, table);
+                }
+                for (String[] index : INDEXES) {
+                    statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_" + index[0] + " ON " + index[1] + " (" + index[2] + ")");
+                }
+                statement.executeUpdate("PRAGMA user_version = " + SCHEMA_VERSION);
+                connection.commit();
+                TARDIS.plugin.console.sendMessage(TARDIS.plugin.pluginName + "Added " + ChatColor.AQUA + INDEXES.length + ChatColor.RESET + " indexes and filled in the locations of " + ChatColor.AQUA + rows + ChatColor.RESET + " rows!");
+            } catch (SQLException e) {
+                connection.rollback();
+                TARDIS.plugin.console.sendMessage(TARDIS.plugin.pluginName + "Database schema update error: " + e.getMessage());
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            TARDIS.plugin.debug("Database schema version error: " + e.getMessage() + e.getErrorCode());
+        }
+    }
+
+    private void addColumn(String table, String column, String type) throws SQLException {
+        ResultSet rs = statement.executeQuery("PRAGMA table_info(" + table + ")");
+        boolean found = false;
+        while (rs.next()) {
+            if (rs.getString("name").equalsIgnoreCase(column)) {
+                found = true;
+            }
+        }
+        rs.close();
+        if (!found) {
+            statement.executeUpdate("ALTER TABLE " + table + " ADD " + column + " " + type);
+        }
+    }
+
     public void updateHomes() {
         // check the tardis database to see whether the homes have already been updated
         String home_query = "SELECT home FROM tardis ORDER BY tardis_id ASC";
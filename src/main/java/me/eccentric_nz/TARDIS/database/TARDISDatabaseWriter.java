@@ -0,0 +1,945 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import me.eccentric_nz.TARDIS.TARDIS;
+
+/**
+ * Writes to the database on a thread of its own, so that the server doesn't
+ * wait for SQLite while it is ticking.
+ *
+ * Writes are queued in the order they are made and written in batches, one
+ * transaction per batch. A write to the same rows of a table as the write
+ * queued just before it is merged into that write instead of being queued
+ * again.
+ *
+ * The writer has a connection of its own, and readers only ever see
+ * committed rows. A read waits only for the queued writes that could change
+ * the rows it selects - a read of one TARDIS's doors doesn't wait for a
+ * write to another TARDIS's doors - so reads still see earlier writes
+ * without stalling on unrelated ones. Writes that touch several tables (a
+ * build session or a purge) hold up reads of those tables only. The rows
+ * read most often (tardis and player_prefs rows, doors, controls and
+ * travellers) are kept in memory and updated as writes are queued, so reads
+ * of them don't wait at all. When a write fails or a batch is rolled back,
+ * the caches of the tables it touched are thrown away and reloaded from what
+ * was actually committed.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISDatabaseWriter implements Runnable {
+
+    private static final int CAPACITY = 8192;
+    private static final int BATCH_SIZE = 512;
+    // the most ids put in one ADD_ALL statement
+    private static final int MAX_IDS = 900;
+    // the table name used for writes that touch several tables
+    private static final String ALL = "*";
+    private final TARDIS plugin;
+    private final Connection connection;
+    private final Object lock = new Object();
+    private final ArrayDeque<Write> queue = new ArrayDeque<Write>();
+    // the last write queued for each table, that later writes may merge into
+    private final HashMap<String, Write> last = new HashMap<String, Write>();
+    // writes per table that haven't been committed yet
+    private final HashMap<String, List<Write>> pending = new HashMap<String, List<Write>>();
+    private Thread thread;
+    private boolean running;
+    private int inFlight;
+    // metrics
+    private int highWater;
+    private long writes;
+    private long merged;
+    private long commits;
+    private long failures;
+    private long lastCommitNanos;
+    private long maxCommitNanos;
+    private long totalCommitNanos;
+
+    public TARDISDatabaseWriter(TARDIS plugin, Connection connection) {
+        this.plugin = plugin;
+        this.connection = connection;
+    }
+
+    /**
+     * Starts the database thread.
+     */
+    public void start() {
+        synchronized (lock) {
+            if (running) {
+                return;
+            }
+            running = true;
+        }
+        thread = new Thread(this, "TARDIS database writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Writes everything that is still queued and stops the database thread.
+     */
+    public void stop() {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        if (thread != null) {
+            try {
+                thread.join(30000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        // anything left over (the thread died or timed out) is written here
+        List<Write> left;
+        synchronized (lock) {
+            left = new ArrayList<Write>(queue);
+            queue.clear();
+            last.clear();
+            inFlight += left.size();
+        }
+        if (!left.isEmpty()) {
+            write(left);
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            plugin.debug("Could not close the database writer's connection! " + e.getMessage());
+        }
+    }
+
+    public boolean isRunning() {
+        synchronized (lock) {
+            return running;
+        }
+    }
+
+    /**
+     * Queues an INSERT.
+     *
+     * @param table the table to insert into
+     * @param data the fields and values to insert
+     * @param wait whether to wait for the insert to be executed
+     * @return the generated key if waiting for it, otherwise 0 (or -1 if the
+     * insert failed)
+     */
+    public int insert(String table, HashMap<String, Object> data, boolean wait) {
+        Write w = new Write(Write.INSERT, table);
+        w.data.putAll(data);
+        TARDISLocationColumns.expand(table, w.data);
+        if (wait && Thread.currentThread() != thread) {
+            w.done = false;
+            queue(w);
+            synchronized (lock) {
+                while (!w.done) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return -1;
+                    }
+                }
+            }
+            return w.result;
+        }
+        queue(w);
+        return 0;
+    }
+
+    /**
+     * Queues an UPDATE, merging it with the previous write to the table if
+     * that was an UPDATE of the same rows.
+     *
+     * @param table the table to update
+     * @param data the fields and values to set
+     * @param where the fields and values that select the rows
+     */
+    public void update(String table, HashMap<String, Object> data, HashMap<String, Object> where) {
+        Write w = new Write(Write.UPDATE, table);
+        w.data.putAll(data);
+        w.where.putAll(where);
+        TARDISLocationColumns.expand(table, w.data);
+        TARDISLocationColumns.narrow(table, w.where);
+        queue(w);
+    }
+
+    /**
+     * Queues a DELETE.
+     *
+     * @param table the table to delete from
+     * @param where the fields and values that select the rows
+     */
+    public void delete(String table, HashMap<String, Object> where) {
+        Write w = new Write(Write.DELETE, table);
+        w.where.putAll(where);
+        TARDISLocationColumns.narrow(table, w.where);
+        queue(w);
+    }
+
+    /**
+     * Queues adding an amount to a numeric column, merging it with the
+     * previous write to the table if that added to the same column of the
+     * same rows.
+     *
+     * @param table the table to update
+     * @param column the column to add to
+     * @param amount the amount to add (use a negative value to subtract)
+     * @param where the fields and values that select the rows
+     */
+    public void add(String table, String column, int amount, HashMap<String, Object> where) {
+        Write w = new Write(Write.ADD, table);
+        w.column = column;
+        w.amount = amount;
+        w.where.putAll(where);
+        TARDISLocationColumns.narrow(table, w.where);
+        queue(w);
+    }
+
+    /**
+     * Queues adding an amount to a numeric column of several rows at once,
+     * selected by a list of ids.
+     *
+     * @param table the table to update
+     * @param column the column to add to
+     * @param amount the amount to add (use a negative value to subtract)
+     * @param id_column the column the ids are in
+     * @param ids the ids of the rows to add to
+     */
+    public void addAll(String table, String column, int amount, String id_column, Collection<Integer> ids) {
+        Write w = new Write(Write.ADD_ALL, table);
+        w.column = column;
+        w.amount = amount;
+        w.id_column = id_column;
+        w.ids = new ArrayList<Integer>(ids);
+        queue(w);
+    }
+
+    /**
+     * Queues adding block counts to a TARDIS's condenser rows, inserting the
+     * rows for blocks it hasn't condensed before.
+     *
+     * @param id the tardis_id
+     * @param counts the block_data and count of each block condensed
+     */
+    public void condense(int id, Map<String, Integer> counts) {
+        Write w = new Write(Write.CONDENSE, "condenser");
+        w.where.put("tardis_id", id);
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            w.data.put(entry.getKey(), entry.getValue());
+        }
+        queue(w);
+    }
+
+    /**
+     * Queues an insert or update of a TARDIS console control.
+     *
+     * @param id the tardis_id
+     * @param type the control type
+     * @param location the control location
+     * @param secondary the secondary console number
+     */
+    public void control(int id, int type, String location, int secondary) {
+        Write w = new Write(Write.CONTROL, "controls");
+        w.data.put("tardis_id", id);
+        w.data.put("type", type);
+        w.data.put("location", location);
+        w.data.put("secondary", secondary);
+        queue(w);
+    }
+
+    /**
+     * Queues deleting every row of a TARDIS from several tables, to be
+     * written in one transaction.
+     *
+     * @param id the tardis_id
+     * @param tables the tables to delete from
+     */
+    public void purge(int id, List<String> tables) {
+        Write w = new Write(Write.PURGE, ALL);
+        w.where.put("tardis_id", id);
+        w.tables = new ArrayList<String>(tables);
+        queue(w);
+    }
+
+    /**
+     * Queues a build session, to be written in one transaction.
+     *
+     * @param session the session to write
+     */
+    public void session(TARDISBuildSession session) {
+        Write w = new Write(Write.SESSION, ALL);
+        w.session = session;
+        queue(w);
+    }
+
+    /**
+     * Waits until the queued writes to a table that could change the rows
+     * selected by a read have been committed.
+     *
+     * @param table the table about to be read
+     * @param where the fields and values the read selects rows by, or null
+     * if it reads the whole table
+     */
+    public void await(String table, Map<String, Object> where) {
+        if (Thread.currentThread() == thread) {
+            return;
+        }
+        synchronized (lock) {
+            while (isPending(table, where)) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean isPending(String table, Map<String, Object> where) {
+        List<Write> writes = pending.get(table);
+        if (writes == null) {
+            return false;
+        }
+        for (Write w : writes) {
+            if (w.mayChange(table, where)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Waits until every queued write has been committed.
+     */
+    public void flush() {
+        if (Thread.currentThread() == thread) {
+            return;
+        }
+        synchronized (lock) {
+            while (running && (!queue.isEmpty() || inFlight > 0)) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void queue(Write w) {
+        synchronized (lock) {
+            if (!running) {
+                // not started or already stopped, so just write it now
+                inFlight++;
+                List<Write> one = new ArrayList<Write>(1);
+                one.add(w);
+                write(one);
+                return;
+            }
+            if (w.kind == Write.SESSION || w.kind == Write.PURGE) {
+                // these write to several tables, so nothing may merge across them
+                last.clear();
+            }
+            Write prev = last.get(w.table);
+            if (prev != null && prev.merge(w)) {
+                merged++;
+                return;
+            }
+            while (queue.size() >= CAPACITY && running) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            queue.add(w);
+            last.put(w.table, w);
+            for (String t : w.getTables()) {
+                List<Write> writes = pending.get(t);
+                if (writes == null) {
+                    writes = new ArrayList<Write>();
+                    pending.put(t, writes);
+                }
+                writes.add(w);
+            }
+            if (queue.size() > highWater) {
+                highWater = queue.size();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            List<Write> batch = new ArrayList<Write>();
+            synchronized (lock) {
+                while (queue.isEmpty() && running) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        running = false;
+                    }
+                }
+                if (queue.isEmpty()) {
+                    lock.notifyAll();
+                    return;
+                }
+                while (!queue.isEmpty() && batch.size() < BATCH_SIZE) {
+                    Write w = queue.poll();
+                    // once taken, nothing more can be merged into it
+                    if (last.get(w.table) == w) {
+                        last.remove(w.table);
+                    }
+                    batch.add(w);
+                }
+                inFlight += batch.size();
+                lock.notifyAll();
+            }
+            write(batch);
+        }
+    }
+
+    /**
+     * Executes a batch of writes in one transaction.
+     */
+    private void write(List<Write> batch) {
+        long start = System.nanoTime();
+        boolean transaction = false;
+        try {
+            if (batch.size() > 1 || batch.get(0).kind == Write.SESSION || batch.get(0).kind == Write.PURGE) {
+                connection.setAutoCommit(false);
+                transaction = true;
+            }
+        } catch (SQLException e) {
+            plugin.debug("Could not start database transaction! " + e.getMessage());
+        }
+        Set<String> failed = new HashSet<String>();
+        for (Write w : batch) {
+            w.result = w.execute();
+            if (w.result < 0) {
+                failed.addAll(w.getTables());
+            }
+        }
+        if (transaction) {
+            try {
+                connection.commit();
+            } catch (SQLException e) {
+                plugin.debug("Database commit error, rolling back! " + e.getMessage());
+                try {
+                    connection.rollback();
+                } catch (SQLException ex) {
+                    plugin.debug("Could not roll back database transaction! " + ex.getMessage());
+                }
+                for (Write w : batch) {
+                    failed.addAll(w.getTables());
+                    // nothing in the batch was written
+                    w.result = -1;
+                }
+            } finally {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    plugin.debug("Could not end database transaction! " + e.getMessage());
+                }
+            }
+        }
+        if (!failed.isEmpty()) {
+            invalidate(failed);
+        }
+        long time = System.nanoTime() - start;
+        synchronized (lock) {
+            // only now can readers, on their own connection, see the writes
+            for (Write w : batch) {
+                for (String t : w.getTables()) {
+                    List<Write> writes = pending.get(t);
+                    if (writes != null) {
+                        writes.remove(w);
+                        if (writes.isEmpty()) {
+                            pending.remove(t);
+                        }
+                    }
+                }
+                if (w.result < 0) {
+                    failures++;
+                }
+                w.done = true;
+            }
+            writes += batch.size();
+            commits++;
+            lastCommitNanos = time;
+            totalCommitNanos += time;
+            if (time > maxCommitNanos) {
+                maxCommitNanos = time;
+            }
+            inFlight -= batch.size();
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Throws away the cached rows of tables whose writes didn't make it to
+     * the database, and reloads the indexes built from them.
+     *
+     * @param tables the tables that were rolled back
+     */
+    private void invalidate(final Set<String> tables) {
+        boolean all = tables.contains(ALL);
+        plugin.debug("Reloading the caches of " + ((all) ? "every table" : tables) + " after a failed write");
+        TARDISDatabase service = TARDISDatabase.getInstance();
+        for (String table : Arrays.asList("tardis", "player_prefs")) {
+            if (all || tables.contains(table)) {
+                // thread safe, and read off the main thread, so clear it now
+                service.getRowCache(table).clear();
+            }
+        }
+        if (all || tables.contains("destinations")) {
+            plugin.sessions.destinationsChanged();
+        }
+        if (!plugin.isEnabled()) {
+            return;
+        }
+        final boolean reload_all = all;
+        plugin.getServer().getScheduler().scheduleSyncDelayedTask(plugin, new Runnable() {
+            @Override
+            public void run() {
+                if (reload_all || tables.contains("doors")) {
+                    plugin.doorCache.clear();
+                }
+                if (reload_all || tables.contains("controls") || tables.contains("tardis")) {
+                    plugin.controlRegistry.load();
+                }
+                if (reload_all || tables.contains("travellers")) {
+                    plugin.travellers.load();
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets the number of writes waiting to be written.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return queue.size() + inFlight;
+        }
+    }
+
+    public int getHighWater() {
+        synchronized (lock) {
+            return highWater;
+        }
+    }
+
+    public long getWrites() {
+        synchronized (lock) {
+            return writes;
+        }
+    }
+
+    public long getMerged() {
+        synchronized (lock) {
+            return merged;
+        }
+    }
+
+    public long getCommits() {
+        synchronized (lock) {
+            return commits;
+        }
+    }
+
+    public long getFailures() {
+        synchronized (lock) {
+            return failures;
+        }
+    }
+
+    public double getLastCommitMillis() {
+        synchronized (lock) {
+            return lastCommitNanos / 1000000.0D;
+        }
+    }
+
+    public double getMaxCommitMillis() {
+        synchronized (lock) {
+            return maxCommitNanos / 1000000.0D;
+        }
+    }
+
+    public double getAverageCommitMillis() {
+        synchronized (lock) {
+            return (commits == 0) ? 0.0D : totalCommitNanos / (commits * 1000000.0D);
+        }
+    }
+
+    /**
+     * Sets a parameter of a prepared statement from a value of one of the
+     * types used in QueryFactory's HashMaps.
+     *
+     * @param ps the statement
+     * @param s the parameter index
+     * @param value the value
+     * @throws SQLException if the parameter can't be set
+     */
+    static void setValue(PreparedStatement ps, int s, Object value) throws SQLException {
+        if (value instanceof String) {
+            ps.setString(s, value.toString());
+        } else if (value instanceof Double || value instanceof Float) {
+            ps.setDouble(s, ((Number) value).doubleValue());
+        } else if (value instanceof Long) {
+            ps.setLong(s, (Long) value);
+        } else if (value instanceof Number) {
+            ps.setInt(s, ((Number) value).intValue());
+        } else if (value instanceof Boolean) {
+            ps.setInt(s, ((Boolean) value) ? 1 : 0);
+        } else {
+            ps.setString(s, String.valueOf(value));
+        }
+    }
+
+    /**
+     * A queued write.
+     */
+    private class Write {
+
+        static final int INSERT = 0;
+        static final int UPDATE = 1;
+        static final int DELETE = 2;
+        static final int ADD = 3;
+        static final int CONTROL = 4;
+        static final int SESSION = 5;
+        static final int ADD_ALL = 6;
+        static final int CONDENSE = 7;
+        static final int PURGE = 8;
+        final int kind;
+        final String table;
+        final LinkedHashMap<String, Object> data = new LinkedHashMap<String, Object>();
+        // sorted so that writes to the same rows compare equal
+        final TreeMap<String, Object> where = new TreeMap<String, Object>();
+        String column;
+        int amount;
+        String id_column;
+        List<Integer> ids;
+        List<String> tables;
+        TARDISBuildSession session;
+        int result;
+        boolean done = true;
+
+        Write(int kind, String table) {
+            this.kind = kind;
+            this.table = table;
+        }
+
+        /**
+         * Gets the tables the write changes.
+         *
+         * @return the table names, or ALL if it could be any of them
+         */
+        Set<String> getTables() {
+            Set<String> names = new HashSet<String>();
+            if (kind == SESSION) {
+                names.addAll(session.getTables());
+            } else if (kind == PURGE) {
+                names.addAll(tables);
+            } else {
+                names.add(table);
+            }
+            return names;
+        }
+
+        /**
+         * Checks whether the write could change rows selected by a read. It
+         * couldn't if the read and the write select rows by different values
+         * of the same column, or if the read selects by a value that an
+         * inserted row doesn't have.
+         *
+         * @param t the table being read
+         * @param w the fields and values the read selects rows by
+         * @return true if the read must wait for the write
+         */
+        boolean mayChange(String t, Map<String, Object> w) {
+            if (w == null || w.isEmpty()) {
+                return true;
+            }
+            switch (kind) {
+                case INSERT:
+                case CONTROL:
+                    return matches(data, w);
+                case UPDATE:
+                    for (String key : w.keySet()) {
+                        if (data.containsKey(key)) {
+                            // the update may move rows into the selection
+                            return true;
+                        }
+                    }
+                    return matches(where, w);
+                case DELETE:
+                case ADD:
+                case CONDENSE:
+                case PURGE:
+                    return matches(where, w);
+                case ADD_ALL:
+                    Object id = w.get(id_column);
+                    if (id == null) {
+                        return true;
+                    }
+                    for (Integer i : ids) {
+                        if (same(i, id)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                default:
+                    return true;
+            }
+        }
+
+        /**
+         * Merges a later write into this one if they both change the same
+         * rows in the same way.
+         *
+         * @param w the later write
+         * @return true if the write was merged
+         */
+        boolean merge(Write w) {
+            if (kind != w.kind || !where.equals(w.where)) {
+                return false;
+            }
+            if (kind == UPDATE) {
+                data.putAll(w.data);
+                return true;
+            }
+            if (kind == ADD && column.equals(w.column)) {
+                amount += w.amount;
+                return true;
+            }
+            if (kind == CONDENSE) {
+                for (Map.Entry<String, Object> entry : w.data.entrySet()) {
+                    Integer n = (Integer) data.get(entry.getKey());
+                    data.put(entry.getKey(), ((n == null) ? 0 : n) + (Integer) entry.getValue());
+                }
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Executes the write.
+         *
+         * @return the generated key for inserts, 0 for other writes, or -1 if
+         * the write failed
+         */
+        int execute() {
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+            try {
+                switch (kind) {
+                    case INSERT:
+                        StringBuilder sbf = new StringBuilder();
+                        StringBuilder sbq = new StringBuilder();
+                        for (String key : data.keySet()) {
+                            sbf.append(key).append(",");
+                            sbq.append("?,");
+                        }
+                        ps = connection.prepareStatement("INSERT INTO " + table + " (" + sbf.substring(0, sbf.length() - 1) + ") VALUES (" + sbq.substring(0, sbq.length() - 1) + ")");
+                        bind(ps, data, 1);
+                        ps.executeUpdate();
+                        rs = ps.getGeneratedKeys();
+                        return (rs.next()) ? rs.getInt(1) : -1;
+                    case UPDATE:
+                        StringBuilder sbu = new StringBuilder();
+                        for (String key : data.keySet()) {
+                            sbu.append(key).append(" = ?,");
+                        }
+                        ps = connection.prepareStatement("UPDATE " + table + " SET " + sbu.substring(0, sbu.length() - 1) + wheres());
+                        bind(ps, where, bind(ps, data, 1));
+                        ps.executeUpdate();
+                        return 0;
+                    case DELETE:
+                        ps = connection.prepareStatement("DELETE FROM " + table + wheres());
+                        bind(ps, where, 1);
+                        ps.executeUpdate();
+                        return 0;
+                    case ADD:
+                        ps = connection.prepareStatement("UPDATE " + table + " SET " + column + " = " + column + " + ?" + wheres());
+                        ps.setInt(1, amount);
+                        bind(ps, where, 2);
+                        ps.executeUpdate();
+                        return 0;
+                    case ADD_ALL:
+                        // SQLite allows at most 999 parameters per statement
+                        for (int from = 0; from < ids.size(); from += MAX_IDS) {
+                            List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IDS, ids.size()));
+                            StringBuilder sbi = new StringBuilder();
+                            for (int i = 0; i < chunk.size(); i++) {
+                                sbi.append("?,");
+                            }
+                            ps = connection.prepareStatement("UPDATE " + table + " SET " + column + " = " + column + " + ? WHERE " + id_column + " IN (" + sbi.substring(0, sbi.length() - 1) + ")");
+                            ps.setInt(1, amount);
+                            for (int i = 0; i < chunk.size(); i++) {
+                                ps.setInt(i + 2, chunk.get(i));
+                            }
+                            ps.executeUpdate();
+                            ps.close();
+                            ps = null;
+                        }
+                        return 0;
+                    case CONDENSE:
+                        ps = connection.prepareStatement("UPDATE condenser SET block_count = block_count + ? WHERE tardis_id = ? AND block_data = ?");
+                        List<String> missing = new ArrayList<String>();
+                        for (Map.Entry<String, Object> entry : data.entrySet()) {
+                            setValue(ps, 1, entry.getValue());
+                            setValue(ps, 2, where.get("tardis_id"));
+                            ps.setString(3, entry.getKey());
+                            if (ps.executeUpdate() == 0) {
+                                missing.add(entry.getKey());
+                            }
+                        }
+                        ps.close();
+                        ps = null;
+                        if (!missing.isEmpty()) {
+                            ps = connection.prepareStatement("INSERT INTO condenser (tardis_id, block_data, block_count) VALUES (?,?,?)");
+                            for (String block_data : missing) {
+                                setValue(ps, 1, where.get("tardis_id"));
+                                ps.setString(2, block_data);
+                                setValue(ps, 3, data.get(block_data));
+                                ps.addBatch();
+                            }
+                            ps.executeBatch();
+                        }
+                        return 0;
+                    case SESSION:
+                        return (session.execute(connection)) ? 0 : -1;
+                    case PURGE:
+                        for (String t : tables) {
+                            ps = connection.prepareStatement("DELETE FROM " + t + " WHERE tardis_id = ?");
+                            setValue(ps, 1, where.get("tardis_id"));
+                            ps.executeUpdate();
+                            ps.close();
+                            ps = null;
+                        }
+                        return 0;
+                    default:
+                        // CONTROL
+                        ps = connection.prepareStatement("SELECT c_id FROM controls WHERE tardis_id = ? AND type = ? AND secondary = ?");
+                        ps.setObject(1, data.get("tardis_id"));
+                        ps.setObject(2, data.get("type"));
+                        ps.setObject(3, data.get("secondary"));
+                        rs = ps.executeQuery();
+                        boolean found = rs.next();
+                        int c_id = (found) ? rs.getInt("c_id") : 0;
+                        rs.close();
+                        rs = null;
+                        ps.close();
+                        Object[] typed = TARDISLocationColumns.parse(data.get("location").toString());
+                        if (found) {
+                            ps = connection.prepareStatement("UPDATE controls SET location = ?, world = ?, x = ?, y = ?, z = ? WHERE c_id = ?");
+                            ps.setString(1, data.get("location").toString());
+                            for (int i = 0; i < 4; i++) {
+                                setValue(ps, i + 2, typed[i]);
+                            }
+                            ps.setInt(6, c_id);
+                        } else {
+                            ps = connection.prepareStatement("INSERT INTO controls (tardis_id, type, location, secondary, world, x, y, z) VALUES (?,?,?,?,?,?,?,?)");
+                            int s = bind(ps, data, 1);
+                            for (int i = 0; i < 4; i++) {
+                                setValue(ps, s + i, typed[i]);
+                            }
+                        }
+                        ps.executeUpdate();
+                        return 0;
+                }
+            } catch (SQLException e) {
+                plugin.debug("Write error for " + table + "! " + e.getMessage());
+                return -1;
+            } finally {
+                try {
+                    if (rs != null) {
+                        rs.close();
+                    }
+                    if (ps != null) {
+                        ps.close();
+                    }
+                } catch (Exception e) {
+                    plugin.debug("Error closing " + table + "! " + e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Checks that no column has different values in both maps.
+         */
+        private boolean matches(Map<String, Object> a, Map<String, Object> b) {
+            for (Map.Entry<String, Object> entry : b.entrySet()) {
+                if (a.containsKey(entry.getKey()) && !same(a.get(entry.getKey()), entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Compares column values, ignoring case as the COLLATE NOCASE columns
+         * do, and ints and their strings alike.
+         */
+        private boolean same(Object a, Object b) {
+            return String.valueOf(a).equalsIgnoreCase(String.valueOf(b));
+        }
+
+        private String wheres() {
+            if (where.isEmpty()) {
+                return "";
+            }
+            StringBuilder sbw = new StringBuilder(" WHERE ");
+            for (String key : where.keySet()) {
+                sbw.append(key).append(" = ? AND ");
+            }
+            return sbw.substring(0, sbw.length() - 5);
+        }
+
+        private int bind(PreparedStatement ps, Map<String, Object> values, int s) throws SQLException {
+            for (Object value : values.values()) {
+                setValue(ps, s, value);
+                s++;
+            }
+            return s;
+        }
+    }
+}
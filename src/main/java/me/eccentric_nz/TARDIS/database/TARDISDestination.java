@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A row of the destinations table - a saved destination, or a location bound
+ * to a command or block.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISDestination {
+
+    private static final TARDISRowMapper<TARDISDestination> MAPPER = new TARDISRowMapper<TARDISDestination>() {
+        @Override
+        public TARDISDestination map(ResultSet rs) throws SQLException {
+            return new TARDISDestination(rs.getString("dest_name"), rs.getString("world"), rs.getInt("x"), rs.getInt("y"), rs.getInt("z"), rs.getString("direction"), rs.getInt("type"), rs.getBoolean("submarine"));
+        }
+    };
+    private final String dest_name;
+    private final String world;
+    private final int x;
+    private final int y;
+    private final int z;
+    private final String direction;
+    private final int type;
+    private final boolean submarine;
+
+    public TARDISDestination(String dest_name, String world, int x, int y, int z, String direction, int type, boolean submarine) {
+        this.dest_name = dest_name;
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.direction = direction;
+        this.type = type;
+        this.submarine = submarine;
+    }
+
+    /**
+     * Reads the destinations of a TARDIS. Safe to call off the main thread.
+     *
+     * @param id the tardis_id
+     * @return the destinations, in the order they were saved
+     */
+    public static List<TARDISDestination> list(int id) {
+        HashMap<String, Object> where = new HashMap<String, Object>();
+        where.put("tardis_id", id);
+        return TARDISQuery.list("destinations", "dest_name, world, x, y, z, direction, type, submarine", where, MAPPER);
+    }
+
+    public String getDest_name() {
+        return dest_name;
+    }
+
+    public String getWorld() {
+        return world;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    /**
+     * Gets the type of destination.
+     *
+     * @return 0 for a saved destination, otherwise the type of bind
+     */
+    public int getType() {
+        return type;
+    }
+
+    public boolean isSubmarine() {
+        return submarine;
+    }
+}
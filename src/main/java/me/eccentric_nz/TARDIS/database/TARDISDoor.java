@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+import me.eccentric_nz.TARDIS.TARDISConstants;
+
+/**
+ * A row of the doors table held in the door cache, with the door location
+ * already parsed into its world and co-ordinates.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISDoor {
+
+    private final int door_id;
+    private final int tardis_id;
+    private final int door_type;
+    private final String world;
+    private final int x;
+    private final int y;
+    private final int z;
+    private final TARDISConstants.COMPASS door_direction;
+    private final boolean locked;
+
+    public TARDISDoor(int door_id, int tardis_id, int door_type, String world, int x, int y, int z, TARDISConstants.COMPASS door_direction, boolean locked) {
+        this.door_id = door_id;
+        this.tardis_id = tardis_id;
+        this.door_type = door_type;
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.door_direction = door_direction;
+        this.locked = locked;
+    }
+
+    public int getDoor_id() {
+        return door_id;
+    }
+
+    public int getTardis_id() {
+        return tardis_id;
+    }
+
+    public int getDoor_type() {
+        return door_type;
+    }
+
+    public String getWorld() {
+        return world;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
+    public TARDISConstants.COMPASS getDoor_direction() {
+        return door_direction;
+    }
+
+    public boolean isLocked() {
+        return locked;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import me.eccentric_nz.TARDIS.TARDIS;
+import me.eccentric_nz.TARDIS.TARDISConstants;
+
+/**
+ * Caches the rows of the doors table per TARDIS. A TARDIS's doors are read
+ * from the database the first time they are asked for, and forgotten again
+ * whenever QueryFactory changes the doors table, so the next request sees
+ * the new values.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISDoorCache {
+
+    private final TARDIS plugin;
+    private final HashMap<Integer, List<TARDISDoor>> doors = new HashMap<Integer, List<TARDISDoor>>();
+    private volatile long version = 0;
+
+    public TARDISDoorCache(TARDIS plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Gets all the doors of a TARDIS.
+     *
+     * @param id the tardis_id
+     * @return an unmodifiable list of doors, empty if the TARDIS has none
+     */
+    public List<TARDISDoor> getDoors(int id) {
+        List<TARDISDoor> list = doors.get(id);
+        if (list == null) {
+            list = read(id);
+            // remember TARDISes without doors too, so they aren't queried again
+            doors.put(id, list);
+        }
+        return list;
+    }
+
+    /**
+     * Gets a door of a TARDIS.
+     *
+     * @param id the tardis_id
+     * @param door_type the type of door, 0 is the Police Box door
+     * @return the door or null if the TARDIS doesn't have one of that type
+     */
+    public TARDISDoor getDoor(int id, int door_type) {
+        for (TARDISDoor door : getDoors(id)) {
+            if (door.getDoor_type() == door_type) {
+                return door;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Forgets the doors of a TARDIS.
+     *
+     * @param id the tardis_id
+     */
+    public void invalidate(int id) {
+        version++;
+        doors.remove(id);
+    }
+
+    /**
+     * Forgets the doors of every TARDIS.
+     */
+    public void clear() {
+        version++;
+        doors.clear();
+    }
+
+    /**
+     * Gets the version of the cache, which changes whenever the doors table
+     * is written to. Take it before calling read() off the main thread, and
+     * give it to preload().
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Reads the doors of a TARDIS from the database, without caching them.
+     * Safe to call off the main thread.
+     *
+     * @param id the tardis_id
+     * @return an unmodifiable list of doors, empty if the TARDIS has none
+     */
+    public List<TARDISDoor> read(final int id) {
+        HashMap<String, Object> where = new HashMap<String, Object>();
+        where.put("tardis_id", id);
+        List<TARDISDoor> list = TARDISQuery.list("doors", "door_id, door_type, door_location, door_direction, locked", where, new TARDISRowMapper<TARDISDoor>() {
+            @Override
+            public TARDISDoor map(ResultSet rs) throws SQLException {
+                String location = rs.getString("door_location");
+                if (location == null) {
+                    return null;
+                }
+                String[] loc = location.split(":");
+                if (loc.length < 4) {
+                    return null;
+                }
+                TARDISConstants.COMPASS d;
+                try {
+                    d = TARDISConstants.COMPASS.valueOf(rs.getString("door_direction"));
+                } catch (Exception e) {
+                    d = TARDISConstants.COMPASS.SOUTH;
+                }
+                int x = plugin.utils.parseNum(loc[1]);
+                int y = plugin.utils.parseNum(loc[2]);
+                int z = plugin.utils.parseNum(loc[3]);
+                return new TARDISDoor(rs.getInt("door_id"), id, rs.getInt("door_type"), loc[0], x, y, z, d, rs.getBoolean("locked"));
+            }
+        });
+        return (list.isEmpty()) ? Collections.<TARDISDoor>emptyList() : Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Caches doors that were read off the main thread, unless the doors table
+     * has been written to since.
+     *
+     * @param id the tardis_id
+     * @param list the doors from read()
+     * @param version the version of the cache before the doors were read
+     */
+    public void preload(int id, List<TARDISDoor> list, long version) {
+        if (version == this.version && !doors.containsKey(id)) {
+            doors.put(id, list);
+        }
+    }
+}
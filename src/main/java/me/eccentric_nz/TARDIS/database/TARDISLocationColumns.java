@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import me.eccentric_nz.TARDIS.utility.TARDISBlockKey;
+
+/**
+ * Keeps the typed world, x, y and z columns of the tables that store block
+ * locations as strings in step with the strings, so that rows can be looked
+ * up by an index on the typed columns instead of a scan of the strings.
+ *
+ * @author eccentric_nz
+ */
+final class TARDISLocationColumns {
+
+    /**
+     * The tables with typed location columns: the table name, the string
+     * column, the prefix of the typed columns, and whether lookups on the
+     * string column can use the typed columns instead.
+     */
+    static final Object[][] TABLES = new Object[][]{
+        {"blocks", "location", "", true},
+        {"controls", "location", "", true},
+        {"doors", "door_location", "", true},
+        {"gravity_well", "location", "", true},
+        // current also holds the direction, so it is only looked up by x and z
+        {"tardis", "current", "current_", false}
+    };
+
+    /**
+     * Parses a location string into the values of the typed columns. Strings
+     * that can't be parsed get an empty world, so that they never match a
+     * lookup.
+     *
+     * @param location the location string
+     * @return an array of world, x, y and z
+     */
+    static Object[] parse(String location) {
+        TARDISBlockKey bk = TARDISBlockKey.fromString(location);
+        if (bk == null) {
+            return new Object[]{"", 0, 0, 0};
+        }
+        return new Object[]{bk.getWorld(), bk.getX(), bk.getY(), bk.getZ()};
+    }
+
+    /**
+     * Adds the typed location columns to the data of an INSERT or UPDATE that
+     * sets a location string.
+     *
+     * @param table the database table name
+     * @param data the table fields and values to set
+     */
+    static void expand(String table, Map<String, Object> data) {
+        for (Object[] t : TABLES) {
+            if (t[0].equals(table) && data.containsKey((String) t[1])) {
+                Object location = data.get((String) t[1]);
+                Object[] values = parse((location == null) ? "" : location.toString());
+                String prefix = (String) t[2];
+                data.put(prefix + "world", values[0]);
+                data.put(prefix + "x", values[1]);
+                data.put(prefix + "y", values[2]);
+                data.put(prefix + "z", values[3]);
+            }
+        }
+    }
+
+    /**
+     * Replaces a location string in the where clause of a query with the
+     * indexed typed location columns.
+     *
+     * @param table the database table name
+     * @param where the table fields and values that select the rows
+     */
+    static void narrow(String table, Map<String, Object> where) {
+        if (where == null) {
+            return;
+        }
+        for (Object[] t : TABLES) {
+            String column = (String) t[1];
+            if (t[0].equals(table) && (Boolean) t[3] && where.get(column) instanceof String) {
+                Object[] values = parse(where.get(column).toString());
+                if (((String) values[0]).isEmpty()) {
+                    // leave strings that can't be parsed to be matched as they are
+                    return;
+                }
+                where.remove(column);
+                where.put("world", values[0]);
+                where.put("x", values[1]);
+                where.put("y", values[2]);
+                where.put("z", values[3]);
+            }
+        }
+    }
+
+    /**
+     * Fills in the typed location columns of the rows that don't have them
+     * yet.
+     *
+     * @param connection the database connection
+     * @param table the database table name
+     * @return the number of rows filled in
+     * @throws SQLException if the rows could not be read or updated
+     */
+    static int backfill(Connection connection, String table) throws SQLException {
+        int n = 0;
+        for (Object[] t : TABLES) {
+            if (!t[0].equals(table)) {
+                continue;
+            }
+            String column = (String) t[1];
+            String prefix = (String) t[2];
+            Statement statement = null;
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+            try {
+                statement = connection.createStatement();
+                rs = statement.executeQuery("SELECT rowid, " + column + " FROM " + table + " WHERE " + prefix + "world IS NULL");
+                ps = connection.prepareStatement("UPDATE " + table + " SET " + prefix + "world = ?, " + prefix + "x = ?, " + prefix + "y = ?, " + prefix + "z = ? WHERE rowid = ?");
+                while (rs.next()) {
+                    Object[] values = parse(rs.getString(2));
+                    ps.setString(1, (String) values[0]);
+                    ps.setInt(2, (Integer) values[1]);
+                    ps.setInt(3, (Integer) values[2]);
+                    ps.setInt(4, (Integer) values[3]);
+                    ps.setLong(5, rs.getLong(1));
+                    ps.addBatch();
+                    n++;
+                }
+                if (n > 0) {
+                    ps.executeBatch();
+                }
+            } finally {
+                if (rs != null) {
+                    rs.close();
+                }
+                if (statement != null) {
+                    statement.close();
+                }
+                if (ps != null) {
+                    ps.close();
+                }
+            }
+        }
+        return n;
+    }
+
+    private TARDISLocationColumns() {
+    }
+}
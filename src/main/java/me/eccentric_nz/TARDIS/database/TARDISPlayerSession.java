@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+import java.util.Collections;
+import java.util.List;
+import me.eccentric_nz.TARDIS.achievement.TARDISAchievementCache;
+
+/**
+ * The TARDIS data of a player who is logging in, read off the main thread
+ * before they join. The player's tardis and player_prefs rows go straight
+ * into the row caches; the rest is kept here until the player joins.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISPlayerSession {
+
+    private final String player;
+    private final long created = System.currentTimeMillis();
+    int tardis_id = -1;
+    boolean tardis_achievement = false;
+    List<TARDISAchievementCache.Progress> achievements = Collections.emptyList();
+    List<TARDISDoor> doors = Collections.emptyList();
+    long doors_version;
+    List<TARDISDestination> destinations = Collections.emptyList();
+    long destinations_version;
+
+    TARDISPlayerSession(String player) {
+        this.player = player;
+    }
+
+    public String getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets the time the session was read.
+     *
+     * @return the time in milliseconds
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * Gets the player's TARDIS.
+     *
+     * @return the tardis_id, or -1 if the player doesn't have a TARDIS
+     */
+    public int getTardis_id() {
+        return tardis_id;
+    }
+
+    /**
+     * Gets whether the player has started (or completed) the achievement for
+     * building a TARDIS.
+     *
+     * @return true if they have a "tardis" achievements row
+     */
+    public boolean hasTardisAchievement() {
+        return tardis_achievement;
+    }
+}
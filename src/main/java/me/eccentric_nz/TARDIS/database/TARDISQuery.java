@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import me.eccentric_nz.TARDIS.TARDIS;
+
+/**
+ * Runs a SELECT of just the columns that are needed, and maps the rows
+ * straight into objects with a TARDISRowMapper, instead of copying every
+ * column of every row into a HashMap of Strings.
+ *
+ * The where clause columns are sorted, so the same query shape always uses
+ * the same cached prepared statement. A mapper can return null for rows it
+ * has dealt with itself, and they are left out of the list.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISQuery {
+
+    private static final TARDISDatabase service = TARDISDatabase.getInstance();
+
+    /**
+     * Selects rows from a table.
+     *
+     * @param <T> the type of object each row becomes
+     * @param table the database table name
+     * @param columns the columns to select, separated by commas
+     * @param where a Map of table fields and values to refine the search, or
+     * null for every row
+     * @param mapper the mapper that turns a row into an object
+     * @return a list of the mapped rows, which is empty if there were none or
+     * the query failed
+     */
+    public static <T> List<T> list(String table, String columns, Map<String, Object> where, TARDISRowMapper<T> mapper) {
+        List<T> rows = new ArrayList<T>();
+        select(table, columns, where, mapper, rows, 0, -1);
+        return rows;
+    }
+
+    /**
+     * Selects a page of rows from a table.
+     *
+     * @param <T> the type of object each row becomes
+     * @param table the database table name
+     * @param columns the columns to select, separated by commas
+     * @param where a Map of table fields and values to refine the search, or
+     * null for every row
+     * @param offset the number of rows to skip
+     * @param count the most rows to return
+     * @param mapper the mapper that turns a row into an object
+     * @return a list of the mapped rows, which is empty if there were none or
+     * the query failed
+     */
+    public static <T> List<T> list(String table, String columns, Map<String, Object> where, int offset, int count, TARDISRowMapper<T> mapper) {
+        List<T> rows = new ArrayList<T>();
+        select(table, columns, where, mapper, rows, offset, count);
+        return rows;
+    }
+
+    /**
+     * Selects the first matching row from a table.
+     *
+     * @param <T> the type of object the row becomes
+     * @param table the database table name
+     * @param columns the columns to select, separated by commas
+     * @param where a Map of table fields and values to refine the search
+     * @param mapper the mapper that turns a row into an object
+     * @return the mapped row, or null if there wasn't one
+     */
+    public static <T> T first(String table, String columns, Map<String, Object> where, TARDISRowMapper<T> mapper) {
+        List<T> rows = new ArrayList<T>(1);
+        select(table, columns, where, mapper, rows, 0, 1);
+        return (rows.isEmpty()) ? null : rows.get(0);
+    }
+
+    /**
+     * Checks whether a table has any matching rows.
+     *
+     * @param table the database table name
+     * @param where a Map of table fields and values to refine the search
+     * @return true if there is a matching row
+     */
+    public static boolean exists(String table, Map<String, Object> where) {
+        return first(table, "1", where, new TARDISRowMapper<Boolean>() {
+            @Override
+            public Boolean map(ResultSet rs) {
+                return Boolean.TRUE;
+            }
+        }) != null;
+    }
+
+    private static <T> void select(String table, String columns, Map<String, Object> where, TARDISRowMapper<T> mapper, List<T> rows, int offset, int limit) {
+        TreeMap<String, Object> sorted = new TreeMap<String, Object>();
+        if (where != null) {
+            sorted.putAll(where);
+            where.clear();
+        }
+        TARDISLocationColumns.narrow(table, sorted);
+        StringBuilder sb = new StringBuilder("SELECT ").append(columns).append(" FROM ").append(table);
+        if (!sorted.isEmpty()) {
+            String and = " WHERE ";
+            for (String key : sorted.keySet()) {
+                sb.append(and).append(key).append(" = ?");
+                and = " AND ";
+            }
+        }
+        if (limit > 0) {
+            sb.append(" LIMIT ");
+            if (offset > 0) {
+                sb.append(offset).append(", ");
+            }
+            sb.append(limit);
+        }
+        String query = sb.toString();
+        service.awaitWrites(table, sorted);
+        PreparedStatement statement = null;
+        ResultSet rs = null;
+        try {
+            statement = service.prepare(query);
+            int s = 1;
+            for (Object value : sorted.values()) {
+                TARDISDatabaseWriter.setValue(statement, s++, value);
+            }
+            rs = statement.executeQuery();
+            while (rs.next()) {
+                T row = mapper.map(rs);
+                if (row != null) {
+                    rows.add(row);
+                }
+            }
+        } catch (SQLException e) {
+            TARDIS.plugin.debug("Query error for " + table + " table! " + e.getMessage());
+        } finally {
+            try {
+                if (rs != null) {
+                    rs.close();
+                }
+                if (statement != null) {
+                    service.release(query, statement);
+                }
+            } catch (Exception e) {
+                TARDIS.plugin.debug("Error closing " + table + " table! " + e.getMessage());
+            }
+        }
+    }
+
+    private TARDISQuery() {
+    }
+}
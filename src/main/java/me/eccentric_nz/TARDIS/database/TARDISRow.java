@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A row of a table read into memory, with getters that convert the column
+ * values the same way a ResultSet does, so that a row from the database and a
+ * row from the TARDISRowCache can be read by the same code.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISRow {
+
+    private final Map<String, Object> values;
+
+    public TARDISRow(Map<String, Object> values) {
+        this.values = values;
+    }
+
+    /**
+     * Reads the current row of a ResultSet.
+     *
+     * @param rs the ResultSet
+     * @return the row
+     * @throws SQLException if the row could not be read
+     */
+    public static TARDISRow read(ResultSet rs) throws SQLException {
+        HashMap<String, Object> values = new HashMap<String, Object>();
+        ResultSetMetaData rsmd = rs.getMetaData();
+        int columns = rsmd.getColumnCount();
+        for (int i = 1; i < columns + 1; i++) {
+            values.put(rsmd.getColumnName(i).toLowerCase(Locale.ENGLISH), rs.getObject(i));
+        }
+        return new TARDISRow(values);
+    }
+
+    public Map<String, Object> getValues() {
+        return values;
+    }
+
+    public boolean isNull(String column) {
+        return values.get(column) == null;
+    }
+
+    public String getString(String column) {
+        Object o = values.get(column);
+        return (o == null) ? null : o.toString();
+    }
+
+    public int getInt(String column) {
+        return (int) getLong(column);
+    }
+
+    public byte getByte(String column) {
+        return (byte) getLong(column);
+    }
+
+    public long getLong(String column) {
+        Object o = values.get(column);
+        if (o instanceof Number) {
+            return ((Number) o).longValue();
+        }
+        if (o instanceof Boolean) {
+            return ((Boolean) o) ? 1 : 0;
+        }
+        if (o == null) {
+            return 0;
+        }
+        try {
+            return (long) Double.parseDouble(o.toString());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public boolean getBoolean(String column) {
+        Object o = values.get(column);
+        if (o instanceof String && ((String) o).equalsIgnoreCase("true")) {
+            return true;
+        }
+        return getLong(column) != 0;
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the rows of a table that are read by their id or by a player's name
+ * (the tardis and player_prefs tables), so that the ResultSet classes don't
+ * query the database every time a listener wants to know about a player's
+ * TARDIS.
+ *
+ * Rows are loaded the first time they are read, and kept in step by
+ * QueryFactory as they are updated. Players known not to have a row are
+ * remembered too, until a row is inserted. The rows of players who are no
+ * longer online are evicted when someone leaves the server.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISRowCache {
+
+    /**
+     * Returned by get() for a row that is known not to exist.
+     */
+    public static final Map<String, Object> ABSENT = Collections.unmodifiableMap(new HashMap<String, Object>());
+    private final String id_column;
+    private final String key_column;
+    private final HashMap<Integer, Map<String, Object>> rows = new HashMap<Integer, Map<String, Object>>();
+    private final HashMap<String, Integer> ids = new HashMap<String, Integer>();
+    private final Set<String> absent = new HashSet<String>();
+    private long version;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param id_column the primary key column of the table
+     * @param key_column the column holding the player's name
+     */
+    public TARDISRowCache(String id_column, String key_column) {
+        this.id_column = id_column;
+        this.key_column = key_column;
+    }
+
+    /**
+     * Checks whether a query can be answered from the cache - it must select a
+     * single row by its id or player name alone.
+     *
+     * @param where the table fields and values that select the row
+     * @return true if the cache can be used
+     */
+    public boolean isCacheable(Map<String, Object> where) {
+        return where != null && where.size() == 1 && (where.containsKey(id_column) || where.containsKey(key_column));
+    }
+
+    /**
+     * Gets a cached row.
+     *
+     * @param where the id or player name that selects the row
+     * @return the row, ABSENT if there is no such row, or null if the row
+     * needs to be read from the database
+     */
+    public synchronized Map<String, Object> get(Map<String, Object> where) {
+        Integer id = find(where);
+        if (id != null) {
+            Map<String, Object> row = rows.get(id);
+            if (row != null) {
+                hits++;
+                return row;
+            }
+        }
+        if (absent.contains(absentKey(where))) {
+            hits++;
+            return ABSENT;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Gets the version of the cache, which changes whenever the table is
+     * written to. Take it before reading a row from the database and give it
+     * to put(), so that a row that was changed while it was being read isn't
+     * cached.
+     *
+     * @return the version
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Caches a row read from the database.
+     *
+     * @param where the id or player name that selected the row
+     * @param row the row, or null if there was no such row
+     * @param version the version of the cache before the row was read
+     */
+    public synchronized void put(Map<String, Object> where, Map<String, Object> row, long version) {
+        if (version != this.version) {
+            return;
+        }
+        if (row == null) {
+            absent.add(absentKey(where));
+            return;
+        }
+        HashMap<String, Object> copy = new HashMap<String, Object>();
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            copy.put(entry.getKey(), normalise(entry.getValue()));
+        }
+        store(copy);
+    }
+
+    /**
+     * Keeps the cache in step with an update. Updates that select a single
+     * cached row by its id or player name are applied to it, other updates
+     * evict the rows they may have changed.
+     *
+     * @param where the table fields and values that selected the rows
+     * @param data the table fields and values that were set
+     */
+    public synchronized void update(Map<String, Object> where, Map<String, Object> data) {
+        version++;
+        if (data.containsKey(id_column) || data.containsKey(key_column)) {
+            absent.clear();
+            evict(where);
+            return;
+        }
+        Map<String, Object> row = single(where);
+        if (row == null) {
+            evict(where);
+            return;
+        }
+        HashMap<String, Object> copy = new HashMap<String, Object>(row);
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            copy.put(entry.getKey().toLowerCase(Locale.ENGLISH), normalise(entry.getValue()));
+        }
+        store(copy);
+    }
+
+    /**
+     * Keeps the cache in step with an amount being added to a column.
+     *
+     * @param where the table fields and values that selected the rows
+     * @param column the column that was altered
+     * @param amount the amount that was added
+     */
+    public synchronized void add(Map<String, Object> where, String column, int amount) {
+        version++;
+        Map<String, Object> row = single(where);
+        if (row == null) {
+            evict(where);
+            return;
+        }
+        HashMap<String, Object> copy = new HashMap<String, Object>(row);
+        copy.put(column, new TARDISRow(row).getInt(column) + amount);
+        store(copy);
+    }
+
+    /**
+     * Keeps the cache in step with a delete.
+     *
+     * @param where the table fields and values that selected the rows
+     */
+    public synchronized void delete(Map<String, Object> where) {
+        version++;
+        evict(where);
+    }
+
+    /**
+     * Keeps the cache in step with an insert - players who had no row may
+     * have one now.
+     */
+    public synchronized void inserted() {
+        version++;
+        absent.clear();
+    }
+
+    /**
+     * Forgets every row, so they are read from the database again.
+     */
+    public synchronized void clear() {
+        version++;
+        rows.clear();
+        ids.clear();
+        absent.clear();
+    }
+
+    /**
+     * Evicts the rows of the players who are no longer online.
+     *
+     * @param online the names of the players who are online
+     */
+    public synchronized void evictOffline(Collection<String> online) {
+        Set<String> names = new HashSet<String>();
+        for (String name : online) {
+            names.add(name.toLowerCase(Locale.ENGLISH));
+        }
+        Iterator<Map.Entry<String, Integer>> it = ids.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Integer> entry = it.next();
+            if (!names.contains(entry.getKey())) {
+                rows.remove(entry.getValue());
+                it.remove();
+                evictions++;
+            }
+        }
+        Iterator<String> ia = absent.iterator();
+        while (ia.hasNext()) {
+            String key = ia.next();
+            if (!key.startsWith(key_column + ":") || !names.contains(key.substring(key_column.length() + 1))) {
+                ia.remove();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return rows.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the cached row that a where clause selects by its id or player
+     * name alone.
+     */
+    private Map<String, Object> single(Map<String, Object> where) {
+        if (where == null || where.size() != 1) {
+            return null;
+        }
+        Integer id = find(where);
+        return (id == null) ? null : rows.get(id);
+    }
+
+    /**
+     * Evicts the row a where clause selects, or every row if it doesn't say
+     * which.
+     */
+    private void evict(Map<String, Object> where) {
+        Integer id = null;
+        if (where != null && (where.containsKey(id_column) || where.containsKey(key_column))) {
+            id = find(where);
+            if (id == null) {
+                // the row isn't cached
+                return;
+            }
+        }
+        if (id == null) {
+            evictions += rows.size();
+            rows.clear();
+            ids.clear();
+            return;
+        }
+        Map<String, Object> row = rows.remove(id);
+        if (row != null) {
+            ids.remove(keyOf(row.get(key_column)));
+            evictions++;
+        }
+    }
+
+    private void store(Map<String, Object> row) {
+        Integer id = parseId(row.get(id_column));
+        if (id == null) {
+            return;
+        }
+        Map<String, Object> old = rows.put(id, Collections.unmodifiableMap(row));
+        if (old != null) {
+            ids.remove(keyOf(old.get(key_column)));
+        }
+        ids.put(keyOf(row.get(key_column)), id);
+    }
+
+    private Integer find(Map<String, Object> where) {
+        if (where.containsKey(id_column)) {
+            return parseId(where.get(id_column));
+        }
+        return ids.get(keyOf(where.get(key_column)));
+    }
+
+    private String absentKey(Map<String, Object> where) {
+        if (where.containsKey(id_column)) {
+            return id_column + ":" + parseId(where.get(id_column));
+        }
+        return key_column + ":" + keyOf(where.get(key_column));
+    }
+
+    /**
+     * The player name columns are COLLATE NOCASE, so names are matched
+     * without case.
+     */
+    private String keyOf(Object o) {
+        return (o == null) ? "" : o.toString().toLowerCase(Locale.ENGLISH);
+    }
+
+    private Integer parseId(Object o) {
+        if (o == null) {
+            return null;
+        }
+        if (o instanceof Number) {
+            return ((Number) o).intValue();
+        }
+        try {
+            return Integer.parseInt(o.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * SQLite stores booleans as integers, so do the same.
+     */
+    private Object normalise(Object o) {
+        if (o instanceof Boolean) {
+            return ((Boolean) o) ? 1 : 0;
+        }
+        return o;
+    }
+}
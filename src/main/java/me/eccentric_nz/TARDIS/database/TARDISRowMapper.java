@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Turns the current row of a ResultSet into an object, reading only the
+ * columns it needs with the typed getters.
+ *
+ * @param <T> the type of object a row becomes
+ * @author eccentric_nz
+ */
+public interface TARDISRowMapper<T> {
+
+    /**
+     * Maps the current row.
+     *
+     * @param rs the ResultSet, positioned on the row
+     * @return the object for the row, or null to leave the row out
+     * @throws SQLException if a column can't be read
+     */
+    public T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import me.eccentric_nz.TARDIS.TARDIS;
+
+/**
+ * Reads a player's TARDIS data while they are logging in, so that joining
+ * (and the first door, sign and console clicks afterwards) don't query the
+ * database on the main thread.
+ *
+ * load() is called off the main thread from the pre-login event. It fills the
+ * tardis and player_prefs row caches, which are thread safe, and reads the
+ * player's achievements, doors and destinations into a session. When the
+ * player joins, join() hands the achievements and doors to their caches on
+ * the main thread. The session is released when the player leaves. Where the
+ * player is travelling and where the console controls are needn't be read,
+ * as both are always held in memory.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISSessionLoader {
+
+    /**
+     * Sessions of players who never joined are dropped after this long.
+     */
+    private static final long STALE = 60000L;
+    private final TARDIS plugin;
+    private final ConcurrentHashMap<String, TARDISPlayerSession> sessions = new ConcurrentHashMap<String, TARDISPlayerSession>();
+    private final AtomicLong destinations = new AtomicLong();
+
+    public TARDISSessionLoader(TARDIS plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Reads a player's TARDIS data. Safe to call off the main thread.
+     *
+     * @param player the player's name
+     * @return the session
+     */
+    public TARDISPlayerSession load(String player) {
+        TARDISPlayerSession session = new TARDISPlayerSession(player);
+        long doors_version = plugin.doorCache.getVersion();
+        long destinations_version = destinations.get();
+        // fill the row caches
+        HashMap<String, Object> wherep = new HashMap<String, Object>();
+        wherep.put("player", player);
+        new ResultSetPlayerPrefs(plugin, wherep).resultSet();
+        HashMap<String, Object> where = new HashMap<String, Object>();
+        where.put("owner", player);
+        ResultSetTardis rs = new ResultSetTardis(plugin, where);
+        if (rs.resultSet()) {
+            int id = rs.getTardis_id();
+            session.tardis_id = id;
+            session.doors = plugin.doorCache.read(id);
+            session.doors_version = doors_version;
+            session.destinations = TARDISDestination.list(id);
+            session.destinations_version = destinations_version;
+        }
+        if (plugin.getConfig().getBoolean("allow_achievements")) {
+            HashMap<String, Object> wherea = new HashMap<String, Object>();
+            wherea.put("player", player);
+            wherea.put("name", "tardis");
+            session.tardis_achievement = TARDISQuery.exists("achievements", wherea);
+            session.achievements = plugin.achievements.read(player);
+        }
+        sessions.put(key(player), session);
+        return session;
+    }
+
+    /**
+     * Gets a player's session, reading it now if it wasn't read while they
+     * were logging in, and passes its achievements and doors on to their
+     * caches. Called on the main thread when the player joins.
+     *
+     * @param player the player's name
+     * @return the session
+     */
+    public TARDISPlayerSession join(String player) {
+        dropStale();
+        TARDISPlayerSession session = sessions.get(key(player));
+        if (session == null) {
+            session = load(player);
+        }
+        if (plugin.getConfig().getBoolean("allow_achievements")) {
+            plugin.achievements.load(player, session.achievements);
+        }
+        if (session.tardis_id > 0) {
+            plugin.doorCache.preload(session.tardis_id, session.doors, session.doors_version);
+        }
+        return session;
+    }
+
+    /**
+     * Gets a player's session.
+     *
+     * @param player the player's name
+     * @return the session, or null if the player isn't logging in or online
+     */
+    public TARDISPlayerSession get(String player) {
+        return sessions.get(key(player));
+    }
+
+    /**
+     * Gets the saved destinations of a TARDIS, if its owner's session has
+     * them and they haven't changed since.
+     *
+     * @param id the tardis_id
+     * @return the destinations, or null if they need to be read from the
+     * database
+     */
+    public List<TARDISDestination> getDestinations(int id) {
+        for (TARDISPlayerSession session : sessions.values()) {
+            if (session.tardis_id == id && session.destinations_version == destinations.get()) {
+                return session.destinations;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records that the destinations table has changed, so the destinations
+     * held by the sessions are out of date.
+     */
+    void destinationsChanged() {
+        destinations.incrementAndGet();
+    }
+
+    /**
+     * Gets the players who have a session - those online and logging in.
+     *
+     * @return the players' names
+     */
+    public List<String> getPlayers() {
+        List<String> players = new ArrayList<String>();
+        for (TARDISPlayerSession session : sessions.values()) {
+            players.add(session.getPlayer());
+        }
+        return players;
+    }
+
+    /**
+     * Forgets a player's session. Called when the player leaves.
+     *
+     * @param player the player's name
+     */
+    public void release(String player) {
+        sessions.remove(key(player));
+    }
+
+    /**
+     * Drops the sessions of players whose login was refused after they were
+     * read.
+     */
+    private void dropStale() {
+        long now = System.currentTimeMillis();
+        Iterator<TARDISPlayerSession> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            TARDISPlayerSession session = it.next();
+            if (now - session.getCreated() > STALE && plugin.getServer().getPlayerExact(session.getPlayer()) == null) {
+                it.remove();
+            }
+        }
+    }
+
+    private String key(String player) {
+        return player.toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the prepared statements of the ResultSet classes, so that a query
+ * with the same table and where clause shape is only prepared once.
+ *
+ * A statement is borrowed for a query and given back afterwards, so the same
+ * query can run on two threads (or inside the loop of another) without them
+ * sharing a statement.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISStatementCache {
+
+    /**
+     * The most statements kept for one query.
+     */
+    private static final int PER_QUERY = 4;
+    /**
+     * The most queries kept, after which statements are closed instead of
+     * kept.
+     */
+    private static final int QUERIES = 256;
+    private final Connection connection;
+    private final HashMap<String, LinkedList<PreparedStatement>> idle = new HashMap<String, LinkedList<PreparedStatement>>();
+    private long hits;
+    private long misses;
+
+    public TARDISStatementCache(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Borrows a prepared statement for a query, preparing it if there isn't
+     * one idle.
+     *
+     * @param sql the query
+     * @return the prepared statement
+     * @throws SQLException if the statement could not be prepared
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        synchronized (idle) {
+            LinkedList<PreparedStatement> list = idle.get(sql);
+            if (list != null && !list.isEmpty()) {
+                hits++;
+                return list.removeFirst();
+            }
+            misses++;
+        }
+        return connection.prepareStatement(sql);
+    }
+
+    /**
+     * Gives back a statement borrowed with prepare().
+     *
+     * @param sql the query the statement was prepared for
+     * @param ps the statement
+     */
+    public void release(String sql, PreparedStatement ps) {
+        if (ps == null) {
+            return;
+        }
+        try {
+            ps.clearParameters();
+            synchronized (idle) {
+                LinkedList<PreparedStatement> list = idle.get(sql);
+                if (list == null && idle.size() < QUERIES) {
+                    list = new LinkedList<PreparedStatement>();
+                    idle.put(sql, list);
+                }
+                if (list != null && list.size() < PER_QUERY) {
+                    list.add(ps);
+                    return;
+                }
+            }
+            ps.close();
+        } catch (SQLException e) {
+            try {
+                ps.close();
+            } catch (SQLException ex) {
+            }
+        }
+    }
+
+    /**
+     * Closes all the idle statements.
+     */
+    public void close() {
+        List<PreparedStatement> all = new ArrayList<PreparedStatement>();
+        synchronized (idle) {
+            for (Map.Entry<String, LinkedList<PreparedStatement>> entry : idle.entrySet()) {
+                all.addAll(entry.getValue());
+            }
+            idle.clear();
+        }
+        for (PreparedStatement ps : all) {
+            try {
+                ps.close();
+            } catch (SQLException e) {
+            }
+        }
+    }
+
+    public long getHits() {
+        synchronized (idle) {
+            return hits;
+        }
+    }
+
+    public long getMisses() {
+        synchronized (idle) {
+            return misses;
+        }
+    }
+
+    public int size() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import me.eccentric_nz.TARDIS.TARDIS;
+
+/**
+ * An in-memory copy of the travellers table - which TARDIS each player is
+ * inside, and which players are inside each TARDIS. It is loaded when the
+ * plugin is enabled and kept up to date by the QueryFactory, so asking
+ * whether a player is in a TARDIS never touches the database. The table
+ * itself is written by the database writer as usual.
+ *
+ * Player names are matched ignoring case, as the player column is.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISTravellerIndex {
+
+    private final TARDIS plugin;
+    private final HashMap<String, Integer> byPlayer = new HashMap<String, Integer>();
+    private final HashMap<Integer, LinkedHashMap<String, String>> byTardis = new HashMap<Integer, LinkedHashMap<String, String>>();
+
+    public TARDISTravellerIndex(TARDIS plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Loads all the travellers from the database.
+     */
+    public void load() {
+        byPlayer.clear();
+        byTardis.clear();
+        List<Object[]> rows = TARDISQuery.list("travellers", "tardis_id, player", null, new TARDISRowMapper<Object[]>() {
+            @Override
+            public Object[] map(ResultSet rs) throws SQLException {
+                String player = rs.getString("player");
+                return (player == null) ? null : new Object[]{rs.getInt("tardis_id"), player};
+            }
+        });
+        for (Object[] row : rows) {
+            add((Integer) row[0], (String) row[1]);
+        }
+        plugin.debug("Indexed " + byPlayer.size() + " travellers");
+    }
+
+    /**
+     * Records that a player is inside a TARDIS.
+     *
+     * @param id the tardis_id
+     * @param player the player's name
+     */
+    public void add(int id, String player) {
+        String key = key(player);
+        Integer old = byPlayer.put(key, id);
+        if (old != null && old != id) {
+            removeFromTardis(old, key);
+        }
+        LinkedHashMap<String, String> inside = byTardis.get(id);
+        if (inside == null) {
+            inside = new LinkedHashMap<String, String>();
+            byTardis.put(id, inside);
+        }
+        inside.put(key, player);
+    }
+
+    /**
+     * Forgets the travellers matching a delete from the travellers table.
+     *
+     * @param where the table fields and values that selected the rows
+     */
+    void remove(HashMap<String, Object> where) {
+        Object player = where.get("player");
+        int id = (where.containsKey("tardis_id")) ? plugin.utils.parseNum(where.get("tardis_id").toString()) : -1;
+        if (player != null) {
+            String key = key(player.toString());
+            Integer in = byPlayer.get(key);
+            if (in != null && (id < 0 || in == id)) {
+                byPlayer.remove(key);
+                removeFromTardis(in, key);
+            }
+        } else if (id >= 0) {
+            LinkedHashMap<String, String> inside = byTardis.remove(id);
+            if (inside != null) {
+                byPlayer.keySet().removeAll(inside.keySet());
+            }
+        } else if (where.isEmpty()) {
+            byPlayer.clear();
+            byTardis.clear();
+        } else {
+            // keyed on something else, so read the table again
+            load();
+        }
+    }
+
+    /**
+     * Gets the TARDIS a player is inside.
+     *
+     * @param player the player's name
+     * @return the tardis_id, or -1 if the player isn't in a TARDIS
+     */
+    public int getTardis(String player) {
+        Integer id = byPlayer.get(key(player));
+        return (id == null) ? -1 : id;
+    }
+
+    /**
+     * Gets whether a player is inside a TARDIS.
+     *
+     * @param player the player's name
+     * @return true if the player is inside any TARDIS
+     */
+    public boolean isTravelling(String player) {
+        return byPlayer.containsKey(key(player));
+    }
+
+    /**
+     * Gets the players inside a TARDIS.
+     *
+     * @param id the tardis_id
+     * @return a new list of the players' names, empty if there are none
+     */
+    public List<String> getTravellers(int id) {
+        LinkedHashMap<String, String> inside = byTardis.get(id);
+        return (inside == null) ? new ArrayList<String>() : new ArrayList<String>(inside.values());
+    }
+
+    /**
+     * Gets every player who is inside a TARDIS.
+     *
+     * @return a new list of the players' names
+     */
+    public List<String> getTravellers() {
+        List<String> all = new ArrayList<String>(byPlayer.size());
+        for (LinkedHashMap<String, String> inside : byTardis.values()) {
+            all.addAll(inside.values());
+        }
+        return all;
+    }
+
+    private void removeFromTardis(int id, String key) {
+        LinkedHashMap<String, String> inside = byTardis.get(id);
+        if (inside != null) {
+            inside.remove(key);
+            if (inside.isEmpty()) {
+                byTardis.remove(id);
+            }
+        }
+    }
+
+    private String key(String player) {
+        return player.toLowerCase(Locale.ENGLISH);
+    }
+}
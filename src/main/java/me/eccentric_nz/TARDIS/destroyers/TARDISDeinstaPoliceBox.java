@@ -16,15 +16,16 @@
  */
 package me.eccentric_nz.TARDIS.destroyers;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.HashMap;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
 import me.eccentric_nz.TARDIS.database.QueryFactory;
-import me.eccentric_nz.TARDIS.database.ResultSetBlocks;
 import me.eccentric_nz.TARDIS.database.ResultSetPlayerPrefs;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
+import me.eccentric_nz.TARDIS.database.TARDISQuery;
+import me.eccentric_nz.TARDIS.database.TARDISRowMapper;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -57,7 +58,7 @@ public class TARDISDeinstaPoliceBox {
      * Box blocks.
      */
     public void instaDestroyPB(Location l, TARDISConstants.COMPASS d, int id, boolean hide) {
-        World w = l.getWorld();
+        final World w = l.getWorld();
         // make sure chunk is loaded
         Chunk chunk = w.getChunkAt(l);
         while (!chunk.isLoaded()) {
@@ -91,7 +92,7 @@ public class TARDISDeinstaPoliceBox {
         // replace the block under the door if there is one
         HashMap<String, Object> where = new HashMap<String, Object>();
         where.put("tardis_id", id);
-        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+        ResultSetTardis rs = new ResultSetTardis(plugin, where);
         QueryFactory qf = new QueryFactory(plugin);
         String owner;
         Block b;
@@ -118,7 +119,7 @@ public class TARDISDeinstaPoliceBox {
                 wherepp.put("player", owner);
                 ResultSetPlayerPrefs rsp = new ResultSetPlayerPrefs(plugin, wherepp);
                 if (rsp.resultSet()) {
-                    boolean sub = (rsp.isSubmarine_on() && plugin.trackSubmarine.contains(Integer.valueOf(id)));
+                    boolean sub = (rsp.isSubmarine_on() && plugin.state.trackSubmarine.contains(id));
                     if (sub && plugin.worldGuardOnServer) {
                         plugin.wgchk.sponge(b, true);
                     }
@@ -140,17 +141,13 @@ public class TARDISDeinstaPoliceBox {
         // check protected blocks if has block id and data stored then put the block back!
         HashMap<String, Object> tid = new HashMap<String, Object>();
         tid.put("tardis_id", id);
-        ResultSetBlocks rsb = new ResultSetBlocks(plugin, tid, true);
-        if (rsb.resultSet()) {
-            ArrayList<HashMap<String, String>> data = rsb.getData();
-            for (HashMap<String, String> map : data) {
-                int bID = 0;
-                if (map.get("block") != null) {
-                    bID = plugin.utils.parseNum(map.get("block"));
-                }
+        TARDISQuery.list("blocks", "block, data, location", tid, new TARDISRowMapper<Void>() {
+            @Override
+            public Void map(ResultSet rs) throws SQLException {
+                int bID = rs.getInt("block");
                 if (bID != 0) {
-                    byte bd = Byte.parseByte(map.get("data"));
-                    String locStr = map.get("location");
+                    byte bd = rs.getByte("data");
+                    String locStr = rs.getString("location");
                     String[] loc_data = locStr.split(",");
                     // x, y, z - 1, 2, 3
                     String[] xStr = loc_data[1].split("=");
@@ -161,17 +158,16 @@ public class TARDISDeinstaPoliceBox {
                     int rz = plugin.utils.parseNum(zStr[1].substring(0, (zStr[1].length() - 2)));
                     plugin.utils.setBlock(w, rx, ry, rz, bID, bd);
                 }
+                return null;
             }
-        }
+        });
         if (hide == false) {
             HashMap<String, Object> whereb = new HashMap<String, Object>();
             whereb.put("tardis_id", id);
             whereb.put("police_box", 1);
             qf.doDelete("blocks", whereb);
-            // remove from protectBlockMap - remove(Integer.valueOf(id)) would only remove the first one
-            plugin.protectBlockMap.values().removeAll(Collections.singleton(Integer.valueOf(id)));
         }
-        plugin.tardisDematerialising.remove(Integer.valueOf(id));
-        plugin.tardisChunkList.remove(l.getChunk());
+        plugin.state.tardisDematerialising.remove(id);
+        plugin.retainedChunks.releasePoliceBox(id);
     }
 }
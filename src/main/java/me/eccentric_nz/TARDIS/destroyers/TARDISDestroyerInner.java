@@ -16,13 +16,10 @@
  */
 package me.eccentric_nz.TARDIS.destroyers;
 
-import java.util.Collections;
-import java.util.HashMap;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
 import static me.eccentric_nz.TARDIS.TARDISConstants.SCHEMATIC.BIGGER;
 import static me.eccentric_nz.TARDIS.TARDISConstants.SCHEMATIC.DELUXE;
-import me.eccentric_nz.TARDIS.database.QueryFactory;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
@@ -48,105 +45,127 @@ public class TARDISDestroyerInner {
     }
 
     /**
-     * Destroys the inside of the TARDIS.
+     * Gets the height, width and length of a schematic.
      *
-     * @param schm the name of the schematic file to use can be DEFAULT, BIGGER
-     * or DELUXE.
-     * @param id the unique key of the record for this TARDIS in the database.
-     * @param w the world where the TARDIS is to be built.
-     * @param i the Material type id of the replacement block, this will either
-     * be 0 (AIR) or 1 (STONE).
-     * @param p an instance of the player who owns the TARDIS.
+     * @param schm the schematic
+     * @return the dimensions
      */
-    public void destroyInner(TARDISConstants.SCHEMATIC schm, int id, World w, int i, String p) {
-        // get dimensions
-        short[] d;
+    public short[] getDimensions(TARDISConstants.SCHEMATIC schm) {
         switch (schm) {
             case BIGGER:
-                d = plugin.biggerdimensions;
-                break;
+                return plugin.biggerdimensions;
             case DELUXE:
-                d = plugin.deluxedimensions;
-                break;
+                return plugin.deluxedimensions;
             case ELEVENTH:
-                d = plugin.eleventhdimensions;
-                break;
+                return plugin.eleventhdimensions;
             case REDSTONE:
-                d = plugin.redstonedimensions;
-                break;
+                return plugin.redstonedimensions;
             case STEAMPUNK:
-                d = plugin.steampunkdimensions;
-                break;
+                return plugin.steampunkdimensions;
             case PLANK:
-                d = plugin.plankdimensions;
-                break;
+                return plugin.plankdimensions;
             case TOM:
-                d = plugin.tomdimensions;
-                break;
+                return plugin.tomdimensions;
             default:
-                d = plugin.budgetdimensions;
-                break;
+                return plugin.budgetdimensions;
         }
-        short h = d[0];
-        short width = d[1];
-        short l = d[2];
-        // destroy TARDIS
-        int level, row, col, x, y, z, startx, starty = (14 + h), startz, resetx, resetz;
-        // calculate startx, starty, startz
-        int gsl[] = plugin.utils.getStartLocation(id);
-        startx = gsl[0];
-        resetx = gsl[1];
-        startz = gsl[2];
-        resetz = gsl[3];
-        x = gsl[4];
-        z = gsl[5];
-        for (level = 0; level < h; level++) {
-            for (row = 0; row < width; row++) {
-                for (col = 0; col < l; col++) {
-                    // set the block to stone
-                    Block b = w.getBlockAt(startx, starty, startz);
-                    Material m = b.getType();
-                    // if it's a chest clear the inventory first
-                    if (m.equals(Material.CHEST)) {
-                        Chest container = (Chest) b.getState();
-                        //Is it a double chest?
-                        Chest chest = getDoubleChest(b);
-                        if (chest != null) {
-                            chest.getInventory().clear();
-                            chest.getBlock().setTypeId(0);
-                            container.getBlock().setTypeId(0);
-                        } else if (container != null) {
-                            container.getInventory().clear();
-                            container.getBlock().setTypeId(0);
-                        }
-                    }
-                    // if it's a furnace clear the inventory first
-                    if (m.equals(Material.FURNACE)) {
-                        Furnace fur = (Furnace) b.getState();
-                        fur.getInventory().clear();
-                    }
-                    if (!m.equals(Material.CHEST)) {
-                        if (w.getBlockAt(startx, starty, startz).getTypeId() != i) {
-                            plugin.utils.setBlock(w, startx, starty, startz, i, (byte) 0);
-                        }
-                    }
-                    startx += x;
-                }
-                startx = resetx;
-                startz += z;
+    }
+
+    /**
+     * Gets a clearance of the inside of the TARDIS, so that it can be
+     * destroyed a few blocks at a time.
+     *
+     * @param schm the schematic the TARDIS was built from
+     * @param id the unique key of the record for this TARDIS in the database.
+     * @param w the world the TARDIS is in.
+     * @param i the Material type id of the replacement block.
+     * @return the clearance
+     */
+    public Clearance getClearance(TARDISConstants.SCHEMATIC schm, int id, World w, int i) {
+        return new Clearance(getDimensions(schm), plugin.utils.getStartLocation(id), w, i);
+    }
+
+    /**
+     * Destroys the inside of a TARDIS block by block, from the top level
+     * down, remembering where it got to between calls.
+     */
+    public class Clearance {
+
+        private final short h, width, l;
+        private final int[] gsl;
+        private final World w;
+        private final int i;
+        private int done = 0;
+
+        Clearance(short[] d, int[] gsl, World w, int i) {
+            this.h = d[0];
+            this.width = d[1];
+            this.l = d[2];
+            this.gsl = gsl;
+            this.w = w;
+            this.i = i;
+        }
+
+        /**
+         * Destroys up to a number of blocks.
+         *
+         * @param budget the most blocks to destroy
+         * @return the number of blocks destroyed
+         */
+        public int clear(int budget) {
+            int volume = getVolume();
+            int n = 0;
+            while (done < volume && n < budget) {
+                int level = done / (width * l);
+                int row = (done / l) % width;
+                int col = done % l;
+                clearBlock(gsl[0] + col * gsl[4], 14 + h - level, gsl[2] + row * gsl[5]);
+                done++;
+                n++;
             }
-            startz = resetz;
-            starty -= 1;
+            return n;
+        }
+
+        public boolean isDone() {
+            return done >= getVolume();
+        }
+
+        public int getVolume() {
+            return h * width * l;
+        }
+
+        public int getRemaining() {
+            return getVolume() - done;
         }
-        // remove blocks saved to blocks table (iron/gold/diamond/emerald)
-        QueryFactory qf = new QueryFactory(plugin);
-        HashMap<String, Object> where = new HashMap<String, Object>();
-        where.put("tardis_id", id);
-        qf.doDelete("blocks", where);
-        // remove from protectBlockMap - remove(Integer.valueOf(id)) would only remove the first one
-        plugin.protectBlockMap.values().removeAll(Collections.singleton(Integer.valueOf(id)));
-        if (plugin.worldGuardOnServer) {
-            plugin.wgchk.removeRegion(w, p);
+
+        private void clearBlock(int x, int y, int z) {
+            // set the block to stone
+            Block b = w.getBlockAt(x, y, z);
+            Material m = b.getType();
+            // if it's a chest clear the inventory first
+            if (m.equals(Material.CHEST)) {
+                Chest container = (Chest) b.getState();
+                //Is it a double chest?
+                Chest chest = getDoubleChest(b);
+                if (chest != null) {
+                    chest.getInventory().clear();
+                    chest.getBlock().setTypeId(0);
+                    container.getBlock().setTypeId(0);
+                } else if (container != null) {
+                    container.getInventory().clear();
+                    container.getBlock().setTypeId(0);
+                }
+            }
+            // if it's a furnace clear the inventory first
+            if (m.equals(Material.FURNACE)) {
+                Furnace fur = (Furnace) b.getState();
+                fur.getInventory().clear();
+            }
+            if (!m.equals(Material.CHEST)) {
+                if (b.getTypeId() != i) {
+                    plugin.utils.setBlock(w, x, y, z, i, (byte) 0);
+                }
+            }
         }
     }
     //Originally stolen from Babarix. Thank you :)
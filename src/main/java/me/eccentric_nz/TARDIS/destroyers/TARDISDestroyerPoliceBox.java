@@ -59,7 +59,7 @@ public class TARDISDestroyerPoliceBox {
                 // chameleon circuit is on - get chameleon_id/data
                 HashMap<String, Object> wherec = new HashMap<String, Object>();
                 wherec.put("tardis_id", id);
-                ResultSetTardis rsc = new ResultSetTardis(plugin, wherec, "", false);
+                ResultSetTardis rsc = new ResultSetTardis(plugin, wherec);
                 rsc.resultSet();
                 mat = rsc.getChameleon_id();
                 data = rsc.getChameleon_data();
@@ -17,6 +17,7 @@
 package me.eccentric_nz.TARDIS.destroyers;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import me.eccentric_nz.TARDIS.TARDIS;
@@ -27,7 +28,6 @@ import static me.eccentric_nz.TARDIS.TARDISConstants.COMPASS.SOUTH;
 import static me.eccentric_nz.TARDIS.TARDISConstants.COMPASS.WEST;
 import me.eccentric_nz.TARDIS.database.QueryFactory;
 import me.eccentric_nz.TARDIS.database.ResultSetDeleteTardis;
-import me.eccentric_nz.TARDIS.database.ResultSetTardis;
 import me.eccentric_nz.TARDIS.database.ResultSetTravellers;
 import me.eccentric_nz.tardischunkgenerator.TARDISChunkGenerator;
 import org.bukkit.ChatColor;
@@ -49,44 +49,16 @@ import org.bukkit.entity.Player;
  */
 public class TARDISExterminator {
 
+    /**
+     * The tables that have rows belonging to a TARDIS.
+     */
+    static final List<String> TABLES = Arrays.asList("tardis", "blocks", "lamps", "doors", "controls", "gravity_well", "destinations", "travellers", "chunks");
     private TARDIS plugin;
 
     public TARDISExterminator(TARDIS plugin) {
         this.plugin = plugin;
     }
 
-    public boolean exterminate(int id) {
-        HashMap<String, Object> where = new HashMap<String, Object>();
-        where.put("tardis_id", id);
-        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
-        try {
-            if (rs.resultSet()) {
-                String saveLoc = rs.getCurrent();
-                Location bb_loc = plugin.utils.getLocationFromDB(saveLoc, 0F, 0F);
-                String chunkLoc = rs.getChunk();
-                String owner = rs.getOwner();
-                TARDISConstants.SCHEMATIC schm = rs.getSchematic();
-                TARDISConstants.COMPASS d = rs.getDirection();
-                if (!rs.isHidden()) {
-                    plugin.destroyPB.destroyPoliceBox(bb_loc, d, id, false, false, false, null);
-                }
-                String[] chunkworld = chunkLoc.split(":");
-                World cw = plugin.getServer().getWorld(chunkworld[0]);
-                int restore = getRestore(cw);
-                if (!cw.getName().contains("TARDIS_WORLD_")) {
-                    plugin.destroyI.destroyInner(schm, id, cw, restore, owner);
-                }
-                cleanDatabase(id);
-                cleanWorlds(cw, owner);
-                return true;
-            }
-        } catch (Exception e) {
-            plugin.console.sendMessage(plugin.pluginName + "TARDIS prune by id error: " + e);
-        } finally {
-            return false;
-        }
-    }
-
     /**
      * Deletes a TARDIS.
      *
@@ -177,15 +149,10 @@ public class TARDISExterminator {
                     // remove Police Box
                     plugin.destroyPB.destroyPoliceBox(bb_loc, d, id, false, false, false, null);
                 }
+                // clear the interior a few blocks a tick, then remove it from the database
                 String[] chunkworld = chunkLoc.split(":");
-                World cw = plugin.getServer().getWorld(chunkworld[0]);
-                int restore = getRestore(cw);
-                if (!cw.getName().contains("TARDIS_WORLD_")) {
-                    plugin.destroyI.destroyInner(schm, id, cw, restore, playerNameStr);
-                }
-                cleanDatabase(id);
-                cleanWorlds(cw, owner);
-                player.sendMessage(plugin.pluginName + "The TARDIS was removed from the world and database successfully.");
+                plugin.pruner.delete(player, id, owner, chunkworld[0], schm);
+                player.sendMessage(plugin.pluginName + "The TARDIS is being removed from the world and database...");
                 return true;
             } else {
                 // cancel the event because it's not the player's TARDIS
@@ -198,7 +165,7 @@ public class TARDISExterminator {
         }
     }
 
-    private int getRestore(World w) {
+    int getRestore(World w) {
         World.Environment env = w.getEnvironment();
         if (w.getWorldType() == WorldType.FLAT || w.getName().equals("TARDIS_TimeVortex") || w.getGenerator() instanceof TARDISChunkGenerator) {
             return 0;
@@ -213,45 +180,14 @@ public class TARDISExterminator {
         }
     }
 
-    private void cleanDatabase(int id) {
-        QueryFactory qf = new QueryFactory(plugin);
-        // remove record from tardis table
-        HashMap<String, Object> tid = new HashMap<String, Object>();
-        tid.put("tardis_id", id);
-        qf.doDelete("tardis", tid);
-        // remove blocks from blocks table
-        HashMap<String, Object> bid = new HashMap<String, Object>();
-        bid.put("tardis_id", id);
-        qf.doDelete("blocks", bid);
-        // remove lamps from lamps table
-        HashMap<String, Object> eid = new HashMap<String, Object>();
-        eid.put("tardis_id", id);
-        qf.doDelete("lamps", eid);
-        // remove doors from doors table
-        HashMap<String, Object> did = new HashMap<String, Object>();
-        did.put("tardis_id", id);
-        qf.doDelete("doors", did);
-        // remove controls from controls table
-        HashMap<String, Object> oid = new HashMap<String, Object>();
-        oid.put("tardis_id", id);
-        qf.doDelete("controls", oid);
-        // remove gravity wells
-        HashMap<String, Object> gid = new HashMap<String, Object>();
-        gid.put("tardis_id", id);
-        qf.doDelete("gravity_well", gid);
-        // remove saved destinations
-        HashMap<String, Object> lid = new HashMap<String, Object>();
-        lid.put("tardis_id", id);
-        qf.doDelete("destinations", lid);
-        HashMap<String, Object> vid = new HashMap<String, Object>();
-        vid.put("tardis_id", id);
-        qf.doDelete("travellers", vid);
-        HashMap<String, Object> cid = new HashMap<String, Object>();
-        cid.put("tardis_id", id);
-        qf.doDelete("chunks", cid);
+    /**
+     * Removes a TARDIS's rows from every table, in one transaction.
+     */
+    void cleanDatabase(int id) {
+        new QueryFactory(plugin).deleteTardis(id, TABLES);
     }
 
-    private void cleanWorlds(World w, String owner) {
+    void cleanWorlds(World w, String owner) {
         // remove world guard region protection
         if (plugin.worldGuardOnServer && plugin.getConfig().getBoolean("use_worldguard")) {
             plugin.wgchk.removeRegion(w, owner);
@@ -24,9 +24,17 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
 import me.eccentric_nz.TARDIS.TARDIS;
+import me.eccentric_nz.TARDIS.TARDISConstants;
+import me.eccentric_nz.TARDIS.database.QueryFactory;
+import me.eccentric_nz.TARDIS.database.ResultSetTardis;
 import me.eccentric_nz.TARDIS.database.TARDISDatabase;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.command.CommandSender;
 
 /**
@@ -34,51 +42,414 @@ import org.bukkit.command.CommandSender;
  * her consciousness from fading and dying. She was invited by the Eighth Doctor
  * to the founding of the Institute of Time.
  *
+ * Pruning runs in the background, one TARDIS at a time, destroying at most
+ * `prune_blocks` interior blocks each tick. A TARDIS is only removed from the
+ * database once its interior is gone, so if the server stops part way
+ * through, pruning again carries on from where it got to.
+ *
+ * TARDISes deleted with `/tardis exterminate` and `/tardisadmin delete` are
+ * cleared the same way, ahead of any prune. They are marked with a lastuse of
+ * -1 until they are gone, so a deletion the server stopped part way through
+ * is carried on when the plugin next loads.
+ *
  * @author eccentric_nz
  */
-public class TARDISPruner {
+public class TARDISPruner implements Runnable {
 
     private TARDISDatabase service = TARDISDatabase.getInstance();
-    private Connection connection = service.getConnection();
     private final TARDIS plugin;
+    private final LinkedList<Candidate> queue = new LinkedList<Candidate>();
+    private final LinkedList<Candidate> deletions = new LinkedList<Candidate>();
+    private CommandSender sender;
+    private long cutoff;
+    private Candidate current;
+    private TARDISDestroyerInner.Clearance clearance;
+    private Candidate deleting;
+    private TARDISDestroyerInner.Clearance deletion;
+    private boolean paused;
+    private int total;
+    private int pruned;
+    private int skipped;
+    private long blocks;
+    private long started;
+    private int task = -1;
 
     public TARDISPruner(TARDIS plugin) {
         this.plugin = plugin;
     }
 
+    /**
+     * Carries on with any deletions that were interrupted when the server
+     * stopped.
+     */
+    public void load() {
+        deletions.addAll(getCandidates("lastuse = -1"));
+        if (!deletions.isEmpty()) {
+            plugin.debug("Resuming the deletion of " + deletions.size() + " TARDISes");
+            start();
+        }
+    }
+
+    /**
+     * Deletes a TARDIS in the background. Its Police Box should already have
+     * been removed, and no one should be in it.
+     *
+     * @param sender the command sender to tell when the TARDIS has gone
+     * @param id the tardis_id
+     * @param owner the TARDIS owner
+     * @param world the name of the world the interior is in
+     * @param schematic the interior's schematic
+     */
+    public void delete(CommandSender sender, int id, String owner, String world, TARDISConstants.SCHEMATIC schematic) {
+        if (isDeleting(id)) {
+            return;
+        }
+        HashMap<String, Object> set = new HashMap<String, Object>();
+        set.put("lastuse", -1);
+        HashMap<String, Object> where = new HashMap<String, Object>();
+        where.put("tardis_id", id);
+        new QueryFactory(plugin).doUpdate("tardis", set, where);
+        deletions.add(new Candidate(id, owner, "", world, schematic, sender));
+        if (task < 0) {
+            start();
+        }
+    }
+
+    /**
+     * Checks whether a TARDIS is already being deleted.
+     *
+     * @param id the tardis_id
+     * @return true if the TARDIS is queued or being cleared
+     */
+    public boolean isDeleting(int id) {
+        if (deleting != null && deleting.id == id) {
+            return true;
+        }
+        for (Candidate c : deletions) {
+            if (c.id == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void list(CommandSender sender, int days) {
+        List<Candidate> candidates = getCandidates(getTime(days));
+        String file = plugin.getDataFolder() + File.separator + "TARDIS_Prune_List.txt";
+        try {
+            BufferedWriter bw = new BufferedWriter(new FileWriter(file, false));
+            if (!candidates.isEmpty()) {
+                sender.sendMessage(plugin.pluginName + "Prune List:");
+            }
+            for (Candidate c : candidates) {
+                String line = "Timelord: " + c.owner + ", Location: " + c.current;
+                // write line to file
+                bw.write(line);
+                bw.newLine();
+                // display the TARDIS prune list
+                sender.sendMessage(line);
+            }
+            bw.close();
+        } catch (IOException e) {
+            plugin.debug("Could not create and write to TARDIS_Prune_List.txt! " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reports what pruning would remove, without removing anything.
+     *
+     * @param sender the command sender to report to
+     * @param days the number of days a TARDIS must have been unused for
+     */
+    public void dryRun(CommandSender sender, int days) {
         long millis = getTime(days);
-        Timestamp prune = getTimestamp(millis);
-        String query = "SELECT * FROM tardis WHERE lastuse < " + millis;
+        List<Candidate> candidates = getCandidates(millis);
+        long volume = 0;
+        int worlds = 0;
+        for (Candidate c : candidates) {
+            if (c.world.contains("TARDIS_WORLD_")) {
+                worlds++;
+            } else {
+                volume += c.getVolume();
+            }
+        }
+        sender.sendMessage(plugin.pluginName + "Pruning TARDISes unused for " + days + " days would remove " + candidates.size() + " TARDISes:");
+        sender.sendMessage("Interior blocks to clear: " + volume + ", TARDIS worlds to delete: " + worlds);
+        StringBuilder sb = new StringBuilder("Rows to delete:");
+        for (String table : TARDISExterminator.TABLES) {
+            sb.append(" ").append(table).append(" ").append(countRows(table, millis)).append(",");
+        }
+        sender.sendMessage(sb.substring(0, sb.length() - 1));
+        if (candidates.size() > 0) {
+            sender.sendMessage("Estimated time: " + formatTime(volume / getBudget() + candidates.size()) + " at " + getBudget() + " blocks per tick");
+        }
+    }
+
+    /**
+     * Starts pruning the TARDISes that haven't been used for a number of days.
+     *
+     * @param sender the command sender to report progress to
+     * @param days the number of days a TARDIS must have been unused for
+     */
+    public void prune(CommandSender sender, int days) {
+        if (isBusy()) {
+            sender.sendMessage(plugin.pluginName + "A prune is already in progress! Use /tardisadmin prune status|stop");
+            return;
+        }
+        this.sender = sender;
+        this.cutoff = getTime(days);
+        queue.clear();
+        queue.addAll(getCandidates(cutoff));
+        total = queue.size();
+        pruned = 0;
+        skipped = 0;
+        blocks = 0;
+        started = System.currentTimeMillis();
+        paused = false;
+        if (total == 0) {
+            sender.sendMessage(plugin.pluginName + "There are no TARDISes to prune.");
+            return;
+        }
+        sender.sendMessage(plugin.pluginName + "Pruning " + total + " TARDISes in the background. Use /tardisadmin prune status to check progress.");
+        if (task < 0) {
+            start();
+        }
+    }
+
+    /**
+     * Pauses pruning. The TARDIS being pruned is left part destroyed until
+     * pruning is resumed.
+     *
+     * @param sender the command sender
+     */
+    public void stop(CommandSender sender) {
+        if (paused || !isBusy()) {
+            sender.sendMessage(plugin.pluginName + "No prune is running.");
+            return;
+        }
+        // deletions carry on, the prune waits for them to finish
+        paused = true;
+        sender.sendMessage(plugin.pluginName + "Pruning paused after " + pruned + " of " + total + " TARDISes. Use /tardisadmin prune resume to carry on.");
+    }
+
+    /**
+     * Resumes a paused prune.
+     *
+     * @param sender the command sender to report progress to
+     */
+    public void resume(CommandSender sender) {
+        if (!isBusy()) {
+            sender.sendMessage(plugin.pluginName + "There is no prune to resume.");
+            return;
+        }
+        if (!paused) {
+            sender.sendMessage(plugin.pluginName + "Pruning is already running!");
+            return;
+        }
+        this.sender = sender;
+        paused = false;
+        sender.sendMessage(plugin.pluginName + "Pruning resumed.");
+        if (task < 0) {
+            start();
+        }
+    }
+
+    /**
+     * Reports the progress of the current prune.
+     *
+     * @param sender the command sender to report to
+     */
+    public void status(CommandSender sender) {
+        if (deleting != null || !deletions.isEmpty()) {
+            sender.sendMessage(plugin.pluginName + "Deleting " + (deletions.size() + ((deleting != null) ? 1 : 0)) + " TARDISes" + ((deletion != null) ? ", " + deletion.getRemaining() + " blocks left in " + deleting.owner + "'s TARDIS" : ""));
+        }
+        if (!isBusy()) {
+            sender.sendMessage(plugin.pluginName + "No prune is in progress.");
+            return;
+        }
+        sender.sendMessage(plugin.pluginName + "Pruning " + ((paused) ? "paused" : "running") + ": " + pruned + " of " + total + " TARDISes pruned, " + skipped + " skipped, " + blocks + " blocks cleared");
+        if (current != null) {
+            sender.sendMessage("Current: " + current.owner + "'s TARDIS" + ((clearance != null) ? ", " + clearance.getRemaining() + " blocks left" : ""));
+        }
+        long remaining = (clearance != null) ? clearance.getRemaining() : 0;
+        for (Candidate c : queue) {
+            if (!c.world.contains("TARDIS_WORLD_")) {
+                remaining += c.getVolume();
+            }
+        }
+        long ticks = remaining / getBudget() + queue.size();
+        long elapsed = System.currentTimeMillis() - started;
+        if (blocks > 0 && elapsed > 0) {
+            // use the actual rate, as chunk loading makes ticks run long
+            double rate = blocks / (double) elapsed;
+            sender.sendMessage(String.format("Estimated time remaining: %s (%.0f blocks a second)", formatTime(Math.round(remaining / rate / 50.0D) + queue.size()), rate * 1000.0D));
+        } else {
+            sender.sendMessage("Estimated time remaining: " + formatTime(ticks));
+        }
+    }
+
+    /**
+     * Deletes or prunes the next few blocks, moving on to the next TARDIS when
+     * the current one has gone.
+     */
+    @Override
+    public void run() {
+        if (deleting != null || !deletions.isEmpty()) {
+            delete();
+            return;
+        }
+        if (paused || sender == null) {
+            cancel();
+            return;
+        }
+        if (current == null) {
+            current = queue.poll();
+            if (current == null) {
+                finish();
+                return;
+            }
+            if (!begin(current)) {
+                skipped++;
+                current = null;
+                return;
+            }
+        }
+        if (clearance != null) {
+            blocks += clearance.clear(getBudget());
+            if (!clearance.isDone()) {
+                return;
+            }
+        }
+        clean(current, clearance != null);
+        pruned++;
+        sender.sendMessage("Pruned " + current.owner + "'s TARDIS");
+        current = null;
+        clearance = null;
+    }
+
+    /**
+     * Clears the next few blocks of the TARDIS being deleted.
+     */
+    private void delete() {
+        if (deleting == null) {
+            deleting = deletions.poll();
+            World cw = plugin.getServer().getWorld(deleting.world);
+            if (cw != null && !cw.getName().contains("TARDIS_WORLD_")) {
+                deletion = plugin.destroyI.getClearance(deleting.schematic, deleting.id, cw, new TARDISExterminator(plugin).getRestore(cw));
+            }
+        }
+        if (deletion != null) {
+            deletion.clear(getBudget());
+            if (!deletion.isDone()) {
+                return;
+            }
+        }
+        clean(deleting, deletion != null);
+        if (deleting.sender != null) {
+            deleting.sender.sendMessage(plugin.pluginName + "The TARDIS was removed from the world and database successfully.");
+        }
+        deleting = null;
+        deletion = null;
+    }
+
+    /**
+     * Removes a TARDIS from the database and its world, once its interior has
+     * been cleared.
+     */
+    private void clean(Candidate c, boolean cleared) {
+        World cw = plugin.getServer().getWorld(c.world);
+        if (cleared && plugin.worldGuardOnServer) {
+            plugin.wgchk.removeRegion(cw, c.owner);
+        }
+        TARDISExterminator te = new TARDISExterminator(plugin);
+        te.cleanDatabase(c.id);
+        if (cw != null) {
+            te.cleanWorlds(cw, c.owner);
+        }
+    }
+
+    /**
+     * Checks a TARDIS still needs pruning, removes its Police Box, and gets
+     * ready to destroy its interior.
+     *
+     * @return false if the TARDIS should be skipped
+     */
+    private boolean begin(Candidate c) {
+        HashMap<String, Object> where = new HashMap<String, Object>();
+        where.put("tardis_id", c.id);
+        ResultSetTardis rs = new ResultSetTardis(plugin, where);
+        // double check that this is still an unused TARDIS, and no one is in it
+        if (!rs.resultSet() || rs.getLastuse() < 0 || rs.getLastuse() >= cutoff || !plugin.travellers.getTravellers(c.id).isEmpty()) {
+            return false;
+        }
+        if (!rs.isHidden()) {
+            Location bb_loc = plugin.utils.getLocationFromDB(rs.getCurrent(), 0F, 0F);
+            if (bb_loc != null) {
+                plugin.destroyPB.destroyPoliceBox(bb_loc, rs.getDirection(), c.id, false, false, false, null);
+            }
+        }
+        World cw = plugin.getServer().getWorld(c.world);
+        if (cw != null && !cw.getName().contains("TARDIS_WORLD_")) {
+            clearance = plugin.destroyI.getClearance(c.schematic, c.id, cw, new TARDISExterminator(plugin).getRestore(cw));
+        }
+        return true;
+    }
+
+    private void start() {
+        task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, this, 1L, 1L);
+    }
+
+    private void cancel() {
+        plugin.getServer().getScheduler().cancelTask(task);
+        task = -1;
+    }
+
+    private void finish() {
+        cancel();
+        sender.sendMessage(plugin.pluginName + "Pruning finished: " + pruned + " of " + total + " TARDISes pruned" + ((skipped > 0) ? " (" + skipped + " were in use)" : "") + ".");
+        sender = null;
+    }
+
+    private boolean isBusy() {
+        return current != null || !queue.isEmpty();
+    }
+
+    private int getBudget() {
+        return Math.max(1, plugin.getConfig().getInt("prune_blocks"));
+    }
+
+    /**
+     * Gets the TARDISes that haven't been used since a time.
+     */
+    private List<Candidate> getCandidates(long millis) {
+        // leave the TARDISes that are being deleted to the deletion queue
+        return getCandidates("lastuse >= 0 AND lastuse < " + millis);
+    }
+
+    /**
+     * Gets the TARDISes that match a where clause.
+     */
+    private List<Candidate> getCandidates(String where) {
+        List<Candidate> candidates = new ArrayList<Candidate>();
+        String query = "SELECT tardis_id, owner, current, chunk, size FROM tardis WHERE " + where;
+        service.awaitWrites("tardis");
         Statement statement = null;
         ResultSet rs = null;
         try {
+            Connection connection = service.getConnection();
             statement = connection.createStatement();
             rs = statement.executeQuery(query);
-            String file = plugin.getDataFolder() + File.separator + "TARDIS_Prune_List.txt";
-            try {
-                BufferedWriter bw = new BufferedWriter(new FileWriter(file, false));
-                if (rs.isBeforeFirst()) {
-                    sender.sendMessage(plugin.pluginName + "Prune List:");
-                }
-                while (rs.next()) {
-                    // double check that this is an unused TARDIS
-                    Timestamp lastuse = new Timestamp(rs.getLong("lastuse"));
-                    if (lastuse.before(prune)) {
-                        String line = "Timelord: " + rs.getString("owner") + ", Location: " + rs.getString("current");
-                        // write line to file
-                        bw.write(line);
-                        bw.newLine();
-                        // display the TARDIS prune list
-                        sender.sendMessage(line);
-                    }
+            while (rs.next()) {
+                try {
+                    String chunk = rs.getString("chunk");
+                    String world = (chunk == null) ? "" : chunk.split(":")[0];
+                    candidates.add(new Candidate(rs.getInt("tardis_id"), rs.getString("owner"), rs.getString("current"), world, TARDISConstants.SCHEMATIC.valueOf(rs.getString("size")), null));
+                } catch (IllegalArgumentException e) {
+                    plugin.debug("Could not prune TARDIS " + rs.getInt("tardis_id") + "! " + e.getMessage());
                 }
-                bw.close();
-            } catch (IOException e) {
-                plugin.debug("Could not create and write to TARDIS_Prune_List.txt! " + e.getMessage());
             }
         } catch (SQLException e) {
-            plugin.debug("ResultSet error trying to display prune list! " + e.getMessage());
+            plugin.debug("ResultSet error trying to get the prune list! " + e.getMessage());
         } finally {
             try {
                 if (rs != null) {
@@ -91,30 +462,24 @@ public class TARDISPruner {
                 plugin.debug(e.getMessage());
             }
         }
+        return candidates;
     }
 
-    public void prune(CommandSender sender, int days) {
-        long millis = getTime(days);
-        Timestamp prune = getTimestamp(millis);
-        String query = "SELECT * FROM tardis WHERE lastuse < " + millis;
+    /**
+     * Counts the rows of a table that belong to TARDISes unused since a time.
+     */
+    private int countRows(String table, long millis) {
+        String query = "SELECT COUNT(*) FROM " + table + " WHERE tardis_id IN (SELECT tardis_id FROM tardis WHERE lastuse >= 0 AND lastuse < " + millis + ")";
+        service.awaitWrites(table);
         Statement statement = null;
         ResultSet rs = null;
         try {
-            statement = connection.createStatement();
+            statement = service.getConnection().createStatement();
             rs = statement.executeQuery(query);
-            TARDISExterminator te = new TARDISExterminator(plugin);
-            while (rs.next()) {
-                // double check that this is an unused TARDIS
-                Timestamp lastuse = new Timestamp(rs.getLong("lastuse"));
-                if (lastuse.before(prune)) {
-                    // remove the TARDIS
-                    if (te.exterminate(rs.getInt("tardis_id"))) {
-                        sender.sendMessage("Pruned " + rs.getString("owner") + "'s TARDIS");
-                    }
-                }
-            }
+            return (rs.next()) ? rs.getInt(1) : 0;
         } catch (SQLException e) {
-            plugin.debug("ResultSet error trying to prune! " + e.getMessage());
+            plugin.debug("ResultSet error counting " + table + " rows to prune! " + e.getMessage());
+            return 0;
         } finally {
             try {
                 if (rs != null) {
@@ -129,6 +494,11 @@ public class TARDISPruner {
         }
     }
 
+    private String formatTime(long ticks) {
+        long seconds = ticks / 20;
+        return (seconds < 60) ? seconds + "s" : (seconds / 60) + "m " + (seconds % 60) + "s";
+    }
+
     private long getTime(int day) {
         long period = (long) (day * 86400000L);
         long now = System.currentTimeMillis();
@@ -136,7 +506,30 @@ public class TARDISPruner {
         return prune;
     }
 
-    private Timestamp getTimestamp(long l) {
-        return new Timestamp(l);
+    /**
+     * A TARDIS waiting to be pruned.
+     */
+    private class Candidate {
+
+        final int id;
+        final String owner;
+        final String current;
+        final String world;
+        final TARDISConstants.SCHEMATIC schematic;
+        final CommandSender sender;
+
+        Candidate(int id, String owner, String current, String world, TARDISConstants.SCHEMATIC schematic, CommandSender sender) {
+            this.id = id;
+            this.owner = owner;
+            this.current = current;
+            this.world = world;
+            this.schematic = schematic;
+            this.sender = sender;
+        }
+
+        long getVolume() {
+            short[] d = plugin.destroyI.getDimensions(schematic);
+            return (long) d[0] * d[1] * d[2];
+        }
     }
 }
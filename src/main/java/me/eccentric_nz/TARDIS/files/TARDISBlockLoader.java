@@ -16,11 +16,11 @@
  */
 package me.eccentric_nz.TARDIS.files;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import me.eccentric_nz.TARDIS.TARDIS;
-import me.eccentric_nz.TARDIS.database.ResultSetBlocks;
-import me.eccentric_nz.TARDIS.database.ResultSetGravity;
+import me.eccentric_nz.TARDIS.database.TARDISQuery;
+import me.eccentric_nz.TARDIS.database.TARDISRowMapper;
 
 /**
  * An anti-gravity spiral is a projectable beam used for removing gravity from
@@ -44,14 +44,15 @@ public class TARDISBlockLoader {
      * database interaction is required.
      */
     public void loadProtectBlocks() {
-        ResultSetBlocks rsb = new ResultSetBlocks(plugin, null, true);
-        if (rsb.resultSet()) {
-            ArrayList<HashMap<String, String>> data = rsb.getData();
-            for (HashMap<String, String> map : data) {
-                plugin.protectBlockMap.put(map.get("location"), Integer.valueOf(map.get("tardis_id")));
+        // add the blocks as they are read, without keeping the rows
+        TARDISQuery.list("blocks", "tardis_id, location, police_box", null, new TARDISRowMapper<Void>() {
+            @Override
+            public Void map(ResultSet rs) throws SQLException {
+                plugin.protectBlocks.add(rs.getString("location"), rs.getInt("tardis_id"), rs.getBoolean("police_box"));
+                return null;
             }
-            plugin.debug("Loaded blocks for protection");
-        }
+        });
+        plugin.debug("Loaded blocks for protection");
     }
 
     /**
@@ -59,43 +60,13 @@ public class TARDISBlockLoader {
      * interaction is required).
      */
     public void loadGravityWells() {
-        ResultSetGravity rsg = new ResultSetGravity(plugin, null, true);
-        if (rsg.resultSet()) {
-            ArrayList<HashMap<String, String>> data = rsg.getData();
-            for (HashMap<String, String> map : data) {
-                int i = plugin.utils.parseNum(map.get("direction"));
-                Double[] values = new Double[3];
-                values[0] = Double.valueOf(map.get("direction"));
-                values[1] = Double.valueOf(map.get("distance"));
-                values[2] = Double.valueOf(map.get("velocity"));
-                switch (i) {
-                    case 1:
-                        // going up
-                        plugin.gravityUpList.put(map.get("location"), values);
-                        break;
-                    case 2:
-                        // going north
-                        plugin.gravityNorthList.put(map.get("location"), values);
-                        break;
-                    case 3:
-                        // going west
-                        plugin.gravityWestList.put(map.get("location"), values);
-                        break;
-                    case 4:
-                        // going south
-                        plugin.gravitySouthList.put(map.get("location"), values);
-                        break;
-                    case 5:
-                        // going east
-                        plugin.gravityEastList.put(map.get("location"), values);
-                        break;
-                    default:
-                        // going down
-                        plugin.gravityDownList.add(map.get("location"));
-                        break;
-                }
+        TARDISQuery.list("gravity_well", "tardis_id, location, direction, distance, velocity", null, new TARDISRowMapper<Void>() {
+            @Override
+            public Void map(ResultSet rs) throws SQLException {
+                plugin.gravityWells.add(rs.getString("location"), rs.getInt("tardis_id"), rs.getInt("direction"), rs.getDouble("distance"), rs.getDouble("velocity"));
+                return null;
             }
-            plugin.debug("Loaded Gravity Wells");
-        }
+        });
+        plugin.debug("Loaded Gravity Wells");
     }
 }
@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.files;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A schematic that has been read once and compiled into arrays, so that the
+ * builders can get the id and data of a block without parsing any strings.
+ *
+ * Each distinct id:data pair is stored once in a palette, and every block of
+ * the schematic is an index into the palette. The positions of the blocks
+ * that the builders treat specially (doors, torches, lamps, controls and so
+ * on) are kept in a separate list.
+ *
+ * Block ids are the signed bytes of the WorldEdit schematic, as they were in
+ * the CSV files, so ids above 127 are negative.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISCompiledSchematic {
+
+    /**
+     * The block ids the TARDIS and room builders do something special with.
+     */
+    private static final int[] SPECIAL_IDS = new int[]{7, 19, 35, 41, 42, 52, 54, 57, 68, 71, 76, 77, 92, 93, 97, 124, -123, -119, -118, -113, -104};
+    private final short height;
+    private final short width;
+    private final short length;
+    private final int[] palette;
+    private final boolean[] special;
+    private final byte[] smallIndex;
+    private final short[] largeIndex;
+    private final int[] specials;
+
+    TARDISCompiledSchematic(short height, short width, short length, int[] palette, byte[] smallIndex, short[] largeIndex, int[] specials) {
+        this.height = height;
+        this.width = width;
+        this.length = length;
+        this.palette = palette;
+        this.smallIndex = smallIndex;
+        this.largeIndex = largeIndex;
+        this.specials = specials;
+        this.special = new boolean[palette.length];
+        for (int p = 0; p < palette.length; p++) {
+            special[p] = isSpecialId((byte) (palette[p] >> 8));
+        }
+    }
+
+    /**
+     * Compiles the Blocks and Data arrays of a WorldEdit schematic.
+     *
+     * @param height the height of the schematic
+     * @param width the width of the schematic
+     * @param length the length of the schematic
+     * @param blocks the block ids, in height, width, length order
+     * @param data the block data values, in the same order
+     * @param rotate whether to rotate each layer 90 degrees counter-clockwise
+     * (the schematic must be square)
+     * @return the compiled schematic
+     */
+    static TARDISCompiledSchematic compile(short height, short width, short length, byte[] blocks, byte[] data, boolean rotate) {
+        int volume = height * width * length;
+        int[] cells = new int[volume];
+        int[] lookup = new int[65536];
+        Arrays.fill(lookup, -1);
+        int[] entries = new int[256];
+        int size = 0;
+        int count = 0;
+        for (int level = 0; level < height; level++) {
+            for (int row = 0; row < width; row++) {
+                for (int col = 0; col < length; col++) {
+                    // rotating counter-clockwise takes each block from [col][size - row - 1]
+                    int from = (rotate) ? (level * width + col) * length + (length - row - 1) : (level * width + row) * length + col;
+                    int value = ((blocks[from] & 0xFF) << 8) | (data[from] & 0xFF);
+                    int p = lookup[value];
+                    if (p < 0) {
+                        if (size == entries.length) {
+                            entries = Arrays.copyOf(entries, size * 2);
+                        }
+                        p = size;
+                        entries[size++] = value;
+                        lookup[value] = p;
+                    }
+                    int index = (level * width + row) * length + col;
+                    cells[index] = p;
+                    if (isSpecialId(blocks[from])) {
+                        count++;
+                    }
+                }
+            }
+        }
+        int[] palette = Arrays.copyOf(entries, size);
+        byte[] small = null;
+        short[] large = null;
+        if (size <= 256) {
+            small = new byte[volume];
+            for (int i = 0; i < volume; i++) {
+                small[i] = (byte) cells[i];
+            }
+        } else {
+            large = new short[volume];
+            for (int i = 0; i < volume; i++) {
+                large[i] = (short) cells[i];
+            }
+        }
+        int[] specials = new int[count];
+        int s = 0;
+        for (int i = 0; i < volume && s < count; i++) {
+            if (isSpecialId((byte) (palette[cells[i]] >> 8))) {
+                specials[s++] = i;
+            }
+        }
+        return new TARDISCompiledSchematic(height, width, length, palette, small, large, specials);
+    }
+
+    private static boolean isSpecialId(byte id) {
+        for (int i : SPECIAL_IDS) {
+            if (i == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public short getHeight() {
+        return height;
+    }
+
+    public short getWidth() {
+        return width;
+    }
+
+    public short getLength() {
+        return length;
+    }
+
+    /**
+     * Gets the dimensions of the schematic.
+     *
+     * @return an array of height, width and length
+     */
+    public short[] getDimensions() {
+        return new short[]{height, width, length};
+    }
+
+    /**
+     * Gets the block id at a position in the schematic.
+     *
+     * @param level the layer, counting up from the bottom
+     * @param row the row
+     * @param col the column
+     * @return the block id as a signed byte, as in the schematic file
+     */
+    public int getId(int level, int row, int col) {
+        return (byte) (palette[paletteIndex(level, row, col)] >> 8);
+    }
+
+    /**
+     * Gets the block data at a position in the schematic.
+     *
+     * @param level the layer, counting up from the bottom
+     * @param row the row
+     * @param col the column
+     * @return the block data
+     */
+    public byte getData(int level, int row, int col) {
+        return (byte) palette[paletteIndex(level, row, col)];
+    }
+
+    /**
+     * Checks whether the block at a position is one that the builders treat
+     * specially.
+     *
+     * @param level the layer, counting up from the bottom
+     * @param row the row
+     * @param col the column
+     * @return true if the block is a door, torch, lamp, control etc
+     */
+    public boolean isSpecial(int level, int row, int col) {
+        return special[paletteIndex(level, row, col)];
+    }
+
+    /**
+     * Gets the positions of the blocks that the builders treat specially. A
+     * position is (level * width + row) * length + col.
+     *
+     * @return the positions in build order
+     */
+    public int[] getSpecials() {
+        return specials;
+    }
+
+    /**
+     * Gets the number of distinct id:data pairs in the schematic.
+     *
+     * @return the size of the palette
+     */
+    public int getPaletteSize() {
+        return palette.length;
+    }
+
+    public int getPaletteId(int p) {
+        return (byte) (palette[p] >> 8);
+    }
+
+    public byte getPaletteData(int p) {
+        return (byte) palette[p];
+    }
+
+    /**
+     * Counts how many blocks of the schematic use each palette entry.
+     *
+     * @return the counts, indexed by palette entry
+     */
+    public int[] countPalette() {
+        int[] counts = new int[palette.length];
+        int volume = height * width * length;
+        for (int i = 0; i < volume; i++) {
+            counts[(smallIndex != null) ? smallIndex[i] & 0xFF : largeIndex[i] & 0xFFFF]++;
+        }
+        return counts;
+    }
+
+    private int paletteIndex(int level, int row, int col) {
+        int i = (level * width + row) * length + col;
+        return (smallIndex != null) ? smallIndex[i] & 0xFF : largeIndex[i] & 0xFFFF;
+    }
+
+    /**
+     * Gets the number of bytes write() needs.
+     */
+    int getByteSize() {
+        int volume = height * width * length;
+        int cells = (smallIndex != null) ? volume : volume * 2;
+        return 6 + 4 + palette.length * 4 + 1 + cells + 4 + specials.length * 4;
+    }
+
+    /**
+     * Writes the compiled schematic to a buffer.
+     *
+     * @param buf the buffer to write to
+     */
+    void write(ByteBuffer buf) {
+        buf.putShort(height);
+        buf.putShort(width);
+        buf.putShort(length);
+        buf.putInt(palette.length);
+        for (int p : palette) {
+            buf.putInt(p);
+        }
+        if (smallIndex != null) {
+            buf.put((byte) 1);
+            buf.put(smallIndex);
+        } else {
+            buf.put((byte) 2);
+            for (short s : largeIndex) {
+                buf.putShort(s);
+            }
+        }
+        buf.putInt(specials.length);
+        for (int s : specials) {
+            buf.putInt(s);
+        }
+    }
+
+    /**
+     * Reads a compiled schematic from a buffer written by write().
+     *
+     * @param buf the buffer to read from
+     * @return the compiled schematic
+     */
+    static TARDISCompiledSchematic read(ByteBuffer buf) {
+        short h = buf.getShort();
+        short w = buf.getShort();
+        short l = buf.getShort();
+        int volume = h * w * l;
+        int[] palette = new int[buf.getInt()];
+        for (int p = 0; p < palette.length; p++) {
+            palette[p] = buf.getInt();
+        }
+        byte[] small = null;
+        short[] large = null;
+        if (buf.get() == 1) {
+            small = new byte[volume];
+            buf.get(small);
+        } else {
+            large = new short[volume];
+            buf.asShortBuffer().get(large);
+            buf.position(buf.position() + volume * 2);
+        }
+        int[] specials = new int[buf.getInt()];
+        buf.asIntBuffer().get(specials);
+        buf.position(buf.position() + specials.length * 4);
+        return new TARDISCompiledSchematic(h, w, l, palette, small, large, specials);
+    }
+}
@@ -175,7 +175,8 @@ public class TARDISConfiguration {
         intOptions.put("malfunction", 3);
         intOptions.put("malfunction_end", 3);
         intOptions.put("malfunction_nether", 3);
-        intOptions.put("room_speed", 4);
+        intOptions.put("prune_blocks", 2000);
+        intOptions.put("room_budget", 2000);
         intOptions.put("rooms_condenser_percent", 100);
         intOptions.put("terminal_step", 1);
         intOptions.put("timeout", 5);
@@ -300,6 +301,10 @@ public class TARDISConfiguration {
         if (config.contains("rooms.FIRST")) {
             plugin.getConfig().set("rooms.FIRST", null);
         }
+        // rooms are grown within room_budget now
+        if (config.contains("room_speed")) {
+            plugin.getConfig().set("room_speed", null);
+        }
         if (i > 0) {
             plugin.console.sendMessage(plugin.pluginName + "Added " + ChatColor.AQUA + i + ChatColor.RESET + " new items to config");
         }
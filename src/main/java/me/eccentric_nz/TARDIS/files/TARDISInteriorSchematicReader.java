@@ -16,21 +16,9 @@
  */
 package me.eccentric_nz.TARDIS.files;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
-import org.jnbt.ByteArrayTag;
-import org.jnbt.CompoundTag;
-import org.jnbt.NBTInputStream;
-import org.jnbt.ShortTag;
-import org.jnbt.Tag;
 
 /**
  * The Ood are a humanoid species with coleoid tentacles on the lower portions
@@ -41,10 +29,6 @@ import org.jnbt.Tag;
  */
 public class TARDISInteriorSchematicReader {
 
-    private static Tag getChildTag(Map<String, Tag> items, String key, Class<? extends Tag> expected) {
-        Tag tag = items.get(key);
-        return tag;
-    }
     private TARDIS plugin;
 
     public TARDISInteriorSchematicReader(TARDIS plugin) {
@@ -52,131 +36,75 @@ public class TARDISInteriorSchematicReader {
     }
 
     /**
-     * Reads a WorldEdit schematic file and writes the data to a CSV file. The
-     * dimensions of the schematics are also stored for use by the TARDIS and
-     * room builders.
+     * Reads a WorldEdit schematic file and compiles it for the TARDIS builder.
+     * The dimensions of the schematics are also stored for use by the TARDIS
+     * and room builders.
      *
      * @param fileStr the path to the schematic file
      * @param s the schematic name
+     * @return the compiled schematic or null if it could not be read
      */
-    public void readAndMakeInteriorCSV(String fileStr, TARDISConstants.SCHEMATIC s) {
+    public TARDISCompiledSchematic readInterior(String fileStr, TARDISConstants.SCHEMATIC s) {
         plugin.debug("Loading schematic: " + fileStr);
-        FileInputStream fis = null;
-        try {
-            File f = new File(fileStr);
-            fis = new FileInputStream(f);
-            NBTInputStream nbt = new NBTInputStream(fis);
-            CompoundTag backuptag = (CompoundTag) nbt.readTag();
-            Map<String, Tag> tagCollection = backuptag.getValue();
-
-            short width = (Short) getChildTag(tagCollection, "Width", ShortTag.class).getValue();
-            short height = (Short) getChildTag(tagCollection, "Height", ShortTag.class).getValue();
-            short length = (Short) getChildTag(tagCollection, "Length", ShortTag.class).getValue();
-            switch (s) {
-                case ARS:
-                    plugin.arsdimensions[0] = height;
-                    plugin.arsdimensions[1] = width;
-                    plugin.arsdimensions[2] = length;
-                    break;
-                case BUDGET:
-                    plugin.budgetdimensions[0] = height;
-                    plugin.budgetdimensions[1] = width;
-                    plugin.budgetdimensions[2] = length;
-                    break;
-                case BIGGER:
-                    plugin.biggerdimensions[0] = height;
-                    plugin.biggerdimensions[1] = width;
-                    plugin.biggerdimensions[2] = length;
-                    break;
-                case DELUXE:
-                    plugin.deluxedimensions[0] = height;
-                    plugin.deluxedimensions[1] = width;
-                    plugin.deluxedimensions[2] = length;
-                    break;
-                case ELEVENTH:
-                    plugin.eleventhdimensions[0] = height;
-                    plugin.eleventhdimensions[1] = width;
-                    plugin.eleventhdimensions[2] = length;
-                    break;
-                case REDSTONE:
-                    plugin.redstonedimensions[0] = height;
-                    plugin.redstonedimensions[1] = width;
-                    plugin.redstonedimensions[2] = length;
-                    break;
-                case STEAMPUNK:
-                    plugin.steampunkdimensions[0] = height;
-                    plugin.steampunkdimensions[1] = width;
-                    plugin.steampunkdimensions[2] = length;
-                    break;
-                case PLANK:
-                    plugin.plankdimensions[0] = height;
-                    plugin.plankdimensions[1] = width;
-                    plugin.plankdimensions[2] = length;
-                    break;
-                case TOM:
-                    plugin.tomdimensions[0] = height;
-                    plugin.tomdimensions[1] = width;
-                    plugin.tomdimensions[2] = length;
-                    break;
-                case CUSTOM:
-                    plugin.customdimensions[0] = height;
-                    plugin.customdimensions[1] = width;
-                    plugin.customdimensions[2] = length;
-                    break;
-            }
-
-            byte[] blocks = (byte[]) getChildTag(tagCollection, "Blocks", ByteArrayTag.class).getValue();
-            byte[] data = (byte[]) getChildTag(tagCollection, "Data", ByteArrayTag.class).getValue();
-
-            nbt.close();
-            fis.close();
-            int i = 0;
-            String[] blockdata = new String[width * height * length];
-            for (byte b : blocks) {
-                blockdata[i] = b + ":" + data[i];
-                i++;
-            }
-            int j = 0;
-            List<String[][]> layers = new ArrayList<String[][]>();
-            for (int h = 0; h < height; h++) {
-                String[][] strarr = new String[width][length];
-                for (int w = 0; w < width; w++) {
-                    for (int l = 0; l < length; l++) {
-                        strarr[w][l] = blockdata[j];
-                        j++;
-                    }
-                }
-                layers.add(strarr);
-            }
-            try {
-                String csvFile = fileStr + ".csv";
-                File file = new File(csvFile);
-                BufferedWriter bw = new BufferedWriter(new FileWriter(file, false));
-                for (String[][] l : layers) {
-                    for (String[] lines : l) {
-                        StringBuilder buf = new StringBuilder();
-                        for (String bd : lines) {
-                            buf.append(bd).append(",");
-                        }
-                        String commas = buf.toString();
-                        String strCommas = commas.substring(0, (commas.length() - 1));
-                        bw.write(strCommas);
-                        bw.newLine();
-                    }
-                }
-                bw.close();
-            } catch (IOException io) {
-                plugin.console.sendMessage(plugin.pluginName + "Could not save the TARDIS csv file!");
-            }
-        } catch (IOException e) {
-            plugin.console.sendMessage(plugin.pluginName + "Schematic read error: " + e);
-        } finally {
-            if (fis != null) {
-                try {
-                    fis.close();
-                } catch (Exception e) {
-                }
-            }
+        TARDISCompiledSchematic cs = TARDISSchematic.load(new File(fileStr), false);
+        if (cs == null) {
+            return null;
+        }
+        short height = cs.getHeight();
+        short width = cs.getWidth();
+        short length = cs.getLength();
+        switch (s) {
+            case ARS:
+                plugin.arsdimensions[0] = height;
+                plugin.arsdimensions[1] = width;
+                plugin.arsdimensions[2] = length;
+                break;
+            case BUDGET:
+                plugin.budgetdimensions[0] = height;
+                plugin.budgetdimensions[1] = width;
+                plugin.budgetdimensions[2] = length;
+                break;
+            case BIGGER:
+                plugin.biggerdimensions[0] = height;
+                plugin.biggerdimensions[1] = width;
+                plugin.biggerdimensions[2] = length;
+                break;
+            case DELUXE:
+                plugin.deluxedimensions[0] = height;
+                plugin.deluxedimensions[1] = width;
+                plugin.deluxedimensions[2] = length;
+                break;
+            case ELEVENTH:
+                plugin.eleventhdimensions[0] = height;
+                plugin.eleventhdimensions[1] = width;
+                plugin.eleventhdimensions[2] = length;
+                break;
+            case REDSTONE:
+                plugin.redstonedimensions[0] = height;
+                plugin.redstonedimensions[1] = width;
+                plugin.redstonedimensions[2] = length;
+                break;
+            case STEAMPUNK:
+                plugin.steampunkdimensions[0] = height;
+                plugin.steampunkdimensions[1] = width;
+                plugin.steampunkdimensions[2] = length;
+                break;
+            case PLANK:
+                plugin.plankdimensions[0] = height;
+                plugin.plankdimensions[1] = width;
+                plugin.plankdimensions[2] = length;
+                break;
+            case TOM:
+                plugin.tomdimensions[0] = height;
+                plugin.tomdimensions[1] = width;
+                plugin.tomdimensions[2] = length;
+                break;
+            case CUSTOM:
+                plugin.customdimensions[0] = height;
+                plugin.customdimensions[1] = width;
+                plugin.customdimensions[2] = length;
+                break;
         }
+        return cs;
     }
 }
@@ -17,7 +17,6 @@
 package me.eccentric_nz.TARDIS.files;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.Locale;
 import me.eccentric_nz.TARDIS.TARDIS;
 import org.bukkit.ChatColor;
@@ -35,20 +34,19 @@ import org.bukkit.ChatColor;
 public class TARDISMakeRoomCSV {
 
     private final TARDIS plugin;
-    TARDISRoomSchematicReader reader;
 
     public TARDISMakeRoomCSV(TARDIS plugin) {
         this.plugin = plugin;
     }
 
     /**
-     * Loads CSV data into a 3D array for use by the room builder classes. If
-     * the required files are not present in the TARDIS plugin folder, then they
-     * are created. The WorldEdit schematics are first read and converted to CSV
-     * format, then the CSV data is loaded into an array. This allows server
-     * administrators to use their own schematic files.
+     * Registers the room schematics for use by the room builder classes. The
+     * schematics are read when a room is first grown. Each WorldEdit schematic
+     * is compiled the first time it is read, and the compiled copy is used
+     * until the schematic changes. This allows server administrators to use
+     * their own schematic files.
      */
-    public void loadCSV() {
+    public void loadSchematics() {
         File userDir = new File(plugin.getDataFolder() + File.separator + "user_schematics");
         if (!userDir.exists()) {
             boolean result = userDir.mkdir();
@@ -58,8 +56,6 @@ public class TARDISMakeRoomCSV {
                 plugin.console.sendMessage(plugin.pluginName + "Created user_schematics directory.");
             }
         }
-        // load room CSV files - create them if they don't exist
-        reader = new TARDISRoomSchematicReader(plugin);
         String defaultbasepath = plugin.getDataFolder() + File.separator + "schematics" + File.separator;
         String userbasepath = plugin.getDataFolder() + File.separator + "user_schematics" + File.separator;
         for (String r : plugin.getRoomsConfig().getConfigurationSection("rooms").getKeys(false)) {
@@ -69,18 +65,10 @@ public class TARDISMakeRoomCSV {
                 String lower = r.toLowerCase(Locale.ENGLISH);
                 File sch = new File(basepath + lower + ".schematic");
                 if (sch.exists()) {
-                    File file = createFile(lower + ".csv", basepath);
-                    if (reader.readAndMakeRoomCSV(basepath + lower, r, false)) {
-                        short[] dimensions = plugin.room_dimensions.get(r);
-                        String[][][] schem = TARDISSchematic.schematic(file, dimensions[0], dimensions[1], dimensions[2]);
-                        plugin.room_schematics.put(r, schem);
-                        if (r.equals("PASSAGE") || r.equals("LONG")) {
-                            // repeat for EW
-                            File file_EW = createFile(lower + "_EW.csv", defaultbasepath);
-                            reader.readAndMakeRoomCSV(basepath + lower, r + "_EW", true);
-                            String[][][] schem_EW = TARDISSchematic.schematic(file_EW, dimensions[0], dimensions[1], dimensions[2]);
-                            plugin.room_schematics.put(r + "_EW", schem_EW);
-                        }
+                    plugin.room_schematics.register(r, basepath + lower, false);
+                    if (r.equals("PASSAGE") || r.equals("LONG")) {
+                        // repeat for EW
+                        plugin.room_schematics.register(r + "_EW", basepath + lower, true);
                     }
                 } else {
                     plugin.console.sendMessage(plugin.pluginName + ChatColor.RED + lower + ".schematic was not found in 'user_schematics' and was disabled!");
@@ -89,23 +77,4 @@ public class TARDISMakeRoomCSV {
             }
         }
     }
-
-    /**
-     * Tries to find the specified CSV file. If it doesn't exist, an empty file
-     * is created.
-     *
-     * @param filename the file to find/create
-     * @return a File
-     */
-    public File createFile(String filename, String folder) {
-        File file = new File(folder, filename);
-        if (!file.exists()) {
-            try {
-                file.createNewFile();
-            } catch (IOException io) {
-                plugin.console.sendMessage(plugin.pluginName + filename + " could not be created! " + io.getMessage());
-            }
-        }
-        return file;
-    }
 }
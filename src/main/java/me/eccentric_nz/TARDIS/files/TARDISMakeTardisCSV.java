@@ -22,6 +22,11 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
 
@@ -41,13 +46,14 @@ public class TARDISMakeTardisCSV {
     }
 
     /**
-     * Loads CSV data into a 3D array for use by the TARDIS builder classes. If
-     * the required files are not present in the TARDIS plugin folder, then they
-     * are created. The WorldEdit schematics are first read and converted to CSV
-     * format, then the CSV data is loaded into an array. This allows server
-     * administrators to use their own schematic files.
+     * Loads the TARDIS schematics for use by the TARDIS builder classes. If
+     * the schematic files are not present in the TARDIS plugin folder, then
+     * the defaults are copied there. Each WorldEdit schematic is compiled the
+     * first time it is read, and the compiled copy is used until the schematic
+     * changes. This allows server administrators to use their own schematic
+     * files.
      */
-    public void loadCSV() {
+    public void loadSchematics() {
         File schematicDir = new File(plugin.getDataFolder() + File.separator + "schematics");
         if (!schematicDir.exists()) {
             boolean result = schematicDir.mkdir();
@@ -57,16 +63,6 @@ public class TARDISMakeTardisCSV {
                 plugin.console.sendMessage(plugin.pluginName + "Created schematics directory.");
             }
         }
-        // load tardisCSV files - create them if they don't exist
-        plugin.arsSchematicCSV = createFile(TARDISConstants.SCHEMATIC_ARS + ".csv");
-        plugin.biggerSchematicCSV = createFile(TARDISConstants.SCHEMATIC_BIGGER + ".csv");
-        plugin.budgetSchematicCSV = createFile(TARDISConstants.SCHEMATIC_BUDGET + ".csv");
-        plugin.deluxeSchematicCSV = createFile(TARDISConstants.SCHEMATIC_DELUXE + ".csv");
-        plugin.eleventhSchematicCSV = createFile(TARDISConstants.SCHEMATIC_ELEVENTH + ".csv");
-        plugin.redstoneSchematicCSV = createFile(TARDISConstants.SCHEMATIC_REDSTONE + ".csv");
-        plugin.steampunkSchematicCSV = createFile(TARDISConstants.SCHEMATIC_STEAMPUNK + ".csv");
-        plugin.plankSchematicCSV = createFile(TARDISConstants.SCHEMATIC_PLANK + ".csv");
-        plugin.tomSchematicCSV = createFile(TARDISConstants.SCHEMATIC_TOM + ".csv");
         reader = new TARDISInteriorSchematicReader(plugin);
         // load schematic files - copy the defaults if they don't exist
         String basepath = plugin.getDataFolder() + File.separator + "schematics" + File.separator;
@@ -137,54 +133,66 @@ public class TARDISMakeTardisCSV {
         copy(woonstr, plugin.getResource(TARDISConstants.SCHEMATIC_WOOD));
         copy(wornstr, plugin.getResource(TARDISConstants.SCHEMATIC_WORKSHOP));
 
-        // read the schematics and make the CSV files
-        reader.readAndMakeInteriorCSV(arsnstr, TARDISConstants.SCHEMATIC.ARS);
-        reader.readAndMakeInteriorCSV(bignstr, TARDISConstants.SCHEMATIC.BIGGER);
-        reader.readAndMakeInteriorCSV(budnstr, TARDISConstants.SCHEMATIC.BUDGET);
-        reader.readAndMakeInteriorCSV(delnstr, TARDISConstants.SCHEMATIC.DELUXE);
-        reader.readAndMakeInteriorCSV(elenstr, TARDISConstants.SCHEMATIC.ELEVENTH);
-        reader.readAndMakeInteriorCSV(rednstr, TARDISConstants.SCHEMATIC.REDSTONE);
-        reader.readAndMakeInteriorCSV(stenstr, TARDISConstants.SCHEMATIC.STEAMPUNK);
-        reader.readAndMakeInteriorCSV(planstr, TARDISConstants.SCHEMATIC.PLANK);
-        reader.readAndMakeInteriorCSV(tomnstr, TARDISConstants.SCHEMATIC.TOM);
-        // load the schematic data from the tardisCSV files
-        plugin.arsschematic = TARDISSchematic.schematic(plugin.arsSchematicCSV, plugin.arsdimensions[0], plugin.arsdimensions[1], plugin.arsdimensions[2]);
-        plugin.biggerschematic = TARDISSchematic.schematic(plugin.biggerSchematicCSV, plugin.biggerdimensions[0], plugin.biggerdimensions[1], plugin.biggerdimensions[2]);
-        plugin.budgetschematic = TARDISSchematic.schematic(plugin.budgetSchematicCSV, plugin.budgetdimensions[0], plugin.budgetdimensions[1], plugin.budgetdimensions[2]);
-        plugin.deluxeschematic = TARDISSchematic.schematic(plugin.deluxeSchematicCSV, plugin.deluxedimensions[0], plugin.deluxedimensions[1], plugin.deluxedimensions[2]);
-        plugin.eleventhschematic = TARDISSchematic.schematic(plugin.eleventhSchematicCSV, plugin.eleventhdimensions[0], plugin.eleventhdimensions[1], plugin.eleventhdimensions[2]);
-        plugin.redstoneschematic = TARDISSchematic.schematic(plugin.redstoneSchematicCSV, plugin.redstonedimensions[0], plugin.redstonedimensions[1], plugin.redstonedimensions[2]);
-        plugin.steampunkschematic = TARDISSchematic.schematic(plugin.steampunkSchematicCSV, plugin.steampunkdimensions[0], plugin.steampunkdimensions[1], plugin.steampunkdimensions[2]);
-        plugin.plankschematic = TARDISSchematic.schematic(plugin.plankSchematicCSV, plugin.plankdimensions[0], plugin.plankdimensions[1], plugin.plankdimensions[2]);
-        plugin.tomschematic = TARDISSchematic.schematic(plugin.tomSchematicCSV, plugin.tomdimensions[0], plugin.tomdimensions[1], plugin.tomdimensions[2]);
-        // do custom schematic last
-        if (plugin.getConfig().getBoolean("custom_schematic")) {
-            plugin.customSchematicCSV = createFile(TARDISConstants.SCHEMATIC_CUSTOM + ".csv");
-            String cusnstr = basepath + TARDISConstants.SCHEMATIC_CUSTOM;
-            plugin.customSchematicFile = copy(cusnstr, plugin.getResource(TARDISConstants.SCHEMATIC_CUSTOM));
-            reader.readAndMakeInteriorCSV(cusnstr, TARDISConstants.SCHEMATIC.CUSTOM);
-            plugin.customschematic = TARDISSchematic.schematic(plugin.customSchematicCSV, plugin.customdimensions[0], plugin.customdimensions[1], plugin.customdimensions[2]);
+        // read the schematics, or their compiled copies if they haven't changed, side by side
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        try {
+            Future<TARDISCompiledSchematic> ars = read(pool, arsnstr, TARDISConstants.SCHEMATIC.ARS);
+            Future<TARDISCompiledSchematic> bigger = read(pool, bignstr, TARDISConstants.SCHEMATIC.BIGGER);
+            Future<TARDISCompiledSchematic> budget = read(pool, budnstr, TARDISConstants.SCHEMATIC.BUDGET);
+            Future<TARDISCompiledSchematic> deluxe = read(pool, delnstr, TARDISConstants.SCHEMATIC.DELUXE);
+            Future<TARDISCompiledSchematic> eleventh = read(pool, elenstr, TARDISConstants.SCHEMATIC.ELEVENTH);
+            Future<TARDISCompiledSchematic> redstone = read(pool, rednstr, TARDISConstants.SCHEMATIC.REDSTONE);
+            Future<TARDISCompiledSchematic> steampunk = read(pool, stenstr, TARDISConstants.SCHEMATIC.STEAMPUNK);
+            Future<TARDISCompiledSchematic> plank = read(pool, planstr, TARDISConstants.SCHEMATIC.PLANK);
+            Future<TARDISCompiledSchematic> tom = read(pool, tomnstr, TARDISConstants.SCHEMATIC.TOM);
+            // do custom schematic last
+            Future<TARDISCompiledSchematic> custom = null;
+            if (plugin.getConfig().getBoolean("custom_schematic")) {
+                String cusnstr = basepath + TARDISConstants.SCHEMATIC_CUSTOM;
+                plugin.customSchematicFile = copy(cusnstr, plugin.getResource(TARDISConstants.SCHEMATIC_CUSTOM));
+                custom = read(pool, cusnstr, TARDISConstants.SCHEMATIC.CUSTOM);
+            }
+            plugin.arsschematic = get(ars);
+            plugin.biggerschematic = get(bigger);
+            plugin.budgetschematic = get(budget);
+            plugin.deluxeschematic = get(deluxe);
+            plugin.eleventhschematic = get(eleventh);
+            plugin.redstoneschematic = get(redstone);
+            plugin.steampunkschematic = get(steampunk);
+            plugin.plankschematic = get(plank);
+            plugin.tomschematic = get(tom);
+            if (custom != null) {
+                plugin.customschematic = get(custom);
+            }
+        } finally {
+            pool.shutdown();
         }
-
     }
 
     /**
-     * Tries to find the specified CSV file. If it doesn't exist, an empty file
-     * is created.
-     *
-     * @param filename the file to search for/create
-     * @return the File
+     * Reads an interior schematic on the worker pool.
      */
-    public File createFile(String filename) {
-        File file = new File(plugin.getDataFolder() + File.separator + "schematics" + File.separator, filename);
-        if (!file.exists()) {
-            try {
-                file.createNewFile();
-            } catch (IOException io) {
-                plugin.console.sendMessage(plugin.pluginName + filename + " could not be created! " + io.getMessage());
+    private Future<TARDISCompiledSchematic> read(ExecutorService pool, final String path, final TARDISConstants.SCHEMATIC s) {
+        return pool.submit(new Callable<TARDISCompiledSchematic>() {
+            @Override
+            public TARDISCompiledSchematic call() {
+                return reader.readInterior(path, s);
             }
+        });
+    }
+
+    /**
+     * Waits for an interior schematic to be read.
+     */
+    private TARDISCompiledSchematic get(Future<TARDISCompiledSchematic> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            plugin.console.sendMessage(plugin.pluginName + "Schematic read error: " + e.getCause());
         }
-        return file;
+        return null;
     }
 
     /**
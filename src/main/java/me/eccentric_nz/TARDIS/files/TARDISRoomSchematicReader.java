@@ -16,22 +16,11 @@
  */
 package me.eccentric_nz.TARDIS.files;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
-import org.jnbt.ByteArrayTag;
-import org.jnbt.CompoundTag;
-import org.jnbt.NBTInputStream;
-import org.jnbt.ShortTag;
-import org.jnbt.Tag;
 
 /**
  * The Abzorbaloff was an alien who disguised himself as a human under the alias
@@ -42,10 +31,6 @@ import org.jnbt.Tag;
  */
 public class TARDISRoomSchematicReader {
 
-    private static Tag getChildTag(Map<String, Tag> items, String key, Class<? extends Tag> expected) {
-        Tag tag = items.get(key);
-        return tag;
-    }
     private TARDIS plugin;
     private HashMap<Integer, Integer> blockConversion = new HashMap<Integer, Integer>();
     private List<Byte> ignoreBlocks = Arrays.asList(new Byte[]{0, 8, 9, 10, 11, 14, 19, 52, 79});
@@ -86,140 +71,49 @@ public class TARDISRoomSchematicReader {
     }
 
     /**
-     * Reads a WorldEdit schematic file and writes the data to a CSV file. The
-     * dimensions of the schematics are also stored for use by the room builder.
+     * Reads a WorldEdit schematic file and compiles it for the room builder.
+     * The dimensions of the schematics and the blocks needed to grow the room
+     * are also stored for use by the room builder.
      *
      * @param fileStr the schematic file to read
      * @param s the schematic name
      * @param rotate whether to rotate the schematic 90 degrees
      * counter-clockwise
-     * @return true or false depending on whether the room is square or not
+     * @return the compiled schematic or null if the room is not square or
+     * could not be read
      */
-    public boolean readAndMakeRoomCSV(String fileStr, String s, boolean rotate) {
-        HashMap<String, Integer> blockIDs = new HashMap<String, Integer>();
-        boolean square = true;
+    public TARDISCompiledSchematic readRoom(String fileStr, String s, boolean rotate) {
         plugin.debug("Loading schematic: " + fileStr + ".schematic");
-        FileInputStream fis = null;
-        try {
-            File f = new File(fileStr + ".schematic");
-            fis = new FileInputStream(f);
-            NBTInputStream nbt = new NBTInputStream(fis);
-            CompoundTag backuptag = (CompoundTag) nbt.readTag();
-            Map<String, Tag> tagCollection = backuptag.getValue();
-
-            short width = (Short) getChildTag(tagCollection, "Width", ShortTag.class).getValue();
-            short height = (Short) getChildTag(tagCollection, "Height", ShortTag.class).getValue();
-            short length = (Short) getChildTag(tagCollection, "Length", ShortTag.class).getValue();
-
-            // check the room is square - should never fail on plugin enable as schematics are checked when added
-            if (width != length) {
-                plugin.console.sendMessage(plugin.pluginName + "Load failed - schematic had unequal length sides!");
-                square = false;
-            } else {
-                short[] dimensions = new short[3];
-                dimensions[0] = height;
-                dimensions[1] = width;
-                dimensions[2] = length;
-                plugin.room_dimensions.put(s, dimensions);
-
-                byte[] blocks = (byte[]) getChildTag(tagCollection, "Blocks", ByteArrayTag.class).getValue();
-                byte[] data = (byte[]) getChildTag(tagCollection, "Data", ByteArrayTag.class).getValue();
-
-                nbt.close();
-                fis.close();
-                int i = 0;
-                String[] blockdata = new String[width * height * length];
-                int adjust = 256;
-                for (byte b : blocks) {
-                    if (!ignoreBlocks.contains(b)) {
-                        Integer bid = (b < (byte) 0) ? b + adjust : b;
-                        if (blockConversion.containsKey(bid)) {
-                            bid = blockConversion.get(bid);
-                        }
-                        if (bid == 35 && (data[i] == 1 || data[i] == 8)) {
-                            String bstr = bid + ":" + data[i];
-                            if (blockIDs.containsKey(bstr)) {
-                                Integer count = blockIDs.get(bstr) + 1;
-                                blockIDs.put(bstr, count);
-                            } else {
-                                blockIDs.put(bstr, 1);
-                            }
-                        } else {
-                            if (blockIDs.containsKey(bid.toString())) {
-                                Integer count = blockIDs.get(bid.toString()) + 1;
-                                blockIDs.put(bid.toString(), count);
-                            } else {
-                                blockIDs.put(bid.toString(), 1);
-                            }
-                        }
-                    }
-                    blockdata[i] = b + ":" + data[i];
-                    i++;
-                }
-                plugin.roomBlockCounts.put(s, blockIDs);
-                int j = 0;
-                List<String[][]> layers = new ArrayList<String[][]>();
-                for (int h = 0; h < height; h++) {
-                    String[][] strarr = new String[width][length];
-                    for (int w = 0; w < width; w++) {
-                        for (int l = 0; l < length; l++) {
-                            strarr[w][l] = blockdata[j];
-                            j++;
-                        }
-                    }
-                    if (rotate) {
-                        strarr = rotateSquareCCW(strarr);
-                    }
-                    layers.add(strarr);
-                }
-                try {
-                    String csvFile = (rotate) ? fileStr + "_EW.csv" : fileStr + ".csv";
-                    File file = new File(csvFile);
-                    BufferedWriter bw = new BufferedWriter(new FileWriter(file, false));
-                    for (String[][] l : layers) {
-                        for (String[] lines : l) {
-                            StringBuilder buf = new StringBuilder();
-                            for (String bd : lines) {
-                                buf.append(bd).append(",");
-                            }
-                            String commas = buf.toString();
-                            String strCommas = commas.substring(0, (commas.length() - 1));
-                            bw.write(strCommas);
-                            bw.newLine();
-                        }
-                    }
-                    bw.close();
-
-                } catch (IOException io) {
-                    plugin.console.sendMessage(plugin.pluginName + "Could not save the room csv file!");
+        TARDISCompiledSchematic cs = TARDISSchematic.load(new File(fileStr + ".schematic"), rotate);
+        if (cs == null) {
+            return null;
+        }
+        // check the room is square - should never fail on plugin enable as schematics are checked when added
+        if (cs.getWidth() != cs.getLength()) {
+            plugin.console.sendMessage(plugin.pluginName + "Load failed - schematic had unequal length sides!");
+            return null;
+        }
+        plugin.room_schematics.setDimensions(s, cs.getDimensions());
+        HashMap<String, Integer> blockIDs = new HashMap<String, Integer>();
+        int[] counts = cs.countPalette();
+        int adjust = 256;
+        for (int p = 0; p < counts.length; p++) {
+            byte b = (byte) cs.getPaletteId(p);
+            if (!ignoreBlocks.contains(b)) {
+                byte data = cs.getPaletteData(p);
+                Integer bid = (b < (byte) 0) ? b + adjust : b;
+                if (blockConversion.containsKey(bid)) {
+                    bid = blockConversion.get(bid);
                 }
-            }
-        } catch (IOException e) {
-            plugin.console.sendMessage(plugin.pluginName + "Schematic read error: " + e);
-        } finally {
-            if (fis != null) {
-                try {
-                    fis.close();
-                } catch (Exception e) {
+                String bstr = (bid == 35 && (data == 1 || data == 8)) ? bid + ":" + data : bid.toString();
+                if (blockIDs.containsKey(bstr)) {
+                    blockIDs.put(bstr, blockIDs.get(bstr) + counts[p]);
+                } else {
+                    blockIDs.put(bstr, counts[p]);
                 }
             }
         }
-        return square;
-    }
-
-    /**
-     * Rotates a square 2D array 90 degrees counterclockwise. This is used for
-     * the (non-symmetrical) TARDIS passage ways so that they are built
-     * correctly in the EAST and WEST directions.
-     */
-    private String[][] rotateSquareCCW(String[][] mat) {
-        int size = mat.length;
-        String[][] out = new String[size][size];
-        for (int r = 0; r < size; r++) {
-            for (int c = 0; c < size; c++) {
-                out[r][c] = mat[c][size - r - 1];
-            }
-        }
-        return out;
+        plugin.room_schematics.setBlockCounts(s, blockIDs);
+        return cs;
     }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.files;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import me.eccentric_nz.TARDIS.TARDIS;
+
+/**
+ * Holds the room schematics, and their dimensions and block counts.
+ *
+ * Rooms are only registered when the plugin is enabled. A room's schematic is
+ * read the first time anything asks for it, so rooms that are never grown
+ * never take up memory (or time while the server starts).
+ *
+ * @author eccentric_nz
+ */
+public class TARDISRoomSchematics {
+
+    private final TARDIS plugin;
+    private final HashMap<String, String> paths = new HashMap<String, String>();
+    private final Set<String> rotated = new HashSet<String>();
+    private final Set<String> failed = new HashSet<String>();
+    private final HashMap<String, TARDISCompiledSchematic> schematics = new HashMap<String, TARDISCompiledSchematic>();
+    private final HashMap<String, short[]> dimensions = new HashMap<String, short[]>();
+    private final HashMap<String, HashMap<String, Integer>> blockCounts = new HashMap<String, HashMap<String, Integer>>();
+    private TARDISRoomSchematicReader reader;
+
+    public TARDISRoomSchematics(TARDIS plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Registers a room schematic to be read when it is first needed.
+     *
+     * @param name the room name
+     * @param path the path to the schematic file, without the .schematic
+     * extension
+     * @param rotate whether to rotate the schematic 90 degrees
+     * counter-clockwise
+     */
+    public synchronized void register(String name, String path, boolean rotate) {
+        paths.put(name, path);
+        if (rotate) {
+            rotated.add(name);
+        } else {
+            rotated.remove(name);
+        }
+        failed.remove(name);
+        schematics.remove(name);
+    }
+
+    /**
+     * Adds a room schematic that has already been read.
+     *
+     * @param name the room name
+     * @param cs the compiled schematic
+     */
+    public synchronized void put(String name, TARDISCompiledSchematic cs) {
+        schematics.put(name, cs);
+        failed.remove(name);
+    }
+
+    /**
+     * Checks whether a room has a schematic.
+     *
+     * @param name the room name
+     * @return true if the room has been registered and could be read
+     */
+    public synchronized boolean containsKey(String name) {
+        return (schematics.containsKey(name) || paths.containsKey(name)) && !failed.contains(name);
+    }
+
+    /**
+     * Gets a room schematic, reading it if it hasn't been yet.
+     *
+     * @param name the room name
+     * @return the compiled schematic, or null if there isn't one
+     */
+    public synchronized TARDISCompiledSchematic get(String name) {
+        TARDISCompiledSchematic cs = schematics.get(name);
+        if (cs != null || failed.contains(name) || !paths.containsKey(name)) {
+            return cs;
+        }
+        if (reader == null) {
+            reader = new TARDISRoomSchematicReader(plugin);
+        }
+        cs = reader.readRoom(paths.get(name), name, rotated.contains(name));
+        if (cs == null) {
+            failed.add(name);
+        } else {
+            schematics.put(name, cs);
+        }
+        return cs;
+    }
+
+    /**
+     * Gets the dimensions of a room.
+     *
+     * @param name the room name
+     * @return the height, width and length, or null if there is no schematic
+     */
+    public synchronized short[] getDimensions(String name) {
+        get(name);
+        return dimensions.get(name);
+    }
+
+    /**
+     * Gets the blocks needed to grow a room.
+     *
+     * @param name the room name
+     * @return a map of block ids to counts, or null if there is no schematic
+     */
+    public synchronized HashMap<String, Integer> getBlockCounts(String name) {
+        get(name);
+        return blockCounts.get(name);
+    }
+
+    /**
+     * Gets the number of room schematics that have been read.
+     *
+     * @return the number of schematics in memory
+     */
+    public synchronized int getLoadedCount() {
+        return schematics.size();
+    }
+
+    synchronized void setDimensions(String name, short[] d) {
+        dimensions.put(name, d);
+    }
+
+    synchronized void setBlockCounts(String name, HashMap<String, Integer> counts) {
+        blockCounts.put(name, counts);
+    }
+}
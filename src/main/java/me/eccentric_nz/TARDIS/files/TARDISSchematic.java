@@ -16,11 +16,24 @@
  */
 package me.eccentric_nz.TARDIS.files;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
+import org.jnbt.ByteArrayTag;
+import org.jnbt.CompoundTag;
+import org.jnbt.NBTInputStream;
+import org.jnbt.ShortTag;
+import org.jnbt.Tag;
 
 /**
  * Daleks are the mutated descendants of the Kaleds of the planet Skaro. They
@@ -32,46 +45,175 @@ import me.eccentric_nz.TARDIS.TARDIS;
  */
 public class TARDISSchematic {
 
-    private static String[][][] blocks;
+    /**
+     * Marks the start of a compiled schematic file, followed by the format
+     * version.
+     */
+    private static final int MAGIC = 0x54534348;
+    private static final int VERSION = 2;
 
     /**
-     * Loads data from a CSV file into a 3D array.
+     * Loads a WorldEdit schematic. The schematic is compiled the first time it
+     * is read, and the compiled copy is saved next to it (as a .tsc file)
+     * along with the schematic's modified time, size and hash. After that the
+     * compiled copy is loaded instead, unless the schematic has been changed.
+     * If the modified time and size still match, the schematic isn't read at
+     * all.
      *
-     * @param file the CSV file to read
-     * @param l the length in blocks of the cuboid object
-     * @param h the height in blocks of the cuboid object
-     * @param w the width in blocks of the cuboid object
-     * @return a 3-dimensional array of id:data values
+     * @param file the schematic file to read
+     * @param rotate whether to rotate the schematic 90 degrees
+     * counter-clockwise
+     * @return the compiled schematic or null if it could not be read
      */
-    public static String[][][] schematic(File file, short h, short w, short l) {
+    public static TARDISCompiledSchematic load(File file, boolean rotate) {
+        String path = file.getPath();
+        if (path.endsWith(".schematic")) {
+            path = path.substring(0, path.length() - 10);
+        }
+        File compiled = new File(path + ((rotate) ? "_EW" : "") + ".tsc");
+        long modified = file.lastModified();
+        long size = file.length();
+        if (compiled.exists()) {
+            TARDISCompiledSchematic cs = readCompiled(compiled, modified, size, null);
+            if (cs != null) {
+                return cs;
+            }
+        }
+        byte[] raw;
+        try {
+            raw = readFile(file).array();
+        } catch (IOException io) {
+            TARDIS.plugin.console.sendMessage(TARDIS.plugin.pluginName + "Schematic read error: " + io);
+            return null;
+        }
+        byte[] hash = hash(raw);
+        if (compiled.exists()) {
+            TARDISCompiledSchematic cs = readCompiled(compiled, modified, size, hash);
+            if (cs != null) {
+                // only touched, so save the new time to skip the hash next time
+                writeCompiled(compiled, modified, size, hash, cs);
+                return cs;
+            }
+        }
+        TARDIS.plugin.debug("Compiling schematic: " + file.getName());
+        NBTInputStream nbt = null;
+        try {
+            nbt = new NBTInputStream(new ByteArrayInputStream(raw));
+            CompoundTag backuptag = (CompoundTag) nbt.readTag();
+            Map<String, Tag> tagCollection = backuptag.getValue();
+            short width = (Short) getChildTag(tagCollection, "Width", ShortTag.class).getValue();
+            short height = (Short) getChildTag(tagCollection, "Height", ShortTag.class).getValue();
+            short length = (Short) getChildTag(tagCollection, "Length", ShortTag.class).getValue();
+            byte[] blocks = (byte[]) getChildTag(tagCollection, "Blocks", ByteArrayTag.class).getValue();
+            byte[] data = (byte[]) getChildTag(tagCollection, "Data", ByteArrayTag.class).getValue();
+            if (rotate && width != length) {
+                TARDIS.plugin.console.sendMessage(TARDIS.plugin.pluginName + "Could not rotate " + file.getName() + " - schematic had unequal length sides!");
+                return null;
+            }
+            TARDISCompiledSchematic cs = TARDISCompiledSchematic.compile(height, width, length, blocks, data, rotate);
+            writeCompiled(compiled, modified, size, hash, cs);
+            return cs;
+        } catch (IOException e) {
+            TARDIS.plugin.console.sendMessage(TARDIS.plugin.pluginName + "Schematic read error: " + e);
+            return null;
+        } finally {
+            if (nbt != null) {
+                try {
+                    nbt.close();
+                } catch (Exception e) {
+                }
+            }
+        }
+    }
 
-        BufferedReader bufRdr = null;
+    private static Tag getChildTag(Map<String, Tag> items, String key, Class<? extends Tag> expected) {
+        Tag tag = items.get(key);
+        return tag;
+    }
+
+    /**
+     * Reads a whole file into a buffer.
+     */
+    private static ByteBuffer readFile(File file) throws IOException {
+        FileInputStream fis = new FileInputStream(file);
         try {
-            blocks = new String[h][w][l];
+            FileChannel fc = fis.getChannel();
+            ByteBuffer buf = ByteBuffer.allocate((int) fc.size());
+            while (buf.hasRemaining() && fc.read(buf) >= 0) {
+            }
+            buf.flip();
+            return buf;
+        } finally {
+            fis.close();
+        }
+    }
 
-            bufRdr = new BufferedReader(new FileReader(file));
-            String line;
-            //read each line of text file
-            for (int level = 0; level < h; level++) {
-                for (int row = 0; row < w; row++) {
-                    line = bufRdr.readLine();
-                    if (line != null) {
-                        String[] strArr = line.split(",");
-                        System.arraycopy(strArr, 0, blocks[level][row], 0, l);
-                    }
+    /**
+     * Reads a compiled schematic if it is still up to date. With no hash, the
+     * schematic's modified time and size are checked instead.
+     */
+    private static TARDISCompiledSchematic readCompiled(File compiled, long modified, long size, byte[] hash) {
+        try {
+            ByteBuffer buf = readFile(compiled);
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                return null;
+            }
+            long saved_modified = buf.getLong();
+            long saved_size = buf.getLong();
+            byte[] saved = new byte[buf.get()];
+            buf.get(saved);
+            if (hash == null) {
+                if (saved_modified != modified || saved_size != size) {
+                    return null;
                 }
+            } else if (!Arrays.equals(saved, hash)) {
+                return null;
             }
+            return TARDISCompiledSchematic.read(buf);
         } catch (IOException io) {
-            TARDIS.plugin.console.sendMessage(TARDIS.plugin.pluginName + "Could not read csv file");
+            TARDIS.plugin.debug("Could not read compiled schematic " + compiled.getName() + ": " + io.getMessage());
+        } catch (BufferUnderflowException e) {
+            TARDIS.plugin.debug("Compiled schematic " + compiled.getName() + " was incomplete, recompiling.");
+        }
+        return null;
+    }
+
+    private static void writeCompiled(File compiled, long modified, long size, byte[] hash, TARDISCompiledSchematic cs) {
+        ByteBuffer buf = ByteBuffer.allocate(25 + hash.length + cs.getByteSize());
+        buf.putInt(MAGIC);
+        buf.putInt(VERSION);
+        buf.putLong(modified);
+        buf.putLong(size);
+        buf.put((byte) hash.length);
+        buf.put(hash);
+        cs.write(buf);
+        buf.flip();
+        FileOutputStream fos = null;
+        try {
+            fos = new FileOutputStream(compiled, false);
+            FileChannel fc = fos.getChannel();
+            while (buf.hasRemaining()) {
+                fc.write(buf);
+            }
+        } catch (IOException io) {
+            TARDIS.plugin.console.sendMessage(TARDIS.plugin.pluginName + "Could not save the compiled schematic (" + compiled.getName() + ")!");
         } finally {
-            try {
-                if (bufRdr != null) {
-                    bufRdr.close();
+            if (fos != null) {
+                try {
+                    fos.close();
+                } catch (Exception e) {
                 }
-            } catch (Exception e) {
             }
         }
-        return blocks;
+    }
+
+    private static byte[] hash(byte[] raw) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(raw);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has SHA-1, but fall back to the length if not
+            return ByteBuffer.allocate(4).putInt(raw.length).array();
+        }
     }
 
     private TARDISSchematic() {
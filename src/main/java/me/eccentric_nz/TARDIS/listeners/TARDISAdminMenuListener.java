@@ -61,8 +61,8 @@ public class TARDISAdminMenuListener implements Listener {
         }
         if (event.getAction().equals(Action.RIGHT_CLICK_AIR) && inhand == 347 && p.hasPermission("tardis.temporal")) {
             p.resetPlayerTime();
-            if (plugin.trackSetTime.containsKey(p.getName())) {
-                plugin.trackSetTime.remove(p.getName());
+            if (plugin.state.trackSetTime.containsKey(p.getName())) {
+                plugin.state.trackSetTime.remove(p.getName());
             }
             p.sendMessage(plugin.pluginName + "Temporal Location reset to server time.");
         }
@@ -53,32 +53,29 @@ public class TARDISAreaListener implements Listener {
      */
     @EventHandler(priority = EventPriority.MONITOR)
     public void onAreaInteract(PlayerInteractEvent event) {
-        final Player player = event.getPlayer();
-        final String playerNameStr = player.getName();
+        Player player = event.getPlayer();
+        String playerNameStr = player.getName();
         Block block = event.getClickedBlock();
         if (block != null) {
-            if (plugin.trackName.containsKey(playerNameStr) && !plugin.trackBlock.containsKey(playerNameStr)) {
+            String n = plugin.state.trackName.get(playerNameStr);
+            String start = plugin.state.trackBlock.get(playerNameStr);
+            if (n != null && start == null) {
                 Location block_loc = block.getLocation();
                 // check if block is in an already defined area
                 if (plugin.ta.areaCheckInExisting(block_loc)) {
                     String locStr = block_loc.getWorld().getName() + ":" + block_loc.getBlockX() + ":" + block_loc.getBlockY() + ":" + block_loc.getBlockZ();
-                    plugin.trackBlock.put(playerNameStr, locStr);
+                    // forget the area if the end block isn't selected in time
+                    plugin.state.trackBlock.put(playerNameStr, locStr, 60L);
+                    plugin.state.trackName.expire(playerNameStr, 60L);
                     player.sendMessage(plugin.pluginName + "You have 60 seconds to select the area end block - use the " + ChatColor.GREEN + "/tardisarea end" + ChatColor.RESET + " command.");
-                    plugin.getServer().getScheduler().scheduleSyncDelayedTask(plugin, new Runnable() {
-                        @Override
-                        public void run() {
-                            plugin.trackName.remove(playerNameStr);
-                            plugin.trackBlock.remove(playerNameStr);
-                        }
-                    }, 1200L);
                 } else {
                     player.sendMessage(plugin.pluginName + "That block is inside an already defined area! Try somewhere else.");
                 }
-            } else if (plugin.trackBlock.containsKey(playerNameStr) && plugin.trackEnd.containsKey(playerNameStr)) {
+            } else if (n != null && start != null && plugin.state.trackEnd.containsKey(playerNameStr)) {
                 Location block_loc = block.getLocation();
                 // check if block is in an already defined area
                 if (plugin.ta.areaCheckInExisting(block_loc)) {
-                    String[] firstblock = plugin.trackBlock.get(playerNameStr).split(":");
+                    String[] firstblock = start.split(":");
                     if (!block_loc.getWorld().getName().equals(firstblock[0])) {
                         player.sendMessage(plugin.pluginName + ChatColor.RED + "Area start and end blocks must be in the same world! Try again");
                         return;
@@ -103,7 +100,6 @@ public class TARDISAreaListener implements Listener {
                         minz = block_loc.getBlockZ();
                         maxz = plugin.utils.parseNum(firstblock[3]);
                     }
-                    String n = plugin.trackName.get(playerNameStr);
                     QueryFactory qf = new QueryFactory(plugin);
                     HashMap<String, Object> set = new HashMap<String, Object>();
                     set.put("area_name", n);
@@ -114,10 +110,10 @@ public class TARDISAreaListener implements Listener {
                     set.put("maxz", maxz);
                     set.put("y", y + 1);
                     qf.doInsert("areas", set);
-                    player.sendMessage(plugin.pluginName + "The area [" + plugin.trackName.get(playerNameStr) + "] was saved successfully");
-                    plugin.trackName.remove(playerNameStr);
-                    plugin.trackBlock.remove(playerNameStr);
-                    plugin.trackEnd.remove(playerNameStr);
+                    player.sendMessage(plugin.pluginName + "The area [" + n + "] was saved successfully");
+                    plugin.state.trackName.remove(playerNameStr);
+                    plugin.state.trackBlock.remove(playerNameStr);
+                    plugin.state.trackEnd.remove(playerNameStr);
                 } else {
                     player.sendMessage(plugin.pluginName + "That block is inside an already defined area! Try somewhere else.");
                 }
@@ -66,14 +66,14 @@ public class TARDISAreaSignListener implements Listener {
                 if (rst.resultSet()) {
                     HashMap<String, Object> where = new HashMap<String, Object>();
                     where.put("tardis_id", rst.getTardis_id());
-                    ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                    ResultSetTardis rs = new ResultSetTardis(plugin, where);
                     if (rs.resultSet()) {
                         int id = rs.getTardis_id();
                         String d = rs.getDirection().toString();
                         ItemStack is = inv.getItem(slot);
                         if (is != null) {
-                            if (plugin.trackSubmarine.contains(Integer.valueOf(id))) {
-                                plugin.trackSubmarine.remove(Integer.valueOf(id));
+                            if (plugin.state.trackSubmarine.contains(id)) {
+                                plugin.state.trackSubmarine.remove(id);
                             }
                             ItemMeta im = is.getItemMeta();
                             String area = im.getDisplayName();
@@ -104,7 +104,7 @@ public class TARDISAreaSignListener implements Listener {
                     public void run() {
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("owner", player.getName());
-                        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, where);
                         if (rs.resultSet()) {
                             TARDISSaveSignInventory sst = new TARDISSaveSignInventory(plugin, rs.getTardis_id(), rs.getHome());
                             ItemStack[] items = sst.getTerminal();
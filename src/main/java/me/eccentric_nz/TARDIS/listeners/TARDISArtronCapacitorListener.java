@@ -21,9 +21,9 @@ import java.util.HashMap;
 import java.util.List;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.database.QueryFactory;
-import me.eccentric_nz.TARDIS.database.ResultSetControls;
 import me.eccentric_nz.TARDIS.database.ResultSetPlayerPrefs;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
+import me.eccentric_nz.TARDIS.database.TARDISControl;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -89,17 +89,13 @@ public class TARDISArtronCapacitorListener implements Listener {
                 // only proceed if they are clicking a button!
                 if (validBlocks.contains(blockType)) {
                     // we need to get this block's location and then get the tardis_id from it
-                    String buttonloc = block.getLocation().toString();
-                    HashMap<String, Object> where = new HashMap<String, Object>();
-                    where.put("type", 6);
-                    where.put("location", buttonloc);
-                    ResultSetControls rsc = new ResultSetControls(plugin, where, false);
-                    if (rsc.resultSet()) {
+                    TARDISControl rsc = plugin.controlRegistry.getControl(block, 6);
+                    if (rsc != null) {
                         // get tardis data
                         int id = rsc.getTardis_id();
                         HashMap<String, Object> wheret = new HashMap<String, Object>();
                         wheret.put("tardis_id", id);
-                        ResultSetTardis rs = new ResultSetTardis(plugin, wheret, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, wheret);
                         if (rs.resultSet()) {
                             HashMap<String, Object> whereid = new HashMap<String, Object>();
                             whereid.put("tardis_id", id);
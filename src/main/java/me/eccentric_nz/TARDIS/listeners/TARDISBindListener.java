@@ -60,7 +60,7 @@ public class TARDISBindListener implements Listener {
     /**
      * Listens for player interaction with blocks after running the /tardisbind
      * [save|cmd|player|area] command. If the player's name is contained in the
-     * trackBinder HashMap then the block location is recorded in the bind field
+     * trackBinder map then the block location is recorded in the bind field
      * of the destinations table.
      *
      * If the player is travelling in the TARDIS then a check is made of the
@@ -79,9 +79,9 @@ public class TARDISBindListener implements Listener {
                 String playerNameStr = player.getName();
                 String l = b.getLocation().toString();
                 HashMap<String, Object> where = new HashMap<String, Object>();
-                if (plugin.trackBinder.containsKey(playerNameStr)) {
-                    where.put("dest_id", plugin.trackBinder.get(playerNameStr));
-                    plugin.trackBinder.remove(playerNameStr);
+                if (plugin.state.trackBinder.containsKey(playerNameStr)) {
+                    where.put("dest_id", plugin.state.trackBinder.get(playerNameStr));
+                    plugin.state.trackBinder.remove(playerNameStr);
                     HashMap<String, Object> set = new HashMap<String, Object>();
                     set.put("bind", l);
                     QueryFactory qf = new QueryFactory(plugin);
@@ -95,7 +95,7 @@ public class TARDISBindListener implements Listener {
                         int id = rst.getTardis_id();
                         HashMap<String, Object> wheret = new HashMap<String, Object>();
                         wheret.put("tardis_id", id);
-                        ResultSetTardis rs = new ResultSetTardis(plugin, wheret, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, wheret);
                         if (rs.resultSet()) {
                             String owner = rs.getOwner();
                             if (rs.isIso_on() && !player.getName().equals(owner) && !event.isCancelled()) {
@@ -105,7 +105,7 @@ public class TARDISBindListener implements Listener {
                             HashMap<String, Object> whereb = new HashMap<String, Object>();
                             whereb.put("tardis_id", id);
                             whereb.put("bind", l);
-                            ResultSetDestinations rsd = new ResultSetDestinations(plugin, whereb, false);
+                            ResultSetDestinations rsd = new ResultSetDestinations(plugin, whereb);
                             if (rsd.resultSet()) {
                                 if (!rs.isHandbrake_on()) {
                                     player.sendMessage(plugin.pluginName + ChatColor.RED + "You cannot set a destination while the TARDIS is travelling!");
@@ -63,17 +63,11 @@ public class TARDISBlockBreakListener implements Listener {
                 sign.update();
                 Player player = event.getPlayer();
                 if (player.hasPermission("tardis.exterminate")) {
-                    final String playerNameStr = player.getName();
-                    // check it is their TARDIS
-                    plugin.trackExterminate.put(playerNameStr, block);
+                    String playerNameStr = player.getName();
                     long timeout = plugin.getConfig().getLong("confirm_timeout");
+                    // check it is their TARDIS - forgotten if they don't confirm in time
+                    plugin.state.trackExterminate.put(playerNameStr, block, timeout);
                     player.sendMessage(plugin.pluginName + "Are you sure you want to delete the TARDIS? Type " + ChatColor.AQUA + "/tardis exterminate" + ChatColor.RESET + " within " + timeout + " seconds to proceed.");
-                    plugin.getServer().getScheduler().scheduleSyncDelayedTask(plugin, new Runnable() {
-                        @Override
-                        public void run() {
-                            plugin.trackExterminate.remove(playerNameStr);
-                        }
-                    }, timeout * 20);
                 } else {
                     player.sendMessage(plugin.pluginName + "You do not have permission to delete a TARDIS!");
                 }
@@ -54,24 +54,27 @@ public class TARDISBlockDamageListener implements Listener {
     public void onPoliceBoxDamage(BlockDamageEvent event) {
         Player p = event.getPlayer();
         Block b = event.getBlock();
+        if (!plugin.protectBlocks.isProtected(b)) {
+            return;
+        }
         String l = b.getLocation().toString();
         HashMap<String, Object> where = new HashMap<String, Object>();
         where.put("location", l);
-        ResultSetBlocks rsb = new ResultSetBlocks(plugin, where, false);
+        ResultSetBlocks rsb = new ResultSetBlocks(plugin, where);
         if (rsb.resultSet()) {
             String message = "You cannot break the TARDIS blocks!";
             boolean m = false;
             boolean isDoor = false;
             int id = rsb.getTardis_id();
-            if (HADS && !plugin.tardisDematerialising.contains(id) && !plugin.tardisMaterialising.contains(id) && isOwnerOnline(id)) {
+            if (HADS && !plugin.state.tardisDematerialising.contains(id) && !plugin.state.tardisMaterialising.contains(id) && isOwnerOnline(id)) {
                 if (b.getTypeId() == 71) {
                     if (isOwner(id, p.getName())) {
                         isDoor = true;
                     }
                 }
                 if (!isDoor && rsb.isPolice_box()) {
-                    int damage = (plugin.trackDamage.containsKey(Integer.valueOf(id))) ? plugin.trackDamage.get(Integer.valueOf(id)) : 0;
-                    plugin.trackDamage.put(Integer.valueOf(id), damage + 1);
+                    int damage = (plugin.state.trackDamage.containsKey(Integer.valueOf(id))) ? plugin.state.trackDamage.get(Integer.valueOf(id)) : 0;
+                    plugin.state.trackDamage.put(Integer.valueOf(id), damage + 1);
                     if (damage == plugin.getConfig().getInt("hads_damage")) {
                         new TARDISHostileDisplacement(plugin).moveTARDIS(id, p);
                         m = true;
@@ -90,14 +93,14 @@ public class TARDISBlockDamageListener implements Listener {
         HashMap<String, Object> where = new HashMap<String, Object>();
         where.put("tardis_id", id);
         where.put("owner", p);
-        ResultSetTardis rst = new ResultSetTardis(plugin, where, "", false);
+        ResultSetTardis rst = new ResultSetTardis(plugin, where);
         return rst.resultSet();
     }
 
     private boolean isOwnerOnline(int id) {
         HashMap<String, Object> where = new HashMap<String, Object>();
         where.put("tardis_id", id);
-        ResultSetTardis rst = new ResultSetTardis(plugin, where, "", false);
+        ResultSetTardis rst = new ResultSetTardis(plugin, where);
         if (rst.resultSet()) {
             return plugin.getServer().getOfflinePlayer(rst.getOwner()).isOnline();
         } else {
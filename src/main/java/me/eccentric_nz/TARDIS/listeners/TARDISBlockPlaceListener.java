@@ -107,7 +107,7 @@ public class TARDISBlockPlaceListener implements Listener {
                 if (max_count > 0) {
                     HashMap<String, Object> wherec = new HashMap<String, Object>();
                     wherec.put("player", player.getName());
-                    ResultSetCount rsc = new ResultSetCount(plugin, wherec, false);
+                    ResultSetCount rsc = new ResultSetCount(plugin, wherec);
                     if (rsc.resultSet()) {
                         player_count = rsc.getCount();
                         if (player_count == max_count) {
@@ -202,7 +202,7 @@ public class TARDISBlockPlaceListener implements Listener {
                     // check to see if they already have a TARDIS
                     HashMap<String, Object> where = new HashMap<String, Object>();
                     where.put("owner", playerNameStr);
-                    ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                    ResultSetTardis rs = new ResultSetTardis(plugin, where);
                     if (!rs.resultSet()) {
                         Chunk chunk = blockBottom.getChunk();
                         // get this chunk co-ords
@@ -16,6 +16,8 @@
  */
 package me.eccentric_nz.TARDIS.listeners;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -23,11 +25,12 @@ import java.util.List;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
 import me.eccentric_nz.TARDIS.database.QueryFactory;
-import me.eccentric_nz.TARDIS.database.ResultSetControls;
-import me.eccentric_nz.TARDIS.database.ResultSetLamps;
 import me.eccentric_nz.TARDIS.database.ResultSetRepeaters;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
 import me.eccentric_nz.TARDIS.database.ResultSetTravellers;
+import me.eccentric_nz.TARDIS.database.TARDISControl;
+import me.eccentric_nz.TARDIS.database.TARDISQuery;
+import me.eccentric_nz.TARDIS.database.TARDISRowMapper;
 import me.eccentric_nz.TARDIS.info.TARDISInfoMenu;
 import me.eccentric_nz.TARDIS.ARS.TARDISARSInventory;
 import me.eccentric_nz.TARDIS.travel.TARDISTemporalLocatorInventory;
@@ -99,14 +102,12 @@ public class TARDISButtonListener implements Listener {
             if (action == Action.RIGHT_CLICK_BLOCK) {
                 // only proceed if they are clicking a type of a button or a lever!
                 if (validBlocks.contains(blockType)) {
-                    // get clicked block location
-                    String buttonloc = block.getLocation().toString();
                     // get tardis from saved button location
-                    HashMap<String, Object> where = new HashMap<String, Object>();
-                    //where.put("type", 1);
-                    where.put("location", buttonloc);
-                    ResultSetControls rsc = new ResultSetControls(plugin, where, false);
-                    if (rsc.resultSet()) {
+                    TARDISControl rsc = plugin.controlRegistry.getControl(block);
+                    while (rsc != null && rsc.getType() < 0) {
+                        rsc = rsc.getNext();
+                    }
+                    if (rsc != null) {
                         int id = rsc.getTardis_id();
                         int type = rsc.getType();
                         if (!onlythese.contains(Integer.valueOf(type))) {
@@ -114,7 +115,7 @@ public class TARDISButtonListener implements Listener {
                         }
                         HashMap<String, Object> whereid = new HashMap<String, Object>();
                         whereid.put("tardis_id", id);
-                        ResultSetTardis rs = new ResultSetTardis(plugin, whereid, "", false);
+                        ResultSetTardis rs = new ResultSetTardis(plugin, whereid);
                         if (rs.resultSet()) {
                             int level = rs.getArtron_level();
                             boolean hb = rs.isHandbrake_on();
@@ -131,8 +132,8 @@ public class TARDISButtonListener implements Listener {
                                         player.sendMessage(plugin.pluginName + ChatColor.RED + "The TARDIS does not have enough Artron Energy to make this trip!");
                                         return;
                                     }
-                                    if (plugin.trackSubmarine.contains(Integer.valueOf(id))) {
-                                        plugin.trackSubmarine.remove(Integer.valueOf(id));
+                                    if (plugin.state.trackSubmarine.contains(id)) {
+                                        plugin.state.trackSubmarine.remove(id);
                                     }
                                     String[] current = d.split(":");
                                     TARDISConstants.COMPASS dir = rs.getDirection();
@@ -193,7 +194,7 @@ public class TARDISButtonListener implements Listener {
                                             TARDISTimeTravel tt = new TARDISTimeTravel(plugin);
                                             Location rand = tt.randomDestination(player, repeaters[1], repeaters[2], repeaters[3], dir, environment, current[0], false);
                                             if (rand != null) {
-                                                String sub = (plugin.trackSubmarine.contains(Integer.valueOf(id))) ? "true" : "false";
+                                                String sub = (plugin.state.trackSubmarine.contains(id)) ? "true" : "false";
                                                 d = rand.getWorld().getName() + ":" + rand.getBlockX() + ":" + rand.getBlockY() + ":" + rand.getBlockZ() + ":" + dir.toString() + ":" + sub;
                                                 set_dest = true;
                                                 String dchat = rand.getWorld().getName() + " at x: " + rand.getBlockX() + " y: " + rand.getBlockY() + " z: " + rand.getBlockZ();
@@ -297,16 +298,13 @@ public class TARDISButtonListener implements Listener {
                                     // Control room light switch
                                     HashMap<String, Object> wherel = new HashMap<String, Object>();
                                     wherel.put("tardis_id", id);
-                                    ResultSetLamps rsl = new ResultSetLamps(plugin, wherel, true);
-                                    List<Block> lamps = new ArrayList<Block>();
-                                    if (rsl.resultSet()) {
-                                        // get lamp locations
-                                        ArrayList<HashMap<String, String>> data = rsl.getData();
-                                        for (HashMap<String, String> map : data) {
-                                            Location loc = plugin.utils.getLocationFromDB(map.get("location"), 0.0F, 0.0F);
-                                            lamps.add(loc.getBlock());
+                                    // get lamp locations
+                                    List<Block> lamps = TARDISQuery.list("lamps", "location", wherel, new TARDISRowMapper<Block>() {
+                                        @Override
+                                        public Block map(ResultSet rs) throws SQLException {
+                                            return plugin.utils.getLocationFromDB(rs.getString("location"), 0.0F, 0.0F).getBlock();
                                         }
-                                    }
+                                    });
                                     for (Block b : lamps) {
                                         if (b.getTypeId() == 124) {
                                             b.setTypeId(19);
@@ -316,7 +314,7 @@ public class TARDISButtonListener implements Listener {
                                     }
                                     break;
                                 case 13:
-                                    plugin.trackInfoMenu.put(player.getName(), TARDISInfoMenu.TIS);
+                                    plugin.state.trackInfoMenu.put(player.getName(), TARDISInfoMenu.TIS);
                                     player.sendMessage(ChatColor.GOLD + "-----------TARDIS Information System-----------");
                                     player.sendMessage(ChatColor.GOLD + "---*Please type a white letter to proceed*---");
                                     player.sendMessage("§6> TARDIS §fM§6anual");
@@ -336,9 +334,9 @@ public class TARDISButtonListener implements Listener {
                                 HashMap<String, Object> wherel = new HashMap<String, Object>();
                                 wherel.put("tardis_id", id);
                                 qf.doUpdate("tardis", set, wherel);
-                                plugin.tardisHasDestination.put(id, plugin.getArtronConfig().getInt("random"));
-                                if (plugin.trackRescue.containsKey(Integer.valueOf(id))) {
-                                    plugin.trackRescue.remove(Integer.valueOf(id));
+                                plugin.state.tardisHasDestination.put(id, plugin.getArtronConfig().getInt("random"));
+                                if (plugin.state.trackRescue.containsKey(Integer.valueOf(id))) {
+                                    plugin.state.trackRescue.remove(Integer.valueOf(id));
                                 }
                             }
                         }
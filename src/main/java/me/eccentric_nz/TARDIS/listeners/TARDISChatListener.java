@@ -43,21 +43,30 @@ public class TARDISChatListener implements Listener {
     /**
      * Listens for player typing "tardis rescue accept". If the player types it
      * within 60 seconds of a Timelord sending a rescue request, a player rescue
-     * attempt is made.
+     * attempt is made. Chat is asynchronous, so the rescue itself is handed
+     * over to the main thread.
      *
      * @param event a player typing in chat
      */
     @EventHandler(priority = EventPriority.MONITOR)
     public void onChat(AsyncPlayerChatEvent event) {
-        String saved = event.getPlayer().getName();
+        final String saved = event.getPlayer().getName();
         String chat = event.getMessage();
         if (chat.equalsIgnoreCase("tardis rescue accept")) {
-            if (plugin.trackChat.containsKey(saved)) {
-                Player rescuer = plugin.getServer().getPlayer(plugin.trackChat.get(saved));
-                TARDISRescue res = new TARDISRescue(plugin);
-                res.tryRescue(rescuer, saved);
-                rescuer.sendMessage(plugin.pluginName + "Release the handbrake to start rescuing " + saved);
-                plugin.trackChat.remove(saved);
+            final String rescuer = plugin.state.trackChat.remove(saved);
+            if (rescuer != null) {
+                plugin.getServer().getScheduler().scheduleSyncDelayedTask(plugin, new Runnable() {
+                    @Override
+                    public void run() {
+                        Player player = plugin.getServer().getPlayer(rescuer);
+                        if (player == null) {
+                            return;
+                        }
+                        TARDISRescue res = new TARDISRescue(plugin);
+                        res.tryRescue(player, saved);
+                        player.sendMessage(plugin.pluginName + "Release the handbrake to start rescuing " + saved);
+                    }
+                });
             } else {
                 event.getPlayer().sendMessage(plugin.pluginName + "Rescue request timed out! You need to respond within 60 seconds.");
             }
@@ -41,15 +41,15 @@ public class TARDISChunkListener implements Listener {
     }
 
     /**
-     * Listens for chunks unloading when a TARDIS room is growing. If the chunk
-     * is contained in the roomChunksList then it cancels the event.
+     * Listens for chunks unloading. If the chunk has a Police Box in it or a
+     * TARDIS room is growing in it then it cancels the event.
      *
      * @param event a chunk unloading
      */
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     public void onChunkUnload(ChunkUnloadEvent event) {
         Chunk c = event.getChunk();
-        if (plugin.tardisChunkList.contains(c) || plugin.roomChunkList.contains(c)) {
+        if (plugin.retainedChunks.isRetained(c)) {
             event.setCancelled(true);
         }
     }
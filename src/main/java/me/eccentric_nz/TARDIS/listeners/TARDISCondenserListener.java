@@ -21,7 +21,6 @@ import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.achievement.TARDISAchievementFactory;
 import me.eccentric_nz.TARDIS.artron.TARDISCondensables;
 import me.eccentric_nz.TARDIS.database.QueryFactory;
-import me.eccentric_nz.TARDIS.database.ResultSetCondenser;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
 import org.bukkit.Effect;
 import org.bukkit.Location;
@@ -69,10 +68,13 @@ public class TARDISCondenserListener implements Listener {
         if (holder instanceof Chest && inv.getName().equals("§4Artron Condenser")) {
             Chest chest = (Chest) holder;
             Location loc = chest.getLocation();
-            String chest_loc = loc.getWorld().getName() + ":" + loc.getBlockX() + ":" + loc.getBlockY() + ":" + loc.getBlockZ();
+            int id = plugin.controlRegistry.getTardisId(chest.getBlock(), "condenser");
+            if (id < 0) {
+                return;
+            }
             HashMap<String, Object> where = new HashMap<String, Object>();
-            where.put("condenser", chest_loc);
-            ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+            where.put("tardis_id", id);
+            ResultSetTardis rs = new ResultSetTardis(plugin, where);
             if (rs.resultSet()) {
                 final Player player = (Player) event.getPlayer();
                 try {
@@ -83,36 +85,21 @@ public class TARDISCondenserListener implements Listener {
                 }
                 QueryFactory qf = new QueryFactory(plugin);
                 int amount = 0;
-                TARDISCondensables tc = new TARDISCondensables();
+                boolean require = plugin.getConfig().getBoolean("rooms_require_blocks");
+                HashMap<String, Integer> counts = new HashMap<String, Integer>();
                 // get the stacks in the inventory
                 for (ItemStack is : inv.getContents()) {
                     if (is != null) {
-                        String item = is.getType().name();
                         //plugin.debug(is);
-                        if (tc.condensables.containsKey(item)) {
+                        if (TARDISCondensables.isCondensable(is.getType())) {
                             int stack_size = is.getAmount();
-                            amount += stack_size * tc.condensables.get(item);
+                            amount += stack_size * TARDISCondensables.getValue(is.getType());
                             inv.remove(is);
-                            if (plugin.getConfig().getBoolean("rooms_require_blocks")) {
+                            if (require) {
+                                // add up the stacks of each material first
                                 String block_data = String.format("%s", is.getTypeId());
-                                // check if the tardis has condensed this material before
-                                HashMap<String, Object> wherec = new HashMap<String, Object>();
-                                wherec.put("tardis_id", rs.getTardis_id());
-                                wherec.put("block_data", block_data);
-                                ResultSetCondenser rsc = new ResultSetCondenser(plugin, wherec, false);
-                                HashMap<String, Object> setc = new HashMap<String, Object>();
-                                if (rsc.resultSet()) {
-                                    setc.put("block_count", stack_size + rsc.getBlock_count());
-                                    HashMap<String, Object> wheret = new HashMap<String, Object>();
-                                    wheret.put("tardis_id", rs.getTardis_id());
-                                    wheret.put("block_data", block_data);
-                                    qf.doUpdate("condenser", setc, wheret);
-                                } else {
-                                    setc.put("tardis_id", rs.getTardis_id());
-                                    setc.put("block_data", block_data);
-                                    setc.put("block_count", stack_size);
-                                    qf.doInsert("condenser", setc);
-                                }
+                                Integer n = counts.get(block_data);
+                                counts.put(block_data, (n == null) ? stack_size : n + stack_size);
                             }
                         } else {
                             // return items that can't be condensed
@@ -120,6 +107,7 @@ public class TARDISCondenserListener implements Listener {
                         }
                     }
                 }
+                qf.addCondenserBlockCounts(rs.getTardis_id(), counts);
                 // halve it cause 1:1 is too much...
                 amount = Math.round(amount / 2.0F);
                 HashMap<String, Object> wheret = new HashMap<String, Object>();
@@ -153,11 +141,14 @@ public class TARDISCondenserListener implements Listener {
     public void onChestOpen(PlayerInteractEvent event) {
         Block b = event.getClickedBlock();
         if (b != null && b.getType().equals(Material.CHEST) && event.getAction().equals(Action.RIGHT_CLICK_BLOCK)) {
+            int id = plugin.controlRegistry.getTardisId(b, "condenser");
+            if (id < 0) {
+                return;
+            }
             Location loc = b.getLocation();
-            String chest_loc = loc.getWorld().getName() + ":" + loc.getBlockX() + ":" + loc.getBlockY() + ":" + loc.getBlockZ();
             HashMap<String, Object> where = new HashMap<String, Object>();
-            where.put("condenser", chest_loc);
-            ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+            where.put("tardis_id", id);
+            ResultSetTardis rs = new ResultSetTardis(plugin, where);
             if (rs.resultSet()) {
                 event.setCancelled(true);
                 InventoryHolder holder = (Chest) b.getState();
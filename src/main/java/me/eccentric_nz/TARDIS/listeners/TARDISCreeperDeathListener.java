@@ -64,7 +64,7 @@ public class TARDISCreeperDeathListener implements Listener {
                     // is the killer a timelord?
                     HashMap<String, Object> where = new HashMap<String, Object>();
                     where.put("owner", killer);
-                    ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                    ResultSetTardis rs = new ResultSetTardis(plugin, where);
                     if (rs.resultSet()) {
                         HashMap<String, Object> wherep = new HashMap<String, Object>();
                         wherep.put("player", killer);
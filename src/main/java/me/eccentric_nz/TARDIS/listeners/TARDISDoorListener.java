@@ -36,7 +36,6 @@ import multiworld.MultiWorldPlugin;
 import multiworld.api.MultiWorldAPI;
 import multiworld.api.MultiWorldWorldData;
 import multiworld.api.flag.FlagName;
-import org.bukkit.Bukkit;
 import org.bukkit.Effect;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
@@ -143,7 +142,7 @@ public class TARDISDoorListener implements Listener {
                     Material m = Material.getMaterial(key);
                     HashMap<String, Object> where = new HashMap<String, Object>();
                     where.put("door_location", doorloc);
-                    ResultSetDoors rsd = new ResultSetDoors(plugin, where, false);
+                    ResultSetDoors rsd = new ResultSetDoors(plugin, where);
                     if (rsd.resultSet()) {
                         if (material.equals(m)) {
                             TARDISConstants.COMPASS dd = rsd.getDoor_direction();
@@ -168,7 +167,7 @@ public class TARDISDoorListener implements Listener {
                                 int id = rsd.getTardis_id();
                                 HashMap<String, Object> oid = new HashMap<String, Object>();
                                 oid.put("owner", player.getName());
-                                ResultSetTardis rs = new ResultSetTardis(plugin, oid, "", false);
+                                ResultSetTardis rs = new ResultSetTardis(plugin, oid);
                                 if (rs.resultSet()) {
                                     if (rs.getTardis_id() != id) {
                                         player.sendMessage(plugin.pluginName + "You can only lock or unlock your own door!");
@@ -234,7 +233,7 @@ public class TARDISDoorListener implements Listener {
                                 int id = rsd.getTardis_id();
                                 HashMap<String, Object> tid = new HashMap<String, Object>();
                                 tid.put("tardis_id", id);
-                                ResultSetTardis rs = new ResultSetTardis(plugin, tid, "", false);
+                                ResultSetTardis rs = new ResultSetTardis(plugin, tid);
                                 if (rs.resultSet()) {
                                     int artron = rs.getArtron_level();
                                     int required = plugin.getArtronConfig().getInt("backdoor");
@@ -261,7 +260,7 @@ public class TARDISDoorListener implements Listener {
                                     HashMap<String, Object> other = new HashMap<String, Object>();
                                     other.put("tardis_id", id);
                                     other.put("door_type", end_doortype);
-                                    ResultSetDoors rse = new ResultSetDoors(plugin, other, false);
+                                    ResultSetDoors rse = new ResultSetDoors(plugin, other);
                                     if (rse.resultSet()) {
                                         d = rse.getDoor_direction();
                                     } else {
@@ -271,7 +270,7 @@ public class TARDISDoorListener implements Listener {
                                         case 1:
                                         case 4:
                                             // is the TARDIS materialising?
-                                            if (plugin.tardisMaterialising.contains(id) || plugin.tardisDematerialising.contains(id)) {
+                                            if (plugin.state.tardisMaterialising.contains(id) || plugin.state.tardisDematerialising.contains(id)) {
                                                 player.sendMessage(plugin.pluginName + "The TARDIS is still travelling... you would get lost in the time vortex!");
                                                 return;
                                             }
@@ -327,7 +326,7 @@ public class TARDISDoorListener implements Listener {
                                             break;
                                         case 0:
                                             // is the TARDIS materialising?
-                                            if (plugin.tardisMaterialising.contains(id) || plugin.tardisDematerialising.contains(id)) {
+                                            if (plugin.state.tardisMaterialising.contains(id) || plugin.state.tardisDematerialising.contains(id)) {
                                                 player.sendMessage(plugin.pluginName + "The TARDIS is still travelling... you would get lost in the time vortex!");
                                                 return;
                                             }
@@ -351,8 +350,8 @@ public class TARDISDoorListener implements Listener {
                                                 World cw = idl.getW();
                                                 TARDISConstants.COMPASS innerD = idl.getD();
                                                 // check for entities near the police box
-                                                if (plugin.getConfig().getBoolean("allow_mob_farming") && player.hasPermission("tardis.farm") && !plugin.trackFarming.contains(playerNameStr)) {
-                                                    plugin.trackFarming.add(playerNameStr);
+                                                if (plugin.getConfig().getBoolean("allow_mob_farming") && player.hasPermission("tardis.farm") && !plugin.state.trackFarming.contains(playerNameStr)) {
+                                                    plugin.state.trackFarming.add(playerNameStr);
                                                     TARDISFarmer tf = new TARDISFarmer(plugin);
                                                     pets = tf.farmAnimals(block_loc, d, id, player, tmp_loc.getWorld().getName(), playerWorld.getName());
                                                 }
@@ -381,7 +380,7 @@ public class TARDISDoorListener implements Listener {
                                                 HashMap<String, Object> set = new HashMap<String, Object>();
                                                 set.put("tardis_id", id);
                                                 set.put("player", playerNameStr);
-                                                qf.doInsert("travellers", set);
+                                                qf.queueInsert("travellers", set);
                                                 if (plugin.pm.getPlugin("Spout") != null && SpoutManager.getPlayer(player).isSpoutCraftEnabled()) {
                                                     SpoutManager.getSoundManager().playCustomSoundEffect(plugin, SpoutManager.getPlayer(player), "https://dl.dropboxusercontent.com/u/53758864/tardis_hum.mp3", false, tardis_loc, 9, 25);
                                                 }
@@ -419,7 +418,7 @@ public class TARDISDoorListener implements Listener {
                                             HashMap<String, Object> set = new HashMap<String, Object>();
                                             set.put("tardis_id", id);
                                             set.put("player", playerNameStr);
-                                            qf.doInsert("travellers", set);
+                                            qf.queueInsert("travellers", set);
                                             if (plugin.pm.getPlugin("Spout") != null && SpoutManager.getPlayer(player).isSpoutCraftEnabled()) {
                                                 SpoutManager.getSoundManager().playCustomSoundEffect(plugin, SpoutManager.getPlayer(player), "https://dl.dropboxusercontent.com/u/53758864/tardis_hum.mp3", false, inner_loc, 9, 25);
                                             }
@@ -483,7 +482,8 @@ public class TARDISDoorListener implements Listener {
     }
 
     /**
-     * A method to teleport the player into and out of the TARDIS.
+     * A method to teleport the player into and out of the TARDIS. The player
+     * is teleported once the chunks around the destination have loaded.
      *
      * @param p the player to teleport
      * @param l the location to teleport to
@@ -504,16 +504,14 @@ public class TARDISDoorListener implements Listener {
         World world = l.getWorld();
         final boolean isSurvival = checkSurvival(world);
 
-        Bukkit.getServer().getScheduler().scheduleSyncDelayedTask(plugin, new Runnable() {
-            @Override
-            public void run() {
-                p.teleport(theLocation);
-            }
-        }, 5L);
-        Bukkit.getServer().getScheduler().scheduleSyncDelayedTask(plugin, new Runnable() {
+        // load the chunks around the destination first, then teleport once
+        plugin.prefetcher.prefetch(theLocation, 5L, new Runnable() {
             @Override
             @SuppressWarnings("deprecation")
             public void run() {
+                if (!p.isOnline()) {
+                    return;
+                }
                 p.teleport(theLocation);
                 if (p.getGameMode() == GameMode.CREATIVE || (allowFlight && crossWorlds && !isSurvival)) {
                     p.setAllowFlight(true);
@@ -530,9 +528,9 @@ public class TARDISDoorListener implements Listener {
                     int player_artron = (plugin.getConfig().getBoolean("create_worlds")) ? plugin.getArtronConfig().getInt("player") : plugin.getArtronConfig().getInt("player") * 10;
                     qf.alterEnergyLevel("player_prefs", player_artron, where, p);
                     String pstr = p.getName();
-                    if (plugin.trackSetTime.containsKey(pstr)) {
-                        setTemporalLocation(p, plugin.trackSetTime.get(pstr));
-                        plugin.trackSetTime.remove(pstr);
+                    if (plugin.state.trackSetTime.containsKey(pstr)) {
+                        setTemporalLocation(p, plugin.state.trackSetTime.get(pstr));
+                        plugin.state.trackSetTime.remove(pstr);
                     }
                 } else {
                     if (p.isPlayerTimeRelative()) {
@@ -542,7 +540,7 @@ public class TARDISDoorListener implements Listener {
                 // give a key
                 giveKey(p);
             }
-        }, 10L);
+        });
     }
 
     /**
@@ -698,7 +696,7 @@ public class TARDISDoorListener implements Listener {
         HashMap<String, Object> wherei = new HashMap<String, Object>();
         wherei.put("door_type", doortype);
         wherei.put("tardis_id", id);
-        ResultSetDoors rsd = new ResultSetDoors(plugin, wherei, false);
+        ResultSetDoors rsd = new ResultSetDoors(plugin, wherei);
         if (rsd.resultSet()) {
             TARDISConstants.COMPASS d = rsd.getDoor_direction();
             tdl.setD(d);
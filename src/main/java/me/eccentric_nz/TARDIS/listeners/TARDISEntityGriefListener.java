@@ -59,7 +59,6 @@ public class TARDISEntityGriefListener implements Listener {
     @EventHandler(priority = EventPriority.LOW)
     public void bossBlockBreak(EntityChangeBlockEvent event) {
         Block b = event.getBlock();
-        String l = b.getLocation().toString();
         EntityType eType;
         try {
             eType = event.getEntityType();
@@ -67,7 +66,7 @@ public class TARDISEntityGriefListener implements Listener {
             eType = null;
         }
         if (eType != null && ents.contains(eType)) {
-            if (plugin.protectBlockMap.containsKey(l)) {
+            if (plugin.protectBlocks.isProtected(b)) {
                 event.setCancelled(true);
             }
         }
@@ -16,13 +16,13 @@
  */
 package me.eccentric_nz.TARDIS.listeners;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import me.eccentric_nz.TARDIS.TARDIS;
-import me.eccentric_nz.TARDIS.TARDISConstants;
-import me.eccentric_nz.TARDIS.database.ResultSetBlocks;
-import me.eccentric_nz.TARDIS.database.ResultSetDoors;
-import org.bukkit.World;
+import me.eccentric_nz.TARDIS.database.TARDISDoor;
+import me.eccentric_nz.TARDIS.utility.TARDISBlockKey;
+import me.eccentric_nz.TARDIS.utility.TARDISLongIntMap;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.event.EventHandler;
@@ -50,6 +50,10 @@ public class TARDISExplosionListener implements Listener {
      * the effect of the explosion, there by protecting the Police box from
      * damage.
      *
+     * Only the protected blocks in the chunks the explosion reaches are looked
+     * at, so the cost depends on the size of the blast rather than on the
+     * number of TARDISes.
+     *
      * @param e an entity exploding
      */
     @EventHandler(priority = EventPriority.LOW)
@@ -57,76 +61,73 @@ public class TARDISExplosionListener implements Listener {
         if (e.isCancelled()) {
             return;
         }
-        int idchk = 0;
-        // get list of police box blocks from DB
-        ResultSetBlocks rs = new ResultSetBlocks(plugin, null, true);
-        if (rs.resultSet()) {
-            ArrayList<HashMap<String, String>> data = rs.getData();
-            for (HashMap<String, String> map : data) {
-                String location = map.get("location");
-                int id = plugin.utils.parseNum(map.get("tardis_id"));
-                String[] loc_tmp = location.split(",");
-                String[] wStr = loc_tmp[0].split("=");
-                String world = wStr[2].substring(0, wStr[2].length() - 1);
-                World w = plugin.getServer().getWorld(world);
-                if (w != null) {
-                    String[] xStr = loc_tmp[1].split("=");
-                    String[] yStr = loc_tmp[2].split("=");
-                    String[] zStr = loc_tmp[3].split("=");
-                    int x = plugin.utils.parseNum(xStr[1].substring(0, (xStr[1].length() - 2)));
-                    int y = plugin.utils.parseNum(yStr[1].substring(0, (yStr[1].length() - 2)));
-                    int z = plugin.utils.parseNum(zStr[1].substring(0, (zStr[1].length() - 2)));
-                    Block block = w.getBlockAt(x, y, z);
-                    // if the block is a TARDIS block then remove it
-                    if (e.blockList().contains(block)) {
-                        e.blockList().remove(block);
-                    }
-                    if (id != idchk) {
-                        HashMap<String, Object> where = new HashMap<String, Object>();
-                        where.put("tardis_id", id);
-                        ResultSetDoors rsd = new ResultSetDoors(plugin, where, true);
-                        if (rsd.resultSet()) {
-                            String doorLoc[] = rsd.getDoor_location().split(":");
-                            TARDISConstants.COMPASS d = rsd.getDoor_direction();
-                            int dx = plugin.utils.parseNum(doorLoc[1]);
-                            int dy = plugin.utils.parseNum(doorLoc[2]);
-                            int dz = plugin.utils.parseNum(doorLoc[3]);
-                            Block door_bottom = w.getBlockAt(dx, dy, dz);
-                            Block door_under = door_bottom.getRelative(BlockFace.DOWN);
-                            Block door_top = door_bottom.getRelative(BlockFace.UP);
-                            BlockFace bf;
-                            switch (d) {
-                                case NORTH:
-                                    bf = BlockFace.WEST;
-                                    break;
-                                case WEST:
-                                    bf = BlockFace.SOUTH;
-                                    break;
-                                case SOUTH:
-                                    bf = BlockFace.EAST;
-                                    break;
-                                default:
-                                    bf = BlockFace.NORTH;
-                                    break;
-                            }
-                            Block sign = door_top.getRelative(BlockFace.UP).getRelative(bf);
-                            if (e.blockList().contains(sign)) {
-                                e.blockList().remove(sign);
-                            }
-                            if (e.blockList().contains(door_under)) {
-                                e.blockList().remove(door_under);
-                            }
-                            if (e.blockList().contains(door_bottom)) {
-                                e.blockList().remove(door_bottom);
-                            }
-                            if (e.blockList().contains(door_top)) {
-                                e.blockList().remove(door_top);
-                            }
-                        }
-                        idchk = id;
-                    }
+        List<Block> blocks = e.blockList();
+        if (blocks.isEmpty()) {
+            return;
+        }
+        String world = e.getLocation().getWorld().getName();
+        // find the TARDISes that have protected blocks in the chunks the explosion reaches
+        TARDISLongIntMap chunks = new TARDISLongIntMap();
+        HashSet<Integer> ids = new HashSet<Integer>();
+        for (Block b : blocks) {
+            int cx = b.getX() >> 4;
+            int cz = b.getZ() >> 4;
+            long ck = TARDISBlockKey.packChunk(cx, cz);
+            if (chunks.containsKey(ck)) {
+                continue;
+            }
+            chunks.put(ck, 1);
+            TARDISLongIntMap bucket = plugin.protectBlocks.getChunk(world, cx, cz);
+            if (bucket != null) {
+                for (int id : bucket.values()) {
+                    ids.add(id);
                 }
             }
         }
+        if (ids.isEmpty()) {
+            return;
+        }
+        // the Police Box door blocks of those TARDISes
+        TARDISLongIntMap doors = new TARDISLongIntMap();
+        for (int id : ids) {
+            TARDISDoor door = plugin.doorCache.getDoor(id, 0);
+            if (door == null || !door.getWorld().equals(world)) {
+                continue;
+            }
+            int dx = door.getX();
+            int dy = door.getY();
+            int dz = door.getZ();
+            BlockFace bf;
+            switch (door.getDoor_direction()) {
+                case NORTH:
+                    bf = BlockFace.WEST;
+                    break;
+                case WEST:
+                    bf = BlockFace.SOUTH;
+                    break;
+                case SOUTH:
+                    bf = BlockFace.EAST;
+                    break;
+                default:
+                    bf = BlockFace.NORTH;
+                    break;
+            }
+            doors.put(TARDISBlockKey.pack(dx, dy - 1, dz), id);
+            doors.put(TARDISBlockKey.pack(dx, dy, dz), id);
+            doors.put(TARDISBlockKey.pack(dx, dy + 1, dz), id);
+            // the sign
+            doors.put(TARDISBlockKey.pack(dx + bf.getModX(), dy + 2, dz + bf.getModZ()), id);
+        }
+        // if the block is a TARDIS block then remove it
+        Iterator<Block> iter = blocks.iterator();
+        while (iter.hasNext()) {
+            Block b = iter.next();
+            int x = b.getX();
+            int y = b.getY();
+            int z = b.getZ();
+            if (doors.containsKey(TARDISBlockKey.pack(x, y, z)) || plugin.protectBlocks.getTardisId(world, x, y, z) >= 0) {
+                iter.remove();
+            }
+        }
     }
 }
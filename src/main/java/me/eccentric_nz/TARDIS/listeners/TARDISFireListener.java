@@ -59,9 +59,7 @@ public class TARDISFireListener implements Listener {
     public void onBlockIgnite(BlockIgniteEvent event) {
         Block b = event.getBlock();
         for (BlockFace bf : faces) {
-            Block chkBlock = b.getRelative(bf);
-            String l = chkBlock.getLocation().toString();
-            if (plugin.protectBlockMap.containsKey(l)) {
+            if (plugin.protectBlocks.getTardisId(b.getWorld().getName(), b.getX() + bf.getModX(), b.getY() + bf.getModY(), b.getZ() + bf.getModZ()) >= 0) {
                 event.setCancelled(true);
                 break;
             }
@@ -71,8 +69,7 @@ public class TARDISFireListener implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void onBlockBurn(BlockBurnEvent event) {
         Block b = event.getBlock();
-        String l = b.getLocation().toString();
-        if (plugin.protectBlockMap.containsKey(l)) {
+        if (plugin.protectBlocks.isProtected(b)) {
             event.setCancelled(true);
         }
     }
@@ -22,8 +22,9 @@ import me.eccentric_nz.TARDIS.database.QueryFactory;
 import me.eccentric_nz.TARDIS.database.ResultSetGravity;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
 import me.eccentric_nz.TARDIS.rooms.TARDISGravityWellRunnable;
+import me.eccentric_nz.TARDIS.utility.TARDISGravityWells;
+import me.eccentric_nz.TARDIS.utility.TARDISGravityWells.Well;
 import org.bukkit.Location;
-import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
@@ -64,89 +65,63 @@ public class TARDISGravityWellListener implements Listener {
     }
 
     /**
-     * Listens for a player walking over a Gravity Well location. If the block
-     * the player is on is contained in the gravityUpList then the player is
-     * transported up.
+     * Listens for a player walking onto a Gravity Well block. If the block the
+     * player is on is a Gravity Well (other than a down well) then the player
+     * is moved in the direction of the well. Moves within the same block are
+     * ignored, and a player is only ever moved by one well at a time.
      *
      * @param event a player moving
      */
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerMove(PlayerMoveEvent event) {
-        World world = event.getTo().getWorld();
-        Location l = new Location(world, event.getTo().getBlockX(), event.getTo().getBlockY() - 1, event.getTo().getBlockZ(), 0.0F, 0.0F);
-        String loc = l.toString();
-        Double[] values;
-        double end;
-        double vel;
-        if (plugin.gravityUpList.containsKey(loc)) {
-            Player player = event.getPlayer();
-            int x = l.getBlockX();
-            int z = l.getBlockZ();
-            values = plugin.gravityUpList.get(loc);
-            end = l.getY() + values[1];
-            vel = values[2];
-            TARDISGravityWellRunnable runnable = new TARDISGravityWellRunnable(plugin, player, vel, end, x, z, 1);
-            int task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, runnable, 2L, 3L);
-            runnable.setTask(task);
-            return;
-        }
-        if (plugin.gravityNorthList.containsKey(loc)) {
-            // move player north
-            Player player = event.getPlayer();
-            int x = l.getBlockX();
-            int z = l.getBlockZ();
-            values = plugin.gravityNorthList.get(loc);
-            end = l.getZ() - values[1];
-            vel = values[2];
-            TARDISGravityWellRunnable runnable = new TARDISGravityWellRunnable(plugin, player, vel, end, x, z, 2);
-            int task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, runnable, 2L, 3L);
-            runnable.setTask(task);
+        Location to = event.getTo();
+        Location from = event.getFrom();
+        int x = to.getBlockX();
+        int y = to.getBlockY() - 1;
+        int z = to.getBlockZ();
+        if (x == from.getBlockX() && y == from.getBlockY() - 1 && z == from.getBlockZ() && to.getWorld() == from.getWorld()) {
             return;
         }
-        if (plugin.gravityWestList.containsKey(loc)) {
-            // move player west
-            Player player = event.getPlayer();
-            int x = l.getBlockX();
-            int z = l.getBlockZ();
-            values = plugin.gravityWestList.get(loc);
-            end = l.getX() - values[1];
-            vel = values[2];
-            TARDISGravityWellRunnable runnable = new TARDISGravityWellRunnable(plugin, player, vel, end, x, z, 3);
-            int task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, runnable, 2L, 3L);
-            runnable.setTask(task);
+        Well well = plugin.gravityWells.get(to.getWorld().getName(), x, y, z);
+        if (well == null) {
             return;
         }
-        if (plugin.gravitySouthList.containsKey(loc)) {
-            // move player south
-            Player player = event.getPlayer();
-            int x = l.getBlockX();
-            int z = l.getBlockZ();
-            values = plugin.gravitySouthList.get(loc);
-            end = l.getZ() + values[1];
-            vel = values[2];
-            TARDISGravityWellRunnable runnable = new TARDISGravityWellRunnable(plugin, player, vel, end, x, z, 4);
-            int task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, runnable, 2L, 3L);
-            runnable.setTask(task);
-            return;
+        double end;
+        switch (well.getDirection()) {
+            case TARDISGravityWells.UP:
+                end = y + well.getDistance();
+                break;
+            case TARDISGravityWells.NORTH:
+                end = z - well.getDistance();
+                break;
+            case TARDISGravityWells.WEST:
+                end = x - well.getDistance();
+                break;
+            case TARDISGravityWells.SOUTH:
+                end = z + well.getDistance();
+                break;
+            case TARDISGravityWells.EAST:
+                end = x + well.getDistance();
+                break;
+            default:
+                // down wells only stop fall damage
+                return;
         }
-        if (plugin.gravityEastList.containsKey(loc)) {
-            // move player east
-            Player player = event.getPlayer();
-            int x = l.getBlockX();
-            int z = l.getBlockZ();
-            values = plugin.gravityEastList.get(loc);
-            end = l.getX() + values[1];
-            vel = values[2];
-            TARDISGravityWellRunnable runnable = new TARDISGravityWellRunnable(plugin, player, vel, end, x, z, 5);
-            int task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, runnable, 2L, 3L);
-            runnable.setTask(task);
+        Player player = event.getPlayer();
+        TARDISGravityWellRunnable runnable = new TARDISGravityWellRunnable(plugin, player, well.getVelocity(), end, x, z, well.getDirection());
+        int task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, runnable, 2L, 3L);
+        runnable.setTask(task);
+        // a new well takes over from the one the player was on
+        int previous = plugin.gravityWells.startLift(player.getName(), task);
+        if (previous != -1) {
+            plugin.getServer().getScheduler().cancelTask(previous);
         }
     }
 
     /**
      * Listens for a player falling onto a Gravity Well location. If the block
-     * the player lands on is contained in the gravityDownList then the player
-     * receives no fall damage.
+     * the player lands on is a down Gravity Well then the player receives no
+     * fall damage.
      *
      * @param e an entity taking damage
      */
@@ -156,13 +131,8 @@ public class TARDISGravityWellListener implements Listener {
             Entity ent = e.getEntity();
             if ((ent instanceof Player)) {
                 Location l = ent.getLocation();
-                l.setX(l.getBlockX());
-                l.setY(l.getBlockY() - 1);
-                l.setZ(l.getBlockZ());
-                l.setPitch(0.0F);
-                l.setYaw(0.0F);
-                String loc = l.toString();
-                if (plugin.gravityDownList.contains(loc)) {
+                Well well = plugin.gravityWells.get(l.getWorld().getName(), l.getBlockX(), l.getBlockY() - 1, l.getBlockZ());
+                if (well != null && well.getDirection() == TARDISGravityWells.DOWN) {
                     e.setCancelled(true);
                 }
             }
@@ -180,14 +150,14 @@ public class TARDISGravityWellListener implements Listener {
     public void onWoolInteract(PlayerInteractEvent event) {
         final Player player = event.getPlayer();
         String playerNameStr = player.getName();
-        if (plugin.trackGravity.containsKey(playerNameStr)) {
-            Double[] values = plugin.trackGravity.get(playerNameStr);
+        if (plugin.state.trackGravity.containsKey(playerNameStr)) {
+            Double[] values = plugin.state.trackGravity.get(playerNameStr);
             Block b = event.getClickedBlock();
             if (b != null) {
                 // get tardis_id
                 HashMap<String, Object> where = new HashMap<String, Object>();
                 where.put("owner", player.getName());
-                ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                ResultSetTardis rs = new ResultSetTardis(plugin, where);
                 if (!rs.resultSet()) {
                     player.sendMessage(plugin.pluginName + "You are not a Timelord. You need to create a TARDIS first before using this command!");
                     return;
@@ -200,35 +170,16 @@ public class TARDISGravityWellListener implements Listener {
                     HashMap<String, Object> whereg = new HashMap<String, Object>();
                     whereg.put("tardis_id", id);
                     whereg.put("location", loc);
-                    ResultSetGravity rsg = new ResultSetGravity(plugin, whereg, false);
+                    ResultSetGravity rsg = new ResultSetGravity(plugin, whereg);
                     if (rsg.resultSet()) {
                         HashMap<String, Object> whered = new HashMap<String, Object>();
                         whered.put("g_id", rsg.getGravity_id());
-                        if (qf.doDelete("gravity_well", whered)) {
-                            switch (rsg.getDirection()) {
-                                case 1:
-                                    plugin.gravityUpList.remove(loc);
-                                    break;
-                                case 2:
-                                    plugin.gravityNorthList.remove(loc);
-                                    break;
-                                case 3:
-                                    plugin.gravityWestList.remove(loc);
-                                    break;
-                                case 4:
-                                    plugin.gravitySouthList.remove(loc);
-                                    break;
-                                case 5:
-                                    plugin.gravityEastList.remove(loc);
-                                    break;
-                                default:
-                                    plugin.gravityDownList.remove(loc);
-                                    break;
-                            }
-                            // set the block to light grey wool
-                            b.setTypeIdAndData(35, (byte) 8, true);
-                            player.sendMessage(plugin.pluginName + "The gravity block was removed successfully");
-                        }
+                        // the row was found above, so the queued delete will remove it
+                        qf.doDelete("gravity_well", whered);
+                        plugin.gravityWells.remove(loc);
+                        // set the block to light grey wool
+                        b.setTypeIdAndData(35, (byte) 8, true);
+                        player.sendMessage(plugin.pluginName + "The gravity block was removed successfully");
                     } else {
                         player.sendMessage(plugin.pluginName + "Could not find the gravity block in the database!");
                     }
@@ -248,37 +199,32 @@ public class TARDISGravityWellListener implements Listener {
                     set.put("velocity", values[2]);
                     qf.doInsert("gravity_well", set);
                     // add it to the block list
+                    plugin.gravityWells.add(b.getWorld().getName(), b.getX(), b.getY(), b.getZ(), id, values[0].intValue(), values[1], values[2]);
                     String dir;
                     switch (values[0].intValue()) {
                         case 1:
-                            plugin.gravityUpList.put(loc, values);
                             dir = "UP";
                             break;
                         case 2:
-                            plugin.gravityNorthList.put(loc, values);
                             dir = "NORTH";
                             break;
                         case 3:
-                            plugin.gravityWestList.put(loc, values);
                             dir = "WEST";
                             break;
                         case 4:
-                            plugin.gravitySouthList.put(loc, values);
                             dir = "SOUTH";
                             break;
                         case 5:
-                            plugin.gravityEastList.put(loc, values);
                             dir = "EAST";
                             break;
                         default:
-                            plugin.gravityDownList.add(loc);
                             dir = "DOWN";
                             break;
                     }
                     player.sendMessage(plugin.pluginName + "The wool was set to a gravity " + dir + " block!");
                 }
             }
-            plugin.trackGravity.remove(playerNameStr);
+            plugin.state.trackGravity.remove(playerNameStr);
         }
     }
 }
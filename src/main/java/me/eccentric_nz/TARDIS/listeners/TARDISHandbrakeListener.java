@@ -22,9 +22,9 @@ import me.eccentric_nz.TARDIS.TARDISConstants.COMPASS;
 import me.eccentric_nz.TARDIS.achievement.TARDISAchievementFactory;
 import me.eccentric_nz.TARDIS.artron.TARDISArtronLevels;
 import me.eccentric_nz.TARDIS.database.QueryFactory;
-import me.eccentric_nz.TARDIS.database.ResultSetControls;
 import me.eccentric_nz.TARDIS.database.ResultSetPlayerPrefs;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
+import me.eccentric_nz.TARDIS.database.TARDISControl;
 import me.eccentric_nz.TARDIS.travel.TARDISMalfunction;
 import org.bukkit.Effect;
 import org.bukkit.Location;
@@ -74,17 +74,13 @@ public class TARDISHandbrakeListener implements Listener {
             Material blockType = block.getType();
             if (blockType == Material.LEVER) {
                 //Checks handbrake location against the database.
-                final Location handbrake_loc = block.getLocation();
-                String hb_loc = block.getLocation().toString();
-                HashMap<String, Object> where = new HashMap<String, Object>();
-                where.put("type", 0);
-                where.put("location", hb_loc);
-                ResultSetControls rsc = new ResultSetControls(plugin, where, false);
-                if (rsc.resultSet()) {
+                TARDISControl rsc = plugin.controlRegistry.getControl(block, 0);
+                if (rsc != null) {
+                    final Location handbrake_loc = block.getLocation();
                     final int id = rsc.getTardis_id();
                     HashMap<String, Object> wherei = new HashMap<String, Object>();
                     wherei.put("tardis_id", id);
-                    ResultSetTardis rs = new ResultSetTardis(plugin, wherei, "", false);
+                    ResultSetTardis rs = new ResultSetTardis(plugin, wherei);
                     HashMap<String, Object> set = new HashMap<String, Object>();
                     if (rs.resultSet()) {
                         event.setCancelled(true);
@@ -103,7 +99,7 @@ public class TARDISHandbrakeListener implements Listener {
                         String creeper = rs.getCreeper();
                         Location exit = null;
                         boolean error = false;
-                        if (!plugin.tardisDematerialising.contains(Integer.valueOf(id)) && !plugin.tardisMaterialising.contains(id)) {
+                        if (!plugin.state.tardisDematerialising.contains(id) && !plugin.state.tardisMaterialising.contains(id)) {
                             Action action = event.getAction();
                             BlockState state = block.getState();
                             Lever lever = (Lever) state.getData();
@@ -120,7 +116,7 @@ public class TARDISHandbrakeListener implements Listener {
                             }
                             if (action == Action.RIGHT_CLICK_BLOCK) {
                                 if (rs.isHandbrake_on()) {
-                                    if (plugin.tardisHasDestination.containsKey(Integer.valueOf(id))) {
+                                    if (plugin.state.tardisHasDestination.containsKey(Integer.valueOf(id))) {
                                         if (!beac_on && !beacon.isEmpty()) {
                                             toggleBeacon(beacon, true);
                                         }
@@ -133,14 +129,14 @@ public class TARDISHandbrakeListener implements Listener {
                                                 exit = m.getMalfunction();
                                                 if (exit != null) {
                                                     save = exit.getWorld().getName() + ":" + exit.getBlockX() + ":" + exit.getBlockY() + ":" + exit.getBlockZ();
-                                                    if (plugin.tardisHasDestination.containsKey(Integer.valueOf(id))) {
+                                                    if (plugin.state.tardisHasDestination.containsKey(Integer.valueOf(id))) {
                                                         QueryFactory qf = new QueryFactory(plugin);
-                                                        int amount = plugin.tardisHasDestination.get(id) * -1;
+                                                        int amount = plugin.state.tardisHasDestination.get(id) * -1;
                                                         HashMap<String, Object> wheret = new HashMap<String, Object>();
                                                         wheret.put("tardis_id", id);
                                                         qf.alterEnergyLevel("tardis", amount, wheret, player);
                                                         player.sendMessage(plugin.pluginName + "Are you sure you know how to fly this thing!");
-                                                        plugin.tardisHasDestination.remove(Integer.valueOf(id));
+                                                        plugin.state.tardisHasDestination.remove(Integer.valueOf(id));
                                                     }
                                                     // play tardis crash sound
                                                     if (plugin.pm.getPlugin("Spout") != null && SpoutManager.getPlayer(player).isSpoutCraftEnabled()) {
@@ -172,15 +168,11 @@ public class TARDISHandbrakeListener implements Listener {
                                             playSound(handbrake_loc, player, "tardis_takeoff");
                                         }
                                         if (exit != null) {
-                                            // Removes Blue Box and loads chunk if it unloaded somehow.
-                                            if (!exit.getWorld().isChunkLoaded(exit.getChunk())) {
-                                                exit.getWorld().loadChunk(exit.getChunk());
-                                            }
-                                            exit.getWorld().refreshChunk(exit.getChunk().getX(), exit.getChunk().getZ());
+                                            // Removes Blue Box
                                             Location l = plugin.utils.getLocationFromDB(cl, 0, 0);
                                             boolean mat = plugin.getConfig().getBoolean("materialise");
-                                            if (!rs.isHidden() && !plugin.trackReset.contains(cl_data[0])) {
-                                                plugin.tardisDematerialising.add(id);
+                                            if (!rs.isHidden() && !plugin.state.trackReset.contains(cl_data[0])) {
+                                                plugin.state.tardisDematerialising.add(id);
                                                 plugin.destroyPB.destroyPoliceBox(l, d, id, false, mat, cham, player);
                                             } else {
                                                 // set hidden false!
@@ -189,15 +181,17 @@ public class TARDISHandbrakeListener implements Listener {
                                             long delay = (mat) ? ((plugin.pm.getPlugin("Spout") != null) ? 450L : 200L) : 1L;
                                             final Location e = exit;
                                             final boolean mal = malfunction;
-                                            plugin.getServer().getScheduler().scheduleSyncDelayedTask(plugin, new Runnable() {
+                                            // load the chunks at the destination while the TARDIS is in the vortex
+                                            plugin.prefetcher.prefetch(e, delay, new Runnable() {
                                                 @Override
                                                 public void run() {
+                                                    e.getWorld().refreshChunk(e.getBlockX() >> 4, e.getBlockZ() >> 4);
                                                     plugin.buildPB.buildPoliceBox(id, e, d, cham, player, false, mal);
                                                     playSound(handbrake_loc, player, "tardis_land");
                                                 }
-                                            }, delay);
-                                            if (plugin.trackDamage.containsKey(id)) {
-                                                plugin.trackDamage.remove(id);
+                                            });
+                                            if (plugin.state.trackDamage.containsKey(id)) {
+                                                plugin.state.trackDamage.remove(id);
                                             }
                                             set.put("current", save);
                                             set.put("fast_return", cl);
@@ -208,7 +202,7 @@ public class TARDISHandbrakeListener implements Listener {
                                                 now = System.currentTimeMillis();
                                             }
                                             set.put("lastuse", now);
-                                            if (plugin.getAchivementConfig().getBoolean("travel.enabled") && !plugin.trackReset.contains(cl_data[0])) {
+                                            if (plugin.getAchivementConfig().getBoolean("travel.enabled") && !plugin.state.trackReset.contains(cl_data[0])) {
                                                 if (l.getWorld().equals(exit.getWorld())) {
                                                     dist = (int) l.distance(exit);
                                                 }
@@ -241,9 +235,9 @@ public class TARDISHandbrakeListener implements Listener {
                                     //Remove energy from TARDIS and sets database
                                     set.put("handbrake_on", 1);
                                     player.sendMessage(plugin.pluginName + "Handbrake ON! Nice parking...");
-                                    if (plugin.tardisHasDestination.containsKey(Integer.valueOf(id))) {
+                                    if (plugin.state.tardisHasDestination.containsKey(Integer.valueOf(id))) {
                                         QueryFactory qf = new QueryFactory(plugin);
-                                        int amount = plugin.tardisHasDestination.get(id) * -1;
+                                        int amount = plugin.state.tardisHasDestination.get(id) * -1;
                                         HashMap<String, Object> wheret = new HashMap<String, Object>();
                                         wheret.put("tardis_id", id);
                                         qf.alterEnergyLevel("tardis", amount, wheret, player);
@@ -254,7 +248,7 @@ public class TARDISHandbrakeListener implements Listener {
                                             }
                                         }
                                     }
-                                    plugin.tardisHasDestination.remove(Integer.valueOf(id));
+                                    plugin.state.tardisHasDestination.remove(Integer.valueOf(id));
                                 } else {
                                     player.sendMessage(plugin.pluginName + "The handbrake is already on!");
                                     error = true;
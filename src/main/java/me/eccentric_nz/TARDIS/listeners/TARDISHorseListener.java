@@ -76,7 +76,7 @@ public class TARDISHorseListener implements Listener {
                         HashMap<String, Object> whered = new HashMap<String, Object>();
                         whered.put("tardis_id", id);
                         whered.put("door_type", 1);
-                        ResultSetDoors rsd = new ResultSetDoors(plugin, whered, false);
+                        ResultSetDoors rsd = new ResultSetDoors(plugin, whered);
                         if (rsd.resultSet() && rsd.isLocked()) {
                             p.sendMessage(plugin.pluginName + "You need to unlock the door!");
                             return;
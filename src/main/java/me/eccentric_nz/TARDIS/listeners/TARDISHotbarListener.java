@@ -50,7 +50,7 @@ public class TARDISHotbarListener implements Listener {
                 // get TARDIS location
                 HashMap<String, Object> where = new HashMap<String, Object>();
                 where.put("owner", player.getName());
-                ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                ResultSetTardis rs = new ResultSetTardis(plugin, where);
                 if (rs.resultSet()) {
                     Location pb = plugin.utils.getLocationFromDB(rs.getCurrent(), 0F, 0F);
                     if (pb != null) {
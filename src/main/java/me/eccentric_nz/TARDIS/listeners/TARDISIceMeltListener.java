@@ -51,8 +51,7 @@ public class TARDISIceMeltListener implements Listener {
         Block b = event.getBlock();
         Material m = b.getType();
         if (m.equals(Material.ICE)) {
-            String l = b.getLocation().toString();
-            if (plugin.protectBlockMap.containsKey(l)) {
+            if (plugin.protectBlocks.isProtected(b)) {
                 event.setCancelled(true);
             }
         }
@@ -63,7 +63,7 @@ public class TARDISJettisonSeeder implements Listener {
         final Player player = event.getPlayer();
         String playerNameStr = player.getName();
         // check that player is in TARDIS
-        if (!plugin.trackJettison.containsKey(playerNameStr)) {
+        if (!plugin.state.trackJettison.containsKey(playerNameStr)) {
             return;
         }
         Block block = event.getClickedBlock();
@@ -81,14 +81,14 @@ public class TARDISJettisonSeeder implements Listener {
             }
             // only proceed if they are clicking a seed block with the TARDIS key!
             if (blockType.equals(Material.getMaterial(plugin.getArtronConfig().getString("jettison_seed"))) && inhand.equals(Material.getMaterial(key))) {
-                String r = plugin.trackJettison.get(playerNameStr);
+                String r = plugin.state.trackJettison.get(playerNameStr);
                 // get clicked block location
                 Location b = block.getLocation();
                 // get player's direction
                 COMPASS d = COMPASS.valueOf(plugin.utils.getPlayersDirection(player, false));
                 TARDISRoomRemover remover = new TARDISRoomRemover(plugin, r, b, d);
                 if (remover.remove()) {
-                    plugin.trackJettison.remove(playerNameStr);
+                    plugin.state.trackJettison.remove(playerNameStr);
                     block.setTypeIdAndData(0, (byte) 0, true);
                     b.getWorld().playEffect(b, Effect.POTION_BREAK, 9);
                     // ok they clicked it, so give them their energy!
@@ -102,7 +102,7 @@ public class TARDISJettisonSeeder implements Listener {
                         // get tardis_id
                         HashMap<String, Object> wheret = new HashMap<String, Object>();
                         wheret.put("owner", playerNameStr);
-                        ResultSetTardis rst = new ResultSetTardis(plugin, wheret, "", false);
+                        ResultSetTardis rst = new ResultSetTardis(plugin, wheret);
                         if (rst.resultSet()) {
                             int id = rst.getTardis_id();
                             int secondary = (r.equals("BAKER")) ? 1 : 2;
@@ -20,9 +20,8 @@ import java.util.HashMap;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.achievement.TARDISBook;
 import me.eccentric_nz.TARDIS.database.QueryFactory;
-import me.eccentric_nz.TARDIS.database.ResultSetAchievements;
 import me.eccentric_nz.TARDIS.database.ResultSetPlayerPrefs;
-import me.eccentric_nz.TARDIS.database.ResultSetTravellers;
+import me.eccentric_nz.TARDIS.database.TARDISPlayerSession;
 import me.eccentric_nz.TARDIS.utility.TARDISTexturePackChanger;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -48,8 +47,8 @@ public class TARDISJoinListener implements Listener {
     /**
      * Listens for a player joining the server. If the player has TARDIS
      * permissions (ie not a guest), then check whether they have achieved the
-     * building of a TARDIS. If not then insert an achievement record and give
-     * them the tardis book.
+     * building of a TARDIS, using the data read while they logged in. If not
+     * then insert an achievement record and give them the tardis book.
      *
      * @param event a player joining the server
      */
@@ -57,20 +56,19 @@ public class TARDISJoinListener implements Listener {
     public void onJoin(PlayerJoinEvent event) {
         final Player player = event.getPlayer();
         String playerNameStr = player.getName();
+        // the player's TARDIS data was read while they were logging in
+        TARDISPlayerSession session = plugin.sessions.join(playerNameStr);
         if ((plugin.bukkitversion.compareTo(plugin.preIMversion) > 0 || (plugin.bukkitversion.compareTo(plugin.preIMversion) == 0 && plugin.SUBversion.compareTo(plugin.preSUBversion) > 0)) && plugin.getConfig().getBoolean("allow_achievements")) {
             if (player.hasPermission("tardis.book")) {
                 // check if they have started building a TARDIS yet
-                HashMap<String, Object> where = new HashMap<String, Object>();
-                where.put("player", playerNameStr);
-                where.put("name", "tardis");
-                ResultSetAchievements rsa = new ResultSetAchievements(plugin, where, false);
-                if (!rsa.resultSet()) {
+                if (!session.hasTardisAchievement()) {
                     //add a record
                     HashMap<String, Object> set = new HashMap<String, Object>();
                     set.put("player", player.getName());
                     set.put("name", "tardis");
                     QueryFactory qf = new QueryFactory(plugin);
                     qf.doInsert("achievements", set);
+                    plugin.achievements.started(playerNameStr, "tardis", "");
                     TARDISBook book = new TARDISBook(plugin);
                     // title, author, filename, player
                     book.writeBook("Get transport", "Rassilon", "tardis", player);
@@ -79,10 +77,7 @@ public class TARDISJoinListener implements Listener {
         }
         if (plugin.getConfig().getBoolean("allow_tp_switch") && player.hasPermission("tardis.texture")) {
             // are they in the TARDIS?
-            HashMap<String, Object> where = new HashMap<String, Object>();
-            where.put("player", playerNameStr);
-            ResultSetTravellers rst = new ResultSetTravellers(plugin, where, false);
-            if (rst.resultSet()) {
+            if (plugin.travellers.isTravelling(playerNameStr)) {
                 // is texture switching on?
                 HashMap<String, Object> wherep = new HashMap<String, Object>();
                 wherep.put("player", playerNameStr);
@@ -99,5 +94,7 @@ public class TARDISJoinListener implements Listener {
                 }
             }
         }
+        // carry on with an architectural reconfiguration that was waiting for them
+        plugin.arsBuilder.start();
     }
 }
@@ -20,7 +20,6 @@ import java.util.HashMap;
 import java.util.Locale;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.database.ResultSetAreas;
-import me.eccentric_nz.TARDIS.database.ResultSetControls;
 import me.eccentric_nz.TARDIS.database.ResultSetDestinations;
 import org.bukkit.GameMode;
 import org.bukkit.Material;
@@ -58,25 +57,20 @@ public class TARDISKeyboardListener implements Listener {
         }
         Block against = event.getBlockAgainst();
         // is it a TARDIS keyboard sign
-        String loc_str = against.getLocation().toString();
-        HashMap<String, Object> where = new HashMap<String, Object>();
-        where.put("type", 7);
-        where.put("location", loc_str);
-        ResultSetControls rsc = new ResultSetControls(plugin, where, false);
-        if (rsc.resultSet()) {
+        if (plugin.controlRegistry.getControl(against, 7) != null) {
             Sign keyboard = (Sign) against.getState();
             // track this sign
-            plugin.trackSign.put(block.getLocation().toString(), keyboard);
+            plugin.state.trackSign.put(block.getLocation().toString(), keyboard);
         }
     }
 
     @EventHandler(priority = EventPriority.NORMAL)
     public void onSignChange(SignChangeEvent event) {
         String loc = event.getBlock().getLocation().toString();
-        if (!plugin.trackSign.containsKey(loc)) {
+        if (!plugin.state.trackSign.containsKey(loc)) {
             return;
         }
-        Sign keyboard = plugin.trackSign.get(loc);
+        Sign keyboard = plugin.state.trackSign.get(loc);
         int i = 0;
         for (String l : event.getLines()) {
             keyboard.setLine(i, l);
@@ -84,7 +78,7 @@ public class TARDISKeyboardListener implements Listener {
         }
         keyboard.update();
         Player p = event.getPlayer();
-        plugin.trackSign.remove(loc);
+        plugin.state.trackSign.remove(loc);
         // cancel the edit and give the sign back to the player
         event.setCancelled(true);
         event.getBlock().setType(Material.AIR);
@@ -133,7 +127,7 @@ public class TARDISKeyboardListener implements Listener {
         // dest?
         HashMap<String, Object> whered = new HashMap<String, Object>();
         whered.put("dest_name", event.getLine(0));
-        ResultSetDestinations rsd = new ResultSetDestinations(plugin, whered, false);
+        ResultSetDestinations rsd = new ResultSetDestinations(plugin, whered);
         if (rsd.resultSet()) {
             p.performCommand("tardistravel dest " + event.getLine(0));
             plugin.console.sendMessage(p.getName() + " issued server command: /tardistravel dest " + event.getLine(0));
@@ -142,7 +136,7 @@ public class TARDISKeyboardListener implements Listener {
         // area?
         HashMap<String, Object> wherea = new HashMap<String, Object>();
         wherea.put("area_name", event.getLine(0));
-        ResultSetAreas rsa = new ResultSetAreas(plugin, wherea, false);
+        ResultSetAreas rsa = new ResultSetAreas(plugin, wherea);
         if (rsa.resultSet()) {
             p.performCommand("tardistravel area " + event.getLine(0));
             plugin.console.sendMessage(p.getName() + " issued server command: /tardistravel area " + event.getLine(0));
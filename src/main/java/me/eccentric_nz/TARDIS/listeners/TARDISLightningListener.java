@@ -16,11 +16,14 @@
  */
 package me.eccentric_nz.TARDIS.listeners;
 
-import java.util.ArrayList;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.List;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.database.QueryFactory;
-import me.eccentric_nz.TARDIS.database.ResultSetTardis;
+import me.eccentric_nz.TARDIS.database.TARDISQuery;
+import me.eccentric_nz.TARDIS.database.TARDISRowMapper;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.LightningStrike;
@@ -59,36 +62,52 @@ public class TARDISLightningListener implements Listener {
         if (!strike.isEffect()) {
             Location l = strike.getLocation();
             World strikeworld = l.getWorld();
-            ResultSetTardis rs = new ResultSetTardis(plugin, null, "", true);
-            if (rs.resultSet()) {
-                ArrayList<HashMap<String, String>> data = rs.getData();
-                for (HashMap<String, String> map : data) {
-                    boolean charging = true;
-                    if (map.get("recharging").equals("0")) {
-                        charging = false;
-                    }
-                    String[] loc = map.get("save").split(":");
-                    World w = plugin.getServer().getWorld(loc[0]);
-                    // only if the tardis is in the same world as the lightning strike and is not at a beacon recharger!
-                    if (strikeworld.equals(w) && !charging) {
-                        int id = plugin.utils.parseNum(map.get("tardis_id"));
-                        int x = plugin.utils.parseNum(loc[1]);
-                        int y = plugin.utils.parseNum(loc[2]);
-                        int z = plugin.utils.parseNum(loc[3]);
-                        Location t = new Location(w, x, y, z);
-                        // only recharge if the TARDIS is within range
-                        if (plugin.utils.compareLocations(t, l)) {
-                            QueryFactory qf = new QueryFactory(plugin);
-                            int amount = plugin.getArtronConfig().getInt("lightning_recharge") + plugin.utils.parseNum(map.get("artron_level"));
-                            HashMap<String, Object> set = new HashMap<String, Object>();
-                            set.put("artron_level", amount);
-                            HashMap<String, Object> where = new HashMap<String, Object>();
-                            where.put("tardis_id", id);
-                            qf.doUpdate("tardis", set, where);
-                        }
+            // only TARDISes that are not at a beacon recharger
+            HashMap<String, Object> wherer = new HashMap<String, Object>();
+            wherer.put("recharging", 0);
+            List<Parked> parked = TARDISQuery.list("tardis", "tardis_id, save, artron_level", wherer, PARKED);
+            for (Parked p : parked) {
+                String[] loc = p.save.split(":");
+                World w = plugin.getServer().getWorld(loc[0]);
+                // only if the tardis is in the same world as the lightning strike
+                if (strikeworld.equals(w)) {
+                    int x = plugin.utils.parseNum(loc[1]);
+                    int y = plugin.utils.parseNum(loc[2]);
+                    int z = plugin.utils.parseNum(loc[3]);
+                    Location t = new Location(w, x, y, z);
+                    // only recharge if the TARDIS is within range
+                    if (plugin.utils.compareLocations(t, l)) {
+                        QueryFactory qf = new QueryFactory(plugin);
+                        int amount = plugin.getArtronConfig().getInt("lightning_recharge") + p.artron_level;
+                        HashMap<String, Object> set = new HashMap<String, Object>();
+                        set.put("artron_level", amount);
+                        HashMap<String, Object> where = new HashMap<String, Object>();
+                        where.put("tardis_id", p.id);
+                        qf.doUpdate("tardis", set, where);
                     }
                 }
             }
         }
     }
+
+    private static final TARDISRowMapper<Parked> PARKED = new TARDISRowMapper<Parked>() {
+        @Override
+        public Parked map(ResultSet rs) throws SQLException {
+            Parked p = new Parked();
+            p.id = rs.getInt("tardis_id");
+            p.save = rs.getString("save");
+            p.artron_level = rs.getInt("artron_level");
+            return p;
+        }
+    };
+
+    /**
+     * A TARDIS that could be recharged by lightning.
+     */
+    private static class Parked {
+
+        int id;
+        String save;
+        int artron_level;
+    }
 }
@@ -23,7 +23,6 @@ import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
 import me.eccentric_nz.TARDIS.database.ResultSetDoors;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
-import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -85,7 +84,7 @@ public class TARDISMinecartListener implements Listener {
                         HashMap<String, Object> where = new HashMap<String, Object>();
                         where.put("door_location", db_loc);
                         where.put("door_type", 0);
-                        ResultSetDoors rsd = new ResultSetDoors(plugin, where, false);
+                        ResultSetDoors rsd = new ResultSetDoors(plugin, where);
                         if (rsd.resultSet()) {
                             if (rsd.isLocked()) {
                                 return;
@@ -94,37 +93,40 @@ public class TARDISMinecartListener implements Listener {
                             id = rsd.getTardis_id();
                             HashMap<String, Object> whereid = new HashMap<String, Object>();
                             whereid.put("tardis_id", id);
-                            ResultSetTardis rs = new ResultSetTardis(plugin, whereid, "", false);
-                            if (rs.resultSet() && !plugin.trackMinecart.contains(Integer.valueOf(id))) {
+                            ResultSetTardis rs = new ResultSetTardis(plugin, whereid);
+                            if (rs.resultSet() && !plugin.state.trackMinecart.contains(id)) {
                                 data = rs.getRail().split(":");
                                 p = rs.getOwner();
-                                plugin.trackMinecart.add(Integer.valueOf(id));
+                                plugin.state.trackMinecart.add(id);
                             }
                         }
                         break;
                     case FENCE: // is it a RAIL room fence?
+                        if (plugin.controlRegistry.getTardisId(b, "rail") < 0) {
+                            break;
+                        }
                         // get police box location
                         HashMap<String, Object> wherep = new HashMap<String, Object>();
                         wherep.put("rail", db_loc);
-                        ResultSetTardis rsp = new ResultSetTardis(plugin, wherep, "", false);
+                        ResultSetTardis rsp = new ResultSetTardis(plugin, wherep);
                         if (rsp.resultSet()) {
                             p = rsp.getOwner();
                             id = rsp.getTardis_id();
                             HashMap<String, Object> whereinner = new HashMap<String, Object>();
                             whereinner.put("tardis_id", id);
                             whereinner.put("door_type", 1);
-                            ResultSetDoors rsdinner = new ResultSetDoors(plugin, whereinner, false);
+                            ResultSetDoors rsdinner = new ResultSetDoors(plugin, whereinner);
                             if (rsdinner.resultSet() && rsdinner.isLocked()) {
                                 return;
                             }
                             HashMap<String, Object> whered = new HashMap<String, Object>();
                             whered.put("tardis_id", id);
                             whered.put("door_type", 0);
-                            ResultSetDoors rspb = new ResultSetDoors(plugin, whered, false);
+                            ResultSetDoors rspb = new ResultSetDoors(plugin, whered);
                             if (rspb.resultSet()) {
                                 data = rspb.getDoor_location().split(":");
                                 d = switchDirection(rspb.getDoor_direction());
-                                plugin.trackMinecart.remove(Integer.valueOf(id));
+                                plugin.state.trackMinecart.remove(id);
                             }
                         }
                         break;
@@ -137,7 +139,7 @@ public class TARDISMinecartListener implements Listener {
                             if (!p.isEmpty() && plugin.getServer().getPlayer(p).isOnline()) {
                                 plugin.getServer().getPlayer(p).sendMessage(plugin.pluginName + "You cannot use minecarts from " + bw + " to " + data[0] + ".");
                             }
-                            plugin.trackMinecart.remove(Integer.valueOf(id));
+                            plugin.state.trackMinecart.remove(id);
                             return;
                         }
                     }
@@ -147,7 +149,8 @@ public class TARDISMinecartListener implements Listener {
                     int z = plugin.utils.parseNum(data[3]);
                     Location in_out = new Location(w, x, y, z);
                     if (mat.equals(Material.IRON_DOOR_BLOCK)) {
-                        d = getDirection(in_out);
+                        // find the direction from the tracks once the chunk is loaded
+                        d = null;
                     }
                     teleportMinecart(minecart, in_out, d, inv);
                 }
@@ -155,39 +158,42 @@ public class TARDISMinecartListener implements Listener {
         }
     }
 
-    private void teleportMinecart(Vehicle minecart, Location targetLocation, TARDISConstants.COMPASS d, ItemStack[] inv) {
-        // search for minecart tracks around the target waypoint
-        Location trackLocation = findTrack(targetLocation);
-        if (trackLocation == null) {
-            return;
-        }
+    private void teleportMinecart(final Vehicle minecart, final Location targetLocation, final TARDISConstants.COMPASS d, final ItemStack[] inv) {
         // get minecart's speed
-        double speed = minecart.getVelocity().length();
-        // simulate teleport minecart...
-        Chunk thisChunk = trackLocation.getChunk();
-        while (!thisChunk.isLoaded()) {
-            thisChunk.load();
-        }
-        minecart.remove();
-        //trackLocation.setY(trackLocation.getY() - 1);
-        Entity e = trackLocation.getWorld().spawnEntity(trackLocation, EntityType.MINECART_CHEST);
-        StorageMinecart smc = (StorageMinecart) e;
-        smc.getInventory().setContents(inv);
-        // calculate new velocity
-        switch (d) {
-            case NORTH:
-                e.setVelocity(new Vector(0, 0, -speed));
-                break;
-            case SOUTH:
-                e.setVelocity(new Vector(0, 0, speed));
-                break;
-            case WEST:
-                e.setVelocity(new Vector(-speed, 0, 0));
-                break;
-            default:
-                e.setVelocity(new Vector(speed, 0, 0));
-                break;
-        }
+        final double speed = minecart.getVelocity().length();
+        // load the chunks around the target waypoint before looking for the tracks
+        plugin.prefetcher.prefetch(targetLocation, 1L, new Runnable() {
+            @Override
+            public void run() {
+                // search for minecart tracks around the target waypoint
+                Location trackLocation = findTrack(targetLocation);
+                TARDISConstants.COMPASS dir = (d != null) ? d : getDirection(targetLocation);
+                if (trackLocation == null || dir == null || !minecart.isValid()) {
+                    return;
+                }
+                // simulate teleport minecart...
+                minecart.remove();
+                //trackLocation.setY(trackLocation.getY() - 1);
+                Entity e = trackLocation.getWorld().spawnEntity(trackLocation, EntityType.MINECART_CHEST);
+                StorageMinecart smc = (StorageMinecart) e;
+                smc.getInventory().setContents(inv);
+                // calculate new velocity
+                switch (dir) {
+                    case NORTH:
+                        e.setVelocity(new Vector(0, 0, -speed));
+                        break;
+                    case SOUTH:
+                        e.setVelocity(new Vector(0, 0, speed));
+                        break;
+                    case WEST:
+                        e.setVelocity(new Vector(-speed, 0, 0));
+                        break;
+                    default:
+                        e.setVelocity(new Vector(speed, 0, 0));
+                        break;
+                }
+            }
+        });
     }
 
     public Location findTrack(Location center) {
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.listeners;
+
+import me.eccentric_nz.TARDIS.TARDIS;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+
+/**
+ * Nyssa of Traken was the daughter of Tremas, and was at the Source of Traken
+ * long before she ever stepped into the TARDIS.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISPreLoginListener implements Listener {
+
+    private final TARDIS plugin;
+
+    public TARDISPreLoginListener(TARDIS plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Listens for a player logging in, and reads their TARDIS data while the
+     * server is still checking the login, off the main thread. The data is
+     * picked up by the join listener.
+     *
+     * @param event a player logging in
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            plugin.sessions.load(event.getName());
+        }
+    }
+}
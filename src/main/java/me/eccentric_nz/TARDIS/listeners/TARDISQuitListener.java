@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.listeners;
+
+import java.util.ArrayList;
+import java.util.List;
+import me.eccentric_nz.TARDIS.TARDIS;
+import me.eccentric_nz.TARDIS.database.TARDISDatabase;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Adric left the TARDIS to stay on the freighter, and never came back.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISQuitListener implements Listener {
+
+    private final TARDIS plugin;
+
+    public TARDISQuitListener(TARDIS plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Listens for a player leaving the server, and evicts the cached tardis
+     * and player_prefs rows of the players who are no longer online. The
+     * player's achievement progress is written and forgotten, as is the data
+     * read when they logged in.
+     *
+     * @param event a player leaving the server
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        String quitter = event.getPlayer().getName();
+        List<String> online = new ArrayList<String>();
+        plugin.sessions.release(quitter);
+        for (Player p : plugin.getServer().getOnlinePlayers()) {
+            if (!p.getName().equals(quitter)) {
+                online.add(p.getName());
+            }
+        }
+        // keep the rows just read for players who are still logging in
+        online.addAll(plugin.sessions.getPlayers());
+        TARDISDatabase service = TARDISDatabase.getInstance();
+        service.getRowCache("tardis").evictOffline(online);
+        service.getRowCache("player_prefs").evictOffline(online);
+        plugin.achievements.unload(quitter);
+    }
+}
@@ -52,7 +52,7 @@ public class TARDISRecipeListener implements Listener {
         InventoryType type = top.getType();
         if (type == InventoryType.WORKBENCH) {
             final Player player = (Player) event.getWhoClicked();
-            if (plugin.trackRecipeView.contains(player.getName())) {
+            if (plugin.state.trackRecipeView.contains(player.getName())) {
                 event.setCancelled(true);
             }
         }
@@ -65,8 +65,8 @@ public class TARDISRecipeListener implements Listener {
         if (type == InventoryType.WORKBENCH) {
             Player p = (Player) event.getPlayer();
             String name = p.getName();
-            if (plugin.trackRecipeView.contains(name)) {
-                plugin.trackRecipeView.remove(name);
+            if (plugin.state.trackRecipeView.contains(name)) {
+                plugin.state.trackRecipeView.remove(name);
                 event.getView().getTopInventory().clear();
                 p.updateInventory();
             }
@@ -68,7 +68,7 @@ public class TARDISRoomSeeder implements Listener {
         final Player player = event.getPlayer();
         String playerNameStr = player.getName();
         // check that player is in TARDIS
-        if (!plugin.trackRoomSeed.containsKey(playerNameStr)) {
+        if (!plugin.state.trackRoomSeed.containsKey(playerNameStr)) {
             return;
         }
         Block block = event.getClickedBlock();
@@ -98,8 +98,8 @@ public class TARDISRoomSeeder implements Listener {
                 // get schematic
                 String r = plugin.seeds.get(blockType);
                 // check that the blockType is the same as the one they ran the /tardis room [type] command for
-                if (!plugin.trackRoomSeed.get(playerNameStr).equals(r)) {
-                    player.sendMessage(plugin.pluginName + "That is not the correct seed block to grow a " + plugin.trackRoomSeed.get(playerNameStr) + "!");
+                if (!plugin.state.trackRoomSeed.get(playerNameStr).equals(r)) {
+                    player.sendMessage(plugin.pluginName + "That is not the correct seed block to grow a " + plugin.state.trackRoomSeed.get(playerNameStr) + "!");
                     return;
                 }
                 // get clicked block location
@@ -108,7 +108,7 @@ public class TARDISRoomSeeder implements Listener {
                 COMPASS d = COMPASS.valueOf(plugin.utils.getPlayersDirection(player, false));
                 TARDISRoomBuilder builder = new TARDISRoomBuilder(plugin, r, b, d, player);
                 if (builder.build()) {
-                    plugin.trackRoomSeed.remove(playerNameStr);
+                    plugin.state.trackRoomSeed.remove(playerNameStr);
                     // ok they clicked it, so take their energy!
                     int amount = plugin.getRoomsConfig().getInt("rooms." + r + ".cost");
                     QueryFactory qf = new QueryFactory(plugin);
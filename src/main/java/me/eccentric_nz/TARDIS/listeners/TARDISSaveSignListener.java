@@ -16,13 +16,13 @@
  */
 package me.eccentric_nz.TARDIS.listeners;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.database.QueryFactory;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
 import me.eccentric_nz.TARDIS.database.ResultSetTravellers;
+import me.eccentric_nz.TARDIS.database.TARDISQuery;
 import me.eccentric_nz.TARDIS.travel.TARDISAreasInventory;
 import me.eccentric_nz.TARDIS.travel.TARDISPluginRespect;
 import org.bukkit.ChatColor;
@@ -72,14 +72,14 @@ public class TARDISSaveSignListener implements Listener {
                 if (rst.resultSet()) {
                     HashMap<String, Object> where = new HashMap<String, Object>();
                     where.put("tardis_id", rst.getTardis_id());
-                    ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                    ResultSetTardis rs = new ResultSetTardis(plugin, where);
                     if (rs.resultSet()) {
                         int id = rs.getTardis_id();
                         String d = rs.getDirection().toString();
                         ItemStack is = inv.getItem(slot);
                         if (is != null) {
-                            if (plugin.trackSubmarine.contains(Integer.valueOf(id))) {
-                                plugin.trackSubmarine.remove(Integer.valueOf(id));
+                            if (plugin.state.trackSubmarine.contains(id)) {
+                                plugin.state.trackSubmarine.remove(id);
                             }
                             ItemMeta im = is.getItemMeta();
                             List<String> lore = im.getLore();
@@ -96,14 +96,10 @@ public class TARDISSaveSignListener implements Listener {
                                     // save is in a TARDIS area, so check that the spot is not occupied
                                     HashMap<String, Object> wherea = new HashMap<String, Object>();
                                     wherea.put("save", save);
-                                    ResultSetTardis rsz = new ResultSetTardis(plugin, wherea, "", true);
-                                    if (rsz.resultSet()) {
-                                        ArrayList<HashMap<String, String>> data = rsz.getData();
-                                        if (data.size() > 0) {
-                                            player.sendMessage(plugin.pluginName + "A TARDIS already occupies this parking spot! Try using the " + ChatColor.AQUA + "/tardistravel area [name]" + ChatColor.RESET + " command instead.");
-                                            close(player);
-                                            return;
-                                        }
+                                    if (TARDISQuery.exists("tardis", wherea)) {
+                                        player.sendMessage(plugin.pluginName + "A TARDIS already occupies this parking spot! Try using the " + ChatColor.AQUA + "/tardistravel area [name]" + ChatColor.RESET + " command instead.");
+                                        close(player);
+                                        return;
                                     }
                                 }
                                 if (!save.equals(rs.getCurrent())) {
@@ -114,16 +110,16 @@ public class TARDISSaveSignListener implements Listener {
                                             set.put("direction", lore.get(4));
                                         }
                                         if (l_size > 5 && !lore.get(5).isEmpty() && lore.get(5).equals("true") && !lore.get(5).equals("§6Current location")) {
-                                            plugin.trackSubmarine.add(id);
+                                            plugin.state.trackSubmarine.add(id);
                                         }
                                     }
                                     set.put("save", save);
                                     HashMap<String, Object> wheret = new HashMap<String, Object>();
                                     wheret.put("tardis_id", id);
                                     new QueryFactory(plugin).doUpdate("tardis", set, wheret);
-                                    plugin.tardisHasDestination.put(id, plugin.getArtronConfig().getInt("random"));
-                                    if (plugin.trackRescue.containsKey(Integer.valueOf(id))) {
-                                        plugin.trackRescue.remove(Integer.valueOf(id));
+                                    plugin.state.tardisHasDestination.put(id, plugin.getArtronConfig().getInt("random"));
+                                    if (plugin.state.trackRescue.containsKey(Integer.valueOf(id))) {
+                                        plugin.state.trackRescue.remove(Integer.valueOf(id));
                                     }
                                     close(player);
                                     player.sendMessage(plugin.pluginName + im.getDisplayName() + " destination set. Please release the handbrake!");
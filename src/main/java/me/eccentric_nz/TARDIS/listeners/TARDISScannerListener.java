@@ -123,20 +123,18 @@ public class TARDISScannerListener implements Listener {
         if (block != null) {
             Material blockType = block.getType();
             if (validBlocks.contains(blockType)) {
+                // get tardis from saved scanner location
+                int id = plugin.controlRegistry.getTardisId(block, "scanner");
+                if (id < 0) {
+                    return;
+                }
                 // get clicked block location
                 Location b = block.getLocation();
                 World w = b.getWorld();
-                String bw = b.getWorld().getName();
-                int bx = b.getBlockX();
-                int by = b.getBlockY();
-                int bz = b.getBlockZ();
-                String scanner_loc = bw + ":" + bx + ":" + by + ":" + bz;
-                // get tardis from saved scanner location
                 HashMap<String, Object> where = new HashMap<String, Object>();
-                where.put("scanner", scanner_loc);
-                ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                where.put("tardis_id", id);
+                ResultSetTardis rs = new ResultSetTardis(plugin, where);
                 if (rs.resultSet()) {
-                    int id = rs.getTardis_id();
                     if (plugin.pm.getPlugin("Spout") != null && SpoutManager.getPlayer(player).isSpoutCraftEnabled()) {
                         SpoutManager.getSoundManager().playGlobalCustomSoundEffect(plugin, "https://dl.dropboxusercontent.com/u/53758864/soundeffects/scanner.mp3", false, b, 20, 75);
                     } else {
@@ -149,7 +147,7 @@ public class TARDISScannerListener implements Listener {
                     }
                     String policebox;
                     String whereisit;
-                    if (plugin.tardisHasDestination.containsKey(Integer.valueOf(id))) {
+                    if (plugin.state.tardisHasDestination.containsKey(Integer.valueOf(id))) {
                         policebox = rs.getSave();
                         whereisit = "next destination";
                     } else {
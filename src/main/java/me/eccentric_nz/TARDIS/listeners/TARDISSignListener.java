@@ -75,6 +75,9 @@ public class TARDISSignListener implements Listener {
             Action action = event.getAction();
             // only proceed if they are right-clicking a valid sign block!
             if (action == Action.RIGHT_CLICK_BLOCK && validSigns.contains(blockType)) {
+                if (plugin.controlRegistry.getTardisId(block, "chameleon") < 0 && plugin.controlRegistry.getTardisId(block, "save_sign") < 0) {
+                    return;
+                }
                 // get clicked block location
                 Location b = block.getLocation();
                 String bw = b.getWorld().getName();
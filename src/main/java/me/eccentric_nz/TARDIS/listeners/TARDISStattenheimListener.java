@@ -23,7 +23,6 @@ import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
 import me.eccentric_nz.TARDIS.database.QueryFactory;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
-import me.eccentric_nz.TARDIS.database.ResultSetTravellers;
 import me.eccentric_nz.TARDIS.travel.TARDISPluginRespect;
 import me.eccentric_nz.TARDIS.travel.TARDISTimeTravel;
 import org.bukkit.Bukkit;
@@ -122,22 +121,18 @@ public class TARDISStattenheimListener implements Listener {
                     // check they are a timelord
                     HashMap<String, Object> where = new HashMap<String, Object>();
                     where.put("owner", player.getName());
-                    final ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                    final ResultSetTardis rs = new ResultSetTardis(plugin, where);
                     if (!rs.resultSet()) {
                         player.sendMessage(plugin.pluginName + "You must be the Timelord of the TARDIS to use this command!");
                         return;
                     }
                     final int id = rs.getTardis_id();
                     // check they are not in the tardis
-                    HashMap<String, Object> wherettrav = new HashMap<String, Object>();
-                    wherettrav.put("player", player.getName());
-                    wherettrav.put("tardis_id", id);
-                    ResultSetTravellers rst = new ResultSetTravellers(plugin, wherettrav, false);
-                    if (rst.resultSet()) {
+                    if (plugin.travellers.getTardis(player.getName()) == id) {
                         player.sendMessage(plugin.pluginName + "You cannot bring the Police Box here because you are inside a TARDIS!");
                         return;
                     }
-                    if (plugin.tardisMaterialising.contains(id) || plugin.tardisDematerialising.contains(id)) {
+                    if (plugin.state.tardisMaterialising.contains(id) || plugin.state.tardisDematerialising.contains(id)) {
                         player.sendMessage(plugin.pluginName + "You cannot do that while the TARDIS is materialising!");
                         return;
                     }
@@ -145,13 +140,13 @@ public class TARDISStattenheimListener implements Listener {
                     TARDISTimeTravel tt = new TARDISTimeTravel(plugin);
                     int count;
                     String sub = "false";
-                    if (plugin.trackSubmarine.contains(Integer.valueOf(id))) {
-                        plugin.trackSubmarine.remove(Integer.valueOf(id));
+                    if (plugin.state.trackSubmarine.contains(id)) {
+                        plugin.state.trackSubmarine.remove(id);
                     }
                     if (b.getRelative(BlockFace.UP).getTypeId() == 8 || b.getRelative(BlockFace.UP).getTypeId() == 9) {
                         count = (tt.isSafeSubmarine(remoteLocation, d)) ? 0 : 1;
                         if (count == 0) {
-                            plugin.trackSubmarine.add(id);
+                            plugin.state.trackSubmarine.add(id);
                             sub = "true";
                         }
                     } else {
@@ -204,7 +199,7 @@ public class TARDISStattenheimListener implements Listener {
                             @Override
                             public void run() {
                                 if (!hidden) {
-                                    plugin.tardisDematerialising.add(id);
+                                    plugin.state.tardisDematerialising.add(id);
                                     plugin.destroyPB.destroyPoliceBox(oldSave, d, id, false, mat, cham, p);
                                 }
                             }
@@ -219,9 +214,9 @@ public class TARDISStattenheimListener implements Listener {
                         HashMap<String, Object> wheret = new HashMap<String, Object>();
                         wheret.put("tardis_id", id);
                         qf.alterEnergyLevel("tardis", -ch, wheret, player);
-                        plugin.tardisHasDestination.remove(id);
-                        if (plugin.trackRescue.containsKey(Integer.valueOf(id))) {
-                            plugin.trackRescue.remove(Integer.valueOf(id));
+                        plugin.state.tardisHasDestination.remove(id);
+                        if (plugin.state.trackRescue.containsKey(Integer.valueOf(id))) {
+                            plugin.state.trackRescue.remove(Integer.valueOf(id));
                         }
                     } else {
                         player.sendMessage(plugin.pluginName + "Could not get the previous location of the TARDIS!");
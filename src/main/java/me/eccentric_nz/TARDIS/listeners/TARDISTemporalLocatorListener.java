@@ -60,7 +60,7 @@ public class TARDISTemporalLocatorListener implements Listener {
                     ItemMeta im = is.getItemMeta();
                     List<String> lore = im.getLore();
                     long time = getTime(lore);
-                    plugin.trackSetTime.put(playerNameStr, time);
+                    plugin.state.trackSetTime.put(playerNameStr, time);
                     player.sendMessage(plugin.pluginName + "Your temporal location will be set to " + time + " ticks when exiting the TARDIS.");
                 }
                 close(player);
@@ -27,7 +27,6 @@ import me.eccentric_nz.TARDIS.TARDISConstants;
 import me.eccentric_nz.TARDIS.database.QueryFactory;
 import me.eccentric_nz.TARDIS.database.ResultSetPlayerPrefs;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
-import me.eccentric_nz.TARDIS.database.ResultSetTravellers;
 import me.eccentric_nz.TARDIS.travel.TARDISPluginRespect;
 import me.eccentric_nz.TARDIS.travel.TARDISTimeTravel;
 import org.bukkit.Location;
@@ -85,10 +84,7 @@ public class TARDISTerminalListener implements Listener {
                 final Player player = (Player) event.getWhoClicked();
                 String playerNameStr = player.getName();
                 // get the TARDIS the player is in
-                HashMap<String, Object> where = new HashMap<String, Object>();
-                where.put("player", playerNameStr);
-                ResultSetTravellers rst = new ResultSetTravellers(plugin, where, false);
-                if (rst.resultSet()) {
+                if (plugin.travellers.isTravelling(playerNameStr)) {
                     switch (slot) {
                         case 1:
                             terminalStep.put(playerNameStr, 10);
@@ -146,9 +142,9 @@ public class TARDISTerminalListener implements Listener {
                                 HashMap<String, Object> wheret = new HashMap<String, Object>();
                                 wheret.put("tardis_id", terminalIDs.get(playerNameStr));
                                 new QueryFactory(plugin).doUpdate("tardis", set, wheret);
-                                plugin.tardisHasDestination.put(terminalIDs.get(playerNameStr), plugin.getArtronConfig().getInt("random"));
-                                if (plugin.trackRescue.containsKey(terminalIDs.get(playerNameStr))) {
-                                    plugin.trackRescue.remove(terminalIDs.get(playerNameStr));
+                                plugin.state.tardisHasDestination.put(terminalIDs.get(playerNameStr), plugin.getArtronConfig().getInt("random"));
+                                if (plugin.state.trackRescue.containsKey(terminalIDs.get(playerNameStr))) {
+                                    plugin.state.trackRescue.remove(terminalIDs.get(playerNameStr));
                                 }
                                 close(player);
                                 player.sendMessage(plugin.pluginName + "Destination set. Please release the handbrake!");
@@ -178,14 +174,11 @@ public class TARDISTerminalListener implements Listener {
         InventoryHolder holder = inv.getHolder();
         if (holder instanceof Player && inv.getName().equals("§4Destination Terminal")) {
             String name = ((Player) holder).getName();
-            HashMap<String, Object> where = new HashMap<String, Object>();
-            where.put("player", name);
-            ResultSetTravellers rst = new ResultSetTravellers(plugin, where, false);
-            if (rst.resultSet()) {
-                int id = rst.getTardis_id();
+            int id = plugin.travellers.getTardis(name);
+            if (id > 0) {
                 HashMap<String, Object> wheret = new HashMap<String, Object>();
                 wheret.put("tardis_id", id);
-                ResultSetTardis rs = new ResultSetTardis(plugin, wheret, "", false);
+                ResultSetTardis rs = new ResultSetTardis(plugin, wheret);
                 if (rs.resultSet()) {
                     terminalUsers.put(name, rs.getCurrent());
                     terminalDirection.put(name, rs.getDirection());
@@ -471,14 +464,14 @@ public class TARDISTerminalListener implements Listener {
                                     safe = 0;
                                     starty = subloc.getBlockY();
                                     data5 = "true";
-                                    plugin.trackSubmarine.add(Integer.valueOf(terminalIDs.get(name)));
+                                    plugin.state.trackSubmarine.add(terminalIDs.get(name));
                                 } else {
                                     safe = 1;
                                 }
                             } else {
                                 safe = tt.safeLocation(start[0], starty, start[2], start[1], start[3], w, d);
-                                if (plugin.trackSubmarine.contains(Integer.valueOf(terminalIDs.get(name)))) {
-                                    plugin.trackSubmarine.remove(Integer.valueOf(terminalIDs.get(name)));
+                                if (plugin.state.trackSubmarine.contains(terminalIDs.get(name))) {
+                                    plugin.state.trackSubmarine.remove(terminalIDs.get(name));
                                 }
                             }
                             if (safe == 0) {
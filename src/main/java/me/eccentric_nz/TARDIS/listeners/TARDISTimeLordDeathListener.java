@@ -24,7 +24,6 @@ import me.eccentric_nz.TARDIS.database.QueryFactory;
 import me.eccentric_nz.TARDIS.database.ResultSetAreas;
 import me.eccentric_nz.TARDIS.database.ResultSetPlayerPrefs;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
-import me.eccentric_nz.TARDIS.database.ResultSetTravellers;
 import me.eccentric_nz.TARDIS.travel.TARDISEPSRunnable;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -64,7 +63,7 @@ public class TARDISTimeLordDeathListener implements Listener {
                 String playerNameStr = player.getName();
                 HashMap<String, Object> where = new HashMap<String, Object>();
                 where.put("owner", playerNameStr);
-                ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+                ResultSetTardis rs = new ResultSetTardis(plugin, where);
                 // are they a time lord?
                 if (rs.resultSet()) {
                     final int id = rs.getTardis_id();
@@ -79,16 +78,11 @@ public class TARDISTimeLordDeathListener implements Listener {
                             Location death_loc = player.getLocation();
                             if (plugin.pm.isPluginEnabled("Citizens") && plugin.getConfig().getBoolean("emergency_npc") && rsp.isEPS_on()) {
                                 // check if there are players in the TARDIS
-                                HashMap<String, Object> wherev = new HashMap<String, Object>();
-                                wherev.put("tardis_id", id);
-                                ResultSetTravellers rst = new ResultSetTravellers(plugin, wherev, true);
-                                if (rst.resultSet()) {
-                                    List data = rst.getData();
-                                    if (data.size() > 0 && !data.contains(playerNameStr)) {
-                                        // schedule the NPC to appear
-                                        TARDISEPSRunnable EPS_runnable = new TARDISEPSRunnable(plugin, rsp.getEPS_message(), player, data, id, eps, creeper);
-                                        plugin.getServer().getScheduler().scheduleSyncDelayedTask(plugin, EPS_runnable, 20L);
-                                    }
+                                List<String> data = plugin.travellers.getTravellers(id);
+                                if (data.size() > 0 && !data.contains(playerNameStr)) {
+                                    // schedule the NPC to appear
+                                    TARDISEPSRunnable EPS_runnable = new TARDISEPSRunnable(plugin, rsp.getEPS_message(), player, data, id, eps, creeper);
+                                    plugin.getServer().getScheduler().scheduleSyncDelayedTask(plugin, EPS_runnable, 20L);
                                 }
                             }
                             String death_world = death_loc.getWorld().getName();
@@ -152,10 +146,10 @@ public class TARDISTimeLordDeathListener implements Listener {
                                 }
                                 final Location auto_loc = goto_loc;
                                 if (sub.equals("true") && going_home) {
-                                    plugin.trackSubmarine.add(id);
+                                    plugin.state.trackSubmarine.add(id);
                                 } else {
-                                    if (plugin.trackSubmarine.contains(Integer.valueOf(id))) {
-                                        plugin.trackSubmarine.remove(Integer.valueOf(id));
+                                    if (plugin.state.trackSubmarine.contains(id)) {
+                                        plugin.state.trackSubmarine.remove(id);
                                     }
                                 }
                                 plugin.getServer().getScheduler().scheduleSyncDelayedTask(plugin, new Runnable() {
@@ -188,7 +182,7 @@ public class TARDISTimeLordDeathListener implements Listener {
         Location l = null;
         HashMap<String, Object> wherea = new HashMap<String, Object>();
         wherea.put("world", world);
-        ResultSetAreas rsa = new ResultSetAreas(plugin, wherea, false);
+        ResultSetAreas rsa = new ResultSetAreas(plugin, wherea);
         if (rsa.resultSet()) {
             String area = rsa.getArea_name();
             if (!player.hasPermission("tardis.area." + area) || !player.isPermissionSet("tardis.area." + area)) {
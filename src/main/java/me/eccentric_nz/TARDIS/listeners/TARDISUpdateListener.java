@@ -102,10 +102,10 @@ public class TARDISUpdateListener implements Listener {
         final String playerNameStr = player.getName();
         String blockName;
         boolean secondary = false;
-        if (plugin.trackPlayers.containsKey(playerNameStr)) {
-            blockName = plugin.trackPlayers.get(playerNameStr);
-        } else if (plugin.trackSecondary.containsKey(playerNameStr)) {
-            blockName = plugin.trackSecondary.get(playerNameStr);
+        if (plugin.state.trackPlayers.containsKey(playerNameStr)) {
+            blockName = plugin.state.trackPlayers.get(playerNameStr);
+        } else if (plugin.state.trackSecondary.containsKey(playerNameStr)) {
+            blockName = plugin.state.trackSecondary.get(playerNameStr);
             secondary = true;
         } else {
             return;
@@ -125,7 +125,7 @@ public class TARDISUpdateListener implements Listener {
             }
             HashMap<String, Object> where = new HashMap<String, Object>();
             where.put("owner", playerNameStr);
-            ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+            ResultSetTardis rs = new ResultSetTardis(plugin, where);
             if (!rs.resultSet()) {
                 player.sendMessage(plugin.pluginName + TARDISConstants.NO_TARDIS);
                 return;
@@ -150,9 +150,9 @@ public class TARDISUpdateListener implements Listener {
                 tid.put("secondary", 0);
             }
             if (secondary) {
-                plugin.trackSecondary.remove(playerNameStr);
+                plugin.state.trackSecondary.remove(playerNameStr);
             } else {
-                plugin.trackPlayers.remove(playerNameStr);
+                plugin.state.trackPlayers.remove(playerNameStr);
             }
             if (blockName.equalsIgnoreCase("door") && blockType == Material.IRON_DOOR_BLOCK && !secondary) {
                 // get door data this should let us determine the direction
@@ -189,7 +189,7 @@ public class TARDISUpdateListener implements Listener {
                 HashMap<String, Object> whered = new HashMap<String, Object>();
                 whered.put("tardis_id", id);
                 whered.put("door_type", type);
-                ResultSetDoors rsd = new ResultSetDoors(plugin, whered, false);
+                ResultSetDoors rsd = new ResultSetDoors(plugin, whered);
                 if (!rsd.resultSet()) {
                     // insert record
                     HashMap<String, Object> setd = new HashMap<String, Object>();
@@ -215,7 +215,7 @@ public class TARDISUpdateListener implements Listener {
                 HashMap<String, Object> whereh = new HashMap<String, Object>();
                 whereh.put("tardis_id", id);
                 whereh.put("type", 0);
-                ResultSetControls rsc = new ResultSetControls(plugin, whereh, false);
+                ResultSetControls rsc = new ResultSetControls(plugin, whereh);
                 if (!rsc.resultSet()) {
                     qf.insertControl(id, 0, blockLocStr, 0);
                 }
@@ -307,7 +307,7 @@ public class TARDISUpdateListener implements Listener {
                 HashMap<String, Object> wherec = new HashMap<String, Object>();
                 wherec.put("tardis_id", id);
                 wherec.put("type", 7);
-                ResultSetControls rsc = new ResultSetControls(plugin, wherec, false);
+                ResultSetControls rsc = new ResultSetControls(plugin, wherec);
                 if (!rsc.resultSet()) {
                     qf.insertControl(id, 7, blockLocStr, 0);
                     secondary = true;
@@ -326,7 +326,7 @@ public class TARDISUpdateListener implements Listener {
                 HashMap<String, Object> wherec = new HashMap<String, Object>();
                 wherec.put("tardis_id", id);
                 wherec.put("type", 8);
-                ResultSetControls rsc = new ResultSetControls(plugin, wherec, false);
+                ResultSetControls rsc = new ResultSetControls(plugin, wherec);
                 if (!rsc.resultSet()) {
                     // insert current into fast_return
                     HashMap<String, Object> wheref = new HashMap<String, Object>();
@@ -345,7 +345,7 @@ public class TARDISUpdateListener implements Listener {
                 HashMap<String, Object> wherec = new HashMap<String, Object>();
                 wherec.put("tardis_id", id);
                 wherec.put("type", 9);
-                ResultSetControls rsc = new ResultSetControls(plugin, wherec, false);
+                ResultSetControls rsc = new ResultSetControls(plugin, wherec);
                 if (!rsc.resultSet()) {
                     // insert control
                     qf.insertControl(id, 9, blockLocStr, 0);
@@ -367,7 +367,7 @@ public class TARDISUpdateListener implements Listener {
                 HashMap<String, Object> wherec = new HashMap<String, Object>();
                 wherec.put("tardis_id", id);
                 wherec.put("type", 10);
-                ResultSetControls rsc = new ResultSetControls(plugin, wherec, false);
+                ResultSetControls rsc = new ResultSetControls(plugin, wherec);
                 if (!rsc.resultSet()) {
                     // insert control
                     qf.insertControl(id, 10, blockLocStr, 0);
@@ -435,7 +435,7 @@ public class TARDISUpdateListener implements Listener {
                 HashMap<String, Object> wherec = new HashMap<String, Object>();
                 wherec.put("tardis_id", id);
                 wherec.put("type", 11);
-                ResultSetControls rsc = new ResultSetControls(plugin, wherec, false);
+                ResultSetControls rsc = new ResultSetControls(plugin, wherec);
                 if (!rsc.resultSet()) {
                     // insert control
                     qf.insertControl(id, 11, blockLocStr, 0);
@@ -457,7 +457,7 @@ public class TARDISUpdateListener implements Listener {
                 HashMap<String, Object> wherel = new HashMap<String, Object>();
                 wherel.put("tardis_id", id);
                 wherel.put("type", 12);
-                ResultSetControls rsc = new ResultSetControls(plugin, wherel, false);
+                ResultSetControls rsc = new ResultSetControls(plugin, wherel);
                 if (!rsc.resultSet()) {
                     // insert control
                     qf.insertControl(id, 12, blockLocStr, 0);
@@ -470,7 +470,7 @@ public class TARDISUpdateListener implements Listener {
                 HashMap<String, Object> wherec = new HashMap<String, Object>();
                 wherec.put("tardis_id", id);
                 wherec.put("type", 13);
-                ResultSetControls rsc = new ResultSetControls(plugin, wherec, false);
+                ResultSetControls rsc = new ResultSetControls(plugin, wherec);
                 if (!rsc.resultSet()) {
                     qf.insertControl(id, 13, blockLocStr, 0);
                     secondary = true;
@@ -53,40 +53,45 @@ public class TARDISGravityWellRunnable implements Runnable {
                     p.setVelocity(new Vector(0.0D, up, 0.0D));
                 } else {
                     p.setFallDistance(0.0F);
-                    plugin.getServer().getScheduler().cancelTask(task);
+                    stop();
                 }
                 break;
             case 2:
                 if (p.getLocation().getZ() > end && p.getLocation().getBlockX() == x) {
                     p.setVelocity(new Vector(0.0D, 0.0D, -up));
                 } else {
-                    plugin.getServer().getScheduler().cancelTask(task);
+                    stop();
                 }
                 break;
             case 3:
                 if (p.getLocation().getX() > end && p.getLocation().getBlockZ() == z) {
                     p.setVelocity(new Vector(-up, 0.0D, 0.0D));
                 } else {
-                    plugin.getServer().getScheduler().cancelTask(task);
+                    stop();
                 }
                 break;
             case 4:
                 if (p.getLocation().getZ() < end && p.getLocation().getBlockX() == x) {
                     p.setVelocity(new Vector(0.0D, 0.0D, up));
                 } else {
-                    plugin.getServer().getScheduler().cancelTask(task);
+                    stop();
                 }
                 break;
             case 5:
                 if (p.getLocation().getX() < end && p.getLocation().getBlockZ() == z) {
                     p.setVelocity(new Vector(up, 0.0D, 0.0D));
                 } else {
-                    plugin.getServer().getScheduler().cancelTask(task);
+                    stop();
                 }
                 break;
         }
     }
 
+    private void stop() {
+        plugin.getServer().getScheduler().cancelTask(task);
+        plugin.gravityWells.endLift(p.getName(), task);
+    }
+
     public void setTask(int task) {
         this.task = task;
     }
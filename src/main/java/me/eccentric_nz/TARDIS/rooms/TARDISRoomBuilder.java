@@ -62,7 +62,7 @@ public class TARDISRoomBuilder {
     public boolean build() {
         HashMap<String, Object> where = new HashMap<String, Object>();
         where.put("owner", p.getName());
-        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+        ResultSetTardis rs = new ResultSetTardis(plugin, where);
         if (rs.resultSet()) {
             HashMap<String, Object> wherepp = new HashMap<String, Object>();
             wherepp.put("player", p.getName());
@@ -94,7 +94,7 @@ public class TARDISRoomBuilder {
             Block b = l.getBlock();
             roomData.setBlock(b);
             roomData.setDirection(d);
-            short[] dimensions = plugin.room_dimensions.get(r);
+            short[] dimensions = plugin.room_schematics.getDimensions(r);
             if (r.equalsIgnoreCase("GRAVITY") || r.equalsIgnoreCase("ANTIGRAVITY")) {
                 l.setX(l.getX() - 6);
                 l.setZ(l.getZ() - 6);
@@ -139,11 +139,9 @@ public class TARDISRoomBuilder {
             // set door space to air
             b.setTypeId(0);
             b.getRelative(BlockFace.UP).setTypeId(0);
-            // determine how often to place a block (in ticks) - `room_speed` is the number of blocks to place in a second (20 ticks)
-            long delay = Math.round(20 / plugin.getConfig().getDouble("room_speed"));
+            // the room scheduler places the blocks each tick, within the `room_budget`
             TARDISRoomRunnable runnable = new TARDISRoomRunnable(plugin, roomData, p);
-            int taskID = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, runnable, delay, delay);
-            runnable.setTask(taskID);
+            int taskID = plugin.roomScheduler.add(runnable);
             p.sendMessage(plugin.pluginName + "To cancel growing this room use the command /tardis abort " + taskID);
         }
         return true;
@@ -17,6 +17,7 @@
 package me.eccentric_nz.TARDIS.rooms;
 
 import me.eccentric_nz.TARDIS.TARDISConstants.COMPASS;
+import me.eccentric_nz.TARDIS.files.TARDISCompiledSchematic;
 import org.bukkit.Location;
 import org.bukkit.block.Block;
 
@@ -35,7 +36,7 @@ public class TARDISRoomData {
     String room;
     Location location;
     Block block;
-    String[][][] schematic;
+    TARDISCompiledSchematic schematic;
     short[] dimensions;
     int middle_id, floor_id, x, z, tardis_id;
     byte middle_data, floor_data;
@@ -75,11 +76,11 @@ public class TARDISRoomData {
         this.block = block;
     }
 
-    public String[][][] getSchematic() {
+    public TARDISCompiledSchematic getSchematic() {
         return schematic;
     }
 
-    public void setSchematic(String[][][] schematic) {
+    public void setSchematic(TARDISCompiledSchematic schematic) {
         this.schematic = schematic;
     }
 
@@ -55,7 +55,7 @@ public class TARDISRoomRemover {
         // get start locations
         int sx, sy, sz, ex, ey, ez, downy, upy, half, lessthree;
         // calculate values for downy and upy from schematic dimensions / config
-        short[] dimensions = plugin.room_dimensions.get(r);
+        short[] dimensions = plugin.room_schematics.getDimensions(r);
         downy = Math.abs(plugin.getRoomsConfig().getInt("rooms." + r + ".offset"));
         upy = dimensions[0] - (downy + 1);
         half = (dimensions[1] - 2) / 2;
@@ -25,7 +25,9 @@ import java.util.Map;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
 import me.eccentric_nz.TARDIS.TARDISConstants.COMPASS;
-import me.eccentric_nz.TARDIS.database.QueryFactory;
+import me.eccentric_nz.TARDIS.database.TARDISBuildSession;
+import me.eccentric_nz.TARDIS.files.TARDISCompiledSchematic;
+import me.eccentric_nz.TARDIS.utility.TARDISBlockKey;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -40,26 +42,37 @@ import org.bukkit.entity.Player;
  * fell into the library. After the TARDIS had fixed itself, the swimming pool
  * was restored but the Doctor did not know where it was.
  *
+ * Grows a TARDIS room. The room scheduler calls build() every tick, and the
+ * blocks are placed a layer at a time, chunk by chunk within each layer.
+ * Blocks that need something to attach to (doors, torches, sugar cane and
+ * cocoa) are placed once the rest of the room is finished. The room's
+ * database rows (controls, gravity wells and tardis columns) are collected in
+ * a build session and written together when it is finished.
+ *
  * @author eccentric_nz
  */
-public class TARDISRoomRunnable implements Runnable {
+public class TARDISRoomRunnable {
 
     private final TARDIS plugin;
+    private final TARDISBuildSession session;
     private Location l;
-    String[][][] s;
+    TARDISCompiledSchematic s;
     short[] dim;
-    private int id, task, level, row, col, h, w, c, middle_id, floor_id, startx, starty, startz, resetx, resetz, x, z, tardis_id;
+    private int id, task, height, width, length, next, middle_id, floor_id, basey, resetx, resetz, x, z, tardis_id;
+    private int[] order;
     byte data, middle_data, floor_data;
     Block b;
     COMPASS d;
     String room;
     String grammar;
     private boolean running;
+    private final boolean use_clay;
     Player p;
     World world;
     List<Chunk> chunkList = new ArrayList<Chunk>();
     List<Block> iceblocks = new ArrayList<Block>();
     List<Block> lampblocks = new ArrayList<Block>();
+    List<String> wellblocks = new ArrayList<String>();
     List<Block> caneblocks = new ArrayList<Block>();
     HashMap<Block, Byte> cocoablocks = new HashMap<Block, Byte>();
     HashMap<Block, Byte> doorblocks = new HashMap<Block, Byte>();
@@ -67,6 +80,7 @@ public class TARDISRoomRunnable implements Runnable {
 
     public TARDISRoomRunnable(TARDIS plugin, TARDISRoomData roomData, Player p) {
         this.plugin = plugin;
+        this.session = new TARDISBuildSession(plugin);
         this.l = roomData.getLocation();
         this.s = roomData.getSchematic();
         this.dim = roomData.getDimensions();
@@ -81,332 +95,391 @@ public class TARDISRoomRunnable implements Runnable {
         this.room = roomData.getRoom();
         this.tardis_id = roomData.getTardis_id();
         this.running = false;
+        this.use_clay = plugin.getConfig().getBoolean("use_clay");
         this.p = p;
     }
 
     /**
-     * A runnable task that builds TARDIS rooms block by block.
+     * Places blocks until the deadline has passed. At least one block is
+     * placed each time.
+     *
+     * @param deadline the System.nanoTime() to stop placing blocks at
+     * @return true if the room is finished
      */
-    @Override
-    public void run() {
+    public boolean build(long deadline) {
         // initialise
         if (!running) {
-            level = 0;
-            row = 0;
-            col = 0;
-            h = dim[0] - 1;
-            w = dim[1] - 1;
-            c = dim[2];
-            startx = l.getBlockX();
-            starty = l.getBlockY();
-            startz = l.getBlockZ();
-            resetx = startx;
-            resetz = startz;
-            world = l.getWorld();
-            running = true;
-            grammar = (TARDISConstants.vowels.contains(room.substring(0, 1))) ? "an " + room : "a " + room;
-            if (room.equals("GRAVITY") || room.equals("ANTIGRAVITY")) {
-                grammar += " WELL";
+            start();
+        }
+        do {
+            if (next == order.length) {
+                // the entire schematic has been read :)
+                finish();
+                return true;
             }
-            p.sendMessage(plugin.pluginName + "Started growing " + grammar + "...");
-        }
-        String tmp;
-        if (level == h && row == w && col == (c - 1)) {
-            // the entire schematic has been read :)
-            if (!room.equals("GRAVITY") && !room.equals("ANTIGRAVITY")) {
-                byte door_data;
-                switch (d) {
-                    case NORTH:
-                        door_data = 1;
-                        break;
-                    case WEST:
-                        door_data = 0;
-                        break;
-                    case SOUTH:
-                        door_data = 3;
-                        break;
-                    default:
-                        door_data = 2;
-                        break;
-                }
-                // put door on
-                if (b != null) {
-                    b.setTypeIdAndData(64, door_data, true);
-                    b.getRelative(BlockFace.UP).setTypeIdAndData(64, (byte) 8, true);
+            place(order[next++]);
+        } while (System.nanoTime() < deadline);
+        return false;
+    }
+
+    /**
+     * Works out the order to place the blocks in, and keeps the room's chunks
+     * loaded until it is finished.
+     */
+    private void start() {
+        height = dim[0];
+        width = dim[1];
+        length = dim[2];
+        basey = l.getBlockY();
+        resetx = l.getBlockX();
+        resetz = l.getBlockZ();
+        world = l.getWorld();
+        running = true;
+        grammar = (TARDISConstants.vowels.contains(room.substring(0, 1))) ? "an " + room : "a " + room;
+        if (room.equals("GRAVITY") || room.equals("ANTIGRAVITY")) {
+            grammar += " WELL";
+        }
+        p.sendMessage(plugin.pluginName + "Started growing " + grammar + "...");
+        // find the chunks the room is in, in the order the blocks reach them
+        List<Long> chunks = new ArrayList<Long>();
+        long[] cells = new long[width * length];
+        for (int row = 0; row < width; row++) {
+            for (int col = 0; col < length; col++) {
+                int cx = (resetx + col * x) >> 4;
+                int cz = (resetz + row * z) >> 4;
+                long key = TARDISBlockKey.packChunk(cx, cz);
+                if (!chunks.contains(key)) {
+                    chunks.add(key);
+                    Chunk thisChunk = world.getChunkAt(cx, cz);
+                    plugin.retainedChunks.retain(thisChunk);
+                    chunkList.add(thisChunk);
                 }
+                cells[row * length + col] = key;
             }
-            if (iceblocks.size() > 0) {
-                p.sendMessage(plugin.pluginName + "Melting the ice!");
-                // set all the ice to water
-                for (Block ice : iceblocks) {
-                    ice.setTypeId(9);
+        }
+        // each layer in turn, and within the layer chunk by chunk
+        int area = width * length;
+        order = new int[height * area];
+        int i = 0;
+        for (int level = 0; level < height; level++) {
+            for (Long key : chunks) {
+                for (int cell = 0; cell < area; cell++) {
+                    if (cells[cell] == key) {
+                        order[i++] = level * area + cell;
+                    }
                 }
-                iceblocks.clear();
             }
-            if (room.equals("GREENHOUSE")) {
-                // plant the sugar cane
-                for (Block cane : caneblocks) {
-                    cane.setTypeId(83);
-                }
-                caneblocks.clear();
-                // attach the cocoa
-                for (Map.Entry<Block, Byte> entry : cocoablocks.entrySet()) {
-                    entry.getKey().setTypeIdAndData(127, entry.getValue(), true);
-                }
-                cocoablocks.clear();
+        }
+    }
+
+    /**
+     * Places the blocks that were left until last, then lets the chunks
+     * unload.
+     */
+    private void finish() {
+        if (!room.equals("GRAVITY") && !room.equals("ANTIGRAVITY")) {
+            byte door_data;
+            switch (d) {
+                case NORTH:
+                    door_data = 1;
+                    break;
+                case WEST:
+                    door_data = 0;
+                    break;
+                case SOUTH:
+                    door_data = 3;
+                    break;
+                default:
+                    door_data = 2;
+                    break;
             }
-            if (room.equals("VILLAGE")) {
-                // put doors on
-                for (Map.Entry<Block, Byte> entry : doorblocks.entrySet()) {
-                    entry.getKey().setTypeIdAndData(64, entry.getValue(), true);
-                }
-                doorblocks.clear();
+            // put door on
+            if (b != null) {
+                b.setTypeIdAndData(64, door_data, true);
+                b.getRelative(BlockFace.UP).setTypeIdAndData(64, (byte) 8, true);
             }
-            // update lamp block states
-            p.sendMessage(plugin.pluginName + "Turning on the lights!");
-            for (Block lamp : lampblocks) {
-                lamp.setType(Material.REDSTONE_LAMP_ON);
+        }
+        if (iceblocks.size() > 0) {
+            p.sendMessage(plugin.pluginName + "Melting the ice!");
+            // set all the ice to water
+            for (Block ice : iceblocks) {
+                ice.setTypeId(9);
             }
-            lampblocks.clear();
-            // put torches on
-            for (Map.Entry<Block, Byte> entry : torchblocks.entrySet()) {
-                entry.getKey().setTypeIdAndData(50, entry.getValue(), true);
+            iceblocks.clear();
+        }
+        if (room.equals("GREENHOUSE")) {
+            // plant the sugar cane
+            for (Block cane : caneblocks) {
+                cane.setTypeId(83);
             }
-            torchblocks.clear();
-            // remove the chunks, so they can unload as normal again
-            if (chunkList.size() > 0) {
-                for (Chunk ch : chunkList) {
-                    plugin.roomChunkList.remove(ch);
-                }
+            caneblocks.clear();
+            // attach the cocoa
+            for (Map.Entry<Block, Byte> entry : cocoablocks.entrySet()) {
+                entry.getKey().setTypeIdAndData(127, entry.getValue(), true);
             }
-            // cancel the task
-            plugin.getServer().getScheduler().cancelTask(task);
-            task = 0;
-            String rname = (room.equals("GRAVITY") || room.equals("ANTIGRAVITY")) ? room + " WELL" : room;
-            p.sendMessage(plugin.pluginName + "Finished growing the " + rname + "!");
+            cocoablocks.clear();
+        }
+        if (room.equals("VILLAGE")) {
+            // put doors on
+            for (Map.Entry<Block, Byte> entry : doorblocks.entrySet()) {
+                entry.getKey().setTypeIdAndData(64, entry.getValue(), true);
+            }
+            doorblocks.clear();
+        }
+        // update lamp block states
+        p.sendMessage(plugin.pluginName + "Turning on the lights!");
+        for (Block lamp : lampblocks) {
+            lamp.setType(Material.REDSTONE_LAMP_ON);
+        }
+        lampblocks.clear();
+        // put torches on
+        for (Map.Entry<Block, Byte> entry : torchblocks.entrySet()) {
+            entry.getKey().setTypeIdAndData(50, entry.getValue(), true);
+        }
+        torchblocks.clear();
+        // write the room's rows together now it is grown
+        session.commit();
+        releaseChunks();
+        String rname = (room.equals("GRAVITY") || room.equals("ANTIGRAVITY")) ? room + " WELL" : room;
+        p.sendMessage(plugin.pluginName + "Finished growing the " + rname + "!");
+    }
+
+    /**
+     * Places one block.
+     *
+     * @param i the position of the block in the schematic
+     */
+    private void place(int i) {
+        int level = i / (width * length);
+        int row = (i / length) % width;
+        int col = i % length;
+        int startx = resetx + col * x;
+        int starty = basey + level;
+        int startz = resetz + row * z;
+        id = s.getId(level, row, col);
+        if (TARDISConstants.PROBLEM_BLOCKS.contains(Integer.valueOf(id)) && (d.equals(COMPASS.NORTH) || d.equals(COMPASS.WEST))) {
+            data = TARDISDataRecalculator.calculateData(id, s.getData(level, row, col));
         } else {
-            // place one block
-            tmp = s[level][row][col];
-            String[] iddata = tmp.split(":");
-            id = plugin.utils.parseNum(iddata[0]);
-            if (TARDISConstants.PROBLEM_BLOCKS.contains(Integer.valueOf(id)) && (d.equals(COMPASS.NORTH) || d.equals(COMPASS.WEST))) {
-                data = TARDISDataRecalculator.calculateData(id, Byte.parseByte(iddata[1]));
+            data = s.getData(level, row, col);
+        }
+        if (id == 35 && data == 7 && use_clay) {
+            id = 159;
+        }
+        if (id == 35 && data == 1) {
+            if (middle_id == 35 && middle_data == 1 && use_clay) {
+                id = 159;
             } else {
-                data = Byte.parseByte(iddata[1]);
+                id = middle_id;
             }
-            if (id == 35 && data == 7 && plugin.getConfig().getBoolean("use_clay")) {
+            data = middle_data;
+        }
+        if (id == 35 && data == 8) {
+            if (floor_id == 35 && floor_data == 8 && use_clay) {
                 id = 159;
+            } else {
+                id = floor_id;
             }
-            if (id == 35 && data == 1) {
-                if (middle_id == 35 && middle_data == 1 && plugin.getConfig().getBoolean("use_clay")) {
-                    id = 159;
-                } else {
-                    id = middle_id;
-                }
-                data = middle_data;
-            }
-            if (id == 35 && data == 8) {
-                if (floor_id == 35 && floor_data == 8 && plugin.getConfig().getBoolean("use_clay")) {
-                    id = 159;
-                } else {
-                    id = floor_id;
-                }
-                data = floor_data;
-            }
-            QueryFactory qf = new QueryFactory(plugin);
-            // set condenser
-            if (id == 54 && room.equals("HARMONY")) {
-                HashMap<String, Object> setc = new HashMap<String, Object>();
-                setc.put("condenser", world.getName() + ":" + startx + ":" + starty + ":" + startz);
-                HashMap<String, Object> wherec = new HashMap<String, Object>();
-                wherec.put("tardis_id", tardis_id);
-                qf.doUpdate("tardis", setc, wherec);
-            }
-            // set farm
-            if (id == 52 && room.equals("FARM")) {
-                HashMap<String, Object> setf = new HashMap<String, Object>();
-                setf.put("farm", world.getName() + ":" + startx + ":" + starty + ":" + startz);
-                HashMap<String, Object> wheref = new HashMap<String, Object>();
-                wheref.put("tardis_id", tardis_id);
-                qf.doUpdate("tardis", setf, wheref);
-                // replace with floor material
-                id = (floor_id == 35 && floor_data == 8 && plugin.getConfig().getBoolean("use_clay")) ? 159 : floor_id;
-                data = floor_data;
-            }
-            // set stable
-            if (id == 88 && (room.equals("STABLE") || room.equals("VILLAGE"))) {
-                HashMap<String, Object> sets = new HashMap<String, Object>();
-                sets.put(room.toLowerCase(Locale.ENGLISH), world.getName() + ":" + startx + ":" + starty + ":" + startz);
-                HashMap<String, Object> wheres = new HashMap<String, Object>();
-                wheres.put("tardis_id", tardis_id);
-                qf.doUpdate("tardis", sets, wheres);
-                // replace with grass
-                id = (room.equals("VILLAGE")) ? 4 : 2;
-                data = 0;
-            }
-            // remember village doors
-            if (id == 64 && room.equals("VILLAGE")) {
-                Block door = world.getBlockAt(startx, starty, startz);
-                doorblocks.put(door, data);
-            }
-            // remember torches
-            if (id == 50) {
-                Block torch = world.getBlockAt(startx, starty, startz);
-                torchblocks.put(torch, data);
-            }
-            // set farmland hydrated
-            if (id == 60 && data == 0) {
-                data = (byte) 4;
-            }
-            if (room.equals("GREENHOUSE")) {
-                // remember sugar cane
-                if (id == 83) {
-                    Block cane = world.getBlockAt(startx, starty, startz);
-                    caneblocks.add(cane);
-                }
-                // remember cocoa
-                if (id == 127) {
-                    Block cocoa = world.getBlockAt(startx, starty, startz);
-                    cocoablocks.put(cocoa, data);
-                }
-            }
-            if (room.equals("RAIL") && id == 85) {
-                // remember fence location so we can teleport the storage minecart
-                String loc = world.getName() + ":" + startx + ":" + starty + ":" + startz;
-                HashMap<String, Object> set = new HashMap<String, Object>();
-                set.put("rail", loc);
-                HashMap<String, Object> where = new HashMap<String, Object>();
-                where.put("tardis_id", tardis_id);
-                qf.doUpdate("tardis", set, where);
+            data = floor_data;
+        }
+        // set condenser
+        if (id == 54 && room.equals("HARMONY")) {
+            HashMap<String, Object> setc = new HashMap<String, Object>();
+            setc.put("condenser", world.getName() + ":" + startx + ":" + starty + ":" + startz);
+            HashMap<String, Object> wherec = new HashMap<String, Object>();
+            wherec.put("tardis_id", tardis_id);
+            session.update("tardis", setc, wherec);
+        }
+        // set farm
+        if (id == 52 && room.equals("FARM")) {
+            HashMap<String, Object> setf = new HashMap<String, Object>();
+            setf.put("farm", world.getName() + ":" + startx + ":" + starty + ":" + startz);
+            HashMap<String, Object> wheref = new HashMap<String, Object>();
+            wheref.put("tardis_id", tardis_id);
+            session.update("tardis", setf, wheref);
+            // replace with floor material
+            id = (floor_id == 35 && floor_data == 8 && use_clay) ? 159 : floor_id;
+            data = floor_data;
+        }
+        // set stable
+        if (id == 88 && (room.equals("STABLE") || room.equals("VILLAGE"))) {
+            HashMap<String, Object> sets = new HashMap<String, Object>();
+            sets.put(room.toLowerCase(Locale.ENGLISH), world.getName() + ":" + startx + ":" + starty + ":" + startz);
+            HashMap<String, Object> wheres = new HashMap<String, Object>();
+            wheres.put("tardis_id", tardis_id);
+            session.update("tardis", sets, wheres);
+            // replace with grass
+            id = (room.equals("VILLAGE")) ? 4 : 2;
+            data = 0;
+        }
+        // remember village doors
+        if (id == 64 && room.equals("VILLAGE")) {
+            Block door = world.getBlockAt(startx, starty, startz);
+            doorblocks.put(door, data);
+        }
+        // remember torches
+        if (id == 50) {
+            Block torch = world.getBlockAt(startx, starty, startz);
+            torchblocks.put(torch, data);
+        }
+        // set farmland hydrated
+        if (id == 60 && data == 0) {
+            data = (byte) 4;
+        }
+        if (room.equals("GREENHOUSE")) {
+            // remember sugar cane
+            if (id == 83) {
+                Block cane = world.getBlockAt(startx, starty, startz);
+                caneblocks.add(cane);
             }
-            // always replace bedrock (the door space in ARS rooms)
-            if (id == 7) {
-                if (checkRoomNextDoor(world.getBlockAt(startx, starty, startz))) {
-                    id = 0;
-                    data = (byte) 0;
-                } else {
-                    id = middle_id;
-                    data = middle_data;
-                }
+            // remember cocoa
+            if (id == 127) {
+                Block cocoa = world.getBlockAt(startx, starty, startz);
+                cocoablocks.put(cocoa, data);
             }
-            // always remove sponge
-            if (id == 19) {
+        }
+        if (room.equals("RAIL") && id == 85) {
+            // remember fence location so we can teleport the storage minecart
+            String loc = world.getName() + ":" + startx + ":" + starty + ":" + startz;
+            HashMap<String, Object> set = new HashMap<String, Object>();
+            set.put("rail", loc);
+            HashMap<String, Object> where = new HashMap<String, Object>();
+            where.put("tardis_id", tardis_id);
+            session.update("tardis", set, where);
+        }
+        // always replace bedrock (the door space in ARS rooms)
+        if (id == 7) {
+            if (checkRoomNextDoor(world.getBlockAt(startx, starty, startz))) {
                 id = 0;
                 data = (byte) 0;
             } else {
-                Block existing = world.getBlockAt(startx, starty, startz);
-                if (existing.getTypeId() != 0) {
-                    if (room.equals("GRAVITY") || room.equals("ANTIGRAVITY")) {
-                        switch (id) {
-                            case 20:
-                            case 35:
-                            case 98:
-                                break;
-                            default:
-                                id = existing.getTypeId();
-                                data = existing.getData();
-                                break;
-                        }
-                    } else {
-                        id = existing.getTypeId();
-                        data = existing.getData();
-                    }
-                }
-            }
-
-            Chunk thisChunk = world.getChunkAt(world.getBlockAt(startx, starty, startz));
-            if (!plugin.roomChunkList.contains(thisChunk)) {
-                plugin.roomChunkList.add(thisChunk);
-                chunkList.add(thisChunk);
-            }
-            if (id != 83 && id != 127 && id != 64 && id != 50) {
-                plugin.utils.setBlock(world, startx, starty, startz, id, data);
-            }
-            // remember ice blocks
-            if (id == 79) {
-                Block icy = world.getBlockAt(startx, starty, startz);
-                iceblocks.add(icy);
-            }
-            // remember lamp blocks
-            if (id == 124) {
-                Block lamp = world.getBlockAt(startx, starty, startz);
-                lampblocks.add(lamp);
-            }
-            if (room.equals("GRAVITY") || room.equals("ANTIGRAVITY")) {
-                String loc;
-                if (id == 35 && data == 6) {
-                    // pink wool - gravity well down
-                    loc = new Location(world, startx, starty, startz).toString();
-                    HashMap<String, Object> setd = new HashMap<String, Object>();
-                    setd.put("tardis_id", tardis_id);
-                    setd.put("location", loc);
-                    setd.put("direction", 0);
-                    setd.put("distance", 0);
-                    setd.put("velocity", 0);
-                    qf.doInsert("gravity_well", setd);
-                    plugin.gravityDownList.add(loc);
-                }
-                if (id == 35 && data == 5) {
-                    // light green wool - gravity well up
-                    loc = new Location(world, startx, starty, startz).toString();
-                    HashMap<String, Object> setu = new HashMap<String, Object>();
-                    setu.put("tardis_id", tardis_id);
-                    setu.put("location", loc);
-                    setu.put("direction", 1);
-                    setu.put("distance", 16);
-                    setu.put("velocity", 0.5);
-                    qf.doInsert("gravity_well", setu);
-                    Double[] values = new Double[]{1D, 16D, 0.5D};
-                    plugin.gravityUpList.put(loc, values);
-                }
+                id = middle_id;
+                data = middle_data;
             }
-            if (room.equals("BAKER") || room.equals("WOOD")) {
-                // remember the controls
-                int secondary = (room.equals("BAKER")) ? 1 : 2;
-                int r = 2;
-                int type;
-                String loc_str;
-                List<Integer> controls = Arrays.asList(new Integer[]{69, 77, 92, 143, -113});
-                if (controls.contains(Integer.valueOf(id))) {
+        }
+        // always remove sponge
+        if (id == 19) {
+            id = 0;
+            data = (byte) 0;
+        } else {
+            Block existing = world.getBlockAt(startx, starty, startz);
+            if (existing.getTypeId() != 0) {
+                if (room.equals("GRAVITY") || room.equals("ANTIGRAVITY")) {
                     switch (id) {
-                        case 77: // stone button - random
-                            type = 1;
-                            loc_str = plugin.utils.makeLocationStr(world, startx, starty, startz);
+                        case 20:
+                        case 35:
+                        case 98:
                             break;
-                        case 93: // repeater
-                            type = r;
-                            loc_str = world.getName() + ":" + startx + ":" + starty + ":" + startz;
-                            r++;
+                        default:
+                            id = existing.getTypeId();
+                            data = existing.getData();
                             break;
-                        case -113: // wood button - artron
-                        case 143:
-                            type = 6;
-                            loc_str = plugin.utils.makeLocationStr(world, startx, starty, startz);
-                            break;
-                        default: // cake - handbrake
-                            type = 0;
-                            loc_str = plugin.utils.makeLocationStr(world, startx, starty, startz);
                     }
-                    qf.insertControl(tardis_id, type, loc_str, secondary);
+                } else {
+                    id = existing.getTypeId();
+                    data = existing.getData();
                 }
             }
-            startx += x;
-            col++;
-            if (col == c && row < w) {
-                col = 0;
-                startx = resetx;
-                startz += z;
-                row++;
+        }
+        if (id != 83 && id != 127 && id != 64 && id != 50) {
+            plugin.utils.setBlock(world, startx, starty, startz, id, data);
+        }
+        // remember ice blocks
+        if (id == 79) {
+            Block icy = world.getBlockAt(startx, starty, startz);
+            iceblocks.add(icy);
+        }
+        // remember lamp blocks
+        if (id == 124) {
+            Block lamp = world.getBlockAt(startx, starty, startz);
+            lampblocks.add(lamp);
+        }
+        if (room.equals("GRAVITY") || room.equals("ANTIGRAVITY")) {
+            String loc;
+            if (id == 35 && data == 6) {
+                // pink wool - gravity well down
+                loc = new Location(world, startx, starty, startz).toString();
+                HashMap<String, Object> setd = new HashMap<String, Object>();
+                setd.put("tardis_id", tardis_id);
+                setd.put("location", loc);
+                setd.put("direction", 0);
+                setd.put("distance", 0);
+                setd.put("velocity", 0);
+                session.insert("gravity_well", setd);
+                plugin.gravityWells.add(world.getName(), startx, starty, startz, tardis_id, 0, 0, 0);
+                wellblocks.add(loc);
             }
-            if (col == c && row == w && level < h) {
-                col = 0;
-                row = 0;
-                startx = resetx;
-                startz = resetz;
-                starty += 1;
-                level++;
+            if (id == 35 && data == 5) {
+                // light green wool - gravity well up
+                loc = new Location(world, startx, starty, startz).toString();
+                HashMap<String, Object> setu = new HashMap<String, Object>();
+                setu.put("tardis_id", tardis_id);
+                setu.put("location", loc);
+                setu.put("direction", 1);
+                setu.put("distance", 16);
+                setu.put("velocity", 0.5);
+                session.insert("gravity_well", setu);
+                plugin.gravityWells.add(world.getName(), startx, starty, startz, tardis_id, 1, 16, 0.5);
+                wellblocks.add(loc);
             }
         }
+        if (room.equals("BAKER") || room.equals("WOOD")) {
+            // remember the controls
+            int secondary = (room.equals("BAKER")) ? 1 : 2;
+            int r = 2;
+            int type;
+            String loc_str;
+            List<Integer> controls = Arrays.asList(new Integer[]{69, 77, 92, 143, -113});
+            if (controls.contains(Integer.valueOf(id))) {
+                switch (id) {
+                    case 77: // stone button - random
+                        type = 1;
+                        loc_str = plugin.utils.makeLocationStr(world, startx, starty, startz);
+                        break;
+                    case 93: // repeater
+                        type = r;
+                        loc_str = world.getName() + ":" + startx + ":" + starty + ":" + startz;
+                        r++;
+                        break;
+                    case -113: // wood button - artron
+                    case 143:
+                        type = 6;
+                        loc_str = plugin.utils.makeLocationStr(world, startx, starty, startz);
+                        break;
+                    default: // cake - handbrake
+                        type = 0;
+                        loc_str = plugin.utils.makeLocationStr(world, startx, starty, startz);
+                }
+                session.control(tardis_id, type, loc_str, secondary);
+            }
+        }
+    }
+
+    /**
+     * Stops growing the room part way through. None of the room's rows are
+     * written, and any Gravity Wells it added are forgotten.
+     */
+    void abort() {
+        if (session.isOpen()) {
+            session.abort();
+        }
+        for (String loc : wellblocks) {
+            plugin.gravityWells.remove(loc);
+        }
+        wellblocks.clear();
+        releaseChunks();
+        if (running) {
+            p.sendMessage(plugin.pluginName + "Stopped growing " + grammar + "!");
+        }
+    }
+
+    /**
+     * Removes the chunks, so they can unload as normal again.
+     */
+    private void releaseChunks() {
+        for (Chunk ch : chunkList) {
+            plugin.retainedChunks.release(ch);
+        }
+        chunkList.clear();
     }
 
     private boolean checkRoomNextDoor(Block b) {
@@ -421,4 +494,8 @@ public class TARDISRoomRunnable implements Runnable {
     public void setTask(int task) {
         this.task = task;
     }
+
+    public int getTask() {
+        return task;
+    }
 }
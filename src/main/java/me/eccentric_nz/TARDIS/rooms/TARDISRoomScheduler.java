@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.rooms;
+
+import java.util.ArrayList;
+import java.util.List;
+import me.eccentric_nz.TARDIS.TARDIS;
+
+/**
+ * Grows all the rooms that are being built (by the room command or by the
+ * Architectural Reconfiguration System) from a single repeating task.
+ *
+ * Each tick the rooms share a time budget, `room_budget` microseconds long.
+ * The budget is split evenly between the rooms, and the room that goes first
+ * changes every tick, so that no room is starved when there are more rooms
+ * than the budget can serve. Every room places at least one block per tick.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISRoomScheduler implements Runnable {
+
+    private final TARDIS plugin;
+    private final List<TARDISRoomRunnable> builds = new ArrayList<TARDISRoomRunnable>();
+    private int task = -1;
+    private int nextId = 1;
+    private int turn = 0;
+
+    public TARDISRoomScheduler(TARDIS plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Starts growing a room.
+     *
+     * @param build the room to grow
+     * @return the build id, which can be given to `/tardis abort`
+     */
+    public int add(TARDISRoomRunnable build) {
+        int id = nextId++;
+        build.setTask(id);
+        builds.add(build);
+        if (task < 0) {
+            task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, this, 1L, 1L);
+        }
+        return id;
+    }
+
+    /**
+     * Stops growing a room. The blocks already placed are left as they are.
+     *
+     * @param id the build id
+     * @return true if a room with that id was being grown
+     */
+    public boolean abort(int id) {
+        for (int i = 0; i < builds.size(); i++) {
+            TARDISRoomRunnable build = builds.get(i);
+            if (build.getTask() == id) {
+                builds.remove(i);
+                build.abort();
+                stopIfIdle();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a room is still being grown.
+     *
+     * @param id the build id
+     * @return true if the room hasn't finished and hasn't been aborted
+     */
+    public boolean isGrowing(int id) {
+        for (TARDISRoomRunnable build : builds) {
+            if (build.getTask() == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of rooms being grown.
+     *
+     * @return the number of active builds
+     */
+    public int size() {
+        return builds.size();
+    }
+
+    @Override
+    public void run() {
+        int n = builds.size();
+        if (n == 0) {
+            stopIfIdle();
+            return;
+        }
+        long budget = Math.max(1, plugin.getConfig().getInt("room_budget")) * 1000L;
+        long end = System.nanoTime() + budget;
+        List<TARDISRoomRunnable> finished = new ArrayList<TARDISRoomRunnable>();
+        int first = turn % n;
+        for (int i = 0; i < n; i++) {
+            TARDISRoomRunnable build = builds.get((first + i) % n);
+            // share what is left of the budget between the builds still to go
+            long now = System.nanoTime();
+            long slice = Math.max(0, end - now) / (n - i);
+            if (build.build(now + slice)) {
+                finished.add(build);
+            }
+        }
+        turn = first + 1;
+        builds.removeAll(finished);
+        stopIfIdle();
+    }
+
+    private void stopIfIdle() {
+        if (builds.isEmpty() && task >= 0) {
+            plugin.getServer().getScheduler().cancelTask(task);
+            task = -1;
+        }
+    }
+}
@@ -16,12 +16,8 @@
  */
 package me.eccentric_nz.TARDIS.travel;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Set;
 import me.eccentric_nz.TARDIS.TARDIS;
-import me.eccentric_nz.TARDIS.database.ResultSetAreas;
-import me.eccentric_nz.TARDIS.database.ResultSetSave;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
@@ -50,26 +46,8 @@ public class TARDISArea {
      * existing TARDIS area
      */
     public boolean areaCheckInExisting(Location l) {
-        boolean chk = true;
-        String w = l.getWorld().getName();
-        HashMap<String, Object> where = new HashMap<String, Object>();
-        where.put("world", w);
-        ResultSetAreas rsa = new ResultSetAreas(plugin, where, true);
-        if (rsa.resultSet()) {
-            ArrayList<HashMap<String, String>> data = rsa.getData();
-            for (HashMap<String, String> map : data) {
-                int minx = plugin.utils.parseNum(map.get("minx"));
-                int minz = plugin.utils.parseNum(map.get("minz"));
-                int maxx = plugin.utils.parseNum(map.get("maxx"));
-                int maxz = plugin.utils.parseNum(map.get("maxz"));
-                // is clicked block within a defined TARDIS area?
-                if (l.getX() <= maxx && l.getZ() <= maxz && l.getX() >= minx && l.getZ() >= minz) {
-                    chk = false;
-                    break;
-                }
-            }
-        }
-        return chk;
+        // is clicked block within a defined TARDIS area?
+        return plugin.areaIndex.getArea(l) == null;
     }
 
     /**
@@ -81,23 +59,9 @@ public class TARDISArea {
      * specified TARDIS area
      */
     public boolean areaCheckInExile(String a, Location l) {
-        boolean chk = true;
-        HashMap<String, Object> where = new HashMap<String, Object>();
-        where.put("area_name", a);
-        ResultSetAreas rsa = new ResultSetAreas(plugin, where, false);
-        if (rsa.resultSet()) {
-            String w = rsa.getWorld();
-            String lw = l.getWorld().getName();
-            int minx = rsa.getMinx();
-            int minz = rsa.getMinz();
-            int maxx = rsa.getMaxx();
-            int maxz = rsa.getMaxz();
-            // is clicked block within a defined TARDIS area?
-            if (w.equals(lw) && (l.getX() <= maxx && l.getZ() <= maxz && l.getX() >= minx && l.getZ() >= minz)) {
-                chk = false;
-            }
-        }
-        return chk;
+        TARDISAreaIndex.Area area = plugin.areaIndex.getArea(a);
+        // is clicked block within a defined TARDIS area?
+        return area == null || !area.getWorld().equals(l.getWorld().getName()) || !(l.getX() <= area.getMaxx() && l.getZ() <= area.getMaxz() && l.getX() >= area.getMinx() && l.getZ() >= area.getMinz());
     }
 
     /**
@@ -108,85 +72,40 @@ public class TARDISArea {
      * @return true or false depending on whether the player has permission
      */
     public boolean areaCheckLocPlayer(Player p, Location l) {
-        boolean chk = false;
-        String w = l.getWorld().getName();
-        HashMap<String, Object> where = new HashMap<String, Object>();
-        where.put("world", w);
-        ResultSetAreas rsa = new ResultSetAreas(plugin, where, true);
-        int i = 1;
-        if (rsa.resultSet()) {
-            ArrayList<HashMap<String, String>> data = rsa.getData();
-            for (HashMap<String, String> map : data) {
-                String n = map.get("area_name");
-                int minx = plugin.utils.parseNum(map.get("minx"));
-                int minz = plugin.utils.parseNum(map.get("minz"));
-                int maxx = plugin.utils.parseNum(map.get("maxx"));
-                int maxz = plugin.utils.parseNum(map.get("maxz"));
-                // is time travel destination within a defined TARDIS area?
-                if (l.getX() <= maxx && l.getZ() <= maxz && l.getX() >= minx && l.getZ() >= minz) {
-                    // does the player have permmission to travel here
-                    if (!p.hasPermission("tardis.area." + n) || !p.isPermissionSet("tardis.area." + n)) {
-                        plugin.trackPerm.put(p.getName(), "tardis.area." + n);
-                        chk = true;
-                        break;
-                    }
-                }
-                i++;
+        // is time travel destination within a defined TARDIS area?
+        for (TARDISAreaIndex.Area area : plugin.areaIndex.getAreas(l)) {
+            String n = area.getName();
+            // does the player have permmission to travel here
+            if (!p.hasPermission("tardis.area." + n) || !p.isPermissionSet("tardis.area." + n)) {
+                plugin.state.trackPerm.put(p.getName(), "tardis.area." + n);
+                return true;
             }
         }
-        return chk;
+        return false;
     }
 
     /**
      * Gets the next available parking spot in a specified TARDIS area.
      *
      * @param a the TARDIS area to look in.
-     * @return the next free Location in an area
+     * @return the next free Location in an area, or null if the area is full
      */
     public Location getNextSpot(String a) {
-        Location location = null;
+        TARDISAreaIndex.Area area = plugin.areaIndex.getArea(a);
+        if (area == null) {
+            return null;
+        }
         // find the next available slot in this area
-        HashMap<String, Object> where = new HashMap<String, Object>();
-        where.put("area_name", a);
-        ResultSetAreas rsa = new ResultSetAreas(plugin, where, false);
-        if (rsa.resultSet()) {
-            int minx = rsa.getMinx();
-            int x = minx + 2;
-            int minz = rsa.getMinz();
-            int z = minz + 2;
-            int maxx = rsa.getMaxx();
-            int maxz = rsa.getMaxz();
-            String wStr = rsa.getWorld();
-            boolean chk = false;
-            while (chk == false) {
-                String queryLoc = wStr + ":" + x + ":%:" + z + "%";
-                ResultSetSave rs = new ResultSetSave(plugin, queryLoc);
-                if (rs.resultSet()) {
-                    if (x + 5 <= maxx) {
-                        x += 5;
-                    } else {
-                        x = minx + 2;
-                        if (z + 5 <= maxz) {
-                            z += 5;
-                        } else {
-                            z = minz + 2;
-                        }
-                    }
-                } else {
-                    chk = true;
-                    break;
-                }
-            }
-            if (chk == true) {
-                World w = plugin.getServer().getWorld(wStr);
-                int y = rsa.getY();
-                if (y == 0) {
-                    y = w.getHighestBlockYAt(x, z);
-                }
-                location = w.getBlockAt(x, y, z).getLocation();
-            }
+        int[] spot = area.getFreeSpot();
+        World w = plugin.getServer().getWorld(area.getWorld());
+        if (spot == null || w == null) {
+            return null;
+        }
+        int y = area.getY();
+        if (y == 0) {
+            y = w.getHighestBlockYAt(spot[0], spot[1]);
         }
-        return location;
+        return w.getBlockAt(spot[0], y, spot[1]).getLocation();
     }
 
     /**
@@ -0,0 +1,376 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.travel;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import me.eccentric_nz.TARDIS.TARDIS;
+import me.eccentric_nz.TARDIS.database.TARDISQuery;
+import me.eccentric_nz.TARDIS.database.TARDISRowMapper;
+import me.eccentric_nz.TARDIS.utility.TARDISBlockKey;
+import me.eccentric_nz.TARDIS.utility.TARDISLongObjectMap;
+import org.bukkit.Location;
+
+/**
+ * An in-memory copy of the TARDIS areas, and of which of their parking spots
+ * are taken.
+ *
+ * Areas are filed in a grid of 64 x 64 block cells for each world, so that
+ * checking a location only looks at the areas that overlap its cell. Each
+ * area has a bitmap of its parking spots, set for the spots that a TARDIS is
+ * currently parked on. The bitmaps are kept in step with the current column
+ * of the tardis table by the QueryFactory, so finding a free spot never
+ * touches the database.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISAreaIndex {
+
+    private static final int CELL_SHIFT = 6;
+    /**
+     * Areas that cover more cells than this are kept in a list for the world
+     * instead of being filed in every cell.
+     */
+    private static final int MAX_CELLS = 1024;
+    private final TARDIS plugin;
+    private final LinkedHashMap<String, Area> areas = new LinkedHashMap<String, Area>();
+    private final HashMap<String, TARDISLongObjectMap<List<Area>>> grids = new HashMap<String, TARDISLongObjectMap<List<Area>>>();
+    private final HashMap<String, List<Area>> large = new HashMap<String, List<Area>>();
+    private final HashMap<Integer, TARDISBlockKey> parked = new HashMap<Integer, TARDISBlockKey>();
+    private boolean stale = true;
+
+    public TARDISAreaIndex(TARDIS plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Loads the areas, and the current location of every TARDIS.
+     */
+    public void load() {
+        parked.clear();
+        List<Object[]> rows = TARDISQuery.list("tardis", "tardis_id, current", null, new TARDISRowMapper<Object[]>() {
+            @Override
+            public Object[] map(ResultSet rs) throws SQLException {
+                return new Object[]{rs.getInt("tardis_id"), rs.getString("current")};
+            }
+        });
+        for (Object[] row : rows) {
+            TARDISBlockKey bk = TARDISBlockKey.fromString((String) row[1]);
+            if (bk != null) {
+                parked.put((Integer) row[0], bk);
+            }
+        }
+        loadAreas();
+        plugin.debug("Indexed " + areas.size() + " areas and " + parked.size() + " TARDIS locations");
+    }
+
+    /**
+     * Makes the areas be read again the next time they are needed. Called when
+     * an area is added or removed.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Records that a TARDIS has moved, freeing the parking spot it was on and
+     * taking the one it is on now.
+     *
+     * @param id the tardis_id
+     * @param current the new current location string, or null if the TARDIS
+     * has been deleted
+     */
+    public void move(int id, String current) {
+        TARDISBlockKey bk = TARDISBlockKey.fromString(current);
+        TARDISBlockKey old = (bk == null) ? parked.remove(id) : parked.put(id, bk);
+        if (stale) {
+            // the bitmaps are rebuilt from the parked locations anyway
+            return;
+        }
+        if (old != null) {
+            for (Area a : getAreas(old.getWorld(), old.getX(), old.getZ())) {
+                int slot = a.getSlot(old.getX(), old.getZ());
+                if (slot >= 0) {
+                    a.release(slot);
+                }
+            }
+        }
+        if (bk != null) {
+            park(bk);
+        }
+    }
+
+    /**
+     * Gets the area a location is in.
+     *
+     * @param l the location to check
+     * @return the first area containing the location, or null if it isn't in
+     * an area
+     */
+    public Area getArea(Location l) {
+        for (Area a : getAreas(l.getWorld().getName(), l.getBlockX(), l.getBlockZ())) {
+            if (a.contains(l.getX(), l.getZ())) {
+                return a;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets all the areas a location is in.
+     *
+     * @param l the location to check
+     * @return the areas containing the location
+     */
+    public List<Area> getAreas(Location l) {
+        List<Area> found = new ArrayList<Area>();
+        for (Area a : getAreas(l.getWorld().getName(), l.getBlockX(), l.getBlockZ())) {
+            if (a.contains(l.getX(), l.getZ())) {
+                found.add(a);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gets an area by name. As with the area_name column, case is ignored, so
+     * names taken from (lowercase) permission nodes are found too.
+     *
+     * @param name the area name
+     * @return the area, or null if there is no area with that name
+     */
+    public Area getArea(String name) {
+        refresh();
+        return areas.get(name.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Gets every area, in the order they were added.
+     *
+     * @return the areas
+     */
+    public List<Area> getAreas() {
+        refresh();
+        return new ArrayList<Area>(areas.values());
+    }
+
+    private List<Area> getAreas(String world, int x, int z) {
+        refresh();
+        List<Area> cell = null;
+        TARDISLongObjectMap<List<Area>> grid = grids.get(world);
+        if (grid != null) {
+            cell = grid.get(TARDISBlockKey.packChunk(x >> CELL_SHIFT, z >> CELL_SHIFT));
+        }
+        List<Area> big = large.get(world);
+        if (big == null) {
+            return (cell == null) ? Collections.<Area>emptyList() : cell;
+        }
+        if (cell == null) {
+            return big;
+        }
+        List<Area> both = new ArrayList<Area>(cell);
+        both.addAll(big);
+        return both;
+    }
+
+    private void refresh() {
+        if (stale) {
+            loadAreas();
+        }
+    }
+
+    private void loadAreas() {
+        areas.clear();
+        grids.clear();
+        large.clear();
+        List<Area> rows = TARDISQuery.list("areas", "area_name, world, minx, minz, maxx, maxz, y", null, new TARDISRowMapper<Area>() {
+            @Override
+            public Area map(ResultSet rs) throws SQLException {
+                return new Area(rs.getString("area_name"), rs.getString("world"), rs.getInt("minx"), rs.getInt("minz"), rs.getInt("maxx"), rs.getInt("maxz"), rs.getInt("y"));
+            }
+        });
+        for (Area a : rows) {
+            areas.put(a.name.toLowerCase(Locale.ENGLISH), a);
+            int cx1 = a.minx >> CELL_SHIFT, cz1 = a.minz >> CELL_SHIFT;
+            int cx2 = a.maxx >> CELL_SHIFT, cz2 = a.maxz >> CELL_SHIFT;
+            if ((long) (cx2 - cx1 + 1) * (cz2 - cz1 + 1) > MAX_CELLS) {
+                List<Area> big = large.get(a.world);
+                if (big == null) {
+                    big = new ArrayList<Area>();
+                    large.put(a.world, big);
+                }
+                big.add(a);
+                continue;
+            }
+            TARDISLongObjectMap<List<Area>> grid = grids.get(a.world);
+            if (grid == null) {
+                grid = new TARDISLongObjectMap<List<Area>>();
+                grids.put(a.world, grid);
+            }
+            for (int cx = cx1; cx <= cx2; cx++) {
+                for (int cz = cz1; cz <= cz2; cz++) {
+                    long key = TARDISBlockKey.packChunk(cx, cz);
+                    List<Area> cell = grid.get(key);
+                    if (cell == null) {
+                        cell = new ArrayList<Area>(1);
+                        grid.put(key, cell);
+                    }
+                    cell.add(a);
+                }
+            }
+        }
+        stale = false;
+        for (Map.Entry<Integer, TARDISBlockKey> entry : parked.entrySet()) {
+            park(entry.getValue());
+        }
+    }
+
+    private void park(TARDISBlockKey bk) {
+        for (Area a : getAreas(bk.getWorld(), bk.getX(), bk.getZ())) {
+            int slot = a.getSlot(bk.getX(), bk.getZ());
+            if (slot >= 0) {
+                a.take(slot);
+            }
+        }
+    }
+
+    /**
+     * A TARDIS area and its parking spots. Spots are 5 blocks apart, starting
+     * 2 blocks in from the minimum corner, and are numbered along the x axis
+     * first.
+     */
+    public static class Area {
+
+        private final String name;
+        private final String world;
+        private final int minx, minz, maxx, maxz, y;
+        private final int columns, rows;
+        private final BitSet taken = new BitSet();
+        /**
+         * The number of TARDISes on each spot, as overlapping areas (or a
+         * bad save) can put more than one on the same spot.
+         */
+        private final HashMap<Integer, Integer> counts = new HashMap<Integer, Integer>();
+
+        Area(String name, String world, int minx, int minz, int maxx, int maxz, int y) {
+            this.name = name;
+            this.world = world;
+            this.minx = minx;
+            this.minz = minz;
+            this.maxx = maxx;
+            this.maxz = maxz;
+            this.y = y;
+            this.columns = spots(minx, maxx);
+            this.rows = spots(minz, maxz);
+        }
+
+        private static int spots(int min, int max) {
+            return (max < min + 2) ? 1 : (max - min - 2) / 5 + 1;
+        }
+
+        boolean contains(double x, double z) {
+            return x <= maxx && z <= maxz && x >= minx && z >= minz;
+        }
+
+        /**
+         * Gets the number of the parking spot at a block.
+         *
+         * @return the spot number, or -1 if the block isn't a parking spot
+         */
+        int getSlot(int x, int z) {
+            int dx = x - minx - 2;
+            int dz = z - minz - 2;
+            if (dx < 0 || dz < 0 || dx % 5 != 0 || dz % 5 != 0 || dx / 5 >= columns || dz / 5 >= rows) {
+                return -1;
+            }
+            return (dz / 5) * columns + dx / 5;
+        }
+
+        void take(int slot) {
+            Integer n = counts.get(slot);
+            counts.put(slot, (n == null) ? 1 : n + 1);
+            taken.set(slot);
+        }
+
+        void release(int slot) {
+            Integer n = counts.get(slot);
+            if (n == null || n <= 1) {
+                counts.remove(slot);
+                taken.clear(slot);
+            } else {
+                counts.put(slot, n - 1);
+            }
+        }
+
+        /**
+         * Gets the first free parking spot.
+         *
+         * @return the spot's x and z, or null if the area is full
+         */
+        public int[] getFreeSpot() {
+            int slot = taken.nextClearBit(0);
+            if (slot >= getCapacity()) {
+                return null;
+            }
+            return new int[]{minx + 2 + (slot % columns) * 5, minz + 2 + (slot / columns) * 5};
+        }
+
+        public int getTaken() {
+            return taken.cardinality();
+        }
+
+        public int getCapacity() {
+            return (int) Math.min(Integer.MAX_VALUE, (long) columns * rows);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getWorld() {
+            return world;
+        }
+
+        public int getMinx() {
+            return minx;
+        }
+
+        public int getMinz() {
+            return minz;
+        }
+
+        public int getMaxx() {
+            return maxx;
+        }
+
+        public int getMaxz() {
+            return maxz;
+        }
+
+        public int getY() {
+            return y;
+        }
+    }
+}
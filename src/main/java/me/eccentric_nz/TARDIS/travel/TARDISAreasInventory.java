@@ -18,10 +18,8 @@ package me.eccentric_nz.TARDIS.travel;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import me.eccentric_nz.TARDIS.TARDIS;
-import me.eccentric_nz.TARDIS.database.ResultSetAreas;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
@@ -55,24 +53,20 @@ public class TARDISAreasInventory {
     private ItemStack[] getItemStack() {
         List<ItemStack> areas = new ArrayList<ItemStack>();
         // saved destinations
-        ResultSetAreas rsa = new ResultSetAreas(plugin, null, true);
         int i = 0;
-        if (rsa.resultSet()) {
-            ArrayList<HashMap<String, String>> data = rsa.getData();
-            // cycle through areas
-            for (HashMap<String, String> map : data) {
-                String name = map.get("area_name");
-                if (p.hasPermission("tardis.area." + name)) {
-                    ItemStack is = new ItemStack(ids.get(i), 1);
-                    ItemMeta im = is.getItemMeta();
-                    im.setDisplayName(name);
-                    List<String> lore = new ArrayList<String>();
-                    lore.add(map.get("world"));
-                    im.setLore(lore);
-                    is.setItemMeta(im);
-                    areas.add(is);
-                    i++;
-                }
+        // cycle through areas
+        for (TARDISAreaIndex.Area area : plugin.areaIndex.getAreas()) {
+            String name = area.getName();
+            if (p.hasPermission("tardis.area." + name)) {
+                ItemStack is = new ItemStack(ids.get(i), 1);
+                ItemMeta im = is.getItemMeta();
+                im.setDisplayName(name);
+                List<String> lore = new ArrayList<String>();
+                lore.add(area.getWorld());
+                im.setLore(lore);
+                is.setItemMeta(im);
+                areas.add(is);
+                i++;
             }
         }
 
@@ -111,7 +111,7 @@ public class TARDISEPSRunnable implements Runnable {
                 HashMap<String, Object> where = new HashMap<String, Object>();
                 where.put("tardis_id", id);
                 where.put("door_type", 1);
-                ResultSetDoors rsd = new ResultSetDoors(plugin, where, false);
+                ResultSetDoors rsd = new ResultSetDoors(plugin, where);
                 if (rsd.resultSet()) {
                     String[] door = rsd.getDoor_location().split(":");
                     World w = plugin.getServer().getWorld(door[0]);
@@ -89,7 +89,7 @@ public class TARDISFarmer {
             boolean canfarm = plugin.tmic.checkMVI(from, to);
             if (!canfarm) {
                 p.sendMessage(plugin.pluginName + "You cannot farm mobs from this world.");
-                plugin.trackFarming.remove(p.getName());
+                plugin.state.trackFarming.remove(p.getName());
                 return null;
             }
         }
@@ -131,7 +131,7 @@ public class TARDISFarmer {
             // is there a farm room?
             HashMap<String, Object> where = new HashMap<String, Object>();
             where.put("tardis_id", id);
-            ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+            ResultSetTardis rs = new ResultSetTardis(plugin, where);
             if (rs.resultSet()) {
                 String farm = rs.getFarm();
                 String stable = rs.getStable();
@@ -527,7 +527,7 @@ public class TARDISFarmer {
         plugin.getServer().getScheduler().scheduleSyncDelayedTask(plugin, new Runnable() {
             @Override
             public void run() {
-                plugin.trackFarming.remove(p.getName());
+                plugin.state.trackFarming.remove(p.getName());
             }
         }, 20L);
         return old_macd_had_a_pet;
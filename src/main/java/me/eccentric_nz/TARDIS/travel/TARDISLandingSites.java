@@ -0,0 +1,330 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.travel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import me.eccentric_nz.TARDIS.TARDIS;
+import me.eccentric_nz.TARDIS.TARDISConstants.COMPASS;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+/**
+ * Keeps a pool of safe landing sites for random time travel in the overworld,
+ * so that a destination can be found without searching (and generating
+ * chunks) while the player waits.
+ *
+ * Sites are pooled per world and per repeater setting, as the repeaters choose
+ * how far from the world's centre the TARDIS lands. Once a setting has been
+ * used, its pool is topped up in the background: one chunk is loaded every few
+ * ticks, and a snapshot of it is searched for safe columns off the main
+ * thread. A site is checked again on the main thread before it is used, as
+ * the world may have changed since it was found.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISLandingSites implements Runnable {
+
+    /**
+     * The number of sites to keep for each world and repeater setting.
+     */
+    private static final int TARGET = 3;
+    /**
+     * How long a site is kept before it is thrown away unused.
+     */
+    private static final long MAX_AGE = 600000L;
+    /**
+     * The number of columns tried in each chunk snapshot.
+     */
+    private static final int COLUMNS = 24;
+    private static final List<Integer> GOOD = Arrays.asList(new Integer[]{0, 6, 31, 37, 38, 39, 40, 78});
+    private final TARDIS plugin;
+    private final Random rand = new Random();
+    // the pools and the scanning set are shared with the snapshot searches, so are guarded by pools
+    private final HashMap<String, LinkedList<Site>> pools = new HashMap<String, LinkedList<Site>>();
+    private final Set<String> scanning = new HashSet<String>();
+    private final LinkedHashMap<String, Band> bands = new LinkedHashMap<String, Band>();
+    private int task = -1;
+
+    public TARDISLandingSites(TARDIS plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Takes a safe landing site from the pool.
+     *
+     * @param w the world to land in
+     * @param rx the data bit setting of the x-repeater
+     * @param rz the data bit setting of the z-repeater
+     * @param ry the data bit setting of the y-repeater
+     * @param d the direction the TARDIS Police Box faces
+     * @param p the player, whose permissions are checked against the site
+     * @return a safe Location, or null if the pool has none
+     */
+    public Location poll(World w, byte rx, byte rz, byte ry, COMPASS d, Player p) {
+        String key = key(w, rx, rz, ry);
+        if (!bands.containsKey(key)) {
+            bands.put(key, new Band(w.getName(), rx, rz, ry));
+        }
+        List<Site> candidates = new ArrayList<Site>();
+        long now = System.currentTimeMillis();
+        synchronized (pools) {
+            LinkedList<Site> pool = pools.get(key);
+            if (pool != null) {
+                Iterator<Site> it = pool.iterator();
+                while (it.hasNext()) {
+                    Site site = it.next();
+                    if (now - site.time > MAX_AGE) {
+                        it.remove();
+                    } else if ((site.directions & (1 << d.ordinal())) != 0) {
+                        it.remove();
+                        candidates.add(site);
+                    }
+                }
+            }
+        }
+        Location dest = null;
+        TARDISTimeTravel tt = new TARDISTimeTravel(plugin);
+        TARDISPluginRespect respect = new TARDISPluginRespect(plugin);
+        for (Site site : candidates) {
+            if (dest == null) {
+                Location l = new Location(w, site.x, site.starty - 1, site.z);
+                if (respect.getRespect(p, l, false)) {
+                    // make sure nothing has been built there since the site was found
+                    w.getChunkAt(site.x >> 4, site.z >> 4);
+                    int gsl[] = tt.getStartLocation(l, d);
+                    if (tt.safeLocation(gsl[0], site.starty, gsl[2], gsl[1], gsl[3], w, d) == 0) {
+                        dest = new Location(w, site.x, site.highest, site.z);
+                    }
+                }
+                // sites that are no longer safe are forgotten
+                continue;
+            }
+            // not needed this time
+            synchronized (pools) {
+                pools.get(key).add(site);
+            }
+        }
+        start();
+        return dest;
+    }
+
+    /**
+     * Starts topping up the pools if it isn't already.
+     */
+    private void start() {
+        if (task < 0) {
+            task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, this, 5L, 5L);
+        }
+    }
+
+    /**
+     * Loads a chunk for the first pool that needs more sites, and searches it
+     * off the main thread. Stops when every pool is full.
+     */
+    @Override
+    public void run() {
+        Band next = null;
+        synchronized (pools) {
+            for (Band band : bands.values()) {
+                String key = band.toString();
+                LinkedList<Site> pool = pools.get(key);
+                if ((pool == null || pool.size() < TARGET) && !scanning.contains(key)) {
+                    next = band;
+                    break;
+                }
+            }
+            if (next == null) {
+                if (scanning.isEmpty()) {
+                    plugin.getServer().getScheduler().cancelTask(task);
+                    task = -1;
+                }
+                return;
+            }
+            scanning.add(next.toString());
+        }
+        World w = plugin.getServer().getWorld(next.world);
+        if (w == null) {
+            bands.remove(next.toString());
+            synchronized (pools) {
+                scanning.remove(next.toString());
+            }
+            return;
+        }
+        // move the band to the back of the queue so every band gets a turn
+        bands.remove(next.toString());
+        bands.put(next.toString(), next);
+        int max = plugin.getConfig().getInt("tp_radius");
+        int quarter = (max + 4 - 1) / 4;
+        int range = quarter + 1;
+        int wherex = TARDISTimeTravel.randomX(rand, range, quarter, next.rx, next.ry, max);
+        int wherez = TARDISTimeTravel.randomZ(rand, range, quarter, next.rz, next.ry, max);
+        final ChunkSnapshot snapshot = w.getChunkAt(wherex >> 4, wherez >> 4).getChunkSnapshot();
+        final boolean land_on_water = plugin.getConfig().getBoolean("land_on_water");
+        final String key = next.toString();
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, new Runnable() {
+            @Override
+            public void run() {
+                List<Site> sites = search(snapshot, land_on_water);
+                synchronized (pools) {
+                    LinkedList<Site> pool = pools.get(key);
+                    if (pool == null) {
+                        pool = new LinkedList<Site>();
+                        pools.put(key, pool);
+                    }
+                    for (Site site : sites) {
+                        if (pool.size() < TARGET * 2) {
+                            pool.add(site);
+                        }
+                    }
+                    scanning.remove(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Searches a chunk snapshot for columns the Police Box could land on. Only
+     * columns at least two blocks from the chunk's edge are tried, so that the
+     * Police Box's footprint is inside the snapshot.
+     */
+    private List<Site> search(ChunkSnapshot snapshot, boolean land_on_water) {
+        List<Site> sites = new ArrayList<Site>();
+        Random r = new Random();
+        for (int t = 0; t < COLUMNS; t++) {
+            int lx = 2 + r.nextInt(12);
+            int lz = 2 + r.nextInt(12);
+            int highest = snapshot.getHighestBlockYAt(lx, lz);
+            if (highest <= 3 || highest > 251) {
+                continue;
+            }
+            int below = snapshot.getBlockTypeId(lx, highest - 1, lz);
+            if ((below == 8 || below == 9) && !land_on_water) {
+                continue;
+            }
+            int starty = (GOOD.contains(snapshot.getBlockTypeId(lx, highest, lz))) ? highest : highest + 1;
+            int directions = 0;
+            for (COMPASS d : COMPASS.values()) {
+                if (isSafe(snapshot, lx, starty, lz, d)) {
+                    directions |= 1 << d.ordinal();
+                }
+            }
+            if (directions != 0) {
+                int x = (snapshot.getX() << 4) + lx;
+                int z = (snapshot.getZ() << 4) + lz;
+                sites.add(new Site(x, highest, starty, z, directions));
+            }
+        }
+        return sites;
+    }
+
+    /**
+     * The same check as TARDISTimeTravel.safeLocation(), on a chunk snapshot.
+     */
+    private boolean isSafe(ChunkSnapshot snapshot, int lx, int starty, int lz, COMPASS d) {
+        int sx, sz, rowcount, colcount;
+        switch (d) {
+            case EAST:
+                sx = lx - 2;
+                sz = lz - 1;
+                rowcount = 3;
+                colcount = 4;
+                break;
+            case SOUTH:
+                sx = lx - 1;
+                sz = lz - 2;
+                rowcount = 4;
+                colcount = 3;
+                break;
+            case WEST:
+                sx = lx - 1;
+                sz = lz - 1;
+                rowcount = 3;
+                colcount = 4;
+                break;
+            default:
+                sx = lx - 1;
+                sz = lz - 1;
+                rowcount = 4;
+                colcount = 3;
+                break;
+        }
+        for (int level = 0; level < 4; level++) {
+            for (int row = 0; row < rowcount; row++) {
+                for (int col = 0; col < colcount; col++) {
+                    if (!TARDISTimeTravel.isItSafe(snapshot.getBlockTypeId(sx + col, starty + level, sz + row))) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private String key(World w, byte rx, byte rz, byte ry) {
+        return w.getName() + ":" + (rx / 4) + ":" + (rz / 4) + ":" + (ry / 4);
+    }
+
+    /**
+     * A world and repeater setting that sites are pooled for.
+     */
+    private static class Band {
+
+        final String world;
+        final byte rx, rz, ry;
+
+        Band(String world, byte rx, byte rz, byte ry) {
+            this.world = world;
+            this.rx = rx;
+            this.rz = rz;
+            this.ry = ry;
+        }
+
+        @Override
+        public String toString() {
+            return world + ":" + (rx / 4) + ":" + (rz / 4) + ":" + (ry / 4);
+        }
+    }
+
+    /**
+     * A safe landing site, and the directions the Police Box can face there.
+     */
+    private static class Site {
+
+        final int x, highest, starty, z;
+        final long time = System.currentTimeMillis();
+        int directions;
+
+        Site(int x, int highest, int starty, int z, int directions) {
+            this.x = x;
+            this.highest = highest;
+            this.starty = starty;
+            this.z = z;
+            this.directions = directions;
+        }
+    }
+}
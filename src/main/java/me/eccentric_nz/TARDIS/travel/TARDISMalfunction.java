@@ -16,15 +16,16 @@
  */
 package me.eccentric_nz.TARDIS.travel;
 
-import java.util.ArrayList;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Random;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
-import me.eccentric_nz.TARDIS.database.ResultSetLamps;
 import me.eccentric_nz.TARDIS.database.ResultSetPlayerPrefs;
-import me.eccentric_nz.TARDIS.database.ResultSetTravellers;
+import me.eccentric_nz.TARDIS.database.TARDISQuery;
+import me.eccentric_nz.TARDIS.database.TARDISRowMapper;
 import org.bukkit.Location;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
@@ -66,8 +67,8 @@ public class TARDISMalfunction {
             int chance = 100 - plugin.getConfig().getInt("malfunction");
             if (rand.nextInt(100) > chance) {
                 mal = true;
-                if (plugin.trackRescue.containsKey(Integer.valueOf(id))) {
-                    plugin.trackRescue.remove(Integer.valueOf(id));
+                if (plugin.state.trackRescue.containsKey(Integer.valueOf(id))) {
+                    plugin.state.trackRescue.remove(Integer.valueOf(id));
                 }
             }
         }
@@ -100,15 +101,14 @@ public class TARDISMalfunction {
     public void doMalfunction(Location l) {
         HashMap<String, Object> where = new HashMap<String, Object>();
         where.put("tardis_id", id);
-        ResultSetLamps rsl = new ResultSetLamps(plugin, where, true);
-        List<Block> lamps = new ArrayList<Block>();
-        if (rsl.resultSet()) {
-            // flicker lights
-            ArrayList<HashMap<String, String>> data = rsl.getData();
-            for (HashMap<String, String> map : data) {
-                Location loc = plugin.utils.getLocationFromDB(map.get("location"), 0.0F, 0.0F);
-                lamps.add(loc.getBlock());
+        List<Block> lamps = TARDISQuery.list("lamps", "location", where, new TARDISRowMapper<Block>() {
+            @Override
+            public Block map(ResultSet rs) throws SQLException {
+                return plugin.utils.getLocationFromDB(rs.getString("location"), 0.0F, 0.0F).getBlock();
             }
+        });
+        if (!lamps.isEmpty()) {
+            // flicker lights
             if (plugin.pm.isPluginEnabled("Citizens") && plugin.getConfig().getBoolean("emergency_npc")) {
                 // get player prefs
                 HashMap<String, Object> wherep = new HashMap<String, Object>();
@@ -117,14 +117,8 @@ public class TARDISMalfunction {
                 if (rsp.resultSet() && rsp.isEPS_on()) {
                     // schedule the NPC to appear
                     String message = "This is Emergency Programme One. Now listen, this is important. If this message is activated, then it can only mean one thing: we must be in danger, and I mean fatal. You're about to die any second with no chance of escape.";
-                    HashMap<String, Object> wherev = new HashMap<String, Object>();
-                    wherev.put("tardis_id", id);
-                    ResultSetTravellers rst = new ResultSetTravellers(plugin, wherev, true);
-                    List<String> players;
-                    if (rst.resultSet()) {
-                        players = rst.getData();
-                    } else {
-                        players = new ArrayList<String>();
+                    List<String> players = plugin.travellers.getTravellers(id);
+                    if (players.isEmpty()) {
                         players.add(p.getName());
                     }
                     TARDISEPSRunnable EPS_runnable = new TARDISEPSRunnable(plugin, message, p, players, id, eps, creeper);
@@ -106,9 +106,9 @@ public class TARDISPluginRespect {
         }
         if (plugin.ta.areaCheckLocPlayer(p, l)) {
             if (message) {
-                p.sendMessage(plugin.pluginName + "You do not have permission [" + plugin.trackPerm.get(p.getName()) + "] to bring the TARDIS to this location!");
+                p.sendMessage(plugin.pluginName + "You do not have permission [" + plugin.state.trackPerm.get(p.getName()) + "] to bring the TARDIS to this location!");
             }
-            plugin.trackPerm.remove(p.getName());
+            plugin.state.trackPerm.remove(p.getName());
             bool = false;
         }
         return bool;
@@ -90,9 +90,9 @@ public class TARDISRescue {
         QueryFactory qf = new QueryFactory(plugin);
         qf.doUpdate("tardis", set, where);
         player.sendMessage(plugin.pluginName + "The player location was saved succesfully. Please release the handbrake!");
-        plugin.tardisHasDestination.put(id, plugin.getArtronConfig().getInt("travel"));
+        plugin.state.tardisHasDestination.put(id, plugin.getArtronConfig().getInt("travel"));
         if (rescue) {
-            plugin.trackRescue.put(id, saved);
+            plugin.state.trackRescue.put(id, saved);
         }
         return true;
     }
@@ -110,7 +110,7 @@ public class TARDISRescue {
             // get tardis data
             HashMap<String, Object> where = new HashMap<String, Object>();
             where.put("owner", player.getName());
-            ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+            ResultSetTardis rs = new ResultSetTardis(plugin, where);
             if (!rs.resultSet()) {
                 player.sendMessage(plugin.pluginName + "You are not a Timelord. You need to create a TARDIS before using this command!");
                 return true;
@@ -18,10 +18,9 @@ package me.eccentric_nz.TARDIS.travel;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import me.eccentric_nz.TARDIS.TARDIS;
-import me.eccentric_nz.TARDIS.database.ResultSetDestinations;
+import me.eccentric_nz.TARDIS.database.TARDISDestination;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
@@ -74,27 +73,27 @@ public class TARDISSaveSignInventory {
         him.setLore(hlore);
         his.setItemMeta(him);
         dests.add(his);
-        // saved destinations
-        HashMap<String, Object> did = new HashMap<String, Object>();
-        did.put("tardis_id", id);
-        ResultSetDestinations rsd = new ResultSetDestinations(plugin, did, true);
+        // saved destinations - read when the owner logged in, if they haven't changed
+        List<TARDISDestination> data = plugin.sessions.getDestinations(id);
+        if (data == null) {
+            data = TARDISDestination.list(id);
+        }
         int i = 1;
-        if (rsd.resultSet()) {
-            ArrayList<HashMap<String, String>> data = rsd.getData();
+        if (data.size() > 0) {
             // cycle through saves
-            for (HashMap<String, String> map : data) {
-                if (map.get("type").equals("0")) {
+            for (TARDISDestination dest : data) {
+                if (dest.getType() == 0) {
                     if (i < 45) {
                         ItemStack is = new ItemStack(ids.get(i), 1);
                         ItemMeta im = is.getItemMeta();
-                        im.setDisplayName(map.get("dest_name"));
+                        im.setDisplayName(dest.getDest_name());
                         List<String> lore = new ArrayList<String>();
-                        lore.add(map.get("world"));
-                        lore.add(map.get("x"));
-                        lore.add(map.get("y"));
-                        lore.add(map.get("z"));
-                        lore.add(map.get("direction"));
-                        lore.add((map.get("submarine").equals("1")) ? "true" : "false");
+                        lore.add(dest.getWorld());
+                        lore.add(String.valueOf(dest.getX()));
+                        lore.add(String.valueOf(dest.getY()));
+                        lore.add(String.valueOf(dest.getZ()));
+                        lore.add(dest.getDirection());
+                        lore.add((dest.isSubmarine()) ? "true" : "false");
                         im.setLore(lore);
                         is.setItemMeta(im);
                         dests.add(is);
@@ -161,11 +161,8 @@ public class TARDISTimeTravel {
                     Block currentBlock = randworld.getBlockAt(wherex, highest, wherez);
                     Location chunk_loc = currentBlock.getLocation();
                     if (respect.getRespect(p, chunk_loc, false)) {
-                        randworld.getChunkAt(chunk_loc).load();
-                        randworld.getChunkAt(chunk_loc).load(true);
-                        while (!randworld.getChunkAt(chunk_loc).isLoaded()) {
-                            randworld.getChunkAt(chunk_loc).load();
-                        }
+                        // getChunkAt() loads (or generates) the chunk
+                        randworld.getChunkAt(chunk_loc);
                         // get start location for checking there is enough space
                         int gsl[] = getStartLocation(chunk_loc, d);
                         startx = gsl[0];
@@ -188,6 +185,12 @@ public class TARDISTimeTravel {
             dest = new Location(randworld, wherex, highest, wherez);
         }
         if (randworld != null && randworld.getEnvironment().equals(Environment.NORMAL)) {
+            // use a site that was found in the background if there is one
+            Location pooled = plugin.landingSites.poll(randworld, rx, rz, ry, d, p);
+            if (pooled != null) {
+                return pooled;
+            }
+            Boolean submarine = null;
             long timeout = System.currentTimeMillis() + (plugin.getConfig().getLong("timeout") * 1000);
             while (danger == true) {
                 if (System.currentTimeMillis() < timeout) {
@@ -200,11 +203,14 @@ public class TARDISTimeTravel {
                     if (highest > 3) {
                         Block currentBlock = randworld.getBlockAt(wherex, highest, wherez);
                         if ((currentBlock.getRelative(BlockFace.DOWN).getTypeId() == 8 || currentBlock.getRelative(BlockFace.DOWN).getTypeId() == 9) && plugin.getConfig().getBoolean("land_on_water") == false) {
-                            // check if submarine is on
-                            HashMap<String, Object> wheres = new HashMap<String, Object>();
-                            wheres.put("player", p.getName());
-                            ResultSetPlayerPrefs rsp = new ResultSetPlayerPrefs(plugin, wheres);
-                            if (rsp.resultSet() && rsp.isSubmarine_on() && currentBlock.getBiome().equals(Biome.OCEAN)) {
+                            // check if submarine is on (only once per search)
+                            if (submarine == null) {
+                                HashMap<String, Object> wheres = new HashMap<String, Object>();
+                                wheres.put("player", p.getName());
+                                ResultSetPlayerPrefs rsp = new ResultSetPlayerPrefs(plugin, wheres);
+                                submarine = rsp.resultSet() && rsp.isSubmarine_on();
+                            }
+                            if (submarine && currentBlock.getBiome().equals(Biome.OCEAN)) {
                                 // get submarine location
                                 p.sendMessage(plugin.pluginName + "Searching for underwater location...");
                                 Location underwater = submarine(currentBlock, d);
@@ -214,7 +220,7 @@ public class TARDISTimeTravel {
                                     wherep.put("player", p.getName());
                                     ResultSetTravellers rst = new ResultSetTravellers(plugin, wherep, false);
                                     if (rst.resultSet()) {
-                                        plugin.trackSubmarine.add(Integer.valueOf(rst.getTardis_id()));
+                                        plugin.state.trackSubmarine.add(rst.getTardis_id());
                                     }
                                     return underwater;
                                 } else {
@@ -229,11 +235,8 @@ public class TARDISTimeTravel {
                             }
                             Location chunk_loc = currentBlock.getLocation();
                             if (respect.getRespect(p, chunk_loc, false)) {
-                                randworld.getChunkAt(chunk_loc).load();
-                                randworld.getChunkAt(chunk_loc).load(true);
-                                while (!randworld.getChunkAt(chunk_loc).isLoaded()) {
-                                    randworld.getChunkAt(chunk_loc).load();
-                                }
+                                // getChunkAt() loads (or generates) the chunk
+                                randworld.getChunkAt(chunk_loc);
                                 // get start location for checking there is enough space
                                 int gsl[] = getStartLocation(chunk_loc, d);
                                 startx = gsl[0];
@@ -381,7 +384,7 @@ public class TARDISTimeTravel {
      *
      * @param id the block typeId to check.
      */
-    private boolean isItSafe(int id) {
+    static boolean isItSafe(int id) {
         boolean safe = false;
         if (id == 0 || id == 6 || id == 31 || id == 32 || id == 37 || id == 38 || id == 39 || id == 40 || id == 78 || id == 115) {
             safe = true;
@@ -477,7 +480,7 @@ public class TARDISTimeTravel {
      * @param ry the data bit of the y-repeater setting.
      * @param max the max_distance config option.
      */
-    private int randomX(Random rand, int range, int quarter, byte rx, byte ry, int max) {
+    static int randomX(Random rand, int range, int quarter, byte rx, byte ry, int max) {
         int wherex;
         wherex = rand.nextInt(range);
         // add the distance from the x and z repeaters
@@ -520,7 +523,7 @@ public class TARDISTimeTravel {
      * @param ry the data bit of the y-repeater setting.
      * @param max the max_distance config option.
      */
-    private int randomZ(Random rand, int range, int quarter, byte rz, byte ry, int max) {
+    static int randomZ(Random rand, int range, int quarter, byte rz, byte ry, int max) {
         int wherez;
         wherez = rand.nextInt(range);
         // add the distance from the x and z repeaters
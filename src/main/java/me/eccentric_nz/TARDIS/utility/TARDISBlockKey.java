@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.utility;
+
+/**
+ * Packs block and chunk co-ordinates into a single long so that they can be
+ * used as primitive map keys, and parses the two location string formats the
+ * TARDIS stores in the database.
+ *
+ * The x and z co-ordinates get 26 bits each and y gets 12 bits, which covers
+ * every block position a Minecraft world can hold.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISBlockKey {
+
+    private final String world;
+    private final int x;
+    private final int y;
+    private final int z;
+
+    public TARDISBlockKey(String world, int x, int y, int z) {
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Packs block co-ordinates into a long.
+     *
+     * @param x the x co-ordinate of the block
+     * @param y the y co-ordinate of the block
+     * @param z the z co-ordinate of the block
+     * @return the packed co-ordinates
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (long) (y & 0xFFF);
+    }
+
+    public static int unpackX(long key) {
+        return (int) (key >> 38);
+    }
+
+    public static int unpackY(long key) {
+        return (int) (key << 52 >> 52);
+    }
+
+    public static int unpackZ(long key) {
+        return (int) (key << 26 >> 38);
+    }
+
+    /**
+     * Packs chunk co-ordinates into a long.
+     *
+     * @param cx the x co-ordinate of the chunk
+     * @param cz the z co-ordinate of the chunk
+     * @return the packed co-ordinates
+     */
+    public static long packChunk(int cx, int cz) {
+        return ((long) cx << 32) | ((long) cz & 0xFFFFFFFFL);
+    }
+
+    public static int unpackChunkX(long key) {
+        return (int) (key >> 32);
+    }
+
+    public static int unpackChunkZ(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Parses a location string retrieved from the database. Both the
+     * org.bukkit.Location.toString() style e.g.
+     * Location{world=CraftWorld{name=world},x=0.0,y=0.0,z=0.0,pitch=0.0,yaw=0.0}
+     * and the world:x:y:z style are understood.
+     *
+     * @param s the location string
+     * @return a TARDISBlockKey or null if the string could not be parsed
+     */
+    public static TARDISBlockKey fromString(String s) {
+        if (s == null || s.isEmpty()) {
+            return null;
+        }
+        try {
+            if (s.startsWith("Location{")) {
+                int ws = s.indexOf("name=") + 5;
+                int we = s.indexOf('}', ws);
+                int xs = s.indexOf(",x=", we) + 3;
+                int ys = s.indexOf(",y=", xs) + 3;
+                int zs = s.indexOf(",z=", ys) + 3;
+                int ze = s.indexOf(',', zs);
+                if (ws < 5 || we < 0 || xs < 3 || ys < 3 || zs < 3) {
+                    return null;
+                }
+                String w = s.substring(ws, we);
+                int x = (int) Math.floor(Double.parseDouble(s.substring(xs, ys - 3)));
+                int y = (int) Math.floor(Double.parseDouble(s.substring(ys, zs - 3)));
+                int z = (int) Math.floor(Double.parseDouble(s.substring(zs, (ze < 0) ? s.length() - 1 : ze)));
+                return new TARDISBlockKey(w, x, y, z);
+            }
+            String[] data = s.split(":");
+            if (data.length < 4) {
+                return null;
+            }
+            int x = (int) Math.floor(Double.parseDouble(data[1]));
+            int y = (int) Math.floor(Double.parseDouble(data[2]));
+            int z = (int) Math.floor(Double.parseDouble(data[3]));
+            return new TARDISBlockKey(data[0], x, y, z);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public String getWorld() {
+        return world;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
+    public long getKey() {
+        return pack(x, y, z);
+    }
+
+    public long getChunkKey() {
+        return packChunk(x >> 4, z >> 4);
+    }
+}
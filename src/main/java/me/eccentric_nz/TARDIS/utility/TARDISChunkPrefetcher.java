@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.utility;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import me.eccentric_nz.TARDIS.TARDIS;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * Loads the chunks around a destination before something is sent there.
+ *
+ * The chunk a player (or minecart, or Police Box) is going to, and the eight
+ * chunks around it, are kept loaded and then loaded (or generated) a few a
+ * tick, the destination chunk first. Once they are all loaded the teleport
+ * runs, so it never waits on the disk itself. The chunks are let go again
+ * after the teleport, when whatever was sent there keeps them loaded.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISChunkPrefetcher implements Runnable {
+
+    /**
+     * The number of chunks loaded each tick while there are chunks waiting.
+     */
+    private static final int CHUNKS_PER_TICK = 2;
+    private final TARDIS plugin;
+    private final LinkedList<Prefetch> waiting = new LinkedList<Prefetch>();
+    private int task = -1;
+    private long tick = 0;
+    private long teleports = 0;
+    private long loaded = 0;
+    private long totalWait = 0;
+    private long maxWait = 0;
+
+    public TARDISChunkPrefetcher(TARDIS plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Starts loading the chunks around a location, and runs a task once they
+     * are loaded.
+     *
+     * @param l the destination
+     * @param delay the least number of ticks to wait before running the task
+     * @param then the task to run, for example the teleport
+     */
+    public void prefetch(Location l, long delay, Runnable then) {
+        World w = l.getWorld();
+        int cx = l.getBlockX() >> 4;
+        int cz = l.getBlockZ() >> 4;
+        Prefetch p = new Prefetch(w, then, tick + Math.max(1, delay));
+        // the destination chunk first
+        p.chunks.add(new int[]{cx, cz});
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                if (dx != 0 || dz != 0) {
+                    p.chunks.add(new int[]{cx + dx, cz + dz});
+                }
+            }
+        }
+        for (int[] c : p.chunks) {
+            plugin.retainedChunks.retain(w.getName(), c[0], c[1]);
+        }
+        waiting.add(p);
+        if (task < 0) {
+            task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, this, 1L, 1L);
+        }
+    }
+
+    @Override
+    public void run() {
+        tick++;
+        int budget = CHUNKS_PER_TICK;
+        List<Prefetch> ready = new ArrayList<Prefetch>();
+        Iterator<Prefetch> it = waiting.iterator();
+        while (it.hasNext()) {
+            Prefetch p = it.next();
+            while (p.next < p.chunks.size()) {
+                int[] c = p.chunks.get(p.next);
+                if (!p.world.isChunkLoaded(c[0], c[1])) {
+                    if (budget == 0) {
+                        break;
+                    }
+                    p.world.loadChunk(c[0], c[1], true);
+                    loaded++;
+                    budget--;
+                }
+                p.next++;
+            }
+            if (p.next == p.chunks.size() && p.ready == 0) {
+                p.ready = System.currentTimeMillis();
+            }
+            if (p.ready > 0 && tick >= p.due) {
+                it.remove();
+                ready.add(p);
+            }
+        }
+        for (Prefetch p : ready) {
+            long wait = p.ready - p.started;
+            teleports++;
+            totalWait += wait;
+            if (wait > maxWait) {
+                maxWait = wait;
+            }
+            try {
+                p.then.run();
+            } catch (RuntimeException e) {
+                // don't let one bad teleport stop the others
+                plugin.debug("Prefetched teleport error! " + e.getMessage());
+            } finally {
+                for (int[] c : p.chunks) {
+                    plugin.retainedChunks.release(p.world.getName(), c[0], c[1]);
+                }
+            }
+        }
+        if (waiting.isEmpty()) {
+            plugin.getServer().getScheduler().cancelTask(task);
+            task = -1;
+        }
+    }
+
+    /**
+     * Gets the number of teleports waiting for their chunks.
+     *
+     * @return the number of waiting teleports
+     */
+    public int size() {
+        return waiting.size();
+    }
+
+    public long getTeleports() {
+        return teleports;
+    }
+
+    public long getLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Gets the average time from asking for a teleport to its chunks being
+     * loaded.
+     *
+     * @return the average wait in milliseconds
+     */
+    public double getAverageWait() {
+        return (teleports == 0) ? 0.0D : totalWait / (double) teleports;
+    }
+
+    public long getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * A teleport waiting for its chunks.
+     */
+    private static class Prefetch {
+
+        final World world;
+        final Runnable then;
+        final long due;
+        final long started = System.currentTimeMillis();
+        final List<int[]> chunks = new ArrayList<int[]>(9);
+        int next = 0;
+        long ready = 0;
+
+        Prefetch(World world, Runnable then, long due) {
+            this.world = world;
+            this.then = then;
+            this.due = due;
+        }
+    }
+}
@@ -16,10 +16,17 @@
  */
 package me.eccentric_nz.TARDIS.utility;
 
-import java.util.ArrayList;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
 import me.eccentric_nz.TARDIS.TARDIS;
-import me.eccentric_nz.TARDIS.database.ResultSetTardis;
+import me.eccentric_nz.TARDIS.database.TARDISQuery;
+import me.eccentric_nz.TARDIS.database.TARDISRowMapper;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Creeper;
@@ -34,7 +41,14 @@ import org.bukkit.entity.EntityType;
  */
 public class TARDISCreeperChecker {
 
+    /**
+     * The number of TARDISes checked each tick while a check is running.
+     */
+    private static final int CHECKS_PER_TICK = 4;
     private final TARDIS plugin;
+    private final HashMap<Integer, Creeper> creepers = new HashMap<Integer, Creeper>();
+    private final LinkedList<Check> queue = new LinkedList<Check>();
+    private int task = -1;
 
     public TARDISCreeperChecker(TARDIS plugin) {
         this.plugin = plugin;
@@ -48,49 +62,125 @@ public class TARDISCreeperChecker {
         plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, new Runnable() {
             @Override
             public void run() {
-                checkCreepers();
+                queueChecks();
             }
         }, 600L, 12000L);
     }
 
     /**
-     * Checks the creeper is there and spawns in a new one if not.
+     * Queues a check of every initialised TARDIS with a creeper location, and
+     * starts working through them a few a tick.
      */
-    private void checkCreepers() {
-        ResultSetTardis rs = new ResultSetTardis(plugin, null, "", true);
-        if (rs.resultSet()) {
-            ArrayList<HashMap<String, String>> data = rs.getData();
-            for (HashMap<String, String> map : data) {
+    private void queueChecks() {
+        HashMap<String, Object> where = new HashMap<String, Object>();
+        where.put("tardis_init", 1);
+        List<Check> checks = TARDISQuery.list("tardis", "tardis_id, owner, creeper", where, new TARDISRowMapper<Check>() {
+            @Override
+            public Check map(ResultSet rs) throws SQLException {
+                String creeper = rs.getString("creeper");
                 // only if there is a saved creeper location
-                if (!map.get("creeper").isEmpty()) {
-                    // only if the TARDIS has been initialised
-                    if (map.get("tardis_init").equals("1")) {
-                        String[] creeperData = map.get("creeper").split(":");
-                        World w = plugin.getServer().getWorld(creeperData[0]);
-                        if (w != null) {
-                            float cx = 0, cy = 0, cz = 0;
-                            try {
-                                cx = Float.parseFloat(creeperData[1]);
-                                cy = Float.parseFloat(creeperData[2]) + 1;
-                                cz = Float.parseFloat(creeperData[3]);
-                            } catch (NumberFormatException nfe) {
-                                plugin.debug("Couldn't convert to a float! " + nfe.getMessage());
-                            }
-                            Location l = new Location(w, cx, cy, cz);
-                            plugin.myspawn = true;
-                            Entity e = w.spawnEntity(l, EntityType.CREEPER);
-                            // if there is a creeper there already get rid of it!
-                            for (Entity k : e.getNearbyEntities(1d, 1d, 1d)) {
-                                if (k.getType().equals(EntityType.CREEPER)) {
-                                    e.remove();
-                                    break;
-                                }
-                            }
-                            Creeper c = (Creeper) e;
-                            c.setPowered(true);
-                        }
+                if (creeper == null || creeper.isEmpty()) {
+                    return null;
+                }
+                return Check.parse(rs.getInt("tardis_id"), rs.getString("owner"), creeper);
+            }
+        });
+        queue.clear();
+        Set<Integer> ids = new HashSet<Integer>();
+        for (Check check : checks) {
+            ids.add(check.id);
+            queue.add(check);
+        }
+        // forget the creepers of TARDISes that have been deleted
+        creepers.keySet().retainAll(ids);
+        if (task < 0 && !queue.isEmpty()) {
+            task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < CHECKS_PER_TICK && !queue.isEmpty(); i++) {
+                        checkCreeper(queue.poll());
+                    }
+                    if (queue.isEmpty()) {
+                        plugin.getServer().getScheduler().cancelTask(task);
+                        task = -1;
                     }
                 }
+            }, 1L, 1L);
+        }
+    }
+
+    /**
+     * Checks the creeper is there and spawns in a new one if not. TARDISes
+     * whose console chunk isn't loaded are left alone, unless their owner is
+     * online, so the check never loads the chunks of TARDISes no one is using.
+     */
+    private void checkCreeper(Check check) {
+        World w = plugin.getServer().getWorld(check.world);
+        if (w == null) {
+            return;
+        }
+        int cx = (int) Math.floor(check.x) >> 4;
+        int cz = (int) Math.floor(check.z) >> 4;
+        if (!w.isChunkLoaded(cx, cz) && plugin.getServer().getPlayerExact(check.owner) == null) {
+            return;
+        }
+        Location l = new Location(w, check.x, check.y, check.z);
+        Creeper c = creepers.get(check.id);
+        if (c == null || !c.isValid() || c.getLocation().distanceSquared(l) > 4) {
+            c = findCreeper(w.getChunkAt(cx, cz), l);
+        }
+        if (c == null) {
+            plugin.myspawn = true;
+            c = (Creeper) w.spawnEntity(l, EntityType.CREEPER);
+        }
+        c.setPowered(true);
+        creepers.put(check.id, c);
+    }
+
+    /**
+     * Finds a creeper that is already in the Artron Energy Capacitor.
+     */
+    private Creeper findCreeper(Chunk chunk, Location l) {
+        for (Entity e : chunk.getEntities()) {
+            if (e.getType().equals(EntityType.CREEPER) && e.getLocation().distanceSquared(l) <= 4) {
+                return (Creeper) e;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The location of a TARDIS's creeper.
+     */
+    private static class Check {
+
+        final int id;
+        final String owner;
+        final String world;
+        final float x, y, z;
+
+        Check(int id, String owner, String world, float x, float y, float z) {
+            this.id = id;
+            this.owner = owner;
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        static Check parse(int id, String owner, String creeper) {
+            String[] creeperData = creeper.split(":");
+            if (creeperData.length < 4) {
+                return null;
+            }
+            try {
+                float cx = Float.parseFloat(creeperData[1]);
+                float cy = Float.parseFloat(creeperData[2]) + 1;
+                float cz = Float.parseFloat(creeperData[3]);
+                return new Check(id, owner, creeperData[0], cx, cy, cz);
+            } catch (NumberFormatException nfe) {
+                TARDIS.plugin.debug("Couldn't convert to a float! " + nfe.getMessage());
+                return null;
             }
         }
     }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.utility;
+
+import java.util.HashMap;
+
+/**
+ * Holds the Gravity Well blocks of every TARDIS, so that the move listener
+ * can check the block a player is standing on without building location
+ * strings.
+ *
+ * Wells are stored per world in a primitive long keyed map. Only one well can
+ * be on a block, whatever its direction. The lifts (the tasks moving players
+ * along a well) are also tracked, so that a player is only ever carried by one
+ * of them.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISGravityWells {
+
+    public static final int DOWN = 0;
+    public static final int UP = 1;
+    public static final int NORTH = 2;
+    public static final int WEST = 3;
+    public static final int SOUTH = 4;
+    public static final int EAST = 5;
+    private final HashMap<String, TARDISLongObjectMap<Well>> worlds = new HashMap<String, TARDISLongObjectMap<Well>>();
+    private final HashMap<String, Integer> lifts = new HashMap<String, Integer>();
+
+    /**
+     * Adds a Gravity Well block.
+     *
+     * @param world the name of the world the block is in
+     * @param x the x co-ordinate of the block
+     * @param y the y co-ordinate of the block
+     * @param z the z co-ordinate of the block
+     * @param id the TARDIS the well belongs to
+     * @param direction the direction the well moves players (0 = down, 1 =
+     * up, 2 = north, 3 = west, 4 = south, 5 = east)
+     * @param distance how far players are moved
+     * @param velocity how fast players are moved
+     */
+    public void add(String world, int x, int y, int z, int id, int direction, double distance, double velocity) {
+        TARDISLongObjectMap<Well> wells = worlds.get(world);
+        if (wells == null) {
+            wells = new TARDISLongObjectMap<Well>();
+            worlds.put(world, wells);
+        }
+        wells.put(TARDISBlockKey.pack(x, y, z), new Well(id, direction, distance, velocity));
+    }
+
+    /**
+     * Adds a Gravity Well block from a location string stored in the
+     * database.
+     *
+     * @param location the location string
+     * @param id the TARDIS the well belongs to
+     * @param direction the direction the well moves players
+     * @param distance how far players are moved
+     * @param velocity how fast players are moved
+     * @return true if the location could be parsed
+     */
+    public boolean add(String location, int id, int direction, double distance, double velocity) {
+        TARDISBlockKey bk = TARDISBlockKey.fromString(location);
+        if (bk == null) {
+            return false;
+        }
+        add(bk.getWorld(), bk.getX(), bk.getY(), bk.getZ(), id, direction, distance, velocity);
+        return true;
+    }
+
+    /**
+     * Gets the Gravity Well on a block.
+     *
+     * @param world the name of the world the block is in
+     * @param x the x co-ordinate of the block
+     * @param y the y co-ordinate of the block
+     * @param z the z co-ordinate of the block
+     * @return the well or null if the block isn't a Gravity Well
+     */
+    public Well get(String world, int x, int y, int z) {
+        TARDISLongObjectMap<Well> wells = worlds.get(world);
+        if (wells == null) {
+            return null;
+        }
+        return wells.get(TARDISBlockKey.pack(x, y, z));
+    }
+
+    /**
+     * Removes the Gravity Well on a block.
+     *
+     * @param location the location string of the block
+     */
+    public void remove(String location) {
+        TARDISBlockKey bk = TARDISBlockKey.fromString(location);
+        if (bk == null) {
+            return;
+        }
+        TARDISLongObjectMap<Well> wells = worlds.get(bk.getWorld());
+        if (wells != null) {
+            wells.remove(TARDISBlockKey.pack(bk.getX(), bk.getY(), bk.getZ()));
+        }
+    }
+
+    /**
+     * Removes all the Gravity Wells of a TARDIS.
+     *
+     * @param id the tardis_id
+     */
+    public void removeTardis(int id) {
+        for (TARDISLongObjectMap<Well> wells : worlds.values()) {
+            for (long key : wells.keys()) {
+                if (wells.get(key).tardis_id == id) {
+                    wells.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of Gravity Well blocks.
+     *
+     * @return the number of wells
+     */
+    public int size() {
+        int size = 0;
+        for (TARDISLongObjectMap<Well> wells : worlds.values()) {
+            size += wells.size();
+        }
+        return size;
+    }
+
+    /**
+     * Records the task that is carrying a player along a Gravity Well.
+     *
+     * @param player the name of the player
+     * @param task the task id
+     * @return the id of the task that was carrying the player before, or -1
+     */
+    public int startLift(String player, int task) {
+        Integer previous = lifts.put(player, task);
+        return (previous == null) ? -1 : previous;
+    }
+
+    /**
+     * Forgets the task that was carrying a player, if it is still the current
+     * one.
+     *
+     * @param player the name of the player
+     * @param task the task id
+     */
+    public void endLift(String player, int task) {
+        Integer current = lifts.get(player);
+        if (current != null && current == task) {
+            lifts.remove(player);
+        }
+    }
+
+    /**
+     * A Gravity Well block.
+     */
+    public static class Well {
+
+        private final int tardis_id;
+        private final int direction;
+        private final double distance;
+        private final double velocity;
+
+        Well(int tardis_id, int direction, double distance, double velocity) {
+            this.tardis_id = tardis_id;
+            this.direction = direction;
+            this.distance = distance;
+            this.velocity = velocity;
+        }
+
+        public int getTardis_id() {
+            return tardis_id;
+        }
+
+        public int getDirection() {
+            return direction;
+        }
+
+        public double getDistance() {
+            return distance;
+        }
+
+        public double getVelocity() {
+            return velocity;
+        }
+    }
+}
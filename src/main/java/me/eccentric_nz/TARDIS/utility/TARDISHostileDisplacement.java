@@ -56,7 +56,7 @@ public class TARDISHostileDisplacement {
     public void moveTARDIS(final int id, Player hostile) {
         HashMap<String, Object> where = new HashMap<String, Object>();
         where.put("tardis_id", id);
-        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+        ResultSetTardis rs = new ResultSetTardis(plugin, where);
         if (rs.resultSet()) {
             String current = rs.getCurrent();
             String owner = rs.getOwner();
@@ -86,7 +86,7 @@ public class TARDISHostileDisplacement {
                             y = l.getWorld().getHighestBlockAt(l).getY();
                         }
                         l.setY(y);
-                        if (l.getBlock().getRelative(BlockFace.DOWN).isLiquid() && !plugin.getConfig().getBoolean("land_on_water") && !plugin.trackSubmarine.contains(id)) {
+                        if (l.getBlock().getRelative(BlockFace.DOWN).isLiquid() && !plugin.getConfig().getBoolean("land_on_water") && !plugin.state.trackSubmarine.contains(id)) {
                             plugin.debug("bool: false");
                             bool = false;
                         }
@@ -94,18 +94,18 @@ public class TARDISHostileDisplacement {
                         if (bool) {
                             Location sub = null;
                             boolean safe;
-                            if (plugin.trackSubmarine.contains(id)) {
+                            if (plugin.state.trackSubmarine.contains(id)) {
                                 sub = tt.submarine(l.getBlock(), d);
                                 safe = (sub != null);
                             } else {
                                 int[] start = tt.getStartLocation(l, d);
                                 safe = (tt.safeLocation(start[0], y, start[2], start[1], start[3], l.getWorld(), d) < 1);
-                                if (plugin.trackSubmarine.contains(id)) {
-                                    plugin.trackSubmarine.remove(id);
+                                if (plugin.state.trackSubmarine.contains(id)) {
+                                    plugin.state.trackSubmarine.remove(id);
                                 }
                             }
                             if (safe) {
-                                final Location fl = (plugin.trackSubmarine.contains(id)) ? sub : l;
+                                final Location fl = (plugin.state.trackSubmarine.contains(id)) ? sub : l;
                                 TARDISPluginRespect pr = new TARDISPluginRespect(plugin);
                                 if (pr.getRespect(player, fl, false)) {
                                     // move TARDIS
@@ -117,13 +117,13 @@ public class TARDISHostileDisplacement {
                                     set.put("save", hads);
                                     set.put("current", hads);
                                     qf.doUpdate("tardis", set, tid);
-                                    plugin.trackDamage.remove(Integer.valueOf(id));
+                                    plugin.state.trackDamage.remove(Integer.valueOf(id));
                                     final boolean mat = plugin.getConfig().getBoolean("materialise");
                                     long delay = (mat) ? 1L : 180L;
                                     plugin.getServer().getScheduler().scheduleSyncDelayedTask(plugin, new Runnable() {
                                         @Override
                                         public void run() {
-                                            plugin.tardisDematerialising.add(id);
+                                            plugin.state.tardisDematerialising.add(id);
                                             plugin.destroyPB.destroyPoliceBox(loc, d, id, false, mat, cham, player);
                                         }
                                     }, delay);
@@ -151,7 +151,7 @@ public class TARDISHostileDisplacement {
                                 player.sendMessage(plugin.pluginName + "HADS could not be engaged because the we couldn't find a safe area!");
                             }
                         } else {
-                            plugin.trackDamage.remove(Integer.valueOf(id));
+                            plugin.state.trackDamage.remove(Integer.valueOf(id));
                             player.sendMessage(plugin.pluginName + "HADS could not be engaged because the TARDIS cannot land on water!");
                         }
                     }
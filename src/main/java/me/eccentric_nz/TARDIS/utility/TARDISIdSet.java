@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.utility;
+
+/**
+ * A thread safe set of TARDIS ids, for flags such as whether a TARDIS is
+ * materialising. The ids are held as primitive keys, so checking a flag
+ * doesn't box anything or scan a list.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISIdSet {
+
+    private final TARDISLongIntMap ids = new TARDISLongIntMap();
+
+    /**
+     * Adds a TARDIS id to the set.
+     *
+     * @param id the tardis_id
+     * @return true if the id wasn't already in the set
+     */
+    public synchronized boolean add(int id) {
+        if (ids.containsKey(id)) {
+            return false;
+        }
+        ids.put(id, 1);
+        return true;
+    }
+
+    /**
+     * Removes a TARDIS id from the set.
+     *
+     * @param id the tardis_id
+     * @return true if the id was in the set
+     */
+    public synchronized boolean remove(int id) {
+        return ids.remove(id);
+    }
+
+    public synchronized boolean contains(int id) {
+        return ids.containsKey(id);
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    public synchronized void clear() {
+        for (long id : ids.keys()) {
+            ids.remove(id);
+        }
+    }
+}
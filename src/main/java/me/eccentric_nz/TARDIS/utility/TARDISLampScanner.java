@@ -16,14 +16,17 @@
  */
 package me.eccentric_nz.TARDIS.utility;
 
-import java.util.ArrayList;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.List;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.TARDISConstants;
 import me.eccentric_nz.TARDIS.database.QueryFactory;
-import me.eccentric_nz.TARDIS.database.ResultSetChunks;
 import me.eccentric_nz.TARDIS.database.ResultSetLamps;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
+import me.eccentric_nz.TARDIS.database.TARDISQuery;
+import me.eccentric_nz.TARDIS.database.TARDISRowMapper;
 import org.bukkit.Chunk;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
@@ -58,13 +61,13 @@ public class TARDISLampScanner {
         }
         HashMap<String, Object> where = new HashMap<String, Object>();
         where.put("owner", owner.getName());
-        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+        ResultSetTardis rs = new ResultSetTardis(plugin, where);
         if (rs.resultSet()) {
             int id = rs.getTardis_id();
             // check if they have already got lamp records
             HashMap<String, Object> wherel = new HashMap<String, Object>();
             wherel.put("tardis_id", id);
-            ResultSetLamps rsl = new ResultSetLamps(plugin, wherel, false);
+            ResultSetLamps rsl = new ResultSetLamps(plugin, wherel);
             QueryFactory qf = new QueryFactory(plugin);
             if (rsl.resultSet()) {
                 owner.sendMessage(plugin.pluginName + "Deleting previously stored TARDIS lamps!");
@@ -75,8 +78,14 @@ public class TARDISLampScanner {
             // get the TARDIS console chunks
             HashMap<String, Object> wherec = new HashMap<String, Object>();
             wherec.put("tardis_id", id);
-            ResultSetChunks rsc = new ResultSetChunks(plugin, wherec, true);
-            if (rsc.resultSet()) {
+            List<Chunk> chunks = TARDISQuery.list("chunks", "world, x, z", wherec, new TARDISRowMapper<Chunk>() {
+                @Override
+                public Chunk map(ResultSet rs) throws SQLException {
+                    World world = plugin.getServer().getWorld(rs.getString("world"));
+                    return world.getChunkAt(rs.getInt("x"), rs.getInt("z"));
+                }
+            });
+            if (!chunks.isEmpty()) {
                 int starty, endy;
                 switch (rs.getSchematic()) {
                     case BIGGER:
@@ -100,14 +109,10 @@ public class TARDISLampScanner {
                         endy = 28;
                         break;
                 }
-                ArrayList<HashMap<String, String>> data = rsc.getData();
                 // loop through the chunks
-                for (HashMap<String, String> map : data) {
-                    String w = map.get("world");
-                    World world = plugin.getServer().getWorld(w);
-                    int x = plugin.utils.parseNum(map.get("x"));
-                    int z = plugin.utils.parseNum(map.get("z"));
-                    Chunk chunk = world.getChunkAt(x, z);
+                for (Chunk chunk : chunks) {
+                    World world = chunk.getWorld();
+                    String w = world.getName();
                     // find the lamps in the chunks
                     int bx = chunk.getX() << 4;
                     int bz = chunk.getZ() << 4;
@@ -120,7 +125,7 @@ public class TARDISLampScanner {
                                     HashMap<String, Object> set = new HashMap<String, Object>();
                                     set.put("tardis_id", id);
                                     set.put("location", lamp);
-                                    qf.doInsert("lamps", set);
+                                    qf.queueInsert("lamps", set);
                                     owner.sendMessage("Added lamp at: " + xx + ":" + yy + ":" + zz);
                                 }
                             }
@@ -16,13 +16,13 @@
  */
 package me.eccentric_nz.TARDIS.utility;
 
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Set;
 import me.eccentric_nz.TARDIS.TARDIS;
-import me.eccentric_nz.TARDIS.database.ResultSetAreas;
-import me.eccentric_nz.TARDIS.database.ResultSetDestinations;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
+import me.eccentric_nz.TARDIS.database.TARDISDestination;
+import me.eccentric_nz.TARDIS.travel.TARDISAreaIndex;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 
@@ -63,15 +63,14 @@ public class TARDISLister {
         }
         String playerNameStr = p.getName();
         if (l.equals("areas")) {
-            ResultSetAreas rsa = new ResultSetAreas(TARDIS.plugin, null, true);
+            List<TARDISAreaIndex.Area> areas = TARDIS.plugin.areaIndex.getAreas();
             int a = 1;
-            if (!rsa.resultSet()) {
+            if (areas.isEmpty()) {
                 p.sendMessage(TARDIS.plugin.pluginName + "No areas were found!");
             }
-            ArrayList<HashMap<String, String>> data = rsa.getData();
-            for (HashMap<String, String> map : data) {
-                String name = map.get("area_name");
-                String world = map.get("world");
+            for (TARDISAreaIndex.Area area : areas) {
+                String name = area.getName();
+                String world = area.getWorld();
                 if (a == 1) {
                     p.sendMessage(TARDIS.plugin.pluginName + "Areas");
                 }
@@ -81,7 +80,7 @@ public class TARDISLister {
         } else {
             HashMap<String, Object> where = new HashMap<String, Object>();
             where.put("owner", playerNameStr);
-            ResultSetTardis rst = new ResultSetTardis(TARDIS.plugin, where, "", false);
+            ResultSetTardis rst = new ResultSetTardis(TARDIS.plugin, where);
             if (rst.resultSet()) {
                 int id = rst.getTardis_id();
                 // list TARDIS saves
@@ -92,22 +91,15 @@ public class TARDISLister {
                     p.sendMessage(ChatColor.GRAY + "Saves");
                     p.sendMessage(ChatColor.GREEN + "HOME: " + h_data[0] + " at x:" + h_data[1] + " y:" + h_data[2] + " z:" + h_data[3]);
                     // list other saved destinations
-                    HashMap<String, Object> whered = new HashMap<String, Object>();
-                    whered.put("tardis_id", id);
-                    ResultSetDestinations rsd = new ResultSetDestinations(TARDIS.plugin, whered, true);
                     int i = 1;
-                    if (rsd.resultSet()) {
-                        ArrayList<HashMap<String, String>> data = rsd.getData();
-                        for (HashMap<String, String> map : data) {
-                            if (i == 1) {
-                                p.sendMessage(ChatColor.GRAY + "----------------");
-                            }
-                            String type = map.get("type");
-                            if (type.equals("0")) {
-                                String dn = map.get("dest_name");
-                                p.sendMessage(ChatColor.GREEN + "" + i + ". [" + dn + "]: " + map.get("world") + " at x:" + map.get("x") + " y:" + map.get("y") + " z:" + map.get("z"));
-                                i++;
-                            }
+                    for (TARDISDestination dest : TARDISDestination.list(id)) {
+                        if (i == 1) {
+                            p.sendMessage(ChatColor.GRAY + "----------------");
+                        }
+                        if (dest.getType() == 0) {
+                            String dn = dest.getDest_name();
+                            p.sendMessage(ChatColor.GREEN + "" + i + ". [" + dn + "]: " + dest.getWorld() + " at x:" + dest.getX() + " y:" + dest.getY() + " z:" + dest.getZ());
+                            i++;
                         }
                     }
                 }
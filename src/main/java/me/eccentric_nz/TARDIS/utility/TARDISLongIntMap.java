@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.utility;
+
+/**
+ * A small open addressing hash map with primitive long keys and primitive int
+ * values. Neither lookups nor updates box anything.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISLongIntMap {
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+
+    public TARDISLongIntMap() {
+        this(8);
+    }
+
+    public TARDISLongIntMap(int expected) {
+        int capacity = 8;
+        while (capacity * 3 < expected * 4) {
+            capacity <<= 1;
+        }
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int indexOf(long key) {
+        int i = hash(key) & mask;
+        while (used[i]) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the value mapped to a key.
+     *
+     * @param key the key
+     * @param missing the value to return if the key isn't in the map
+     * @return the mapped value or missing
+     */
+    public int get(long key, int missing) {
+        int i = indexOf(key);
+        return (i < 0) ? missing : values[i];
+    }
+
+    public boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    public void put(long key, int value) {
+        int i = hash(key) & mask;
+        while (used[i]) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        used[i] = true;
+        size++;
+        if (size * 4 > keys.length * 3) {
+            resize(keys.length << 1);
+        }
+    }
+
+    /**
+     * Adds an amount to the value mapped to a key, treating a missing key as
+     * zero.
+     *
+     * @param key the key
+     * @param amount the amount to add
+     * @return the new value
+     */
+    public int increment(long key, int amount) {
+        int v = get(key, 0) + amount;
+        put(key, v);
+        return v;
+    }
+
+    /**
+     * Removes a key from the map.
+     *
+     * @param key the key
+     * @return true if the key was in the map
+     */
+    public boolean remove(long key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return false;
+        }
+        // shift the following entries back so that no probe chain is broken
+        int gap = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (!used[j]) {
+                break;
+            }
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        used[gap] = false;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the keys currently in the map.
+     *
+     * @return a new array of keys
+     */
+    public long[] keys() {
+        long[] k = new long[size];
+        int n = 0;
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                k[n++] = keys[i];
+            }
+        }
+        return k;
+    }
+
+    /**
+     * Gets the values currently in the map.
+     *
+     * @return a new array of values, in the same order as keys()
+     */
+    public int[] values() {
+        int[] v = new int[size];
+        int n = 0;
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                v[n++] = values[i];
+            }
+        }
+        return v;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int j = hash(oldKeys[i]) & mask;
+                while (used[j]) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+                used[j] = true;
+            }
+        }
+    }
+}
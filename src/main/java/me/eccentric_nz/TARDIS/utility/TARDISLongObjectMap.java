@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.utility;
+
+/**
+ * A small open addressing hash map with primitive long keys. Lookups do not
+ * box the key, so probing the map for a block that isn't stored costs no
+ * allocation at all.
+ *
+ * @param <V> the type of the mapped values
+ * @author eccentric_nz
+ */
+public class TARDISLongObjectMap<V> {
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    public TARDISLongObjectMap() {
+        this(16);
+    }
+
+    public TARDISLongObjectMap(int expected) {
+        int capacity = 16;
+        while (capacity * 3 < expected * 4) {
+            capacity <<= 1;
+        }
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int indexOf(long key) {
+        int i = hash(key) & mask;
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int i = indexOf(key);
+        return (i < 0) ? null : (V) values[i];
+    }
+
+    public boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Maps a value to a key.
+     *
+     * @param key the key
+     * @param value the value, must not be null
+     * @return the previously mapped value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not allowed");
+        }
+        int i = hash(key) & mask;
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        if (size * 4 > keys.length * 3) {
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        V old = (V) values[i];
+        // shift the following entries back so that no probe chain is broken
+        int gap = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (values[j] == null) {
+                break;
+            }
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        values[gap] = null;
+        size--;
+        return old;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Gets the keys currently in the map.
+     *
+     * @return a new array of keys
+     */
+    public long[] keys() {
+        long[] k = new long[size];
+        int n = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                k[n++] = keys[i];
+            }
+        }
+        return k;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int j = hash(oldKeys[i]) & mask;
+                while (values[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
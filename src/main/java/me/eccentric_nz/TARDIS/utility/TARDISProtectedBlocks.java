@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.utility;
+
+import java.util.HashMap;
+import org.bukkit.block.Block;
+
+/**
+ * Holds the locations of the Police Box and precious TARDIS blocks that are
+ * protected from griefing and harvesting.
+ *
+ * Blocks are stored per world, then per chunk, in primitive long keyed maps,
+ * so checking whether a block is protected doesn't allocate anything. Each
+ * TARDIS also keeps a list of its own blocks so that they can be forgotten
+ * without scanning every protected block on the server.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISProtectedBlocks {
+
+    private final HashMap<String, TARDISLongObjectMap<TARDISLongIntMap>> worlds = new HashMap<String, TARDISLongObjectMap<TARDISLongIntMap>>();
+    private final HashMap<Integer, Owner> owners = new HashMap<Integer, Owner>();
+    private int size;
+
+    /**
+     * Protects a block.
+     *
+     * @param world the name of the world the block is in
+     * @param x the x co-ordinate of the block
+     * @param y the y co-ordinate of the block
+     * @param z the z co-ordinate of the block
+     * @param id the TARDIS the block belongs to
+     * @param police_box whether the block is part of the Police Box
+     */
+    public void add(String world, int x, int y, int z, int id, boolean police_box) {
+        TARDISLongObjectMap<TARDISLongIntMap> chunks = worlds.get(world);
+        if (chunks == null) {
+            chunks = new TARDISLongObjectMap<TARDISLongIntMap>(256);
+            worlds.put(world, chunks);
+        }
+        long ck = TARDISBlockKey.packChunk(x >> 4, z >> 4);
+        TARDISLongIntMap bucket = chunks.get(ck);
+        if (bucket == null) {
+            bucket = new TARDISLongIntMap();
+            chunks.put(ck, bucket);
+        }
+        long key = TARDISBlockKey.pack(x, y, z);
+        if (!bucket.containsKey(key)) {
+            size++;
+        }
+        bucket.put(key, id);
+        Owner owner = owners.get(id);
+        if (owner == null) {
+            owner = new Owner();
+            owners.put(id, owner);
+        }
+        owner.add(world, key, police_box);
+    }
+
+    public void add(Block b, int id, boolean police_box) {
+        add(b.getWorld().getName(), b.getX(), b.getY(), b.getZ(), id, police_box);
+    }
+
+    /**
+     * Protects a block from a location string stored in the database.
+     *
+     * @param location the location string
+     * @param id the TARDIS the block belongs to
+     * @param police_box whether the block is part of the Police Box
+     * @return true if the location could be parsed
+     */
+    public boolean add(String location, int id, boolean police_box) {
+        TARDISBlockKey bk = TARDISBlockKey.fromString(location);
+        if (bk == null) {
+            return false;
+        }
+        add(bk.getWorld(), bk.getX(), bk.getY(), bk.getZ(), id, police_box);
+        return true;
+    }
+
+    /**
+     * Gets the TARDIS a protected block belongs to.
+     *
+     * @param world the name of the world the block is in
+     * @param x the x co-ordinate of the block
+     * @param y the y co-ordinate of the block
+     * @param z the z co-ordinate of the block
+     * @return the tardis_id or -1 if the block isn't protected
+     */
+    public int getTardisId(String world, int x, int y, int z) {
+        TARDISLongObjectMap<TARDISLongIntMap> chunks = worlds.get(world);
+        if (chunks == null) {
+            return -1;
+        }
+        TARDISLongIntMap bucket = chunks.get(TARDISBlockKey.packChunk(x >> 4, z >> 4));
+        if (bucket == null) {
+            return -1;
+        }
+        return bucket.get(TARDISBlockKey.pack(x, y, z), -1);
+    }
+
+    public int getTardisId(Block b) {
+        return getTardisId(b.getWorld().getName(), b.getX(), b.getY(), b.getZ());
+    }
+
+    public boolean isProtected(Block b) {
+        return getTardisId(b) >= 0;
+    }
+
+    /**
+     * Gets the protected blocks in a chunk.
+     *
+     * @param world the name of the world the chunk is in
+     * @param cx the x co-ordinate of the chunk
+     * @param cz the z co-ordinate of the chunk
+     * @return a map of packed block keys to tardis_ids, or null if the chunk
+     * has no protected blocks
+     */
+    public TARDISLongIntMap getChunk(String world, int cx, int cz) {
+        TARDISLongObjectMap<TARDISLongIntMap> chunks = worlds.get(world);
+        if (chunks == null) {
+            return null;
+        }
+        return chunks.get(TARDISBlockKey.packChunk(cx, cz));
+    }
+
+    /**
+     * Stops protecting all the blocks of a TARDIS.
+     *
+     * @param id the tardis_id
+     */
+    public void removeTardis(int id) {
+        Owner owner = owners.remove(id);
+        if (owner != null) {
+            for (int i = 0; i < owner.n; i++) {
+                remove(owner.worlds[i], owner.keys[i], id);
+            }
+        }
+    }
+
+    /**
+     * Stops protecting the Police Box blocks of a TARDIS, leaving the interior
+     * blocks protected.
+     *
+     * @param id the tardis_id
+     */
+    public void removePoliceBox(int id) {
+        Owner owner = owners.get(id);
+        if (owner == null) {
+            return;
+        }
+        int kept = 0;
+        for (int i = 0; i < owner.n; i++) {
+            if (owner.police_box[i]) {
+                remove(owner.worlds[i], owner.keys[i], id);
+            } else {
+                owner.worlds[kept] = owner.worlds[i];
+                owner.keys[kept] = owner.keys[i];
+                owner.police_box[kept] = false;
+                kept++;
+            }
+        }
+        for (int i = kept; i < owner.n; i++) {
+            owner.worlds[i] = null;
+        }
+        owner.n = kept;
+        if (kept == 0) {
+            owners.remove(id);
+        }
+    }
+
+    /**
+     * Gets the number of protected blocks.
+     *
+     * @return the number of blocks
+     */
+    public int size() {
+        return size;
+    }
+
+    private void remove(String world, long key, int id) {
+        TARDISLongObjectMap<TARDISLongIntMap> chunks = worlds.get(world);
+        if (chunks == null) {
+            return;
+        }
+        long ck = TARDISBlockKey.packChunk(TARDISBlockKey.unpackX(key) >> 4, TARDISBlockKey.unpackZ(key) >> 4);
+        TARDISLongIntMap bucket = chunks.get(ck);
+        // the block may have been taken over by another TARDIS since
+        if (bucket == null || bucket.get(key, -1) != id) {
+            return;
+        }
+        bucket.remove(key);
+        size--;
+        if (bucket.isEmpty()) {
+            chunks.remove(ck);
+        }
+    }
+
+    /**
+     * The blocks belonging to one TARDIS.
+     */
+    private static class Owner {
+
+        String[] worlds = new String[16];
+        long[] keys = new long[16];
+        boolean[] police_box = new boolean[16];
+        int n;
+
+        void add(String world, long key, boolean pb) {
+            if (n == keys.length) {
+                int len = n << 1;
+                String[] w = new String[len];
+                long[] k = new long[len];
+                boolean[] p = new boolean[len];
+                System.arraycopy(worlds, 0, w, 0, n);
+                System.arraycopy(keys, 0, k, 0, n);
+                System.arraycopy(police_box, 0, p, 0, n);
+                worlds = w;
+                keys = k;
+                police_box = p;
+            }
+            worlds[n] = world;
+            keys[n] = key;
+            police_box[n] = pb;
+            n++;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.utility;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import org.bukkit.Chunk;
+
+/**
+ * Holds the chunks that the TARDIS keeps loaded - the chunks Police Boxes are
+ * in, and the chunks rooms are growing in.
+ *
+ * Chunks are stored per world in primitive long keyed maps of reference
+ * counts, so checking a chunk that is unloading doesn't scan a list. A chunk
+ * stays loaded until everything that retained it has released it, so rooms
+ * growing side by side and Police Boxes sharing a chunk don't let it go early.
+ * Each TARDIS retains at most one chunk for its Police Box.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISRetainedChunks {
+
+    private final HashMap<String, TARDISLongIntMap> worlds = new HashMap<String, TARDISLongIntMap>();
+    private final HashMap<Integer, PoliceBoxChunk> police_boxes = new HashMap<Integer, PoliceBoxChunk>();
+
+    /**
+     * Keeps a chunk loaded.
+     *
+     * @param world the name of the world the chunk is in
+     * @param cx the x co-ordinate of the chunk
+     * @param cz the z co-ordinate of the chunk
+     */
+    public void retain(String world, int cx, int cz) {
+        TARDISLongIntMap chunks = worlds.get(world);
+        if (chunks == null) {
+            chunks = new TARDISLongIntMap();
+            worlds.put(world, chunks);
+        }
+        chunks.increment(TARDISBlockKey.packChunk(cx, cz), 1);
+    }
+
+    public void retain(Chunk c) {
+        retain(c.getWorld().getName(), c.getX(), c.getZ());
+    }
+
+    /**
+     * Lets a chunk unload again, once everything that retained it has released
+     * it.
+     *
+     * @param world the name of the world the chunk is in
+     * @param cx the x co-ordinate of the chunk
+     * @param cz the z co-ordinate of the chunk
+     */
+    public void release(String world, int cx, int cz) {
+        TARDISLongIntMap chunks = worlds.get(world);
+        if (chunks == null) {
+            return;
+        }
+        long key = TARDISBlockKey.packChunk(cx, cz);
+        int count = chunks.get(key, 0);
+        if (count <= 1) {
+            chunks.remove(key);
+            if (chunks.isEmpty()) {
+                worlds.remove(world);
+            }
+        } else {
+            chunks.put(key, count - 1);
+        }
+    }
+
+    public void release(Chunk c) {
+        release(c.getWorld().getName(), c.getX(), c.getZ());
+    }
+
+    /**
+     * Keeps the chunk a TARDIS's Police Box is in loaded, releasing the chunk
+     * the Police Box was in before.
+     *
+     * @param id the tardis_id
+     * @param c the chunk the Police Box is in
+     */
+    public void retainPoliceBox(int id, Chunk c) {
+        releasePoliceBox(id);
+        PoliceBoxChunk pbc = new PoliceBoxChunk(c.getWorld().getName(), c.getX(), c.getZ());
+        police_boxes.put(id, pbc);
+        retain(pbc.world, pbc.cx, pbc.cz);
+    }
+
+    /**
+     * Lets the chunk a TARDIS's Police Box was in unload again.
+     *
+     * @param id the tardis_id
+     */
+    public void releasePoliceBox(int id) {
+        PoliceBoxChunk pbc = police_boxes.remove(id);
+        if (pbc != null) {
+            release(pbc.world, pbc.cx, pbc.cz);
+        }
+    }
+
+    /**
+     * Checks whether the TARDIS is keeping a chunk loaded.
+     *
+     * @param c the chunk
+     * @return true if the chunk should not unload
+     */
+    public boolean isRetained(Chunk c) {
+        TARDISLongIntMap chunks = worlds.get(c.getWorld().getName());
+        return chunks != null && chunks.containsKey(TARDISBlockKey.packChunk(c.getX(), c.getZ()));
+    }
+
+    /**
+     * Counts the chunks being kept loaded in each world.
+     *
+     * @return a map of world names to chunk counts, sorted by world name
+     */
+    public Map<String, Integer> getCounts() {
+        TreeMap<String, Integer> counts = new TreeMap<String, Integer>();
+        for (Map.Entry<String, TARDISLongIntMap> entry : worlds.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().size());
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the number of Police Boxes keeping a chunk loaded.
+     *
+     * @return the number of Police Boxes
+     */
+    public int getPoliceBoxCount() {
+        return police_boxes.size();
+    }
+
+    /**
+     * The chunk a Police Box is in.
+     */
+    private static class PoliceBoxChunk {
+
+        final String world;
+        final int cx, cz;
+
+        PoliceBoxChunk(String world, int cx, int cz) {
+            this.world = world;
+            this.cx = cx;
+            this.cz = cz;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.utility;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import me.eccentric_nz.TARDIS.TARDIS;
+import me.eccentric_nz.TARDIS.info.TARDISInfoMenu;
+import org.bukkit.block.Block;
+import org.bukkit.block.Sign;
+
+/**
+ * Tracks what players and TARDISes are in the middle of - a rescue waiting to
+ * be accepted, a TARDIS materialising, a page of the TARDIS Information System
+ * - between one event and the next.
+ *
+ * Every map and set here is safe to use from the asynchronous chat events as
+ * well as the main thread. Player state that should only last a while is put
+ * with a time to live, and is forgotten by itself. Flags kept per TARDIS are
+ * held in primitive id sets.
+ *
+ * @author eccentric_nz
+ */
+public class TARDISSessionState implements Runnable {
+
+    private final TARDIS plugin;
+    private int task = -1;
+    public final TARDISStateMap<String, String> trackPlayers = new TARDISStateMap<String, String>();
+    public final TARDISStateMap<String, Integer> trackBinder = new TARDISStateMap<String, Integer>();
+    public final TARDISStateMap<String, String> trackChat = new TARDISStateMap<String, String>();
+    public final TARDISStateMap<String, String> trackName = new TARDISStateMap<String, String>();
+    public final TARDISStateMap<String, String> trackBlock = new TARDISStateMap<String, String>();
+    public final TARDISStateMap<String, String> trackEnd = new TARDISStateMap<String, String>();
+    public final TARDISStateMap<String, String> trackPerm = new TARDISStateMap<String, String>();
+    public final TARDISStateMap<String, String> trackRoomSeed = new TARDISStateMap<String, String>();
+    public final TARDISStateMap<String, String> trackJettison = new TARDISStateMap<String, String>();
+    public final TARDISStateMap<String, String> trackSecondary = new TARDISStateMap<String, String>();
+    public final TARDISStateMap<String, Double[]> trackGravity = new TARDISStateMap<String, Double[]>();
+    public final TARDISStateMap<Integer, String> trackRescue = new TARDISStateMap<Integer, String>();
+    public final TARDISStateMap<Integer, Integer> trackDamage = new TARDISStateMap<Integer, Integer>();
+    public final TARDISStateMap<Integer, Integer> tardisHasDestination = new TARDISStateMap<Integer, Integer>();
+    public final TARDISStateMap<String, Block> trackExterminate = new TARDISStateMap<String, Block>();
+    public final TARDISStateMap<String, Long> trackSetTime = new TARDISStateMap<String, Long>();
+    public final TARDISStateMap<String, TARDISInfoMenu> trackInfoMenu = new TARDISStateMap<String, TARDISInfoMenu>();
+    public final TARDISStateMap<String, Sign> trackSign = new TARDISStateMap<String, Sign>();
+    public final Set<String> trackRecipeView = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    public final Set<String> trackReset = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    public final Set<String> trackFarming = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    public final TARDISIdSet trackMinecart = new TARDISIdSet();
+    public final TARDISIdSet trackSubmarine = new TARDISIdSet();
+    public final TARDISIdSet trackARS = new TARDISIdSet();
+    public final TARDISIdSet tardisMaterialising = new TARDISIdSet();
+    public final TARDISIdSet tardisDematerialising = new TARDISIdSet();
+
+    public TARDISSessionState(TARDIS plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Starts sweeping the expired entries out of the maps once a minute.
+     */
+    public void start() {
+        if (task < 0) {
+            task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, this, 1200L, 1200L);
+        }
+    }
+
+    @Override
+    public void run() {
+        trackName.purge();
+        trackBlock.purge();
+        trackEnd.purge();
+        trackExterminate.purge();
+    }
+}
@@ -17,11 +17,9 @@
 package me.eccentric_nz.TARDIS.utility;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Random;
 import me.eccentric_nz.TARDIS.TARDIS;
 import me.eccentric_nz.TARDIS.database.ResultSetPlayerPrefs;
-import me.eccentric_nz.TARDIS.database.ResultSetTravellers;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
@@ -46,28 +44,26 @@ public class TARDISSounds {
      */
     public static void randomTARDISSound() {
         if (TARDIS.plugin.getConfig().getBoolean("sfx") == true) {
-            ResultSetTravellers rs = new ResultSetTravellers(TARDIS.plugin, null, true);
-            if (rs.resultSet()) {
-                List<String> data = rs.getData();
-                for (String s : data) {
-                    HashMap<String, Object> where = new HashMap<String, Object>();
-                    where.put("player", s);
-                    ResultSetPlayerPrefs rsp = new ResultSetPlayerPrefs(TARDIS.plugin, where);
-                    boolean userSFX;
-                    if (rsp.resultSet()) {
-                        userSFX = rsp.isSFX_on();
-                    } else {
-                        userSFX = true;
-                    }
-                    final Player player = Bukkit.getServer().getPlayer(s);
-                    if (player != null) {
-                        if (SpoutManager.getPlayer(player).isSpoutCraftEnabled() && userSFX) {
-                            int i = rand.nextInt(12);
-                            final String sfx = "https://dl.dropboxusercontent.com/u/53758864/soundeffects/drwho" + i + ".mp3";
-                            final Location location = player.getLocation();
-                            SpoutManager.getSoundManager().playCustomSoundEffect(TARDIS.plugin, SpoutManager.getPlayer(player), sfx, false, location, 9, 75);
-                        }
-                    }
+            for (String s : TARDIS.plugin.travellers.getTravellers()) {
+                // only online players, whose prefs are in the row cache
+                final Player player = Bukkit.getServer().getPlayerExact(s);
+                if (player == null || !SpoutManager.getPlayer(player).isSpoutCraftEnabled()) {
+                    continue;
+                }
+                HashMap<String, Object> where = new HashMap<String, Object>();
+                where.put("player", s);
+                ResultSetPlayerPrefs rsp = new ResultSetPlayerPrefs(TARDIS.plugin, where);
+                boolean userSFX;
+                if (rsp.resultSet()) {
+                    userSFX = rsp.isSFX_on();
+                } else {
+                    userSFX = true;
+                }
+                if (userSFX) {
+                    int i = rand.nextInt(12);
+                    final String sfx = "https://dl.dropboxusercontent.com/u/53758864/soundeffects/drwho" + i + ".mp3";
+                    final Location location = player.getLocation();
+                    SpoutManager.getSoundManager().playCustomSoundEffect(TARDIS.plugin, SpoutManager.getPlayer(player), sfx, false, location, 9, 75);
                 }
             }
         }
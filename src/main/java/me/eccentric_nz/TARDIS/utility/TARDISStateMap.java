@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2013 eccentric_nz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.eccentric_nz.TARDIS.utility;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread safe map of per player (or per TARDIS) state, whose entries can be
+ * given a time to live. An entry that has expired is treated as missing, and
+ * is swept away by purge(), so nothing needs to be scheduled to forget it.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @author eccentric_nz
+ */
+public class TARDISStateMap<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> map = new ConcurrentHashMap<K, Entry<V>>();
+
+    /**
+     * Maps a key to a value that doesn't expire.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public void put(K key, V value) {
+        map.put(key, new Entry<V>(value, 0L));
+    }
+
+    /**
+     * Maps a key to a value that is forgotten after a number of seconds.
+     *
+     * @param key the key
+     * @param value the value
+     * @param seconds the time to live
+     */
+    public void put(K key, V value, long seconds) {
+        map.put(key, new Entry<V>(value, System.currentTimeMillis() + seconds * 1000L));
+    }
+
+    /**
+     * Gives the value a key is mapped to a time to live, starting now.
+     *
+     * @param key the key
+     * @param seconds the time to live
+     */
+    public void expire(K key, long seconds) {
+        V value = get(key);
+        if (value != null) {
+            put(key, value, seconds);
+        }
+    }
+
+    /**
+     * Gets the value a key is mapped to.
+     *
+     * @param key the key
+     * @return the value, or null if there is none or it has expired
+     */
+    public V get(K key) {
+        Entry<V> e = map.get(key);
+        if (e == null) {
+            return null;
+        }
+        if (e.isExpired(System.currentTimeMillis())) {
+            map.remove(key, e);
+            return null;
+        }
+        return e.value;
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Removes a key. Only one caller gets the value back, so a check and
+     * remove made from two threads at once can't both succeed.
+     *
+     * @param key the key
+     * @return the value it was mapped to, or null if there was none or it had
+     * expired
+     */
+    public V remove(K key) {
+        Entry<V> e = map.remove(key);
+        if (e == null || e.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        return e.value;
+    }
+
+    /**
+     * Gets the keys whose values haven't expired.
+     *
+     * @return a new set of keys
+     */
+    public Set<K> keySet() {
+        long now = System.currentTimeMillis();
+        Set<K> keys = new HashSet<K>();
+        for (Map.Entry<K, Entry<V>> e : map.entrySet()) {
+            if (!e.getValue().isExpired(now)) {
+                keys.add(e.getKey());
+            }
+        }
+        return keys;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    /**
+     * Removes the entries that have expired.
+     *
+     * @return the number of entries removed
+     */
+    public int purge() {
+        long now = System.currentTimeMillis();
+        int purged = 0;
+        Iterator<Entry<V>> it = map.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().isExpired(now)) {
+                it.remove();
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    private static class Entry<V> {
+
+        final V value;
+        final long expires;
+
+        Entry(V value, long expires) {
+            this.value = value;
+            this.expires = expires;
+        }
+
+        boolean isExpired(long now) {
+            return expires > 0 && now >= expires;
+        }
+    }
+}
@@ -24,6 +24,7 @@ import me.eccentric_nz.TARDIS.TARDISConstants;
 import me.eccentric_nz.TARDIS.database.QueryFactory;
 import me.eccentric_nz.TARDIS.database.ResultSetChunks;
 import me.eccentric_nz.TARDIS.database.ResultSetTardis;
+import me.eccentric_nz.TARDIS.database.TARDISBuildSession;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
@@ -100,10 +101,28 @@ public class TARDISUtils {
      * @param id the TARDIS this block belongs to.
      */
     public void setBlockAndRemember(World w, int x, int y, int z, int m, byte d, int id) {
+        setBlockAndRemember(w, x, y, z, m, d, id, null);
+    }
+
+    /**
+     * Sets a block to the specified typeId and data and remembers its location,
+     * typeId and data in a build session. The block is protected when the
+     * session is committed.
+     *
+     * @param w the world the block is in.
+     * @param x the x co-ordinate of the block.
+     * @param y the y co-ordinate of the block.
+     * @param z the z co-ordinate of the block.
+     * @param m the typeId to set the block to.
+     * @param d the data bit to set the block to.
+     * @param id the TARDIS this block belongs to.
+     * @param session the build session to add the block to, or null to save
+     * it straight away.
+     */
+    public void setBlockAndRemember(World w, int x, int y, int z, int m, byte d, int id, TARDISBuildSession session) {
         Block b = w.getBlockAt(x, y, z);
         // save the block location so that we can protect it from damage and restore it (if it wasn't air)!
         String l = b.getLocation().toString();
-        QueryFactory qf = new QueryFactory(plugin);
         HashMap<String, Object> set = new HashMap<String, Object>();
         set.put("tardis_id", id);
         set.put("location", l);
@@ -114,8 +133,13 @@ public class TARDISUtils {
             set.put("data", data);
         }
         set.put("police_box", 1);
-        qf.doInsert("blocks", set);
-        plugin.protectBlockMap.put(l, id);
+        if (session != null) {
+            session.insert("blocks", set);
+        } else {
+            QueryFactory qf = new QueryFactory(plugin);
+            qf.queueInsert("blocks", set);
+            plugin.protectBlocks.add(b, id, true);
+        }
         // set the block
         b.setTypeIdAndData(m, d, true);
     }
@@ -162,7 +186,7 @@ public class TARDISUtils {
         int cx, cz;
         HashMap<String, Object> where = new HashMap<String, Object>();
         where.put("tardis_id", id);
-        ResultSetTardis rs = new ResultSetTardis(plugin, where, "", false);
+        ResultSetTardis rs = new ResultSetTardis(plugin, where);
         if (rs.resultSet()) {
             String chunkstr = rs.getChunk();
             String[] split = chunkstr.split(":");
@@ -252,7 +276,7 @@ public class TARDISUtils {
                 where.put("world", w);
                 where.put("x", (x + cx));
                 where.put("z", (z + cl));
-                ResultSetChunks rs = new ResultSetChunks(plugin, where, false);
+                ResultSetChunks rs = new ResultSetChunks(plugin, where);
                 if (rs.resultSet()) {
                     chunkchk = true;
                 }